@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core;
+
+/**
+ * An {@link Appender} that can append several events in one call.
+ * <p>
+ * Asynchronous loggers and appenders hand the events they took from their queue in one go to the appenders
+ * implementing this interface, so an appender can acquire its locks, connections or transactions once for the whole
+ * batch and write or flush once at the end of it instead of once per event. Appenders that don't implement this
+ * interface receive the events of a batch one at a time through {@link #append(LogEvent)}.
+ * </p>
+ * <p>
+ * The events have passed all filters by the time this method is called. The last event of a batch that ends the
+ * batch of the asynchronous queue has its {@link LogEvent#isEndOfBatch() endOfBatch} flag set.
+ * </p>
+ *
+ * @since 3.0
+ */
+public interface BatchAppender extends Appender {
+
+    /**
+     * Logs the first {@code count} events of the specified array. Implementations must not keep a reference to the
+     * array or to mutable events after this method returns.
+     *
+     * @param events The LogEvents; only the first {@code count} elements are valid.
+     * @param count The number of events to log.
+     */
+    void appendBatch(LogEvent[] events, int count);
+}
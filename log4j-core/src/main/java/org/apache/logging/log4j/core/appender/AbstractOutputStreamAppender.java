@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender;
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -31,7 +32,8 @@ import org.apache.logging.log4j.core.util.Constants;
  *
  * @param <M> The kind of {@link OutputStreamManager} under management
  */
-public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender {
+public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager> extends AbstractAppender
+        implements BatchAppender {
 
     /**
      * Subclasses can extend this abstract Builder. 
@@ -168,8 +170,43 @@ public abstract class AbstractOutputStreamAppender<M extends OutputStreamManager
         }
     }
 
+    /**
+     * Writes a batch of events while holding the manager's lock once. The stream is flushed once after the last event
+     * if {@code immediateFlush} is set or if the batch ends the batch of the asynchronous queue.
+     * <p>
+     * Subclasses that override {@link #append(LogEvent)} to prepare the manager for an event should override this
+     * method as well. If the manager has a writer thread, the events are passed to {@link #append(LogEvent)} one by one
+     * so that they are queued behind the events of other threads.
+     * </p>
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to write.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        if (count == 0) {
+            return;
+        }
+        if (manager.getConcurrentWriter() != null) {
+            for (int i = 0; i < count; i++) {
+                append(events[i]);
+            }
+            return;
+        }
+        try {
+            manager.writeBatch(getLayout(), events, count, this.immediateFlush || events[count - 1].isEndOfBatch());
+        } catch (final AppenderLoggingException ex) {
+            error("Unable to write to stream " + manager.getName() + " for appender " + getName(), events[0], ex);
+            throw ex;
+        }
+    }
+
     private void tryAppend(final LogEvent event) {
-        if (Constants.ENABLE_DIRECT_ENCODERS) {
+        final ConcurrentWriter writer = manager.getConcurrentWriter();
+        if (writer != null) {
+            // encoded on this thread without locking, written and flushed by the manager's writer thread
+            writer.append(getLayout(), event);
+        } else if (Constants.ENABLE_DIRECT_ENCODERS) {
             directEncodeEvent(event);
         } else {
             writeByteArrayToManager(event);
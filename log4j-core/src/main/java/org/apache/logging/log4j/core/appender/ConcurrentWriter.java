@@ -0,0 +1,395 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+
+/**
+ * Lets many threads encode log events for one {@link OutputStreamManager} at the same time and a single thread write
+ * them.
+ * <p>
+ * Every logging thread encodes events into a chunk of memory of its own and publishes each finished event as a slice
+ * of that chunk in a bounded lock-free queue, so encoding never takes the manager's lock. A writer thread drains the
+ * queue while holding the manager's lock and writes up to {@value #MAX_GATHER} slices with one gathering write. A
+ * chunk goes back to the pool once all its slices are written. Chunks are direct buffers if the manager's own buffer
+ * is direct.
+ * </p>
+ * <p>
+ * The slots of the queue, the chunks and the buffers the writer passes to the gathering write are reused, so events
+ * that fit in a chunk are written without allocating. If the writer falls behind by more than the queue limit, or the
+ * queue is full, logging threads drain the queue themselves, which blocks them on the manager's lock like in the
+ * default mode.
+ * </p>
+ */
+final class ConcurrentWriter {
+
+    /** Maximum number of slices written with one gathering write. */
+    static final int MAX_GATHER = 64;
+
+    /** Number of slots of the queue, a power of two. */
+    static final int QUEUE_SIZE = 1024;
+
+    /** Number of chunks worth of bytes that may be queued before logging threads drain the queue themselves. */
+    private static final int MAX_QUEUED_CHUNKS = 32;
+
+    /** Upper bound of the writer's sleep, in case a logging thread's wake-up call is missed. */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final OutputStreamManager manager;
+    private final int chunkSize;
+    private final boolean direct;
+    private final long maxQueuedBytes;
+    private final Slot[] slots = new Slot[QUEUE_SIZE];
+    private final AtomicLong tail = new AtomicLong();
+    private final BlockingQueue<Chunk> freeChunks = new ArrayBlockingQueue<>(2 * MAX_QUEUED_CHUNKS);
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final ThreadLocal<ThreadBuffer> threadBuffers = new ThreadLocal<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean parked;
+
+    // only written while holding the manager's lock
+    private volatile long head;
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private final List<Chunk> retired = new ArrayList<>();
+
+    ConcurrentWriter(final OutputStreamManager manager, final int chunkSize, final boolean direct) {
+        this.manager = manager;
+        this.chunkSize = chunkSize;
+        this.direct = direct;
+        this.maxQueuedBytes = (long) chunkSize * MAX_QUEUED_CHUNKS;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.thread = Log4jThreadFactory.createDaemonThreadFactory("OutputStreamWriter-" + manager.getName())
+                .newThread(this::run);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the writer thread and waits for it to finish. Slices that are still queued are written by the next call to
+     * {@link #drain()}; events appended after this call are written by the appending thread.
+     *
+     * @return true if the writer thread finished within the timeout.
+     */
+    boolean stop(final long timeout, final TimeUnit timeUnit) {
+        running = false;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join(timeout > 0 ? timeUnit.toMillis(timeout) : 0);
+            } catch (final InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return !thread.isAlive();
+    }
+
+    /**
+     * Encodes the event on the calling thread and queues it for the writer thread.
+     */
+    void append(final Layout<?> layout, final LogEvent event) {
+        ThreadBuffer buffer = threadBuffers.get();
+        if (buffer == null) {
+            buffer = new ThreadBuffer();
+            threadBuffers.set(buffer);
+        }
+        try {
+            if (Constants.ENABLE_DIRECT_ENCODERS) {
+                layout.encode(event, buffer);
+            } else {
+                final byte[] bytes = layout.toByteArray(event);
+                if (bytes != null) {
+                    buffer.writeBytes(bytes, 0, bytes.length);
+                }
+            }
+            buffer.publish();
+        } catch (final RuntimeException ex) {
+            buffer.discard();
+            throw ex;
+        }
+        if (!running) {
+            // the writer was stopped after this thread looked it up, and its last drain may have missed this event
+            drainNow();
+        } else if (queuedBytes.get() > maxQueuedBytes) {
+            manager.flush();
+        } else if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Writes all queued slices. Callers must hold the manager's lock.
+     */
+    void drain() {
+        int count = 0;
+        long bytes = 0;
+        Slot slot;
+        while ((slot = peek()) != null) {
+            final Chunk chunk = slot.chunk;
+            if (slot.retired) {
+                retired.add(chunk);
+            } else {
+                gather[count] = chunk.view(count, slot.start, slot.end);
+                count++;
+                bytes += slot.end - slot.start;
+            }
+            release(slot);
+            if (count == MAX_GATHER) {
+                write(count, bytes);
+                count = 0;
+                bytes = 0;
+            }
+        }
+        write(count, bytes);
+    }
+
+    private void drainNow() {
+        synchronized (manager) {
+            drain();
+        }
+    }
+
+    private void write(final int count, final long bytes) {
+        try {
+            if (count > 0) {
+                manager.writeToDestination(gather, 0, count);
+            }
+        } finally {
+            Arrays.fill(gather, 0, count, null);
+            queuedBytes.addAndGet(-bytes);
+            // all slices of a retired chunk precede the chunk in the queue, so they have been written now
+            for (int i = 0; i < retired.size(); i++) {
+                final Chunk chunk = retired.get(i);
+                if (chunk.buffer.capacity() == chunkSize) {
+                    ((Buffer) chunk.buffer).clear();
+                    freeChunks.offer(chunk);
+                }
+            }
+            retired.clear();
+        }
+    }
+
+    private boolean isEmpty() {
+        return head == tail.get();
+    }
+
+    private void run() {
+        while (running) {
+            if (isEmpty()) {
+                parked = true;
+                if (isEmpty() && running) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                parked = false;
+            } else {
+                try {
+                    manager.flush();
+                } catch (final RuntimeException ex) {
+                    manager.logError("Unable to write queued events", ex);
+                }
+            }
+        }
+    }
+
+    private Chunk takeChunk() {
+        final Chunk chunk = freeChunks.poll();
+        if (chunk != null) {
+            return chunk;
+        }
+        return new Chunk(direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize));
+    }
+
+    private void enqueue(final Chunk chunk, final int start, final int end, final boolean retired) {
+        while (!offer(chunk, start, end, retired)) {
+            // the queue is full
+            drainNow();
+        }
+    }
+
+    private boolean offer(final Chunk chunk, final int start, final int end, final boolean retired) {
+        while (true) {
+            final long position = tail.get();
+            final Slot slot = slots[(int) position & (QUEUE_SIZE - 1)];
+            final long difference = slot.sequence - position;
+            if (difference < 0) {
+                // the slot still holds a slice from the previous round
+                return false;
+            }
+            if (difference == 0 && tail.compareAndSet(position, position + 1)) {
+                slot.chunk = chunk;
+                slot.start = start;
+                slot.end = end;
+                slot.retired = retired;
+                slot.sequence = position + 1;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the oldest published slot, or null. Callers must hold the manager's lock.
+     */
+    private Slot peek() {
+        final long position = head;
+        final Slot slot = slots[(int) position & (QUEUE_SIZE - 1)];
+        return slot.sequence == position + 1 ? slot : null;
+    }
+
+    private void release(final Slot slot) {
+        final long position = head;
+        slot.chunk = null;
+        slot.sequence = position + QUEUE_SIZE;
+        head = position + 1;
+    }
+
+    /**
+     * A slot of the queue. A producer claims the slot by advancing the tail and publishes the slice by setting the
+     * sequence, which the writer reads before the other fields.
+     */
+    private static final class Slot {
+        volatile long sequence;
+        Chunk chunk;
+        int start;
+        int end;
+        boolean retired;
+
+        Slot(final long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * A chunk of memory with the views the writer hands to the gathering write; the views are only accessed while
+     * holding the manager's lock.
+     */
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        private final ByteBuffer[] views = new ByteBuffer[MAX_GATHER];
+
+        Chunk(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        ByteBuffer view(final int index, final int start, final int end) {
+            ByteBuffer view = views[index];
+            if (view == null) {
+                view = buffer.duplicate();
+                views[index] = view;
+            }
+            ((Buffer) view).limit(end);
+            ((Buffer) view).position(start);
+            return view;
+        }
+    }
+
+    /**
+     * The chunk a logging thread encodes its events into. Only the owning thread accesses it.
+     */
+    private final class ThreadBuffer implements ByteBufferDestination {
+        private Chunk chunk = takeChunk();
+        private int eventStart;
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return chunk.buffer;
+        }
+
+        /**
+         * Called when the event being encoded does not fit in the rest of the chunk: moves the bytes encoded so far to
+         * a chunk with more space, since the bytes of one event must be written together.
+         */
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            final ByteBuffer current = chunk.buffer;
+            final int length = current.position() - eventStart;
+            // oversized chunks are used once, and direct memory is expensive to allocate, so they are heap buffers
+            final Chunk next = length < chunkSize / 2 ? takeChunk() : new Chunk(ByteBuffer.allocate(2 * length));
+            for (int i = eventStart; i < eventStart + length; i++) {
+                next.buffer.put(current.get(i));
+            }
+            ((Buffer) current).position(eventStart);
+            retire();
+            chunk = next;
+            eventStart = 0;
+            return next.buffer;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        /**
+         * Queues the event that was encoded last.
+         */
+        void publish() {
+            final int end = chunk.buffer.position();
+            if (end > eventStart) {
+                queuedBytes.addAndGet(end - eventStart);
+                enqueue(chunk, eventStart, end, false);
+                eventStart = end;
+            }
+            if (chunk.buffer.remaining() < chunkSize / 4) {
+                retire();
+                chunk = takeChunk();
+                eventStart = 0;
+            }
+        }
+
+        /**
+         * Drops the bytes of an event that could not be encoded.
+         */
+        void discard() {
+            ((Buffer) chunk.buffer).position(eventStart);
+        }
+
+        private void retire() {
+            if (eventStart > 0) {
+                enqueue(chunk, 0, 0, true);
+            } else if (chunk.buffer.capacity() == chunkSize) {
+                // nothing of this chunk was queued
+                ((Buffer) chunk.buffer).clear();
+                freeChunks.offer(chunk);
+            }
+        }
+    }
+}
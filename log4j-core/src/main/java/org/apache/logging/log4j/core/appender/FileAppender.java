@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
@@ -77,6 +78,9 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean writerThread;
+
         @Override
         public FileAppender build() {
             boolean bufferedIo = isBufferedIo();
@@ -95,6 +99,13 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             if (manager == null) {
                 return null;
             }
+            if (writerThread) {
+                manager.startWriterThread();
+            } else {
+                // a manager reused from the previous configuration may still have one
+                manager.stopWriterThread(AbstractLifeCycle.DEFAULT_STOP_TIMEOUT,
+                        AbstractLifeCycle.DEFAULT_STOP_TIMEUNIT);
+            }
 
             return new FileAppender(getName(), layout, getFilter(), manager, fileName, isIgnoreExceptions(),
                     !bufferedIo || isImmediateFlush(), advertise ? getConfiguration().getAdvertiser() : null, getPropertyArray());
@@ -136,6 +147,10 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return fileGroup;
         }
 
+        public boolean isWriterThread() {
+            return writerThread;
+        }
+
         public B setAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -181,6 +196,18 @@ public final class FileAppender extends AbstractOutputStreamAppender<FileManager
             return asBuilder();
         }
 
+        /**
+         * Sets whether logging threads encode events concurrently and a dedicated thread writes them to the file.
+         *
+         * @param writerThread {@code true} to write from a dedicated thread
+         * @return this builder
+         * @since 3.0
+         */
+        public B setWriterThread(final boolean writerThread) {
+            this.writerThread = writerThread;
+            return asBuilder();
+        }
+
     }
     
     private static final int DEFAULT_BUFFER_SIZE = 8192;
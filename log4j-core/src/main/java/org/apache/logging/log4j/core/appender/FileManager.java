@@ -223,6 +223,47 @@ public class FileManager extends OutputStreamManager {
         }
     }
 
+    /**
+     * Overrides {@link OutputStreamManager#writeToDestination(ByteBuffer[], int, int)} to write all buffers with one
+     * gathering write to the file's channel, unless the file must be locked.
+     *
+     * @since 3.0
+     */
+    @Override
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers, final int offset, final int length) {
+        if (isLocking) {
+            super.writeToDestination(buffers, offset, length);
+            return;
+        }
+        try {
+            final OutputStream stream = getOutputStream();
+            if (stream instanceof FileOutputStream) {
+                writeToChannel(((FileOutputStream) stream).getChannel(), buffers, offset, length);
+            } else {
+                super.writeToDestination(buffers, offset, length);
+            }
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Error writing to stream " + getName(), ex);
+        }
+    }
+
+    /**
+     * Writes the buffers with one gathering write to the file's channel. Called by
+     * {@link #writeToDestination(ByteBuffer[], int, int)} if the file is not locked and written without a compressing
+     * stream; otherwise the buffers are written with {@link #writeToDestination(byte[], int, int)}.
+     *
+     * @param channel the channel of the file
+     * @param buffers the buffers to write
+     * @param offset the index of the first buffer to write
+     * @param length the number of buffers to write
+     * @throws IOException if the channel cannot be written to
+     * @since 3.0
+     */
+    protected void writeToChannel(final FileChannel channel, final ByteBuffer[] buffers, final int offset,
+            final int length) throws IOException {
+        writeFully(channel, buffers, offset, length);
+    }
+
     /**
      * Returns the name of the File being managed.
      * @return The name of the File being managed.
@@ -379,7 +420,9 @@ public class FileManager extends OutputStreamManager {
                 FileUtils.makeParentDirs(file);
                 final boolean writeHeader = !data.append || !file.exists();
                 final int actualSize = data.bufferedIo ? data.bufferSize : Constants.ENCODER_BYTE_BUFFER_SIZE;
-                final ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[actualSize]);
+                // a locking manager writes through the stream, so it has no use for a direct buffer
+                final ByteBuffer byteBuffer = data.locking ? ByteBuffer.wrap(new byte[actualSize])
+                        : allocateFileBuffer(actualSize);
                 final FileOutputStream fos = data.createOnDemand ? null : new FileOutputStream(file, data.append);
                 final FileManager fm = new FileManager(data.getLoggerContext(), name, fos, data.append, data.locking,
                         data.createOnDemand, data.advertiseURI, data.layout,
@@ -169,6 +169,20 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
         super.append(event); // TODO should only call force() if immediateFlush && endOfBatch?
     }
 
+    /**
+     * Signals the end of the batch to the manager like {@link #append(LogEvent)} does for single events.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to write.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        if (count > 0) {
+            getManager().setEndOfBatch(events[count - 1].isEndOfBatch());
+        }
+        super.appendBatch(events, count);
+    }
+
     /**
      * Returns the file name this appender is associated with.
      *
@@ -195,7 +209,7 @@ public final class MemoryMappedFileAppender extends AbstractOutputStreamAppender
     /**
      * Converts the specified region length to a valid value.
      */
-    private static int determineValidRegionLength(final String name, final int regionLength) {
+    static int determineValidRegionLength(final String name, final int regionLength) {
         if (regionLength > MAX_REGION_LENGTH) {
             LOGGER.info("MemoryMappedAppender[{}] Reduced region length from {} to max length: {}", name, regionLength,
                     MAX_REGION_LENGTH);
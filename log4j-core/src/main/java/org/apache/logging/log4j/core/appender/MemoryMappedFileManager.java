@@ -210,7 +210,15 @@ public class MemoryMappedFileManager extends OutputStreamManager {
         }
     }
 
-    private static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
+    /**
+     * Releases the mapping of the specified buffer without waiting for it to be garbage collected. The buffer must not
+     * be accessed afterwards.
+     *
+     * @param mbb the buffer to unmap
+     * @throws PrivilegedActionException if the buffer's cleaner cannot be invoked
+     * @since 3.0
+     */
+    public static void unsafeUnmap(final MappedByteBuffer mbb) throws PrivilegedActionException {
         LOGGER.debug("MMapAppender unmapping old buffer...");
         final long startNanos = System.nanoTime();
         AccessController.doPrivileged(new PrivilegedExceptionAction<Object>() {
@@ -21,10 +21,12 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
@@ -38,6 +40,9 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     protected final Layout<?> layout;
     protected ByteBuffer byteBuffer;
     private volatile OutputStream outputStream;
+    private volatile ConcurrentWriter concurrentWriter;
+    private final ByteBuffer[] flushBuffers = new ByteBuffer[1];
+    private byte[] copyBuffer;
     private boolean skipFooter;
 
     protected OutputStreamManager(final OutputStream os, final String streamName, final Layout<?> layout,
@@ -127,11 +132,65 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         this.skipFooter = skipFooter;
     }
 
+    /**
+     * Starts a writer thread for this manager. Appenders that use the writer thread encode events on the logging
+     * threads without taking this manager's lock; the writer thread writes the encoded events to the stream. Does
+     * nothing if the writer thread is already running.
+     *
+     * @since 3.0
+     */
+    public synchronized void startWriterThread() {
+        if (concurrentWriter == null) {
+            concurrentWriter = new ConcurrentWriter(this, Constants.ENCODER_BYTE_BUFFER_SIZE, byteBuffer.isDirect());
+            concurrentWriter.start();
+        }
+    }
+
+    /**
+     * Stops the writer thread of this manager, if any, and writes the events it has queued. Appenders then write events
+     * while holding this manager's lock again.
+     *
+     * @param timeout the maximum time to wait for the writer thread to finish
+     * @param timeUnit the unit of {@code timeout}
+     * @return true if there was no writer thread or it finished within the timeout.
+     * @since 3.0
+     */
+    public boolean stopWriterThread(final long timeout, final TimeUnit timeUnit) {
+        final ConcurrentWriter writer = concurrentWriter;
+        if (writer == null) {
+            return true;
+        }
+        // the writer thread takes this manager's lock to write, so it is joined without holding the lock
+        final boolean stopped = writer.stop(timeout, timeUnit);
+        synchronized (this) {
+            if (concurrentWriter == writer) {
+                concurrentWriter = null;
+            }
+            writer.drain();
+        }
+        return stopped;
+    }
+
+    /**
+     * Returns whether this manager has a writer thread.
+     *
+     * @return true if {@link #startWriterThread()} was called.
+     * @since 3.0
+     */
+    public boolean hasWriterThread() {
+        return concurrentWriter != null;
+    }
+
+    ConcurrentWriter getConcurrentWriter() {
+        return concurrentWriter;
+    }
+
     /**
      * Default hook to write footer during close.
      */
     @Override
     public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        stopWriterThread(timeout, timeUnit);
         writeFooter();
         return closeOutputStream();
     }
@@ -145,6 +204,10 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
         final byte[] footer = layout.getFooter();
         if (footer != null) {
+            if (concurrentWriter != null) {
+                // the events queued for the writer thread precede the footer
+                flush();
+            }
             write(footer);
         }
     }
@@ -248,6 +311,50 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
     }
 
+    /**
+     * Encodes a batch of events with the specified layout and writes them to the stream. The lock of this manager is
+     * taken once for the whole batch, and the events are collected in the buffer so that they reach the stream with
+     * as few writes as the buffer size allows.
+     *
+     * @param layout the layout to encode the events with
+     * @param events the events to write; only the first {@code count} elements are used
+     * @param count the number of events to write
+     * @param flush if true, flushes once after the last event was written
+     * @throws AppenderLoggingException if an error occurs.
+     * @since 3.0
+     */
+    public synchronized void writeBatch(final Layout<?> layout, final LogEvent[] events, final int count,
+            final boolean flush) {
+        try {
+            for (int i = 0; i < count; i++) {
+                writeBatchEvent(layout, events[i]);
+            }
+        } finally {
+            if (flush) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes one event of a batch without flushing. Called by {@link #writeBatch(Layout, LogEvent[], int, boolean)}
+     * with the lock of this manager held; subclasses that must act before every event can override this method.
+     *
+     * @param layout the layout to encode the event with
+     * @param event the event to write
+     * @since 3.0
+     */
+    protected void writeBatchEvent(final Layout<?> layout, final LogEvent event) {
+        if (Constants.ENABLE_DIRECT_ENCODERS) {
+            layout.encode(event, this);
+        } else {
+            final byte[] bytes = layout.toByteArray(event);
+            if (bytes != null && bytes.length > 0) {
+                write(bytes, 0, bytes.length, false);
+            }
+        }
+    }
+
     /**
      * Writes the specified section of the specified byte array to the stream.
      *
@@ -264,6 +371,84 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
         }
     }
 
+    /**
+     * Writes the content of the specified buffers to the stream, in order. The default implementation writes the
+     * buffers one at a time with {@link #writeToDestination(byte[], int, int)}; subclasses with a channel can write
+     * them with one gathering write.
+     *
+     * @param buffers the buffers to write; the bytes between position and limit of each buffer are written
+     * @param offset the index of the first buffer to write
+     * @param length the number of buffers to write
+     * @since 3.0
+     */
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers, final int offset, final int length) {
+        for (int i = offset; i < offset + length; i++) {
+            final ByteBuffer buffer = buffers[i];
+            if (buffer.hasArray()) {
+                writeToDestination(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                ((Buffer) buffer).position(buffer.limit());
+            } else {
+                final byte[] bytes = getCopyBuffer();
+                while (buffer.hasRemaining()) {
+                    final int count = Math.min(bytes.length, buffer.remaining());
+                    buffer.get(bytes, 0, count);
+                    writeToDestination(bytes, 0, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the array that the content of buffers without an accessible array is copied into before it is written
+     * to a stream. The array is reused; callers must hold this manager's lock.
+     *
+     * @return an array of the size of this manager's buffer
+     * @since 3.0
+     */
+    protected byte[] getCopyBuffer() {
+        if (copyBuffer == null) {
+            copyBuffer = new byte[Math.max(byteBuffer.capacity(), Constants.ENCODER_BYTE_BUFFER_SIZE)];
+        }
+        return copyBuffer;
+    }
+
+    /**
+     * Allocates the buffer of a manager that can write its buffers to a channel, see
+     * {@link #writeToDestination(ByteBuffer[], int, int)}. The buffer is direct if
+     * {@link Constants#ENABLE_DIRECT_FILE_BUFFERS} is set.
+     *
+     * @param capacity the capacity of the buffer
+     * @return a new buffer
+     * @since 3.0
+     */
+    protected static ByteBuffer allocateFileBuffer(final int capacity) {
+        return Constants.ENABLE_DIRECT_FILE_BUFFERS ? ByteBuffer.allocateDirect(capacity)
+                : ByteBuffer.wrap(new byte[capacity]);
+    }
+
+    /**
+     * Writes the content of the specified buffers to the channel, repeating the gathering write until all bytes are
+     * written.
+     *
+     * @param channel the channel to write to
+     * @param buffers the buffers to write
+     * @param offset the index of the first buffer to write
+     * @param length the number of buffers to write
+     * @throws IOException if the channel cannot be written to
+     * @since 3.0
+     */
+    protected static void writeFully(final GatheringByteChannel channel, final ByteBuffer[] buffers, final int offset,
+            final int length) throws IOException {
+        int first = offset;
+        final int end = offset + length;
+        while (first < end) {
+            channel.write(buffers, first, end - first);
+            while (first < end && !buffers[first].hasRemaining()) {
+                first++;
+            }
+        }
+    }
+
     /**
      * Calls {@code flush()} on the underlying output stream.
      * @since 2.6
@@ -282,6 +467,7 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
     /**
      * Drains the ByteBufferDestination's buffer into the destination. By default this calls
      * {@link OutputStreamManager#write(byte[], int, int, boolean)} with the buffer contents.
+     * Events queued for the writer thread are written as well.
      * The underlying stream is not {@linkplain OutputStream#flush() flushed}.
      *
      * @see #flushDestination()
@@ -289,10 +475,23 @@ public class OutputStreamManager extends AbstractManager implements ByteBufferDe
      */
     protected synchronized void flushBuffer(final ByteBuffer buf) {
         ((Buffer) buf).flip();
-        if (buf.remaining() > 0) {
-            writeToDestination(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+        if (buf.hasArray()) {
+            if (buf.remaining() > 0) {
+                writeToDestination(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+            }
+        } else if (buf.remaining() > 0) {
+            flushBuffers[0] = buf;
+            try {
+                writeToDestination(flushBuffers, 0, 1);
+            } finally {
+                flushBuffers[0] = null;
+            }
         }
         buf.clear();
+        final ConcurrentWriter writer = concurrentWriter;
+        if (writer != null) {
+            writer.drain();
+        }
     }
 
     /**
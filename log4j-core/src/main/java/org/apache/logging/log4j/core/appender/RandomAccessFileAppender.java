@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
@@ -58,6 +59,9 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         @PluginBuilderAttribute("advertiseURI")
         private String advertiseURI;
 
+        @PluginBuilderAttribute("writerThread")
+        private boolean writerThread;
+
         @Override
         public RandomAccessFileAppender build() {
             final String name = getName();
@@ -77,6 +81,13 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             if (manager == null) {
                 return null;
             }
+            if (writerThread) {
+                manager.startWriterThread();
+            } else {
+                // a manager reused from the previous configuration may still have one
+                manager.stopWriterThread(AbstractLifeCycle.DEFAULT_STOP_TIMEOUT,
+                        AbstractLifeCycle.DEFAULT_STOP_TIMEUNIT);
+            }
 
             return new RandomAccessFileAppender(name, layout, getFilter(), manager, fileName, isIgnoreExceptions(),
                     immediateFlush, advertise ? getConfiguration().getAdvertiser() : null);
@@ -102,6 +113,18 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
             return asBuilder();
         }
 
+        /**
+         * Sets whether logging threads encode events concurrently and a dedicated thread writes them to the file.
+         *
+         * @param writerThread {@code true} to write from a dedicated thread
+         * @return this builder
+         * @since 3.0
+         */
+        public B setWriterThread(final boolean writerThread) {
+            this.writerThread = writerThread;
+            return asBuilder();
+        }
+
     }
     
     private final String fileName;
@@ -156,6 +179,20 @@ public final class RandomAccessFileAppender extends AbstractOutputStreamAppender
         super.append(event);
     }
 
+    /**
+     * Signals the end of the batch to the manager like {@link #append(LogEvent)} does for single events.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to write.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        if (count > 0) {
+            getManager().setEndOfBatch(events[count - 1].isEndOfBatch());
+        }
+        super.appendBatch(events, count);
+    }
+
     /**
      * Returns the file name this appender is associated with.
      *
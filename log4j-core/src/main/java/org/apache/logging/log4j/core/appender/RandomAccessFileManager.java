@@ -48,7 +48,7 @@ public class RandomAccessFileManager extends OutputStreamManager {
     protected RandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile file, final String fileName,
             final OutputStream os, final int bufferSize, final String advertiseURI,
             final Layout<? extends Serializable> layout, final boolean writeHeader) {
-        super(loggerContext, os, fileName, false, layout, writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
+        super(loggerContext, os, fileName, false, layout, writeHeader, allocateFileBuffer(bufferSize));
         this.randomAccessFile = file;
         this.advertiseURI = advertiseURI;
         this.isEndOfBatch.set(Boolean.FALSE);
@@ -93,6 +93,16 @@ public class RandomAccessFileManager extends OutputStreamManager {
         }
     }
 
+    @Override
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers, final int offset, final int length) {
+        try {
+            writeFully(randomAccessFile.getChannel(), buffers, offset, length);
+        } catch (final IOException ex) {
+            final String msg = "Error writing to RandomAccessFile " + getName();
+            throw new AppenderLoggingException(msg, ex);
+        }
+    }
+
     @Override
     public synchronized void flush() {
         flushBuffer(byteBuffer);
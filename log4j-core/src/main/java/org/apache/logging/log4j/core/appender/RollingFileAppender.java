@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
@@ -96,6 +97,15 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean writerThread;
+
+        @PluginBuilderAttribute
+        private boolean backgroundRollover;
+
+        @PluginBuilderAttribute
+        private boolean streamingCompression;
+
         @Override
         public RollingFileAppender build() {
             // Even though some variables may be annotated with @Required, we must still perform validation here for
@@ -141,12 +151,22 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
             final Layout<? extends Serializable> layout = getOrCreateLayout();
             final RollingFileManager manager = RollingFileManager.getFileManager(fileName, filePattern, append,
                     isBufferedIo, policy, strategy, advertiseUri, layout, bufferSize, isImmediateFlush(),
-                    createOnDemand, filePermissions, fileOwner, fileGroup, getConfiguration());
+                    createOnDemand, filePermissions, fileOwner, fileGroup, getConfiguration(), streamingCompression);
             if (manager == null) {
                 return null;
             }
 
             manager.initialize();
+            if (writerThread) {
+                manager.startWriterThread();
+            } else {
+                // a manager reused from the previous configuration may still have one
+                manager.stopWriterThread(AbstractLifeCycle.DEFAULT_STOP_TIMEOUT,
+                        AbstractLifeCycle.DEFAULT_STOP_TIMEUNIT);
+            }
+            if (backgroundRollover) {
+                manager.enableBackgroundRollover();
+            }
 
             return new RollingFileAppender(getName(), layout, getFilter(), manager, fileName, filePattern,
                     isIgnoreExceptions(), isImmediateFlush(), advertise ? getConfiguration().getAdvertiser() : null);
@@ -188,6 +208,18 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
             return fileGroup;
         }
 
+        public boolean isWriterThread() {
+            return writerThread;
+        }
+
+        public boolean isBackgroundRollover() {
+            return backgroundRollover;
+        }
+
+        public boolean isStreamingCompression() {
+            return streamingCompression;
+        }
+
         public B setAdvertise(final boolean advertise) {
             this.advertise = advertise;
             return asBuilder();
@@ -260,6 +292,43 @@ public final class RollingFileAppender extends AbstractOutputStreamAppender<Roll
             return asBuilder();
         }
 
+        /**
+         * Sets whether logging threads encode events concurrently and a dedicated thread writes them to the file.
+         *
+         * @param writerThread {@code true} to write from a dedicated thread
+         * @return this builder
+         * @since 3.0
+         */
+        public B setWriterThread(final boolean writerThread) {
+            this.writerThread = writerThread;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether a rollover only swaps to a file opened ahead of time and completes in the background.
+         *
+         * @param backgroundRollover {@code true} to complete rollovers in the background
+         * @return this builder
+         * @since 3.0
+         */
+        public B setBackgroundRollover(final boolean backgroundRollover) {
+            this.backgroundRollover = backgroundRollover;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether events are compressed as they are written, in the format given by the extension of the file
+         * pattern, instead of compressing the file after rollover.
+         *
+         * @param streamingCompression {@code true} to compress events as they are written
+         * @return this builder
+         * @since 3.0
+         */
+        public B setStreamingCompression(final boolean streamingCompression) {
+            this.streamingCompression = streamingCompression;
+            return asBuilder();
+        }
+
     }
     
     private static final int DEFAULT_BUFFER_SIZE = 8192;
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.Filter;
@@ -86,6 +87,12 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         @PluginBuilderAttribute
         private String fileGroup;
 
+        @PluginBuilderAttribute
+        private boolean writerThread;
+
+        @PluginBuilderAttribute
+        private boolean streamingCompression;
+
         @Override
         public RollingRandomAccessFileAppender build() {
             final String name = getName();
@@ -128,12 +135,19 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             final RollingRandomAccessFileManager manager = RollingRandomAccessFileManager
                     .getRollingRandomAccessFileManager(fileName, filePattern, append, immediateFlush, bufferSize, policy,
                             strategy, advertiseURI, layout,
-                            filePermissions, fileOwner, fileGroup, getConfiguration());
+                            filePermissions, fileOwner, fileGroup, getConfiguration(), streamingCompression);
             if (manager == null) {
                 return null;
             }
 
             manager.initialize();
+            if (writerThread) {
+                manager.startWriterThread();
+            } else {
+                // a manager reused from the previous configuration may still have one
+                manager.stopWriterThread(AbstractLifeCycle.DEFAULT_STOP_TIMEOUT,
+                        AbstractLifeCycle.DEFAULT_STOP_TIMEUNIT);
+            }
 
             return new RollingRandomAccessFileAppender(name, layout,getFilter(), manager, fileName, filePattern,
                     isIgnoreExceptions(), immediateFlush, bufferSize, advertise ? getConfiguration().getAdvertiser() : null);
@@ -189,6 +203,31 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
             return asBuilder();
         }
 
+        /**
+         * Sets whether logging threads encode events concurrently and a dedicated thread writes them to the file.
+         *
+         * @param writerThread {@code true} to write from a dedicated thread
+         * @return this builder
+         * @since 3.0
+         */
+        public B setWriterThread(final boolean writerThread) {
+            this.writerThread = writerThread;
+            return asBuilder();
+        }
+
+        /**
+         * Sets whether events are compressed as they are written, in the format given by the extension of the file
+         * pattern, instead of compressing the file after rollover.
+         *
+         * @param streamingCompression {@code true} to compress events as they are written
+         * @return this builder
+         * @since 3.0
+         */
+        public B setStreamingCompression(final boolean streamingCompression) {
+            this.streamingCompression = streamingCompression;
+            return asBuilder();
+        }
+
     }
     
     private final String fileName;
@@ -247,6 +286,20 @@ public final class RollingRandomAccessFileAppender extends AbstractOutputStreamA
         super.append(event);
     }
 
+    /**
+     * Signals the end of the batch to the manager like {@link #append(LogEvent)} does for single events.
+     *
+     * @param events The LogEvents.
+     * @param count The number of events to write.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        if (count > 0) {
+            getManager().setEndOfBatch(events[count - 1].isEndOfBatch());
+        }
+        super.appendBatch(events, count);
+    }
+
     /**
      * Returns the File name for the Appender.
      *
@@ -288,6 +288,23 @@ public class SocketAppender extends AbstractOutputStreamAppender<AbstractSocketM
         }
     }
 
+    /**
+     * Appends the events of a batch one at a time, since every event must be written to the socket separately.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        for (int i = 0; i < count; i++) {
+            try {
+                append(events[i]);
+            } catch (final AppenderLoggingException ex) {
+                // append(LogEvent) already reported the error
+                if (!ignoreExceptions()) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
     @Override
     protected void directEncodeEvent(final LogEvent event) {
         // Disable garbage-free logging for now:
@@ -254,6 +254,25 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
         }
     }
 
+    /**
+     * Writes a batch of events. With buffering enabled the events are added to the buffer, which is flushed once the
+     * last event of the batch ends the batch of the asynchronous queue. With buffering disabled the events are written
+     * with a single connection and transaction.
+     *
+     * @param events The events to write to the database; only the first {@code count} elements are used.
+     * @param count The number of events to write.
+     * @since 3.0
+     */
+    public final synchronized void writeBatch(final LogEvent[] events, final int count) {
+        if (isBuffered()) {
+            for (int i = 0; i < count; i++) {
+                buffer(events[i]);
+            }
+        } else {
+            writeThrough(events, count);
+        }
+    }
+
     /**
      * Performs the actual writing of the event in an implementation-specific way. This method is called immediately
      * from {@link #write(LogEvent, Serializable)} if buffering is off, or from {@link #flush()} if the buffer has reached its limit.
@@ -262,6 +281,36 @@ public abstract class AbstractDatabaseManager extends AbstractManager implements
      */
     protected abstract void writeInternal(LogEvent event, Serializable serializable);
 
+    /**
+     * Writes a batch of events with a single connection and transaction.
+     *
+     * @param events The events to write to the database; only the first {@code count} elements are used.
+     * @param count The number of events to write.
+     * @since 3.0
+     */
+    protected void writeThrough(final LogEvent[] events, final int count) {
+        this.connectAndStart();
+        try {
+            writeAllInternal(events, count);
+        } finally {
+            this.commitAndClose();
+        }
+    }
+
+    /**
+     * Writes events without connecting or committing.
+     *
+     * @param events The events to write to the database; only the first {@code count} elements are used.
+     * @param count The number of events to write.
+     * @since 3.0
+     */
+    protected final void writeAllInternal(final LogEvent[] events, final int count) {
+        for (int i = 0; i < count; i++) {
+            final LogEvent event = events[i];
+            this.writeInternal(event, layout != null ? layout.toSerializable(event) : null);
+        }
+    }
+
     protected void writeThrough(final LogEvent event, final Serializable serializable) {
         this.connectAndStart();
         try {
@@ -23,6 +23,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
@@ -32,8 +33,11 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
+import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.pattern.NotANumber;
+import org.apache.logging.log4j.core.util.WatchManager;
 import org.apache.logging.log4j.status.StatusLogger;
 
 /**
@@ -50,8 +54,28 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
 
     protected final StrSubstitutor strSubstitutor;
 
+    private final boolean indexArchives;
+    private final WatchManager watchManager;
+    private volatile RolloverFileIndex fileIndex;
+    private CompressionPool compressionPool;
+
     protected AbstractRolloverStrategy(final StrSubstitutor strSubstitutor) {
+        this(strSubstitutor, false, null);
+    }
+
+    /**
+     * Constructs a strategy that optionally keeps the archived files in a {@link RolloverFileIndex}.
+     *
+     * @param strSubstitutor the substitutor for file name patterns
+     * @param indexArchives whether to index the archived files instead of listing the directory on every rollover
+     * @param watchManager the manager that watches the archive directory for changes, may be null
+     * @since 3.0
+     */
+    protected AbstractRolloverStrategy(final StrSubstitutor strSubstitutor, final boolean indexArchives,
+            final WatchManager watchManager) {
         this.strSubstitutor = strSubstitutor;
+        this.indexArchives = indexArchives;
+        this.watchManager = watchManager;
     }
 
 
@@ -59,6 +83,138 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         return strSubstitutor;
     }
 
+    /**
+     * Returns whether the archived files are kept in a {@link RolloverFileIndex}.
+     *
+     * @return whether the archived files are indexed
+     * @since 3.0
+     */
+    public boolean isIndexArchives() {
+        return indexArchives;
+    }
+
+    /**
+     * Returns the index of the given directory if this strategy indexes the archived files.
+     *
+     * @param directory the directory archived files are written to
+     * @return the index or null
+     * @since 3.0
+     */
+    protected RolloverFileIndex getFileIndex(final Path directory) {
+        if (!indexArchives) {
+            return null;
+        }
+        RolloverFileIndex index = fileIndex;
+        if (index == null || !index.getDirectory().equals(directory.toAbsolutePath().normalize())) {
+            synchronized (this) {
+                index = fileIndex;
+                if (index == null || !index.getDirectory().equals(directory.toAbsolutePath().normalize())) {
+                    if (index != null) {
+                        index.release();
+                    }
+                    fileIndex = index = RolloverFileIndex.getIndex(directory, watchManager);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Releases the index of the archived files, if any, when the manager stops using this strategy.
+     *
+     * @since 3.0
+     */
+    public synchronized void releaseFileIndex() {
+        final RolloverFileIndex index = fileIndex;
+        if (index != null) {
+            fileIndex = null;
+            index.release();
+        }
+    }
+
+    /**
+     * Returns the shared {@link CompressionPool}, acquiring it the first time this strategy compresses a file.
+     *
+     * @return the shared pool
+     * @since 3.0
+     */
+    protected synchronized CompressionPool acquireCompressionPool() {
+        if (compressionPool == null) {
+            compressionPool = CompressionPool.acquire();
+        }
+        return compressionPool;
+    }
+
+    /**
+     * Releases the shared {@link CompressionPool}, if this strategy acquired it, when the manager stops using this
+     * strategy.
+     *
+     * @since 3.0
+     */
+    public synchronized void releaseCompressionPool() {
+        final CompressionPool pool = compressionPool;
+        if (pool != null) {
+            compressionPool = null;
+            pool.release();
+        }
+    }
+
+    /**
+     * Deletes an archived file, keeping the index up to date.
+     *
+     * @param file the file to delete
+     * @throws IOException if the file could not be deleted
+     * @since 3.0
+     */
+    protected void deleteArchive(final Path file) throws IOException {
+        final RolloverFileIndex index = fileIndex;
+        try {
+            Files.delete(file);
+        } catch (final IOException ioe) {
+            if (index != null) {
+                index.markModified();
+            }
+            throw ioe;
+        }
+        if (index != null) {
+            index.fileDeleted(file);
+        }
+    }
+
+    /**
+     * Renames an archived file, keeping the index up to date.
+     *
+     * @param action the action that renames the file
+     * @return the result of the action
+     * @throws IOException if the file could not be renamed
+     * @since 3.0
+     */
+    protected boolean renameArchive(final FileRenameAction action) throws IOException {
+        final boolean renamed = action.execute();
+        final RolloverFileIndex index = fileIndex;
+        if (index != null) {
+            if (renamed) {
+                index.fileRenamed(action.getSource().toPath(), action.getDestination().toPath());
+            } else {
+                index.markModified();
+            }
+        }
+        return renamed;
+    }
+
+    /**
+     * Marks the index out of date after a rollover, whose renames and actions change the directory after the strategy
+     * returned.
+     *
+     * @since 3.0
+     */
+    protected void archivesChanged() {
+        final RolloverFileIndex index = fileIndex;
+        if (index != null) {
+            index.markModified();
+        }
+    }
+
     protected Action merge(final Action compressAction, final List<Action> custom, final boolean stopOnError) {
         if (custom.isEmpty()) {
             return compressAction;
@@ -92,7 +248,13 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         final String pattern = manager.getPatternProcessor().getPattern();
         manager.getPatternProcessor().formatFileName(strSubstitutor, buf, NotANumber.NAN);
         final String fileName = manager.isDirectWrite() ? "" : manager.getFileName();
-        return getEligibleFiles(fileName, buf.toString(), pattern, isAscending);
+        final SortedMap<Integer, Path> eligibleFiles = getEligibleFiles(fileName, buf.toString(), pattern, isAscending);
+        final RolloverFileIndex index = fileIndex;
+        if (index != null && manager.getFileName() != null) {
+            // the size of the file being written changes without the index knowing
+            index.fileActive(new File(manager.getFileName()).toPath());
+        }
+        return eligibleFiles;
     }
 
     protected SortedMap<Integer, Path> getEligibleFiles(final String path, final String pattern) {
@@ -123,6 +285,15 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         final Path current = currentFile.length() > 0 ? new File(currentFile).toPath() : null;
         LOGGER.debug("Current file: {}", currentFile);
 
+        final RolloverFileIndex archiveIndex = getFileIndex(dir);
+        if (archiveIndex != null) {
+            for (final Map.Entry<Integer, Path> entry : archiveIndex.getEligibleFiles(pattern).entrySet()) {
+                if (!sameFile(entry.getValue(), current)) {
+                    eligibleFiles.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return isAscending? eligibleFiles : eligibleFiles.descendingMap();
+        }
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
             for (final Path entry: stream) {
                 final Matcher matcher = pattern.matcher(entry.toFile().getName());
@@ -136,4 +307,8 @@ public abstract class AbstractRolloverStrategy implements RolloverStrategy {
         }
         return isAscending? eligibleFiles : eligibleFiles.descendingMap();
     }
+
+    private static boolean sameFile(final Path file, final Path current) {
+        return current != null && file.toAbsolutePath().normalize().equals(current.toAbsolutePath().normalize());
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender.rolling;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
 import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
 import org.apache.logging.log4j.core.appender.rolling.action.PathCondition;
 import org.apache.logging.log4j.core.appender.rolling.action.PosixViewAttributeAction;
@@ -26,6 +27,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.util.Integers;
+import org.apache.logging.log4j.core.util.WatchManager;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
@@ -33,7 +35,6 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -107,6 +108,12 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         @PluginBuilderAttribute(value = "tempCompressedFilePattern")
         private String tempCompressedFilePattern;
 
+        @PluginBuilderAttribute("parallelCompression")
+        private boolean parallelCompression;
+
+        @PluginBuilderAttribute("indexArchives")
+        private boolean indexArchives;
+
         @PluginConfiguration
         private Configuration config;
 
@@ -143,7 +150,8 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             // The config object can be null when this object is built programmatically.
             StrSubstitutor nonNullStrSubstitutor = config != null ? config.getStrSubstitutor() : new StrSubstitutor();
             return new DefaultRolloverStrategy(minIndex, maxIndex, useMax, compressionLevel, nonNullStrSubstitutor,
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+                    customActions, stopCustomActionsOnError, tempCompressedFilePattern,
+                    parallelCompression, indexArchives, config != null ? config.getWatchManager() : null);
         }
 
         public String getMax() {
@@ -252,6 +260,40 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             return this;
         }
 
+        public boolean isParallelCompression() {
+            return parallelCompression;
+        }
+
+        /**
+         * Defines whether gzip compression splits files into blocks compressed in parallel by the shared
+         * {@link CompressionPool}.
+         *
+         * @param parallelCompression whether to compress blocks in parallel
+         * @return This builder for chaining convenience
+         * @since 3.0
+         */
+        public Builder setParallelCompression(final boolean parallelCompression) {
+            this.parallelCompression = parallelCompression;
+            return this;
+        }
+
+        public boolean isIndexArchives() {
+            return indexArchives;
+        }
+
+        /**
+         * Defines whether the archived files are kept in an in-memory {@link RolloverFileIndex} instead of listing
+         * the directory on every rollover.
+         *
+         * @param indexArchives whether to index the archived files
+         * @return This builder for chaining convenience
+         * @since 3.0
+         */
+        public Builder setIndexArchives(final boolean indexArchives) {
+            this.indexArchives = indexArchives;
+            return this;
+        }
+
         public Configuration getConfig() {
             return config;
         }
@@ -287,6 +329,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
     private final List<Action> customActions;
     private final boolean stopCustomActionsOnError;
     private final PatternProcessor tempCompressedFilePattern;
+    private final boolean parallelCompression;
 
     /**
      * Constructs a new instance.
@@ -301,7 +344,49 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
     protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
             final int compressionLevel, final StrSubstitutor strSubstitutor, final Action[] customActions,
             final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
-        super(strSubstitutor);
+        this(minIndex, maxIndex, useMax, compressionLevel, strSubstitutor, customActions, stopCustomActionsOnError,
+                tempCompressedFilePatternString, false);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param minIndex The minimum index.
+     * @param maxIndex The maximum index.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @param parallelCompression whether gzip compression splits files into blocks compressed in parallel
+     * @since 3.0
+     */
+    protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
+            final int compressionLevel, final StrSubstitutor strSubstitutor, final Action[] customActions,
+            final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString,
+            final boolean parallelCompression) {
+        this(minIndex, maxIndex, useMax, compressionLevel, strSubstitutor, customActions, stopCustomActionsOnError,
+                tempCompressedFilePatternString, parallelCompression, false, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param minIndex The minimum index.
+     * @param maxIndex The maximum index.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @param parallelCompression whether gzip compression splits files into blocks compressed in parallel
+     * @param indexArchives whether the archived files are kept in a {@link RolloverFileIndex}
+     * @param watchManager the manager that watches the archive directory for changes, may be null
+     * @since 3.0
+     */
+    protected DefaultRolloverStrategy(final int minIndex, final int maxIndex, final boolean useMax,
+            final int compressionLevel, final StrSubstitutor strSubstitutor, final Action[] customActions,
+            final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString,
+            final boolean parallelCompression, final boolean indexArchives, final WatchManager watchManager) {
+        super(strSubstitutor, indexArchives, watchManager);
         this.minIndex = minIndex;
         this.maxIndex = maxIndex;
         this.useMax = useMax;
@@ -310,12 +395,23 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
                 tempCompressedFilePatternString != null ? new PatternProcessor(tempCompressedFilePatternString) : null;
+        this.parallelCompression = parallelCompression;
     }
 
     public int getCompressionLevel() {
         return this.compressionLevel;
     }
 
+    /**
+     * Returns whether gzip compression splits files into blocks compressed in parallel.
+     *
+     * @return true if files are compressed by the shared {@link CompressionPool}
+     * @since 3.0
+     */
+    public boolean isParallelCompression() {
+        return parallelCompression;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -363,7 +459,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 LOGGER.debug("Eligible files: {}", eligibleFiles);
                 final Integer key = eligibleFiles.firstKey();
                 LOGGER.debug("Deleting {}", eligibleFiles.get(key).toFile().getAbsolutePath());
-                Files.delete(eligibleFiles.get(key));
+                deleteArchive(eligibleFiles.get(key));
                 eligibleFiles.remove(key);
                 renameFiles = true;
             } catch (final IOException ioe) {
@@ -383,10 +479,11 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 if (suffixLength > 0 && suffixLength(currentName) == 0) {
                    renameTo = renameTo.substring(0, renameTo.length() - suffixLength);
                 }
-                final Action action = new FileRenameAction(entry.getValue().toFile(), new File(renameTo), true);
+                final FileRenameAction action =
+                        new FileRenameAction(entry.getValue().toFile(), new File(renameTo), true);
                 try {
                     LOGGER.debug("DefaultRolloverStrategy.purgeAscending executing {}", action);
-                    if (!action.execute()) {
+                    if (!renameArchive(action)) {
                         return -1;
                     }
                 } catch (final Exception ex) {
@@ -418,7 +515,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         while (eligibleFiles.size() >= maxFiles) {
             try {
                 final Integer key = eligibleFiles.firstKey();
-                Files.delete(eligibleFiles.get(key));
+                deleteArchive(eligibleFiles.get(key));
                 eligibleFiles.remove(key);
             } catch (final IOException ioe) {
                 LOGGER.error("Unable to delete {}, {}", eligibleFiles.firstKey(), ioe.getMessage(), ioe);
@@ -436,10 +533,10 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
             if (suffixLength > 0 && suffixLength(currentName) == 0) {
                 renameTo = renameTo.substring(0, renameTo.length() - suffixLength);
             }
-            final Action action = new FileRenameAction(entry.getValue().toFile(), new File(renameTo), true);
+            final FileRenameAction action = new FileRenameAction(entry.getValue().toFile(), new File(renameTo), true);
             try {
                 LOGGER.debug("DefaultRolloverStrategy.purgeDescending executing {}", action);
-                if (!action.execute()) {
+                if (!renameArchive(action)) {
                     return -1;
                 }
             } catch (final Exception ex) {
@@ -489,8 +586,11 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
         Action compressAction = null;
 
         final FileExtension fileExtension = manager.getFileExtension();
-        if (fileExtension != null) {
+        // a file compressed while it was written only needs to be renamed
+        if (fileExtension != null && !manager.isStreamingCompression()) {
             final File renameToFile = new File(renameTo);
+            final CompressionPool compressionPool =
+                    parallelCompression && fileExtension.isParallelizable() ? acquireCompressionPool() : null;
             renameTo = renameTo.substring(0, renameTo.length() - fileExtension.length());
             if (tempCompressedFilePattern != null) {
                 buf.delete(0, buf.length());
@@ -503,13 +603,13 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                 }
                 compressAction = new CompositeAction(
                         Arrays.asList(fileExtension.createCompressAction(renameTo, tmpCompressedName,
-                                true, compressionLevel),
+                                true, compressionLevel, compressionPool),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         renameToFile, true)),
                         true);
             } else {
                 compressAction = fileExtension.createCompressAction(renameTo, compressedName,
-                        true, compressionLevel);
+                        true, compressionLevel, compressionPool);
             }
         }
 
@@ -539,6 +639,7 @@ public class DefaultRolloverStrategy extends AbstractRolloverStrategy {
                     manager.isRenameEmptyFiles());
 
         final Action asyncAction = merge(compressAction, customActions, stopCustomActionsOnError);
+        archivesChanged();
         return new RolloverDescriptionImpl(currentFileName, false, renameAction, asyncAction);
     }
 
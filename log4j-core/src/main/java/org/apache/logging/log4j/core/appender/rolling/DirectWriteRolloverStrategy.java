@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.appender.rolling;
 import org.apache.logging.log4j.core.Core;
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
 import org.apache.logging.log4j.core.appender.rolling.action.FileRenameAction;
 import org.apache.logging.log4j.core.appender.rolling.action.PathCondition;
 import org.apache.logging.log4j.core.appender.rolling.action.PosixViewAttributeAction;
@@ -26,6 +27,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.core.util.Integers;
+import org.apache.logging.log4j.core.util.WatchManager;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
@@ -33,7 +35,6 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -78,6 +79,12 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         @PluginBuilderAttribute(value = "tempCompressedFilePattern")
         private String tempCompressedFilePattern;
 
+        @PluginBuilderAttribute("parallelCompression")
+        private boolean parallelCompression;
+
+        @PluginBuilderAttribute("indexArchives")
+        private boolean indexArchives;
+
         @PluginConfiguration
         private Configuration config;
 
@@ -95,7 +102,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             }
             final int compressionLevel = Integers.parseInt(compressionLevelStr, Deflater.DEFAULT_COMPRESSION);
             return new DirectWriteRolloverStrategy(maxIndex, compressionLevel, config.getStrSubstitutor(),
-                    customActions, stopCustomActionsOnError, tempCompressedFilePattern);
+                    customActions, stopCustomActionsOnError, tempCompressedFilePattern,
+                    parallelCompression, indexArchives, config.getWatchManager());
         }
 
         public String getMaxFiles() {
@@ -173,6 +181,40 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             return this;
         }
 
+        public boolean isParallelCompression() {
+            return parallelCompression;
+        }
+
+        /**
+         * Defines whether gzip compression splits files into blocks compressed in parallel by the shared
+         * {@link CompressionPool}.
+         *
+         * @param parallelCompression whether to compress blocks in parallel
+         * @return This builder for chaining convenience
+         * @since 3.0
+         */
+        public Builder setParallelCompression(final boolean parallelCompression) {
+            this.parallelCompression = parallelCompression;
+            return this;
+        }
+
+        public boolean isIndexArchives() {
+            return indexArchives;
+        }
+
+        /**
+         * Defines whether the archived files are kept in an in-memory {@link RolloverFileIndex} instead of listing
+         * the directory on every rollover.
+         *
+         * @param indexArchives whether to index the archived files
+         * @return This builder for chaining convenience
+         * @since 3.0
+         */
+        public Builder setIndexArchives(final boolean indexArchives) {
+            this.indexArchives = indexArchives;
+            return this;
+        }
+
         public Configuration getConfig() {
             return config;
         }
@@ -204,6 +246,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
     private volatile String currentFileName;
     private int nextIndex = -1;
     private final PatternProcessor tempCompressedFilePattern;
+    private final boolean parallelCompression;
     private volatile boolean usePrevTime = false;
 
     /**
@@ -218,19 +261,71 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
     protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
                                           final StrSubstitutor strSubstitutor, final Action[] customActions,
                                           final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString) {
-        super(strSubstitutor);
+        this(maxFiles, compressionLevel, strSubstitutor, customActions, stopCustomActionsOnError,
+                tempCompressedFilePatternString, false);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param maxFiles The maximum number of files that match the date portion of the pattern to keep.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @param parallelCompression whether gzip compression splits files into blocks compressed in parallel
+     * @since 3.0
+     */
+    protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
+                                          final StrSubstitutor strSubstitutor, final Action[] customActions,
+                                          final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString,
+                                          final boolean parallelCompression) {
+        this(maxFiles, compressionLevel, strSubstitutor, customActions, stopCustomActionsOnError,
+                tempCompressedFilePatternString, parallelCompression, false, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param maxFiles The maximum number of files that match the date portion of the pattern to keep.
+     * @param customActions custom actions to perform asynchronously after rollover
+     * @param stopCustomActionsOnError whether to stop executing asynchronous actions if an error occurs
+     * @param tempCompressedFilePatternString File pattern of the working file
+     *                                     used during compression, if null no temporary file are used
+     * @param parallelCompression whether gzip compression splits files into blocks compressed in parallel
+     * @param indexArchives whether the archived files are kept in a {@link RolloverFileIndex}
+     * @param watchManager the manager that watches the archive directory for changes, may be null
+     * @since 3.0
+     */
+    protected DirectWriteRolloverStrategy(final int maxFiles, final int compressionLevel,
+                                          final StrSubstitutor strSubstitutor, final Action[] customActions,
+                                          final boolean stopCustomActionsOnError, final String tempCompressedFilePatternString,
+                                          final boolean parallelCompression, final boolean indexArchives,
+                                          final WatchManager watchManager) {
+        super(strSubstitutor, indexArchives, watchManager);
         this.maxFiles = maxFiles;
         this.compressionLevel = compressionLevel;
         this.stopCustomActionsOnError = stopCustomActionsOnError;
         this.customActions = customActions == null ? Collections.<Action> emptyList() : Arrays.asList(customActions);
         this.tempCompressedFilePattern =
                 tempCompressedFilePatternString != null ? new PatternProcessor(tempCompressedFilePatternString) : null;
+        this.parallelCompression = parallelCompression;
     }
 
     public int getCompressionLevel() {
         return this.compressionLevel;
     }
 
+    /**
+     * Returns whether gzip compression splits files into blocks compressed in parallel.
+     *
+     * @return true if files are compressed by the shared {@link CompressionPool}
+     * @since 3.0
+     */
+    public boolean isParallelCompression() {
+        return parallelCompression;
+    }
+
     public List<Action> getCustomActions() {
         return customActions;
     }
@@ -253,7 +348,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         while (eligibleFiles.size() >= maxFiles) {
             try {
                 final Integer key = eligibleFiles.firstKey();
-                Files.delete(eligibleFiles.get(key));
+                deleteArchive(eligibleFiles.get(key));
                 eligibleFiles.remove(key);
             } catch (final IOException ioe) {
                 LOGGER.error("Unable to delete {}", eligibleFiles.firstKey(), ioe);
@@ -270,7 +365,8 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
             final int fileIndex = eligibleFiles.size() > 0 ? (nextIndex > 0 ? nextIndex : eligibleFiles.size()) : 1;
             final StringBuilder buf = new StringBuilder(255);
             manager.getPatternProcessor().formatFileName(strSubstitutor, buf, true, fileIndex);
-            final int suffixLength = suffixLength(buf.toString());
+            // a file compressed while it is written already has its final name
+            final int suffixLength = manager.isStreamingCompression() ? 0 : suffixLength(buf.toString());
             final String name = suffixLength > 0 ? buf.substring(0, buf.length() - suffixLength) : buf.toString();
             currentFileName = name;
         }
@@ -307,8 +403,10 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         currentFileName = null;
         nextIndex = fileIndex + 1;
         final FileExtension fileExtension = manager.getFileExtension();
-        if (fileExtension != null) {
+        if (fileExtension != null && !manager.isStreamingCompression()) {
             compressedName += fileExtension.getExtension();            
+            final CompressionPool compressionPool =
+                    parallelCompression && fileExtension.isParallelizable() ? acquireCompressionPool() : null;
             if (tempCompressedFilePattern != null) {
                 final StringBuilder buf = new StringBuilder();
                 tempCompressedFilePattern.formatFileName(strSubstitutor, buf, fileIndex);
@@ -320,13 +418,13 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
                 }
                 compressAction = new CompositeAction(
                         Arrays.asList(fileExtension.createCompressAction(sourceName, tmpCompressedName,
-                                true, compressionLevel),
+                                true, compressionLevel, compressionPool),
                                 new FileRenameAction(tmpCompressedNameFile,
                                         new File(compressedName), true)),
                         true);
             } else {
                 compressAction = fileExtension.createCompressAction(sourceName, compressedName,
-                      true, compressionLevel);
+                      true, compressionLevel, compressionPool);
             }
         }
 
@@ -348,6 +446,7 @@ public class DirectWriteRolloverStrategy extends AbstractRolloverStrategy implem
         }
 
         final Action asyncAction = merge(compressAction, customActions, stopCustomActionsOnError);
+        archivesChanged();
         return new RolloverDescriptionImpl(sourceName, false, null, asyncAction);
     }
 
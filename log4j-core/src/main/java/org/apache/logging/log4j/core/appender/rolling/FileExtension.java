@@ -17,11 +17,15 @@
 package org.apache.logging.log4j.core.appender.rolling;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Objects;
 
 import org.apache.logging.log4j.core.appender.rolling.action.Action;
 import org.apache.logging.log4j.core.appender.rolling.action.CommonsCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
 import org.apache.logging.log4j.core.appender.rolling.action.GzCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.action.ParallelGzCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.action.ZipCompressAction;
 
 /**
@@ -41,6 +45,21 @@ public enum FileExtension {
                                     final int compressionLevel) {
             return new GzCompressAction(source(renameTo), target(compressedName), deleteSource, compressionLevel);
         }
+
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel, final CompressionPool pool) {
+            if (pool == null) {
+                return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+            }
+            return new ParallelGzCompressAction(source(renameTo), target(compressedName), deleteSource,
+                    compressionLevel, pool);
+        }
+
+        @Override
+        OutputStream createCompressingStream(final OutputStream out, final int compressionLevel) throws IOException {
+            return GzCompressAction.createSyncFlushStream(out, compressionLevel);
+        }
     },
     BZIP2(".bz2") {
         @Override
@@ -73,6 +92,32 @@ public enum FileExtension {
             // One of "gz", "bzip2", "xz", "pack200", or "deflate".
             return new CommonsCompressAction("xz", source(renameTo), target(compressedName), deleteSource);
         }
+
+        @Override
+        OutputStream createCompressingStream(final OutputStream out, final int compressionLevel) throws IOException {
+            return CommonsCompressAction.createOutputStream("xz", out);
+        }
+    },
+    LZ4(".lz4") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            // The LZ4 frame format, implemented by Commons Compress itself
+            return new CommonsCompressAction("lz4-framed", source(renameTo), target(compressedName), deleteSource);
+        }
+    },
+    ZSTD(".zst") {
+        @Override
+        Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                    final int compressionLevel) {
+            // Commons Compress delegates to zstd-jni, which must be on the class path
+            return new CommonsCompressAction("zstd", source(renameTo), target(compressedName), deleteSource);
+        }
+
+        @Override
+        OutputStream createCompressingStream(final OutputStream out, final int compressionLevel) throws IOException {
+            return CommonsCompressAction.createOutputStream("zstd", out);
+        }
     };
 
     public static FileExtension lookup(final String fileExtension) {
@@ -103,6 +148,38 @@ public enum FileExtension {
     abstract Action createCompressAction(String renameTo, String compressedName, boolean deleteSource,
                                          int compressionLevel);
 
+    /**
+     * Creates an action that compresses blocks of the file in parallel on the given pool, if this extension supports
+     * it, or one that compresses the file on the calling thread otherwise.
+     */
+    Action createCompressAction(final String renameTo, final String compressedName, final boolean deleteSource,
+                                final int compressionLevel, final CompressionPool pool) {
+        return createCompressAction(renameTo, compressedName, deleteSource, compressionLevel);
+    }
+
+    /**
+     * Creates a stream that compresses events as they are written, so that the active file is already compressed at
+     * rollover. Flushing the stream must end a block of compressed data, so that the file can be read up to the last
+     * flush while it is still being written. Returns null if this format cannot be written that way.
+     */
+    OutputStream createCompressingStream(final OutputStream out, final int compressionLevel) throws IOException {
+        return null;
+    }
+
+    /**
+     * Returns whether {@link #createCompressAction(String, String, boolean, int, CompressionPool)} uses the pool.
+     */
+    boolean isParallelizable() {
+        return this == GZ;
+    }
+
+    /**
+     * Returns whether {@link #createCompressingStream(OutputStream, int)} is supported.
+     */
+    boolean isStreamable() {
+        return this == GZ || this == XZ || this == ZSTD;
+    }
+
     String getExtension() {
         return extension;
     }
@@ -22,18 +22,24 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.Collection;
 import java.util.Date;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.zip.Deflater;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LifeCycle;
@@ -56,6 +62,7 @@ public class RollingFileManager extends FileManager {
 
     private static RollingFileManagerFactory factory = new RollingFileManagerFactory();
     private static final int MAX_TRIES = 3;
+    private static final String STAGED_FILE_SUFFIX = ".next";
     private static final int MIN_DURATION = 100;
     private static final FileTime EPOCH = FileTime.fromMillis(0);
 
@@ -71,6 +78,13 @@ public class RollingFileManager extends FileManager {
     private volatile String fileName;
     private final FileExtension fileExtension;
     private final boolean directWrite;
+    private final boolean streamingCompression;
+    private final int compressionLevel;
+    private volatile boolean backgroundRollover;
+    private Future<StagedFile> stagedFile;
+    private boolean pendingRollover;
+    private long pendingPrevFileTime;
+    private long pendingPrevRollTime;
 
     /* This executor pool will create a new Thread for every work async action to be performed. Using it allows
        us to make sure all the Threads are completed when the Manager is stopped. */
@@ -95,6 +109,22 @@ public class RollingFileManager extends FileManager {
             final String advertiseURI, final Layout<? extends Serializable> layout,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final boolean writeHeader, final ByteBuffer buffer) {
+        this(loggerContext, fileName, pattern, os, append, createOnDemand, size, initialTime, triggeringPolicy,
+                rolloverStrategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, writeHeader, buffer,
+                false);
+    }
+
+    /**
+     * @param streamingCompression whether events are compressed as they are written, in the format of the file
+     *            pattern's extension. The given output stream must already compress.
+     * @since 3.0
+     */
+    protected RollingFileManager(final LoggerContext loggerContext, final String fileName, final String pattern, final OutputStream os,
+            final boolean append, final boolean createOnDemand, final long size, final long initialTime,
+            final TriggeringPolicy triggeringPolicy, final RolloverStrategy rolloverStrategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean writeHeader, final ByteBuffer buffer, final boolean streamingCompression) {
         super(loggerContext, fileName != null ? fileName : pattern, os, append, false, createOnDemand,
 			advertiseURI, layout, filePermissions, fileOwner, fileGroup, writeHeader, buffer);
         this.size = size;
@@ -106,6 +136,8 @@ public class RollingFileManager extends FileManager {
         this.fileName = fileName;
         this.directWrite = rolloverStrategy instanceof DirectWriteRolloverStrategy;
         this.fileExtension = FileExtension.lookupForFile(pattern);
+        this.streamingCompression = streamingCompression;
+        this.compressionLevel = compressionLevel(rolloverStrategy);
     }
 
     public void initialize() {
@@ -154,15 +186,70 @@ public class RollingFileManager extends FileManager {
             final boolean immediateFlush, final boolean createOnDemand,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getFileManager(fileName, pattern, append, bufferedIO, policy, strategy, advertiseURI, layout,
+                bufferSize, immediateFlush, createOnDemand, filePermissions, fileOwner, fileGroup, configuration,
+                false);
+    }
+
+    /**
+     * Returns a RollingFileManager.
+     * @param fileName The file name.
+     * @param pattern The pattern for rolling file.
+     * @param append true if the file should be appended to.
+     * @param bufferedIO true if data should be buffered.
+     * @param policy The TriggeringPolicy.
+     * @param strategy The RolloverStrategy.
+     * @param advertiseURI the URI to use when advertising the file
+     * @param layout The Layout.
+     * @param bufferSize buffer size to use if bufferedIO is true
+     * @param immediateFlush flush on every write or not
+     * @param createOnDemand true if you want to lazy-create the file (a.k.a. on-demand.)
+     * @param filePermissions File permissions
+     * @param fileOwner File owner
+     * @param fileGroup File group
+     * @param configuration The configuration.
+     * @param streamingCompression true if events should be compressed as they are written, in the format of the
+     *            pattern's extension.
+     * @return A RollingFileManager.
+     * @since 3.0
+     */
+    public static RollingFileManager getFileManager(final String fileName, final String pattern, final boolean append,
+            final boolean bufferedIO, final TriggeringPolicy policy, final RolloverStrategy strategy,
+            final String advertiseURI, final Layout<? extends Serializable> layout, final int bufferSize,
+            final boolean immediateFlush, final boolean createOnDemand,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final Configuration configuration, final boolean streamingCompression) {
 
         if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
             LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
             return null;
         }
+        if (streamingCompression && !isStreamable(pattern)) {
+            return null;
+        }
         final String name = fileName == null ? pattern : fileName;
         return narrow(RollingFileManager.class, getManager(name, new FactoryData(fileName, pattern, append,
             bufferedIO, policy, strategy, advertiseURI, layout, bufferSize, immediateFlush, createOnDemand,
-            filePermissions, fileOwner, fileGroup, configuration), factory));
+            filePermissions, fileOwner, fileGroup, configuration, streamingCompression), factory));
+    }
+
+    static boolean isStreamable(final String pattern) {
+        final FileExtension extension = FileExtension.lookupForFile(pattern);
+        if (extension == null || !extension.isStreamable()) {
+            LOGGER.error("Streaming compression requires a file pattern ending with .gz, .xz or .zst, not {}", pattern);
+            return false;
+        }
+        return true;
+    }
+
+    private static int compressionLevel(final RolloverStrategy strategy) {
+        if (strategy instanceof DefaultRolloverStrategy) {
+            return ((DefaultRolloverStrategy) strategy).getCompressionLevel();
+        }
+        if (strategy instanceof DirectWriteRolloverStrategy) {
+            return ((DirectWriteRolloverStrategy) strategy).getCompressionLevel();
+        }
+        return Deflater.DEFAULT_COMPRESSION;
     }
 
     /**
@@ -185,6 +272,42 @@ public class RollingFileManager extends FileManager {
         return fileExtension;
     }
 
+    /**
+     * Returns whether events are compressed as they are written, so that the active file is a compressed stream in
+     * the format of the file pattern's extension and rollovers do not compress it again.
+     *
+     * @return true if the active file is compressed
+     * @since 3.0
+     */
+    public boolean isStreamingCompression() {
+        return streamingCompression;
+    }
+
+    @Override
+    protected OutputStream createOutputStream() throws IOException {
+        return compress(super.createOutputStream());
+    }
+
+    /**
+     * Wraps the stream of a new file in a compressing stream if events are compressed as they are written.
+     *
+     * @param os the stream to the file
+     * @return the stream to write events to
+     * @throws IOException if the compressing stream cannot be created; the file's stream is closed
+     * @since 3.0
+     */
+    protected OutputStream compress(final OutputStream os) throws IOException {
+        if (!streamingCompression) {
+            return os;
+        }
+        try {
+            return fileExtension.createCompressingStream(os, compressionLevel);
+        } catch (final IOException | RuntimeException e) {
+            os.close();
+            throw e;
+        }
+    }
+
     // override to make visible for unit tests
     @Override
     protected synchronized void write(final byte[] bytes, final int offset, final int length,
@@ -198,6 +321,19 @@ public class RollingFileManager extends FileManager {
         super.writeToDestination(bytes, offset, length);
     }
 
+    /**
+     * Counts the bytes of a gathering write. Buffers that are not written to the channel go through
+     * {@link #writeToDestination(byte[], int, int)}, which counts them.
+     */
+    @Override
+    protected void writeToChannel(final FileChannel channel, final ByteBuffer[] buffers, final int offset,
+            final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            size += buffers[i].remaining();
+        }
+        super.writeToChannel(channel, buffers, offset, length);
+    }
+
     public boolean isRenameEmptyFiles() {
         return renameEmptyFiles;
     }
@@ -227,11 +363,24 @@ public class RollingFileManager extends FileManager {
      * @param event The LogEvent.
      */
     public synchronized void checkRollover(final LogEvent event) {
+        if (backgroundRollover && semaphore.availablePermits() == 0) {
+            // the previous rollover is still being completed in the background, check again on a later event
+            return;
+        }
         if (triggeringPolicy.isTriggeringEvent(event)) {
             rollover();
         }
     }
 
+    /**
+     * Checks for a rollover before every event of a batch, so a batch can span a rollover like single events do.
+     */
+    @Override
+    protected void writeBatchEvent(final Layout<?> layout, final LogEvent event) {
+        checkRollover(event);
+        super.writeBatchEvent(layout, event);
+    }
+
     @Override
     public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
         LOGGER.debug("Shutting down RollingFileManager {}", getName());
@@ -275,11 +424,26 @@ public class RollingFileManager extends FileManager {
             // Preserve interrupt status
             Thread.currentThread().interrupt();
         }
+        discardStagedFile();
+        releaseStrategy(rolloverStrategy);
         LOGGER.debug("RollingFileManager shutdown completed with status {}", status);
         return status;
     }
 
 	public synchronized void rollover(long prevFileTime, long prevRollTime) {
+        if (backgroundRollover) {
+            // the previous rollover must complete before the pattern processor it uses changes
+            if (semaphore.tryAcquire()) {
+                getPatternProcessor().setPrevFileTime(prevFileTime);
+                getPatternProcessor().setCurrentFileTime(prevRollTime);
+                rolloverInBackground();
+            } else {
+                pendingRollover = true;
+                pendingPrevFileTime = prevFileTime;
+                pendingPrevRollTime = prevRollTime;
+            }
+            return;
+        }
 		getPatternProcessor().setPrevFileTime(prevFileTime);
 		getPatternProcessor().setCurrentFileTime(prevRollTime);
 		rollover();
@@ -289,6 +453,27 @@ public class RollingFileManager extends FileManager {
         if (!hasOutputStream()) {
             return;
         }
+        if (backgroundRollover) {
+            if (semaphore.tryAcquire()) {
+                rolloverInBackground();
+            } else if (!pendingRollover) {
+                pendingRollover = true;
+                pendingPrevFileTime = 0;
+                pendingPrevRollTime = 0;
+            }
+            return;
+        }
+        rolloverSynchronously();
+    }
+
+    private static void releaseStrategy(final RolloverStrategy strategy) {
+        if (strategy instanceof AbstractRolloverStrategy) {
+            ((AbstractRolloverStrategy) strategy).releaseFileIndex();
+            ((AbstractRolloverStrategy) strategy).releaseCompressionPool();
+        }
+    }
+
+    private void rolloverSynchronously() {
         if (rollover(rolloverStrategy)) {
             try {
                 size = 0;
@@ -304,6 +489,143 @@ public class RollingFileManager extends FileManager {
         setOutputStream(createOutputStream());
     }
 
+    /**
+     * Makes rollovers swap the output stream to a file opened ahead of time, so that logging threads only wait for the
+     * swap. Renaming the previous file, running the strategy's actions and opening the file for the following
+     * rollover are done by the asynchronous executor. The file is opened next to the active file with a
+     * {@value #STAGED_FILE_SUFFIX} suffix and renamed to the active file name once the previous file has been moved
+     * away, which requires a file system that allows renaming open files.
+     *
+     * @since 3.0
+     */
+    public synchronized void enableBackgroundRollover() {
+        if (!backgroundRollover) {
+            backgroundRollover = true;
+            stageNextFile();
+        }
+    }
+
+    /**
+     * Returns whether rollovers are completed in the background.
+     *
+     * @return true if {@link #enableBackgroundRollover()} was called.
+     * @since 3.0
+     */
+    public boolean isBackgroundRollover() {
+        return backgroundRollover;
+    }
+
+    /**
+     * Performs a rollover that was requested while the previous one was being completed in the background, without
+     * making the requesting thread wait for the permit.
+     */
+    private synchronized void rolloverIfPending() {
+        if (!pendingRollover) {
+            return;
+        }
+        pendingRollover = false;
+        if (pendingPrevRollTime != 0) {
+            rollover(pendingPrevFileTime, pendingPrevRollTime);
+        } else {
+            rollover();
+        }
+    }
+
+    /**
+     * Swaps the output stream to the staged file while holding the rollover permit, and hands the permit to the task
+     * that completes the rollover.
+     */
+    private void rolloverInBackground() {
+        final StagedFile next = hasOutputStream() ? takeStagedFile() : null;
+        if (next == null) {
+            semaphore.release();
+            if (hasOutputStream()) {
+                rolloverSynchronously();
+                stageNextFile();
+            }
+            return;
+        }
+        writeFooter();
+        flush();
+        final OutputStream previous;
+        try {
+            previous = getOutputStream();
+            final OutputStream stream = compress(next.stream);
+            setOutputStream(stream);
+            if (getOutputStream() != stream) {
+                // the header could not be written, keep writing to the current file
+                semaphore.release();
+                next.discard();
+                stageNextFile();
+                return;
+            }
+        } catch (final IOException e) {
+            semaphore.release();
+            logError("Unable to swap to the next file", e);
+            return;
+        }
+        size = 0;
+        initialTime = System.currentTimeMillis();
+        final CompleteRolloverAction completion = new CompleteRolloverAction(previous, next.file);
+        try {
+            asyncExecutor.execute(completion);
+        } catch (final RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private synchronized void stageNextFile() {
+        try {
+            stagedFile = asyncExecutor.submit(this::openStagedFile);
+        } catch (final RejectedExecutionException e) {
+            stagedFile = null;
+        }
+    }
+
+    private StagedFile openStagedFile() throws IOException {
+        final File file = new File(getFileName() + STAGED_FILE_SUFFIX);
+        FileUtils.makeParentDirs(file);
+        // append so that events left behind by a failed rollover are not lost
+        final FileOutputStream stream = new FileOutputStream(file, true);
+        defineAttributeView(file.toPath());
+        LOGGER.debug("RollingFileManager {} opened {} ahead of rollover", getName(), file);
+        return new StagedFile(file, stream);
+    }
+
+    private StagedFile takeStagedFile() {
+        final Future<StagedFile> future = stagedFile;
+        stagedFile = null;
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (final ExecutionException e) {
+                logError("Unable to open the next file ahead of rollover", e.getCause());
+            } catch (final InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        try {
+            return openStagedFile();
+        } catch (final IOException e) {
+            logError("Unable to open the next file for rollover", e);
+            return null;
+        }
+    }
+
+    private synchronized void discardStagedFile() {
+        final Future<StagedFile> future = stagedFile;
+        stagedFile = null;
+        if (future != null && future.isDone() && !future.isCancelled()) {
+            try {
+                future.get().discard();
+            } catch (final ExecutionException | InterruptedException e) {
+                // nothing was opened
+            }
+        }
+    }
+
     /**
      * Returns the pattern processor.
      * @return The PatternProcessor.
@@ -336,7 +658,10 @@ public class RollingFileManager extends FileManager {
     }
 
     public void setRolloverStrategy(final RolloverStrategy rolloverStrategy) {
-        rolloverStrategyUpdater.compareAndSet(this, this.rolloverStrategy, rolloverStrategy);
+        final RolloverStrategy previous = this.rolloverStrategy;
+        if (rolloverStrategyUpdater.compareAndSet(this, previous, rolloverStrategy) && previous != rolloverStrategy) {
+            releaseStrategy(previous);
+        }
     }
 
     public void setPatternProcessor(final PatternProcessor patternProcessor) {
@@ -477,6 +802,96 @@ public class RollingFileManager extends FileManager {
         }
     }
 
+    /**
+     * A file opened ahead of rollover.
+     */
+    private static class StagedFile {
+
+        private final File file;
+        private final FileOutputStream stream;
+
+        StagedFile(final File file, final FileOutputStream stream) {
+            this.file = file;
+            this.stream = stream;
+        }
+
+        void discard() {
+            try {
+                stream.close();
+            } catch (final IOException e) {
+                LOGGER.warn("Unable to close {}", file, e);
+            }
+            if (file.length() == 0 && !file.delete()) {
+                LOGGER.warn("Unable to delete {}", file);
+            }
+        }
+    }
+
+    /**
+     * Completes a rollover after the output stream was swapped to a staged file: closes the previous file, lets the
+     * strategy rename it, renames the staged file to the active file name and runs the strategy's asynchronous
+     * actions. Holds the rollover permit until done.
+     */
+    private class CompleteRolloverAction implements Runnable {
+
+        private final OutputStream previous;
+        private final File staged;
+
+        CompleteRolloverAction(final OutputStream previous, final File staged) {
+            this.previous = previous;
+            this.staged = staged;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    previous.close();
+                } catch (final IOException e) {
+                    logError("Unable to close file before rollover", e);
+                }
+                final RolloverDescription descriptor = rolloverStrategy.rollover(RollingFileManager.this);
+                boolean success = true;
+                if (descriptor != null && descriptor.getSynchronous() != null) {
+                    LOGGER.debug("RollingFileManager executing synchronous {}", descriptor.getSynchronous());
+                    success = execute(descriptor.getSynchronous());
+                }
+                final File active = new File(getFileName());
+                if (active.length() > 0) {
+                    // never overwrite events: the previous file was not moved away
+                    LOGGER.error("RollingFileManager {} could not roll over {}, events are written to {}", getName(),
+                            active, staged);
+                    return;
+                }
+                try {
+                    Files.move(staged.toPath(), active.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (final IOException | UnsupportedOperationException e) {
+                    logError("Unable to rename " + staged + " to " + active + ", events are written to " + staged, e);
+                    return;
+                }
+                if (success && descriptor != null && descriptor.getAsynchronous() != null) {
+                    LOGGER.debug("RollingFileManager executing async {}", descriptor.getAsynchronous());
+                    execute(descriptor.getAsynchronous());
+                }
+            } catch (final RuntimeException e) {
+                logError("Unable to complete rollover", e);
+            } finally {
+                semaphore.release();
+                stageNextFile();
+                rolloverIfPending();
+            }
+        }
+
+        private boolean execute(final Action action) {
+            try {
+                return action.execute();
+            } catch (final Exception ex) {
+                logError("Caught error in rollover action", ex);
+                return false;
+            }
+        }
+    }
+
     /**
      * Factory data.
      */
@@ -495,6 +910,7 @@ public class RollingFileManager extends FileManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean streamingCompression;
 
         /**
          * Creates the data for the factory.
@@ -510,12 +926,13 @@ public class RollingFileManager extends FileManager {
          * @param fileOwner File owner
          * @param fileGroup File group
          * @param configuration The configuration
+         * @param streamingCompression true if events are compressed as they are written
          */
         public FactoryData(final String fileName, final String pattern, final boolean append, final boolean bufferedIO,
                 final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
                 final Layout<? extends Serializable> layout, final int bufferSize, final boolean immediateFlush,
                 final boolean createOnDemand, final String filePermissions, final String fileOwner, final String fileGroup,
-                final Configuration configuration) {
+                final Configuration configuration, final boolean streamingCompression) {
             super(configuration);
             this.fileName = fileName;
             this.pattern = pattern;
@@ -531,6 +948,7 @@ public class RollingFileManager extends FileManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.streamingCompression = streamingCompression;
         }
 
         public TriggeringPolicy getTriggeringPolicy() {
@@ -569,6 +987,8 @@ public class RollingFileManager extends FileManager {
             builder.append(filePermissions);
             builder.append(", fileOwner=");
             builder.append(fileOwner);
+            builder.append(", streamingCompression=");
+            builder.append(streamingCompression);
             builder.append("]");
             return builder.toString();
         }
@@ -616,15 +1036,19 @@ public class RollingFileManager extends FileManager {
 
             try {
                 final int actualSize = data.bufferedIO ? data.bufferSize : Constants.ENCODER_BYTE_BUFFER_SIZE;
-                final ByteBuffer buffer = ByteBuffer.wrap(new byte[actualSize]);
+                final ByteBuffer buffer = allocateFileBuffer(actualSize);
                 final OutputStream os = data.createOnDemand  || data.fileName == null ? null :
                         new FileOutputStream(data.fileName, data.append);
+                final OutputStream compressed = os == null || !data.streamingCompression ? os :
+                        FileExtension.lookupForFile(data.pattern).createCompressingStream(os,
+                                compressionLevel(data.strategy));
                 final long initialTime = data.createOnDemand || file == null ?
                         0 : initialFileTime(file); // LOG4J2-531 create file first so time has valid value
 
-                final RollingFileManager rm = new RollingFileManager(data.getLoggerContext(), data.fileName, data.pattern, os,
-                    data.append, data.createOnDemand, size, initialTime, data.policy, data.strategy, data.advertiseURI,
-                    data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader, buffer);
+                final RollingFileManager rm = new RollingFileManager(data.getLoggerContext(), data.fileName, data.pattern,
+                    compressed, data.append, data.createOnDemand, size, initialTime, data.policy, data.strategy,
+                    data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader,
+                    buffer, data.streamingCompression);
                 if (os != null && rm.isAttributeViewEnabled()) {
                     rm.defineAttributeView(file.toPath());
                 }
@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AppenderLoggingException;
+import org.apache.logging.log4j.core.appender.ConfigurationFactoryData;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.appender.MemoryMappedFileManager;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Closer;
+import org.apache.logging.log4j.core.util.FileUtils;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.core.util.NullOutputStream;
+
+/**
+ * Extends RollingFileManager but instead of using a buffered output stream, this class maps a region of the current
+ * file into memory and writes to this memory region.
+ * <p>
+ * Mapping and unmapping regions and growing the file are done by a background thread: while events are written to
+ * one region, the next region is already mapped, so a full region is replaced without a system call. After a
+ * rollover the first region of the new file is mapped in the background as well. When a file is closed, the unused
+ * tail of its last region is truncated.
+ * </p>
+ *
+ * @since 3.0
+ */
+public class RollingMemoryMappedFileManager extends RollingFileManager {
+
+    /**
+     * Default length of region to map.
+     */
+    public static final int DEFAULT_REGION_LENGTH = 32 * 1024 * 1024;
+
+    /**
+     * Number of bytes the next region overlaps the current one. A charset encoder may leave a few bytes at the end of
+     * a region unused; the next region must start before them so the file has no gap.
+     */
+    static final int REGION_OVERLAP = 64;
+
+    private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocate(0);
+    private static final RollingMemoryMappedFileManagerFactory FACTORY = new RollingMemoryMappedFileManagerFactory();
+
+    private final boolean immediateFlush;
+    private final int regionLength;
+    private final ExecutorService mapper;
+
+    // guarded by this
+    private RandomAccessFile randomAccessFile;
+    private MappedByteBuffer mappedBuffer;
+    private long mappingOffset;
+    private Future<Region> nextRegion;
+
+    protected RollingMemoryMappedFileManager(final LoggerContext loggerContext, final String fileName,
+            final String pattern, final OutputStream os, final boolean append, final boolean immediateFlush,
+            final int regionLength, final long size, final long initialTime, final TriggeringPolicy policy,
+            final RolloverStrategy strategy, final String advertiseURI, final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup) {
+        // the header is written to the mapped region when a file is opened
+        super(loggerContext, fileName, pattern, os, append, false, size, initialTime, policy, strategy, advertiseURI,
+                layout, filePermissions, fileOwner, fileGroup, false, EMPTY_BUFFER);
+        this.immediateFlush = immediateFlush;
+        this.regionLength = regionLength;
+        this.mapper = Executors.newSingleThreadExecutor(
+                Log4jThreadFactory.createDaemonThreadFactory("RollingMemoryMappedFileManager-" + getName()));
+        if (fileName != null) {
+            // with a DirectWriteRolloverStrategy the file name is not known before the first event
+            openInBackground(fileName);
+        }
+    }
+
+    public static RollingMemoryMappedFileManager getRollingMemoryMappedFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int regionLength,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+            final String fileGroup, final Configuration configuration) {
+        if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
+            LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
+            return null;
+        }
+        final String name = fileName == null ? filePattern : fileName;
+        return narrow(RollingMemoryMappedFileManager.class, getManager(name, new FactoryData(fileName, filePattern,
+                isAppend, immediateFlush, regionLength, policy, strategy, advertiseURI, layout, filePermissions,
+                fileOwner, fileGroup, configuration), FACTORY));
+    }
+
+    @Override
+    protected synchronized void write(final byte[] bytes, int offset, int length, final boolean immediateFlush) {
+        while (length > byteBuffer.remaining()) {
+            final int chunk = byteBuffer.remaining();
+            byteBuffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+            remap();
+        }
+        byteBuffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Replaces the full region with the next one. Usually the next region has been mapped in the background already,
+     * so this only waits for the background thread if events are written faster than it maps regions.
+     *
+     * @throws AppenderLoggingException if the next region cannot be mapped
+     */
+    private synchronized void remap() {
+        boolean newFile = false;
+        try {
+            if (mappedBuffer == null) {
+                Region first = takeNextRegion();
+                if (first == null) {
+                    first = openFile(getFileName());
+                }
+                randomAccessFile = first.file;
+                install(first.buffer, first.offset);
+                newFile = first.offset == 0;
+            } else {
+                final long offset = mappingOffset + mappedBuffer.position();
+                Region next = takeNextRegion();
+                if (next != null && (next.offset > offset || offset - next.offset >= regionLength)) {
+                    unmap(next.buffer);
+                    next = null;
+                }
+                if (next == null) {
+                    next = mapRegion(randomAccessFile, offset);
+                }
+                final MappedByteBuffer previous = mappedBuffer;
+                ((Buffer) next.buffer).position((int) (offset - next.offset));
+                install(next.buffer, next.offset);
+                retire(previous);
+            }
+            final RandomAccessFile file = randomAccessFile;
+            final long nextOffset = mappingOffset + regionLength - REGION_OVERLAP;
+            nextRegion = mapper.submit(() -> mapRegion(file, nextOffset));
+        } catch (final IOException ex) {
+            throw new AppenderLoggingException("Unable to remap " + getName(), ex);
+        }
+        if (newFile) {
+            writeHeader();
+        }
+    }
+
+    private void install(final MappedByteBuffer buffer, final long offset) {
+        mappedBuffer = buffer;
+        byteBuffer = buffer;
+        mappingOffset = offset;
+        size = offset;
+    }
+
+    private void writeHeader() {
+        if (layout == null) {
+            return;
+        }
+        final byte[] header = layout.getHeader();
+        if (header != null) {
+            write(header, 0, header.length, false);
+        }
+    }
+
+    /**
+     * Returns the region mapped in the background, waiting for the background thread if it is not done yet.
+     *
+     * @return the next region, or {@code null} if no region was requested or it could not be mapped
+     */
+    private Region takeNextRegion() {
+        final Future<Region> future = nextRegion;
+        if (future == null) {
+            return null;
+        }
+        nextRegion = null;
+        try {
+            return future.get();
+        } catch (final ExecutionException ex) {
+            logError("Unable to map next region", ex.getCause());
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            // the mapping may still complete, in which case it is released when it is garbage collected
+            future.cancel(false);
+        }
+        return null;
+    }
+
+    private void openInBackground(final String fileName) {
+        nextRegion = mapper.submit(() -> openFile(fileName));
+    }
+
+    private Region openFile(final String fileName) throws IOException {
+        final File file = new File(fileName);
+        FileUtils.makeParentDirs(file);
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            defineAttributeView(file.toPath());
+            final long start;
+            if (isAppend()) {
+                start = raf.length();
+            } else {
+                raf.setLength(0);
+                start = 0;
+            }
+            final Region region = mapRegion(raf, start);
+            return new Region(raf, region.buffer, start);
+        } catch (final IOException | RuntimeException ex) {
+            Closer.closeSilently(raf);
+            throw ex;
+        }
+    }
+
+    private Region mapRegion(final RandomAccessFile file, final long offset) throws IOException {
+        final long length = offset + regionLength;
+        if (file.length() < length) {
+            file.setLength(length);
+        }
+        return new Region(file, MemoryMappedFileManager.mmap(file.getChannel(), getName(), offset, regionLength),
+                offset);
+    }
+
+    /**
+     * Unmaps a region that is no longer written to in the background.
+     */
+    private void retire(final MappedByteBuffer buffer) {
+        try {
+            mapper.execute(() -> unmap(buffer));
+        } catch (final RejectedExecutionException ex) {
+            unmap(buffer);
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer buffer) {
+        try {
+            MemoryMappedFileManager.unsafeUnmap(buffer);
+        } catch (final Exception ex) {
+            LOGGER.debug("Unable to unmap region, it is released when it is garbage collected", ex);
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (mappedBuffer != null) {
+            mappedBuffer.force();
+        }
+    }
+
+    @Override
+    protected void flushBuffer(final ByteBuffer buffer) {
+        // do nothing (do not call drain() to avoid spurious remapping)
+    }
+
+    /**
+     * Unmaps the current and the next region and truncates the unused tail of the file.
+     */
+    @Override
+    public synchronized boolean closeOutputStream() {
+        boolean success = true;
+        final Region next = takeNextRegion();
+        if (next != null) {
+            unmap(next.buffer);
+            if (next.file != randomAccessFile) {
+                // the first region of a file nothing was written to
+                success = truncateAndClose(next.file, next.offset);
+            }
+        }
+        final RandomAccessFile file = randomAccessFile;
+        if (file != null) {
+            final long length = mappingOffset + mappedBuffer.position();
+            LOGGER.debug("{} closing {}, setting length to {}", getClass().getSimpleName(), getFileName(), length);
+            unmap(mappedBuffer);
+            success &= truncateAndClose(file, length);
+        }
+        randomAccessFile = null;
+        mappedBuffer = null;
+        byteBuffer = EMPTY_BUFFER;
+        mappingOffset = 0;
+        return success;
+    }
+
+    private boolean truncateAndClose(final RandomAccessFile file, final long length) {
+        try {
+            file.setLength(length);
+            file.close();
+            return true;
+        } catch (final IOException ex) {
+            logError("Unable to close memory mapped file", ex);
+            Closer.closeSilently(file);
+            return false;
+        }
+    }
+
+    @Override
+    protected void createFileAfterRollover() throws IOException {
+        openInBackground(getFileName());
+    }
+
+    @Override
+    public boolean releaseSub(final long timeout, final TimeUnit timeUnit) {
+        final boolean status = super.releaseSub(timeout, timeUnit);
+        mapper.shutdown();
+        try {
+            mapper.awaitTermination(timeout > 0 ? timeout : 1, timeout > 0 ? timeUnit : TimeUnit.SECONDS);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return status;
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+        return byteBuffer;
+    }
+
+    @Override
+    public ByteBuffer drain(final ByteBuffer buf) {
+        remap();
+        return byteBuffer;
+    }
+
+    /**
+     * Returns the length of the memory mapped regions.
+     *
+     * @return the length of a mapped region
+     */
+    public int getRegionLength() {
+        return regionLength;
+    }
+
+    /**
+     * Returns {@code true} if the content of the buffer should be forced to the storage device on every write,
+     * {@code false} otherwise.
+     *
+     * @return whether each write should be force-sync'ed
+     */
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
+    /**
+     * A mapped region of a file.
+     */
+    private static final class Region {
+        private final RandomAccessFile file;
+        private final MappedByteBuffer buffer;
+        private final long offset;
+
+        Region(final RandomAccessFile file, final MappedByteBuffer buffer, final long offset) {
+            this.file = file;
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Factory to create a RollingMemoryMappedFileManager.
+     */
+    private static class RollingMemoryMappedFileManagerFactory implements
+            ManagerFactory<RollingMemoryMappedFileManager, FactoryData> {
+
+        /**
+         * Create the RollingMemoryMappedFileManager.
+         *
+         * @param name The name of the entity to manage.
+         * @param data The data required to create the entity.
+         * @return a RollingMemoryMappedFileManager.
+         */
+        @Override
+        public RollingMemoryMappedFileManager createManager(final String name, final FactoryData data) {
+            long size = 0;
+            long initialTime = System.currentTimeMillis();
+            if (data.fileName != null) {
+                final File file = new File(name);
+                if (!data.append) {
+                    file.delete();
+                }
+                size = data.append ? file.length() : 0;
+                if (file.exists()) {
+                    initialTime = file.lastModified();
+                }
+            }
+            return new RollingMemoryMappedFileManager(data.getLoggerContext(), data.fileName, data.pattern,
+                    NullOutputStream.getInstance(), data.append, data.immediateFlush, data.regionLength, size,
+                    initialTime, data.policy, data.strategy, data.advertiseURI, data.layout, data.filePermissions,
+                    data.fileOwner, data.fileGroup);
+        }
+    }
+
+    /**
+     * Factory data.
+     */
+    private static class FactoryData extends ConfigurationFactoryData {
+        private final String fileName;
+        private final String pattern;
+        private final boolean append;
+        private final boolean immediateFlush;
+        private final int regionLength;
+        private final TriggeringPolicy policy;
+        private final RolloverStrategy strategy;
+        private final String advertiseURI;
+        private final Layout<? extends Serializable> layout;
+        private final String filePermissions;
+        private final String fileOwner;
+        private final String fileGroup;
+
+        /**
+         * Create the data for the factory.
+         *
+         * @param fileName The file name.
+         * @param pattern The pattern.
+         * @param append The append flag.
+         * @param immediateFlush Whether the mapped region is forced to the storage device after every event.
+         * @param regionLength The length of the mapped regions.
+         * @param policy The triggering policy.
+         * @param strategy The rollover strategy.
+         * @param advertiseURI The URI to advertise.
+         * @param layout The layout.
+         * @param filePermissions File permissions
+         * @param fileOwner File owner
+         * @param fileGroup File group
+         * @param configuration The configuration.
+         */
+        public FactoryData(final String fileName, final String pattern, final boolean append,
+                final boolean immediateFlush, final int regionLength, final TriggeringPolicy policy,
+                final RolloverStrategy strategy, final String advertiseURI,
+                final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner,
+                final String fileGroup, final Configuration configuration) {
+            super(configuration);
+            this.fileName = fileName;
+            this.pattern = pattern;
+            this.append = append;
+            this.immediateFlush = immediateFlush;
+            this.regionLength = regionLength;
+            this.policy = policy;
+            this.strategy = strategy;
+            this.advertiseURI = advertiseURI;
+            this.layout = layout;
+            this.filePermissions = filePermissions;
+            this.fileOwner = fileOwner;
+            this.fileGroup = fileGroup;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public TriggeringPolicy getTriggeringPolicy() {
+            return this.policy;
+        }
+
+        public RolloverStrategy getRolloverStrategy() {
+            return this.strategy;
+        }
+
+    }
+
+    @Override
+    public void updateData(final Object data) {
+        final FactoryData factoryData = (FactoryData) data;
+        setRolloverStrategy(factoryData.getRolloverStrategy());
+        setTriggeringPolicy(factoryData.getTriggeringPolicy());
+        setPatternProcessor(new PatternProcessor(factoryData.getPattern(), getPatternProcessor()));
+    }
+}
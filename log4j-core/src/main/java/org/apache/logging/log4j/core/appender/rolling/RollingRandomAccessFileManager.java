@@ -21,7 +21,9 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LoggerContext;
@@ -45,6 +47,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
     private static final RollingRandomAccessFileManagerFactory FACTORY = new RollingRandomAccessFileManagerFactory();
 
     private RandomAccessFile randomAccessFile;
+    private OutputStream compressingStream;
     private final ThreadLocal<Boolean> isEndOfBatch = new ThreadLocal<>();
 
     /**
@@ -57,18 +60,55 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final Layout<? extends Serializable> layout,
             final String filePermissions, final String fileOwner, final String fileGroup,
             final boolean writeHeader) {
+        this(loggerContext, raf, fileName, pattern, os, append, immediateFlush, bufferSize, initialTime, time, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, writeHeader, false);
+    }
+
+    /**
+     * @param streamingCompression whether events are compressed as they are written, in the format of the file
+     *            pattern's extension
+     * @since 3.0
+     */
+    public RollingRandomAccessFileManager(final LoggerContext loggerContext, final RandomAccessFile raf,
+            final String fileName, final String pattern, final OutputStream os, final boolean append,
+            final boolean immediateFlush, final int bufferSize, final long initialTime, final long time,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout,
+            final String filePermissions, final String fileOwner, final String fileGroup,
+            final boolean writeHeader, final boolean streamingCompression) {
         super(loggerContext, fileName, pattern, os, append, false, initialTime, time, policy, strategy, advertiseURI, layout,
                 filePermissions, fileOwner, fileGroup,
-                writeHeader, ByteBuffer.wrap(new byte[bufferSize]));
+                writeHeader, allocateFileBuffer(bufferSize), streamingCompression);
         this.randomAccessFile = raf;
         isEndOfBatch.set(Boolean.FALSE);
-        writeHeader();
+        startFile();
     }
 
     /**
-     * Writes the layout's header to the file if it exists.
+     * Starts compressing the file if events are compressed as they are written, and writes the layout's header to the
+     * file if it is empty.
      */
-    private void writeHeader() {
+    private void startFile() {
+        if (randomAccessFile == null) {
+            return;
+        }
+        try {
+            final boolean empty = randomAccessFile.length() == 0;
+            if (isStreamingCompression()) {
+                compressingStream = compress(Channels.newOutputStream(randomAccessFile.getChannel()));
+            }
+            if (empty) {
+                writeHeader();
+            }
+        } catch (final IOException e) {
+            logError("Unable to start writing to " + getFileName(), e);
+        }
+    }
+
+    /**
+     * Writes the layout's header to the file.
+     */
+    private void writeHeader() throws IOException {
         if (layout == null) {
             return;
         }
@@ -76,13 +116,11 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         if (header == null) {
             return;
         }
-        try {
-            if (randomAccessFile != null && randomAccessFile.length() == 0) {
-                // write to the file, not to the buffer: the buffer may not be empty
-                randomAccessFile.write(header, 0, header.length);
-            }
-        } catch (final IOException e) {
-            logError("Unable to write header", e);
+        // write to the file, not to the buffer: the buffer may not be empty
+        if (compressingStream != null) {
+            compressingStream.write(header, 0, header.length);
+        } else {
+            randomAccessFile.write(header, 0, header.length);
         }
     }
 
@@ -91,14 +129,31 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
             final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner, final String fileGroup,
             final Configuration configuration) {
+        return getRollingRandomAccessFileManager(fileName, filePattern, isAppend, immediateFlush, bufferSize, policy,
+                strategy, advertiseURI, layout, filePermissions, fileOwner, fileGroup, configuration, false);
+    }
+
+    /**
+     * @param streamingCompression true if events should be compressed as they are written, in the format of the
+     *            file pattern's extension.
+     * @since 3.0
+     */
+    public static RollingRandomAccessFileManager getRollingRandomAccessFileManager(final String fileName,
+            final String filePattern, final boolean isAppend, final boolean immediateFlush, final int bufferSize,
+            final TriggeringPolicy policy, final RolloverStrategy strategy, final String advertiseURI,
+            final Layout<? extends Serializable> layout, final String filePermissions, final String fileOwner, final String fileGroup,
+            final Configuration configuration, final boolean streamingCompression) {
         if (strategy instanceof DirectWriteRolloverStrategy && fileName != null) {
             LOGGER.error("The fileName attribute must not be specified with the DirectWriteRolloverStrategy");
             return null;
         }
+        if (streamingCompression && !isStreamable(filePattern)) {
+            return null;
+        }
         final String name = fileName == null ? filePattern : fileName;
         return narrow(RollingRandomAccessFileManager.class, getManager(name, new FactoryData(fileName, filePattern, isAppend,
                 immediateFlush, bufferSize, policy, strategy, advertiseURI, layout,
-                filePermissions, fileOwner, fileGroup, configuration), FACTORY));
+                filePermissions, fileOwner, fileGroup, configuration, streamingCompression), FACTORY));
     }
 
     public Boolean isEndOfBatch() {
@@ -125,7 +180,11 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
                 FileUtils.makeParentDirs(file);
                 createFileAfterRollover(fileName);
             }
-            randomAccessFile.write(bytes, offset, length);
+            if (compressingStream != null) {
+                compressingStream.write(bytes, offset, length);
+            } else {
+                randomAccessFile.write(bytes, offset, length);
+            }
             size += length;
         } catch (final IOException ex) {
             final String msg = "Error writing to RandomAccessFile " + getName();
@@ -133,6 +192,46 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         }
     }
 
+    @Override
+    protected synchronized void writeToDestination(final ByteBuffer[] buffers, final int offset, final int length) {
+        try {
+            if (randomAccessFile == null) {
+                String fileName = getFileName();
+                File file = new File(fileName);
+                FileUtils.makeParentDirs(file);
+                createFileAfterRollover(fileName);
+            }
+            for (int i = offset; i < offset + length; i++) {
+                size += buffers[i].remaining();
+            }
+            if (compressingStream != null) {
+                writeCompressed(buffers, offset, length);
+            } else {
+                writeFully(randomAccessFile.getChannel(), buffers, offset, length);
+            }
+        } catch (final IOException ex) {
+            final String msg = "Error writing to RandomAccessFile " + getName();
+            throw new AppenderLoggingException(msg, ex);
+        }
+    }
+
+    private void writeCompressed(final ByteBuffer[] buffers, final int offset, final int length) throws IOException {
+        for (int i = offset; i < offset + length; i++) {
+            final ByteBuffer buffer = buffers[i];
+            if (buffer.hasArray()) {
+                compressingStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                ((Buffer) buffer).position(buffer.limit());
+            } else {
+                final byte[] bytes = getCopyBuffer();
+                while (buffer.hasRemaining()) {
+                    final int count = Math.min(bytes.length, buffer.remaining());
+                    buffer.get(bytes, 0, count);
+                    compressingStream.write(bytes, 0, count);
+                }
+            }
+        }
+    }
+
     @Override
     protected void createFileAfterRollover() throws IOException {
         createFileAfterRollover(getFileName());
@@ -143,17 +242,38 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         if (isAppend()) {
             randomAccessFile.seek(randomAccessFile.length());
         }
-        writeHeader();
+        startFile();
     }
 
+    /**
+     * Writes the buffer to the file. If events are compressed as they are written, also ends a block of compressed
+     * data so that the file can be read up to this point.
+     */
     @Override
     public synchronized void flush() {
         flushBuffer(byteBuffer);
+        if (compressingStream != null) {
+            try {
+                compressingStream.flush();
+            } catch (final IOException ex) {
+                throw new AppenderLoggingException("Error flushing RandomAccessFile " + getName(), ex);
+            }
+        }
     }
 
     @Override
     public synchronized boolean closeOutputStream() {
         flush();
+        if (compressingStream != null) {
+            final OutputStream stream = compressingStream;
+            compressingStream = null;
+            try {
+                // finishes the compressed data and closes the file
+                stream.close();
+            } catch (final IOException e) {
+                logError("Unable to finish compressing " + getFileName(), e);
+            }
+        }
         if (randomAccessFile != null) {
             try {
                 randomAccessFile.close();
@@ -232,7 +352,8 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
 
             final RollingRandomAccessFileManager rrm = new RollingRandomAccessFileManager(data.getLoggerContext(), raf, name, data.pattern,
                     NullOutputStream.getInstance(), data.append, data.immediateFlush, data.bufferSize, size, initialTime, data.policy,
-                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader);
+                    data.strategy, data.advertiseURI, data.layout, data.filePermissions, data.fileOwner, data.fileGroup, writeHeader,
+                    data.streamingCompression);
             if (rrm.isAttributeViewEnabled()) {
                 rrm.defineAttributeView(file.toPath());
             }
@@ -256,6 +377,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
         private final String filePermissions;
         private final String fileOwner;
         private final String fileGroup;
+        private final boolean streamingCompression;
 
         /**
          * Create the data for the factory.
@@ -273,12 +395,13 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
          * @param fileOwner File owner
          * @param fileGroup File group
          * @param configuration
+         * @param streamingCompression
          */
         public FactoryData(final String fileName, final String pattern, final boolean append, final boolean immediateFlush,
                 final int bufferSize, final TriggeringPolicy policy, final RolloverStrategy strategy,
                 final String advertiseURI, final Layout<? extends Serializable> layout,
                 final String filePermissions, final String fileOwner, final String fileGroup,
-                final Configuration configuration) {
+                final Configuration configuration, final boolean streamingCompression) {
             super(configuration);
             this.fileName = fileName;
             this.pattern = pattern;
@@ -292,6 +415,7 @@ public class RollingRandomAccessFileManager extends RollingFileManager {
             this.filePermissions = filePermissions;
             this.fileOwner = fileOwner;
             this.fileGroup = fileGroup;
+            this.streamingCompression = streamingCompression;
         }
 
         public String getPattern() {
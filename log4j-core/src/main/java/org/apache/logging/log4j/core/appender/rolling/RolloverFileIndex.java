@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.appender.rolling.action.PathWithAttributes;
+import org.apache.logging.log4j.core.util.FileWatcher;
+import org.apache.logging.log4j.core.util.WatchManager;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * An in-memory index of the files in a directory that rolled over files are archived to.
+ * <p>
+ * The directory is scanned once, reading the attributes of every file. Afterwards rollover strategies and
+ * {@link org.apache.logging.log4j.core.appender.rolling.action.DeleteAction Delete} actions report the files they
+ * delete and rename, and for each file name pattern the index keeps the matching files sorted by their counter.
+ * </p>
+ * <p>
+ * Changes made by others are picked up by reconciling the index with a listing of the file names, which only reads
+ * the attributes of new files. When the configuration is monitored the index watches the directory with the
+ * {@link WatchManager} and only reconciles after it reported a change or after a rollover. Otherwise it reconciles
+ * every time it is used. The index stops watching the directory when the last rollover strategy that uses it is
+ * released, so the {@link WatchManager} does not keep it reachable.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class RolloverFileIndex implements FileWatcher {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int MAX_PATTERNS = 4;
+
+    private static final ConcurrentMap<Path, WeakReference<RolloverFileIndex>> INDEXES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final Map<String, PathWithAttributes> files = new HashMap<>();
+    private final Set<String> activeFiles = new HashSet<>();
+    private final Map<String, Eligible> eligibleFiles = new LinkedHashMap<String, Eligible>(16, .75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Eligible> eldest) {
+            return size() > MAX_PATTERNS;
+        }
+    };
+    private boolean scanned;
+    private long listedModified;
+    private volatile boolean modified;
+    private volatile WatchManager watchManager;
+    /**
+     * The number of rollover strategies that use the index, guarded by {@link #INDEXES}.
+     */
+    private int users;
+
+    private RolloverFileIndex(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the index of the given directory, creating it if no rollover strategy uses one yet. Every call must be
+     * matched by a call to {@link #release()}.
+     *
+     * @param directory the directory that contains the archived files
+     * @param watchManager the manager to watch the directory with, may be null
+     * @return the index of the directory
+     */
+    public static RolloverFileIndex getIndex(final Path directory, final WatchManager watchManager) {
+        final Path key = directory.toAbsolutePath().normalize();
+        synchronized (INDEXES) {
+            RolloverFileIndex index = lookup(key);
+            if (index == null) {
+                INDEXES.values().removeIf(ref -> ref.get() == null);
+                index = new RolloverFileIndex(key);
+                INDEXES.put(key, new WeakReference<>(index));
+            }
+            index.users++;
+            index.watch(watchManager);
+            return index;
+        }
+    }
+
+    /**
+     * Releases the index for a rollover strategy that no longer uses it. When no strategy uses it any more the index
+     * stops watching the directory.
+     */
+    public void release() {
+        synchronized (INDEXES) {
+            if (users > 0 && --users == 0) {
+                final WatchManager manager = watchManager;
+                if (manager != null) {
+                    watchManager = null;
+                    manager.unwatchFile(directory.toFile());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the given directory if a rollover strategy uses one.
+     *
+     * @param directory the directory
+     * @return the index of the directory or null
+     */
+    public static RolloverFileIndex lookup(final Path directory) {
+        final WeakReference<RolloverFileIndex> ref = INDEXES.get(directory.toAbsolutePath().normalize());
+        return ref == null ? null : ref.get();
+    }
+
+    private void watch(final WatchManager manager) {
+        final WatchManager previous = watchManager;
+        if (manager != null && manager != previous) {
+            if (previous != null) {
+                previous.unwatchFile(directory.toFile());
+            }
+            watchManager = manager;
+            // changes made while the directory was not watched were not reported
+            modified = true;
+            manager.watchFile(directory.toFile(), this);
+        }
+    }
+
+    /**
+     * Returns the indexed directory.
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the files whose names match the given pattern, keyed by the counter captured by its first group.
+     *
+     * @param pattern the pattern file names must match
+     * @return a new map of the matching files
+     */
+    public synchronized SortedMap<Integer, Path> getEligibleFiles(final Pattern pattern) {
+        refresh();
+        Eligible eligible = eligibleFiles.get(pattern.pattern());
+        if (eligible == null) {
+            eligible = new Eligible(pattern);
+            for (final PathWithAttributes file : files.values()) {
+                eligible.add(file.getPath());
+            }
+            eligibleFiles.put(pattern.pattern(), eligible);
+        }
+        return new TreeMap<>(eligible.files);
+    }
+
+    /**
+     * Returns all files in the directory with their attributes. The attributes of files that are being written are
+     * read again.
+     *
+     * @return a new list of the files
+     */
+    public synchronized List<PathWithAttributes> getFiles() {
+        refresh();
+        final List<PathWithAttributes> result = new ArrayList<>(files.size());
+        for (final Map.Entry<String, PathWithAttributes> entry : files.entrySet()) {
+            PathWithAttributes file = entry.getValue();
+            if (activeFiles.contains(entry.getKey())) {
+                final BasicFileAttributes attributes = readAttributes(file.getPath());
+                if (attributes == null) {
+                    continue;
+                }
+                file = new PathWithAttributes(file.getPath(), attributes);
+            }
+            result.add(file);
+        }
+        return result;
+    }
+
+    /**
+     * Registers a file that an appender is writing to, whose attributes must not be cached.
+     *
+     * @param file the file being written
+     */
+    public synchronized void fileActive(final Path file) {
+        activeFiles.add(file.getFileName().toString());
+    }
+
+    /**
+     * Records that a file was created.
+     *
+     * @param file the new file
+     */
+    public synchronized void fileCreated(final Path file) {
+        if (scanned) {
+            final BasicFileAttributes attributes = readAttributes(file);
+            if (attributes != null) {
+                add(file.getFileName().toString(), attributes);
+            }
+        }
+    }
+
+    /**
+     * Records that a file was deleted.
+     *
+     * @param file the deleted file
+     */
+    public synchronized void fileDeleted(final Path file) {
+        remove(file.getFileName().toString());
+    }
+
+    /**
+     * Records that a file was renamed.
+     *
+     * @param source the old name of the file
+     * @param target the new name of the file
+     */
+    public synchronized void fileRenamed(final Path source, final Path target) {
+        final PathWithAttributes file = remove(source.getFileName().toString());
+        if (file != null && directory.equals(target.toAbsolutePath().normalize().getParent())) {
+            add(target.getFileName().toString(), file.getAttributes());
+        } else {
+            fileCreated(target);
+        }
+    }
+
+    /**
+     * Marks the index as out of date, for example after a rollover whose actions are still running.
+     */
+    public void markModified() {
+        modified = true;
+    }
+
+    /**
+     * Called by the {@link WatchManager} when the directory changed.
+     *
+     * @param file the directory
+     */
+    @Override
+    public void fileModified(final File file) {
+        if (file.lastModified() != listedModified) {
+            modified = true;
+        }
+    }
+
+    private boolean isWatched() {
+        final WatchManager manager = watchManager;
+        return manager != null && manager.isStarted() && manager.getIntervalSeconds() > 0;
+    }
+
+    private void refresh() {
+        if (!scanned) {
+            scan();
+        } else if (modified || !isWatched()) {
+            reconcile();
+        }
+    }
+
+    private void scan() {
+        modified = false;
+        listedModified = directory.toFile().lastModified();
+        final long startNanos = System.nanoTime();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path entry : stream) {
+                final BasicFileAttributes attributes = readAttributes(entry);
+                if (attributes != null) {
+                    add(entry.getFileName().toString(), attributes);
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new LoggingException("Error reading folder " + directory + " " + ioe.getMessage(), ioe);
+        }
+        scanned = true;
+        LOGGER.debug("Indexed {} files in {} in {} microseconds", files.size(), directory,
+                (System.nanoTime() - startNanos) / 1000);
+    }
+
+    private void reconcile() {
+        modified = false;
+        listedModified = directory.toFile().lastModified();
+        final Set<String> missing = new HashSet<>(files.keySet());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path entry : stream) {
+                final String name = entry.getFileName().toString();
+                if (!missing.remove(name)) {
+                    final BasicFileAttributes attributes = readAttributes(entry);
+                    if (attributes != null) {
+                        add(name, attributes);
+                    }
+                }
+            }
+        } catch (final IOException ioe) {
+            throw new LoggingException("Error reading folder " + directory + " " + ioe.getMessage(), ioe);
+        }
+        for (final String name : missing) {
+            remove(name);
+        }
+    }
+
+    private void add(final String name, final BasicFileAttributes attributes) {
+        final Path path = directory.resolve(name);
+        files.put(name, new PathWithAttributes(path, attributes));
+        for (final Eligible eligible : eligibleFiles.values()) {
+            eligible.add(path);
+        }
+    }
+
+    private PathWithAttributes remove(final String name) {
+        final PathWithAttributes file = files.remove(name);
+        activeFiles.remove(name);
+        if (file != null) {
+            for (final Eligible eligible : eligibleFiles.values()) {
+                eligible.remove(file.getPath(), files.values());
+            }
+        }
+        return file;
+    }
+
+    private static BasicFileAttributes readAttributes(final Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException ex) {
+            return null;
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to read the attributes of {}: {}", path, ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RolloverFileIndex[directory=" + directory + ", files=" + files.size() + ']';
+    }
+
+    /**
+     * The files matching a file name pattern, keyed by their counter.
+     */
+    private static final class Eligible {
+
+        private final Pattern pattern;
+        private final TreeMap<Integer, Path> files = new TreeMap<>();
+
+        Eligible(final Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        void add(final Path path) {
+            final Integer index = index(path);
+            if (index != null) {
+                files.put(index, path);
+            }
+        }
+
+        void remove(final Path path, final Iterable<PathWithAttributes> remaining) {
+            final Integer index = index(path);
+            if (index != null && path.equals(files.get(index))) {
+                files.remove(index);
+                // another file with the same counter, like an archive that is being compressed, takes its place
+                for (final Iterator<PathWithAttributes> it = remaining.iterator(); it.hasNext();) {
+                    final Path other = it.next().getPath();
+                    if (index.equals(index(other))) {
+                        files.put(index, other);
+                        break;
+                    }
+                }
+            }
+        }
+
+        private Integer index(final Path path) {
+            final Matcher matcher = pattern.matcher(path.getFileName().toString());
+            return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+        }
+    }
+}
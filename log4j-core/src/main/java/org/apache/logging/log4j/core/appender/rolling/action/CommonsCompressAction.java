@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.Objects;
 
@@ -128,6 +129,26 @@ public final class CommonsCompressAction extends AbstractAction {
         return true;
     }
 
+    /**
+     * Creates a stream that compresses to the given stream.
+     *
+     * @param name the compressor name, i.e. "xz" or "zstd".
+     * @param out the stream to write the compressed bytes to
+     * @return a stream that finishes the compressed data when closed
+     * @throws IOException if the compressor is not available or cannot write to the stream
+     * @since 3.0
+     */
+    public static OutputStream createOutputStream(final String name, final OutputStream out) throws IOException {
+        try {
+            return new CompressorStreamFactory().createCompressorOutputStream(name, out);
+        } catch (final CompressorException e) {
+            throw new IOException(e);
+        } catch (final LinkageError e) {
+            // the compressor relies on an optional library that is missing
+            throw new IOException("Unable to create " + name + " compressor", e);
+        }
+    }
+
     /**
      * Reports exception.
      *
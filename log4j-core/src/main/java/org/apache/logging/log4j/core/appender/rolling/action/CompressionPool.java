@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.core.jmx.Server;
+import org.apache.logging.log4j.core.util.Log4jThreadFactory;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * A bounded pool of threads that compress blocks of rolled over files in parallel, shared by all rolling appenders.
+ * <p>
+ * The number of threads defaults to the number of available processors and can be set with the system property
+ * {@value #THREADS_PROPERTY}. Files are split into blocks of {@value #DEFAULT_BLOCK_SIZE} bytes unless the system
+ * property {@value #BLOCK_SIZE_PROPERTY} says otherwise. Idle threads terminate after a minute.
+ * </p>
+ * <p>
+ * The pool is created when the first appender {@linkplain #acquire() acquires} it to compress a file, and shut down
+ * when the last one {@linkplain #release() releases} it. At most {@value #QUEUED_BLOCKS_PER_THREAD} blocks per thread
+ * wait in the queue; once it is full, or the pool has been shut down, blocks are compressed by the thread that submits
+ * them.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class CompressionPool {
+
+    /**
+     * Name of the system property that sets the number of compression threads.
+     */
+    public static final String THREADS_PROPERTY = "log4j2.compression.threads";
+
+    /**
+     * Name of the system property that sets the size of the blocks files are split into.
+     */
+    public static final String BLOCK_SIZE_PROPERTY = "log4j2.compression.blockSize";
+
+    /**
+     * The default block size.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final int MIN_BLOCK_SIZE = 64 * 1024;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final int QUEUED_BLOCKS_PER_THREAD = 2;
+    private static final RejectedExecutionHandler RUN_IN_CALLER = (block, executor) -> block.run();
+
+    // guarded by CompressionPool.class
+    private static CompressionPool instance;
+    private static int users;
+
+    private final ThreadPoolExecutor executor;
+    private final int blockSize;
+    private final AtomicInteger pendingFiles = new AtomicInteger();
+    private final AtomicLong compressedFiles = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong compressionNanos = new AtomicLong();
+
+    CompressionPool(final int threads, final int blockSize) {
+        this.blockSize = Math.max(MIN_BLOCK_SIZE, blockSize);
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(threads * QUEUED_BLOCKS_PER_THREAD),
+                Log4jThreadFactory.createDaemonThreadFactory("Compression"), RUN_IN_CALLER);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the pool shared by all rolling appenders, creating it if no appender uses it yet. Each call must be
+     * matched by a call to {@link #release()}.
+     *
+     * @return the shared pool
+     */
+    public static synchronized CompressionPool acquire() {
+        if (instance == null) {
+            final PropertiesUtil props = PropertiesUtil.getProperties();
+            final int threads = Math.max(1, props.getIntegerProperty(THREADS_PROPERTY,
+                    Runtime.getRuntime().availableProcessors()));
+            instance = new CompressionPool(threads, props.getIntegerProperty(BLOCK_SIZE_PROPERTY, DEFAULT_BLOCK_SIZE));
+            Server.registerCompressionPool();
+        }
+        users++;
+        return instance;
+    }
+
+    /**
+     * Returns the pool shared by all rolling appenders without creating it.
+     *
+     * @return the shared pool or null if no appender uses it
+     */
+    public static synchronized CompressionPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Releases this pool, shutting it down if it is the shared pool and no other appender uses it. Blocks already
+     * queued are still compressed.
+     */
+    public void release() {
+        synchronized (CompressionPool.class) {
+            if (instance != this || --users > 0) {
+                return;
+            }
+            instance = null;
+            Server.unregisterCompressionPool();
+        }
+        shutdown();
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    <T> Future<T> submit(final Callable<T> block) {
+        return executor.submit(() -> {
+            final long start = System.nanoTime();
+            try {
+                return block.call();
+            } finally {
+                compressionNanos.addAndGet(System.nanoTime() - start);
+            }
+        });
+    }
+
+    void fileStarted() {
+        pendingFiles.incrementAndGet();
+    }
+
+    void fileFinished(final long read, final long written) {
+        pendingFiles.decrementAndGet();
+        compressedFiles.incrementAndGet();
+        bytesRead.addAndGet(read);
+        bytesWritten.addAndGet(written);
+    }
+
+    void fileFailed() {
+        pendingFiles.decrementAndGet();
+    }
+
+    /**
+     * Returns the maximum number of threads compressing at the same time.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the number of threads currently compressing a block.
+     *
+     * @return the number of active threads
+     */
+    public int getActiveThreads() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Returns the size of the blocks files are split into.
+     *
+     * @return the block size in bytes
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Returns the number of files being compressed.
+     *
+     * @return the number of files being compressed
+     */
+    public int getPendingFiles() {
+        return pendingFiles.get();
+    }
+
+    /**
+     * Returns the number of blocks waiting for a thread.
+     *
+     * @return the number of queued blocks
+     */
+    public int getQueuedBlocks() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the number of files compressed since the pool was created.
+     *
+     * @return the number of compressed files
+     */
+    public long getCompressedFiles() {
+        return compressedFiles.get();
+    }
+
+    /**
+     * Returns the number of uncompressed bytes of the compressed files.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * Returns the number of compressed bytes written.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Returns the time the threads spent compressing blocks.
+     *
+     * @return the compression time in nanoseconds
+     */
+    public long getCompressionNanos() {
+        return compressionNanos.get();
+    }
+}
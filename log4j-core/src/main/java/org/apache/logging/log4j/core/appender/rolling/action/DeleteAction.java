@@ -21,10 +21,13 @@ import java.io.IOException;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.appender.rolling.RolloverFileIndex;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
@@ -120,6 +123,10 @@ public class DeleteAction extends AbstractPathAction {
     protected void delete(final Path path) throws IOException {
         LOGGER.trace("Deleting {}", path);
         Files.deleteIfExists(path);
+        final RolloverFileIndex index = RolloverFileIndex.lookup(path.toAbsolutePath().getParent());
+        if (index != null) {
+            index.fileDeleted(path);
+        }
     }
 
     /*
@@ -158,12 +165,31 @@ public class DeleteAction extends AbstractPathAction {
      * @throws IOException
      */
     List<PathWithAttributes> getSortedPaths() throws IOException {
+        final RolloverFileIndex index = getFileIndex();
+        if (index != null) {
+            // the files of a directory indexed by a rollover strategy need not be walked again
+            final Path basePath = getBasePath();
+            final List<PathWithAttributes> sortedPaths = new ArrayList<>();
+            for (final PathWithAttributes file : index.getFiles()) {
+                sortedPaths.add(new PathWithAttributes(basePath.resolve(file.getPath().getFileName()),
+                        file.getAttributes()));
+            }
+            Collections.sort(sortedPaths, pathSorter);
+            return sortedPaths;
+        }
         final SortingVisitor sort = new SortingVisitor(pathSorter);
         super.execute(sort);
         final List<PathWithAttributes> sortedPaths = sort.getSortedPaths();
         return sortedPaths;
     }
 
+    private RolloverFileIndex getFileIndex() {
+        if (getMaxDepth() != 1 || isFollowSymbolicLinks()) {
+            return null;
+        }
+        return RolloverFileIndex.lookup(getBasePath());
+    }
+
     /**
      * Returns {@code true} if files are not deleted even when all conditions accept a path, {@code false} otherwise.
      * 
@@ -175,7 +201,12 @@ public class DeleteAction extends AbstractPathAction {
 
     @Override
     protected FileVisitor<Path> createFileVisitor(final Path visitorBaseDir, final List<PathCondition> conditions) {
-        return new DeletingVisitor(visitorBaseDir, conditions, testMode);
+        return new DeletingVisitor(visitorBaseDir, conditions, testMode) {
+            @Override
+            protected void delete(final Path file) throws IOException {
+                DeleteAction.this.delete(file);
+            }
+        };
     }
 
     /**
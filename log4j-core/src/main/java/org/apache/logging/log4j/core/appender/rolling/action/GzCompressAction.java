@@ -156,10 +156,30 @@ public final class GzCompressAction extends AbstractAction {
         return false;
     }
 
+    /**
+     * Creates a stream that compresses to the given stream in the gzip format and ends a deflate block on every flush,
+     * so that everything written before the flush can be decompressed.
+     *
+     * @param out the stream to write the compressed bytes to
+     * @param compressionLevel Gzip deflater compression level
+     * @return a gzip stream that finishes the compressed data when closed
+     * @throws IOException if the gzip header cannot be written
+     * @since 3.0
+     */
+    public static OutputStream createSyncFlushStream(final OutputStream out, final int compressionLevel)
+            throws IOException {
+        return new ConfigurableLevelGZIPOutputStream(out, BUF_SIZE, compressionLevel, true);
+    }
+
     private static final class ConfigurableLevelGZIPOutputStream extends GZIPOutputStream {
 
         ConfigurableLevelGZIPOutputStream(OutputStream out, int bufSize, int level) throws IOException {
-            super(out, bufSize);
+            this(out, bufSize, level, false);
+        }
+
+        ConfigurableLevelGZIPOutputStream(OutputStream out, int bufSize, int level, boolean syncFlush)
+                throws IOException {
+            super(out, bufSize, syncFlush);
             def.setLevel(level);
         }
     }
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses a file using GZ compression, splitting it into blocks that are compressed in parallel by a
+ * {@link CompressionPool}.
+ * <p>
+ * Like pigz, each block is deflated independently with the last 32 KB of the previous block as its dictionary and
+ * ends on a byte boundary, so the blocks concatenate to a single gzip member that any gzip implementation can read.
+ * At most two blocks per pool thread are held in memory for a file.
+ * </p>
+ *
+ * @since 3.0
+ */
+public final class ParallelGzCompressAction extends AbstractAction {
+
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final int BUF_SIZE = 64 * 1024;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final File source;
+    private final File destination;
+    private final boolean deleteSource;
+    private final int compressionLevel;
+    private final CompressionPool pool;
+
+    /**
+     * Creates a new instance of ParallelGzCompressAction.
+     *
+     * @param source       file to compress, may not be null.
+     * @param destination  compressed file, may not be null.
+     * @param deleteSource if true, attempt to delete file on completion.  Failure to delete
+     *                     does not cause an exception to be thrown or affect return value.
+     * @param compressionLevel
+     *                     Gzip deflater compression level.
+     * @param pool         the pool that compresses the blocks, may not be null.
+     */
+    public ParallelGzCompressAction(final File source, final File destination, final boolean deleteSource,
+            final int compressionLevel, final CompressionPool pool) {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(destination, "destination");
+        Objects.requireNonNull(pool, "pool");
+        this.source = source;
+        this.destination = destination;
+        this.deleteSource = deleteSource;
+        this.compressionLevel = compressionLevel;
+        this.pool = pool;
+    }
+
+    /**
+     * Compress.
+     *
+     * @return true if successfully compressed.
+     * @throws IOException on IO exception.
+     */
+    @Override
+    public boolean execute() throws IOException {
+        if (!source.exists()) {
+            return false;
+        }
+        LOGGER.debug("Starting parallel gzip compression of {}", source);
+        pool.fileStarted();
+        final long[] written = new long[1];
+        final long read;
+        try {
+            read = compress(written);
+        } catch (final IOException | RuntimeException e) {
+            pool.fileFailed();
+            throw e;
+        }
+        pool.fileFinished(read, written[0]);
+        LOGGER.debug("Finished parallel gzip compression of {}", source);
+
+        if (deleteSource && !source.delete()) {
+            LOGGER.warn("Unable to delete {}.", source);
+        }
+        return true;
+    }
+
+    private long compress(final long[] written) throws IOException {
+        final int blockSize = pool.getBlockSize();
+        final int maxInFlight = 2 * pool.getThreads();
+        final Deque<Future<byte[]>> inFlight = new ArrayDeque<>(maxInFlight + 1);
+        final CRC32 crc = new CRC32();
+        long total = 0;
+        try (final InputStream input = new FileInputStream(source);
+                final OutputStream output = new FileOutputStream(destination)) {
+            output.write(HEADER);
+            written[0] = HEADER.length;
+            byte[] dictionary = null;
+            byte[] block = new byte[blockSize];
+            int length = readBlock(input, block);
+            do {
+                final byte[] next = length < blockSize ? null : new byte[blockSize];
+                final int nextLength = next == null ? -1 : readBlock(input, next);
+                final boolean last = nextLength <= 0;
+                crc.update(block, 0, length);
+                total += length;
+                final byte[] data = block;
+                final int dataLength = length;
+                final byte[] dict = dictionary;
+                inFlight.add(pool.submit(() -> deflate(data, dataLength, dict, last)));
+                if (inFlight.size() >= maxInFlight) {
+                    written[0] += writeBlock(inFlight.poll(), output);
+                }
+                if (!last) {
+                    dictionary = Arrays.copyOfRange(block, Math.max(0, length - DICTIONARY_SIZE), length);
+                    block = next;
+                    length = nextLength;
+                } else {
+                    length = -1;
+                }
+            } while (length >= 0);
+            while (!inFlight.isEmpty()) {
+                written[0] += writeBlock(inFlight.poll(), output);
+            }
+            writeInt(output, (int) crc.getValue());
+            writeInt(output, (int) total);
+            written[0] += 8;
+        } finally {
+            for (final Future<byte[]> future : inFlight) {
+                future.cancel(false);
+            }
+        }
+        return total;
+    }
+
+    private static int readBlock(final InputStream input, final byte[] block) throws IOException {
+        int length = 0;
+        int n;
+        while (length < block.length && (n = input.read(block, length, block.length - length)) > 0) {
+            length += n;
+        }
+        return length;
+    }
+
+    private byte[] deflate(final byte[] data, final int length, final byte[] dictionary, final boolean last) {
+        final Deflater deflater = new Deflater(compressionLevel, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(data, 0, length);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + 64);
+            final byte[] buf = new byte[BUF_SIZE];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    final int n = deflater.deflate(buf);
+                    out.write(buf, 0, n);
+                }
+            } else {
+                // a sync flush ends the block on a byte boundary without ending the stream
+                int n;
+                do {
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    out.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int writeBlock(final Future<byte[]> future, final OutputStream output) throws IOException {
+        final byte[] compressed;
+        try {
+            compressed = future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (final ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        output.write(compressed);
+        return compressed.length;
+    }
+
+    private static void writeInt(final OutputStream output, final int value) throws IOException {
+        output.write(value);
+        output.write(value >>> 8);
+        output.write(value >>> 16);
+        output.write(value >>> 24);
+    }
+
+    /**
+     * Capture exception.
+     *
+     * @param ex exception.
+     */
+    @Override
+    protected void reportException(final Exception ex) {
+        LOGGER.warn("Exception during parallel compression of '" + source.toString() + "'.", ex);
+    }
+
+    @Override
+    public String toString() {
+        return ParallelGzCompressAction.class.getSimpleName() + '[' + source + " to " + destination
+                + ", deleteSource=" + deleteSource + ']';
+    }
+
+    public File getSource() {
+        return source;
+    }
+
+    public File getDestination() {
+        return destination;
+    }
+
+    public boolean isDeleteSource() {
+        return deleteSource;
+    }
+}
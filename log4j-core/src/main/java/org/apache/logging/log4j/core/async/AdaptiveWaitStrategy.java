@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+
+/**
+ * Wait strategy that spins, yields or parks depending on how long the consumer recently had to wait for events.
+ * <p>
+ * Every wait starts in the cheapest phase that matches the recent arrival rate: the consumer spins if recent waits were
+ * shorter than the spin threshold, yields if they were shorter than the yield threshold, and parks immediately
+ * otherwise. While waiting it escalates from spinning to yielding to parking as the wait exceeds the thresholds. A
+ * parked consumer is unparked by the next publish, and wakes up on its own after the maximum park time in case a
+ * signal was missed.
+ * </p>
+ * <p>
+ * Unlike {@code BlockingWaitStrategy}, publishers never take a lock: signalling costs a volatile read unless the
+ * consumer is parked. This strategy assumes a single consumer thread, which is how Async Loggers use it.
+ * </p>
+ */
+public class AdaptiveWaitStrategy implements WaitStrategy {
+
+    /**
+     * What the consumer thread of an {@code AdaptiveWaitStrategy} is doing.
+     */
+    public enum Phase {
+        /** The consumer is processing events. */
+        PROCESSING,
+        /** The consumer is busy-spinning for the next event. */
+        SPINNING,
+        /** The consumer is calling {@code Thread.yield()} while waiting for the next event. */
+        YIELDING,
+        /** The consumer is parked until the next event is published. */
+        PARKED
+    }
+
+    /** The wait duration estimate is an exponentially weighted moving average with a weight of 1/8. */
+    private static final int EWMA_SHIFT = 3;
+
+    private final long spinThresholdNanos;
+    private final long yieldThresholdNanos;
+    private final long maxParkNanos;
+
+    private volatile Phase phase = Phase.PROCESSING;
+    private volatile Thread parkedThread;
+    private long averageWaitNanos;
+
+    /**
+     * Creates a new {@code AdaptiveWaitStrategy}.
+     *
+     * @param spinThresholdNanos how long the consumer spins before it starts yielding
+     * @param yieldThresholdNanos how long the consumer waits, spinning and yielding, before it parks
+     * @param maxParkNanos how long a parked consumer sleeps before it checks for events without being signalled
+     */
+    public AdaptiveWaitStrategy(final long spinThresholdNanos, final long yieldThresholdNanos,
+            final long maxParkNanos) {
+        if (spinThresholdNanos < 0 || yieldThresholdNanos < spinThresholdNanos || maxParkNanos <= 0) {
+            throw new IllegalArgumentException("Invalid thresholds: spinThresholdNanos=" + spinThresholdNanos
+                    + ", yieldThresholdNanos=" + yieldThresholdNanos + ", maxParkNanos=" + maxParkNanos);
+        }
+        this.spinThresholdNanos = spinThresholdNanos;
+        this.yieldThresholdNanos = yieldThresholdNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor, final Sequence dependentSequence,
+            final SequenceBarrier barrier) throws AlertException, InterruptedException {
+        long availableSequence = dependentSequence.get();
+        if (availableSequence >= sequence) {
+            averageWaitNanos -= averageWaitNanos >> EWMA_SHIFT;
+            return availableSequence;
+        }
+        final long start = System.nanoTime();
+        long waited = 0;
+        Phase current = initialPhase();
+        phase = current;
+        while ((availableSequence = dependentSequence.get()) < sequence) {
+            barrier.checkAlert();
+            waited = System.nanoTime() - start;
+            if (current == Phase.SPINNING && waited >= spinThresholdNanos) {
+                current = Phase.YIELDING;
+                phase = current;
+            }
+            if (current == Phase.YIELDING && waited >= yieldThresholdNanos) {
+                current = Phase.PARKED;
+                phase = current;
+            }
+            if (current == Phase.YIELDING) {
+                Thread.yield();
+            } else if (current == Phase.PARKED) {
+                park(sequence, dependentSequence);
+            }
+        }
+        phase = Phase.PROCESSING;
+        averageWaitNanos += (waited - averageWaitNanos) >> EWMA_SHIFT;
+        return availableSequence;
+    }
+
+    private Phase initialPhase() {
+        final long average = averageWaitNanos;
+        if (average < spinThresholdNanos) {
+            return Phase.SPINNING;
+        }
+        return average < yieldThresholdNanos ? Phase.YIELDING : Phase.PARKED;
+    }
+
+    private void park(final long sequence, final Sequence dependentSequence) {
+        parkedThread = Thread.currentThread();
+        // re-check after publishing parkedThread: a publisher that missed it has already advanced the sequence
+        if (dependentSequence.get() < sequence) {
+            LockSupport.parkNanos(this, maxParkNanos);
+        }
+        parkedThread = null;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        final Thread thread = parkedThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Returns what the consumer thread is currently doing.
+     *
+     * @return the current phase of the consumer thread
+     */
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public long getSpinThresholdNanos() {
+        return spinThresholdNanos;
+    }
+
+    public long getYieldThresholdNanos() {
+        return yieldThresholdNanos;
+    }
+
+    public long getMaxParkNanos() {
+        return maxParkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveWaitStrategy[spinThresholdNanos=" + spinThresholdNanos + ", yieldThresholdNanos="
+                + yieldThresholdNanos + ", maxParkNanos=" + maxParkNanos + ", phase=" + phase + "]";
+    }
+}
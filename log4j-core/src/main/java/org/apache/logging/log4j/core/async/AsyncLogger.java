@@ -43,7 +43,7 @@ import org.apache.logging.log4j.util.StackLocatorUtil;
 import org.apache.logging.log4j.util.StringMap;
 
 import com.lmax.disruptor.EventTranslatorVararg;
-import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.RingBuffer;
 
 /**
  * AsyncLogger is a logger designed for high throughput and low latency logging. It does not perform any I/O in the
@@ -326,8 +326,8 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             final Message message, final Throwable thrown) {
         // Implementation note: candidate for optimization: exceeds 35 bytecodes.
 
-        final Disruptor<RingBufferLogEvent> disruptor = loggerDisruptor.getDisruptor();
-        if (disruptor == null) {
+        final RingBuffer<RingBufferLogEvent> ringBuffer = loggerDisruptor.getRingBuffer();
+        if (ringBuffer == null) {
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
@@ -337,7 +337,7 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         }
         StackTraceElement location = null;
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (!ringBuffer.tryPublishEvent(this,
                 this, // asyncLogger: 0
                 (location = calcLocationIfRequested(fqcn)), // location: 1
                 fqcn, // 2
@@ -366,8 +366,8 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
                                          final Marker marker, final Message message, final Throwable thrown) {
         // Implementation note: candidate for optimization: exceeds 35 bytecodes.
 
-        final Disruptor<RingBufferLogEvent> disruptor = loggerDisruptor.getDisruptor();
-        if (disruptor == null) {
+        final RingBuffer<RingBufferLogEvent> ringBuffer = loggerDisruptor.getRingBuffer();
+        if (ringBuffer == null) {
             LOGGER.error("Ignoring log event after Log4j has been shut down.");
             return;
         }
@@ -376,7 +376,7 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
             InternalAsyncUtil.makeMessageImmutable(message);
         }
         // calls the translateTo method on this AsyncLogger
-        if (!disruptor.getRingBuffer().tryPublishEvent(this,
+        if (!ringBuffer.tryPublishEvent(this,
             this, // asyncLogger: 0
             location, // location: 1
             fqcn, // 2
@@ -486,6 +486,27 @@ public class AsyncLogger extends Logger implements EventTranslatorVararg<RingBuf
         privateConfigLoggerConfig.getReliabilityStrategy().log(this, event);
     }
 
+    /**
+     * This method is called by the EventHandler that processes a batch of RingBufferLogEvents in a separate thread.
+     * Merges the configuration properties into the contextData of each event and passes the events on to the
+     * appenders together.
+     *
+     * @param events the events to log
+     * @param count the number of events to log
+     */
+    void actualAsyncLogBatch(final RingBufferLogEvent[] events, final int count) {
+        final LoggerConfig privateConfigLoggerConfig = privateConfig.loggerConfig;
+        final List<Property> properties = privateConfigLoggerConfig.getPropertyList();
+
+        if (properties != null) {
+            for (int i = 0; i < count; i++) {
+                onPropertiesPresent(events[i], properties);
+            }
+        }
+
+        privateConfigLoggerConfig.getReliabilityStrategy().logBatch(this, events, count);
+    }
+
     @SuppressWarnings("ForLoopReplaceableByForEach") // Avoid iterator allocation
     private void onPropertiesPresent(final RingBufferLogEvent event, final List<Property> properties) {
         StringMap contextData = getContextData(event);
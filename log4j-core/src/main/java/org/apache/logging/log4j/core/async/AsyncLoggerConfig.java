@@ -120,6 +120,18 @@ public class AsyncLoggerConfig extends LoggerConfig {
         super.callAppenders(event);
     }
 
+    @Override
+    protected void logBatch(final LogEvent[] events, final int count, final LoggerConfigPredicate predicate) {
+        if (predicate == LoggerConfigPredicate.ALL) {
+            // each event must be logged to the synchronous loggers and then enqueued, see log(LogEvent, predicate)
+            for (int i = 0; i < count; i++) {
+                log(events[i], predicate);
+            }
+        } else {
+            super.logBatch(events, count, predicate);
+        }
+    }
+
     private void logToAsyncDelegate(LogEvent event) {
         if (!isFiltered(event)) {
             // Passes on the event to a separate thread that will call
@@ -162,6 +174,13 @@ public class AsyncLoggerConfig extends LoggerConfig {
         log(event, LoggerConfigPredicate.ASYNCHRONOUS_ONLY);
     }
 
+    /**
+     * Called by AsyncLoggerConfigHelper.RingBufferLog4jEventHandler with the events it took from the queue in one go.
+     */
+    void logToAsyncLoggerConfigsOnCurrentThread(final LogEvent[] events, final int count) {
+        logBatch(events, count, LoggerConfigPredicate.ASYNCHRONOUS_ONLY);
+    }
+
     private String displayName() {
         return LogManager.ROOT_LOGGER_NAME.equals(getName()) ? LoggerConfig.ROOT : getName();
     }
@@ -95,33 +95,52 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      * EventHandler performs the work in a separate thread.
      */
     private static class Log4jEventWrapperHandler implements SequenceReportingEventHandler<Log4jEventWrapper> {
-        private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
+        private static final int MAX_BATCH_SIZE = RingBufferLogEventHandler.MAX_BATCH_SIZE;
+        private final Log4jEventWrapper[] wrappers = new Log4jEventWrapper[MAX_BATCH_SIZE];
+        private final LogEvent[] events = new LogEvent[MAX_BATCH_SIZE];
+        private int batchSize;
         private Sequence sequenceCallback;
-        private int counter;
 
         @Override
         public void setSequenceCallback(final Sequence sequenceCallback) {
             this.sequenceCallback = sequenceCallback;
         }
 
+        /**
+         * Collects events until the end of the Disruptor's batch, until {@code MAX_BATCH_SIZE} events are collected
+         * or until an event for another AsyncLoggerConfig arrives, and then passes the collected events on to the
+         * appenders together.
+         */
         @Override
         public void onEvent(final Log4jEventWrapper event, final long sequence, final boolean endOfBatch)
                 throws Exception {
-            event.event.setEndOfBatch(endOfBatch);
-            event.loggerConfig.logToAsyncLoggerConfigsOnCurrentThread(event.event);
-            event.clear();
-
-            notifyIntermediateProgress(sequence);
+            try {
+                if (batchSize > 0 && wrappers[0].loggerConfig != event.loggerConfig) {
+                    executeBatch(sequence - 1);
+                }
+            } finally {
+                event.event.setEndOfBatch(endOfBatch);
+                wrappers[batchSize] = event;
+                events[batchSize++] = event.event;
+                if (endOfBatch || batchSize == MAX_BATCH_SIZE) {
+                    executeBatch(sequence);
+                }
+            }
         }
 
-        /**
-         * Notify the BatchEventProcessor that the sequence has progressed. Without this callback the sequence would not
-         * be progressed until the batch has completely finished.
-         */
-        private void notifyIntermediateProgress(final long sequence) {
-            if (++counter > NOTIFY_PROGRESS_THRESHOLD) {
-                sequenceCallback.set(sequence);
-                counter = 0;
+        private void executeBatch(final long lastSequence) {
+            try {
+                wrappers[0].loggerConfig.logToAsyncLoggerConfigsOnCurrentThread(events, batchSize);
+            } finally {
+                for (int i = 0; i < batchSize; i++) {
+                    wrappers[i].clear();
+                    wrappers[i] = null;
+                    events[i] = null;
+                }
+                batchSize = 0;
+                // Notify the BatchEventProcessor that the sequence has progressed. Without this callback the sequence
+                // would not be progressed until the batch has completely finished.
+                sequenceCallback.set(lastSequence);
             }
         }
     }
@@ -181,6 +200,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
     private Boolean mutable = Boolean.FALSE;
 
     private volatile Disruptor<Log4jEventWrapper> disruptor;
+    private WaitStrategy waitStrategy;
     private long backgroundThreadId; // LOG4J2-471
     private EventFactory<Log4jEventWrapper> factory;
     private EventTranslatorTwoArg<Log4jEventWrapper, LogEvent, AsyncLoggerConfig> translator;
@@ -214,7 +234,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
         }
         LOGGER.trace("AsyncLoggerConfigDisruptor creating new disruptor for this configuration.");
         ringBufferSize = DisruptorUtil.calculateRingBufferSize("AsyncLoggerConfig.RingBufferSize");
-        final WaitStrategy waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLoggerConfig.WaitStrategy");
+        waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLoggerConfig.WaitStrategy");
 
         final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLoggerConfig", true, Thread.NORM_PRIORITY) {
             @Override
@@ -414,6 +434,7 @@ public class AsyncLoggerConfigDisruptor extends AbstractLifeCycle implements Asy
      */
     @Override
     public RingBufferAdmin createRingBufferAdmin(final String contextName, final String loggerConfigName) {
-        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), contextName, loggerConfigName);
+        return RingBufferAdmin.forAsyncLoggerConfig(disruptor.getRingBuffer(), waitStrategy, contextName,
+                loggerConfigName);
     }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.logging.log4j.core.async;
 
+import java.util.Locale;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
@@ -30,29 +31,49 @@ import org.apache.logging.log4j.core.util.Throwables;
 
 import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.TimeoutException;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.PropertiesUtil;
 
 /**
  * Helper class for async loggers: AsyncLoggerDisruptor handles the mechanics of working with the LMAX Disruptor, and
  * works with its associated AsyncLoggerContext to synchronize the life cycle of the Disruptor and its thread with the
  * life cycle of the context. The AsyncLoggerDisruptor of the context is shared by all AsyncLogger objects created by
  * that AsyncLoggerContext.
+ * <p>
+ * When system property {@code AsyncLogger.RingBufferShards} is larger than one, producers are spread over that many
+ * ring buffers by thread ID so they do not all contend on the same sequence. System property
+ * {@code AsyncLogger.RingBufferShardOrdering} selects how the shards are drained: {@code NONE} (the default) gives each
+ * shard its own background thread, {@code TIMESTAMP} drains all shards from one background thread that merges the
+ * events in timestamp order.
+ * </p>
  */
 class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private static final int SLEEP_MILLIS_BETWEEN_DRAIN_ATTEMPTS = 50;
     private static final int MAX_DRAIN_ATTEMPTS_BEFORE_SHUTDOWN = 200;
 
+    /**
+     * How the events of multiple ring buffer shards are handed to the appenders.
+     */
+    enum ShardOrdering {
+        /** Each shard is drained by its own background thread, events from different shards may interleave. */
+        NONE,
+        /** All shards are drained by a single background thread that logs the oldest available event first. */
+        TIMESTAMP
+    }
+
     private final Object queueFullEnqueueLock = new Object();
 
-    private volatile Disruptor<RingBufferLogEvent> disruptor;
+    private volatile Disruptor<RingBufferLogEvent>[] disruptors;
+    private WaitStrategy[] waitStrategies;
     private String contextName;
 
     private boolean useThreadLocalTranslator = true;
-    private long backgroundThreadId;
+    private long[] backgroundThreadIds = new long[0];
     private AsyncQueueFullPolicy asyncQueueFullPolicy;
     private int ringBufferSize;
 
@@ -68,8 +89,28 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         contextName = name;
     }
 
+    /**
+     * Returns the Disruptor of the first shard, or {@code null} if this AsyncLoggerDisruptor was stopped.
+     */
     Disruptor<RingBufferLogEvent> getDisruptor() {
-        return disruptor;
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? null : temp[0];
+    }
+
+    /**
+     * Returns the ring buffer the current thread publishes to, or {@code null} if this AsyncLoggerDisruptor was
+     * stopped.
+     */
+    RingBuffer<RingBufferLogEvent> getRingBuffer() {
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        return temp == null ? null : shardOf(temp).getRingBuffer();
+    }
+
+    private static Disruptor<RingBufferLogEvent> shardOf(final Disruptor<RingBufferLogEvent>[] shards) {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        return shards[(int) (Thread.currentThread().getId() % shards.length)];
     }
 
     /**
@@ -79,7 +120,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      */
     @Override
     public synchronized void start() {
-        if (disruptor != null) {
+        if (disruptors != null) {
             LOGGER.trace(
                     "[{}] AsyncLoggerDisruptor not starting new disruptor for this context, using existing object.",
                     contextName);
@@ -87,44 +128,88 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         }
         LOGGER.trace("[{}] AsyncLoggerDisruptor creating new disruptor for this context.", contextName);
         ringBufferSize = DisruptorUtil.calculateRingBufferSize("AsyncLogger.RingBufferSize");
-        final WaitStrategy waitStrategy = DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy");
+        final int shardCount = DisruptorUtil.calculateRingBufferShards("AsyncLogger.RingBufferShards");
+        final ShardOrdering ordering = shardCount == 1 ? ShardOrdering.NONE : getShardOrdering();
 
+        final int consumerCount = ordering == ShardOrdering.TIMESTAMP ? 1 : shardCount;
+        final long[] threadIds = new long[consumerCount];
         final ThreadFactory threadFactory = new Log4jThreadFactory("AsyncLogger[" + contextName + "]", true, Thread.NORM_PRIORITY) {
+            private int threadCount;
+
             @Override
             public Thread newThread(final Runnable r) {
                 final Thread result = super.newThread(r);
-                backgroundThreadId = result.getId();
+                threadIds[threadCount++ % threadIds.length] = result.getId();
                 return result;
             }
         };
         asyncQueueFullPolicy = AsyncQueueFullPolicyFactory.create();
 
-        disruptor = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
-                waitStrategy);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Disruptor<RingBufferLogEvent>[] shards = new Disruptor[shardCount];
+        final WaitStrategy[] shardWaitStrategies = new WaitStrategy[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            // the merging consumer polls the shards itself and never waits on a ring buffer's WaitStrategy
+            shardWaitStrategies[i] = ordering == ShardOrdering.TIMESTAMP
+                    ? new SleepingWaitStrategy()
+                    : DisruptorUtil.createWaitStrategy("AsyncLogger.WaitStrategy");
+            shards[i] = new Disruptor<>(RingBufferLogEvent.FACTORY, ringBufferSize, threadFactory, ProducerType.MULTI,
+                    shardWaitStrategies[i]);
+        }
 
         final ExceptionHandler<RingBufferLogEvent> errorHandler = DisruptorUtil.getAsyncLoggerExceptionHandler();
-        disruptor.setDefaultExceptionHandler(errorHandler);
-
-        final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
-        disruptor.handleEventsWith(handlers);
+        if (ordering == ShardOrdering.TIMESTAMP) {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            final RingBuffer<RingBufferLogEvent>[] ringBuffers = new RingBuffer[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                ringBuffers[i] = shards[i].getRingBuffer();
+            }
+            final ShardMergingEventProcessor processor = new ShardMergingEventProcessor(ringBuffers, errorHandler);
+            for (int i = 1; i < shardCount; i++) {
+                ringBuffers[i].addGatingSequences(processor.getSequence(i));
+            }
+            shards[0].handleEventsWith(processor);
+        } else {
+            for (final Disruptor<RingBufferLogEvent> shard : shards) {
+                shard.setDefaultExceptionHandler(errorHandler);
+                final RingBufferLogEventHandler[] handlers = {new RingBufferLogEventHandler()};
+                shard.handleEventsWith(handlers);
+            }
+        }
 
         LOGGER.debug("[{}] Starting AsyncLogger disruptor for this context with ringbufferSize={}, waitStrategy={}, "
-                + "exceptionHandler={}...", contextName, disruptor.getRingBuffer().getBufferSize(), waitStrategy
-                .getClass().getSimpleName(), errorHandler);
-        disruptor.start();
+                + "exceptionHandler={}, shards={}, shardOrdering={}...", contextName, ringBufferSize,
+                shardWaitStrategies[0].getClass().getSimpleName(), errorHandler, shardCount, ordering);
+        for (final Disruptor<RingBufferLogEvent> shard : shards) {
+            shard.start();
+        }
+        backgroundThreadIds = threadIds;
+        waitStrategies = shardWaitStrategies;
+        disruptors = shards;
 
         LOGGER.trace("[{}] AsyncLoggers use a {} translator", contextName, useThreadLocalTranslator ? "threadlocal"
                 : "vararg");
         super.start();
     }
 
+    private static ShardOrdering getShardOrdering() {
+        final String ordering = PropertiesUtil.getProperties().getStringProperty("AsyncLogger.RingBufferShardOrdering",
+                ShardOrdering.NONE.name());
+        try {
+            return ShardOrdering.valueOf(ordering.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.warn("Invalid AsyncLogger.RingBufferShardOrdering {}, using {}.", ordering, ShardOrdering.NONE);
+            return ShardOrdering.NONE;
+        }
+    }
+
     /**
      * Decreases the reference count. If the reference count reached zero, the Disruptor and its associated thread are
      * shut down and their references set to {@code null}.
      */
     @Override
     public boolean stop(final long timeout, final TimeUnit timeUnit) {
-        final Disruptor<RingBufferLogEvent> temp = getDisruptor();
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
         if (temp == null) {
             LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor for this context already shut down.", contextName);
             return true; // disruptor was already shut down by another thread
@@ -133,7 +218,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         LOGGER.debug("[{}] AsyncLoggerDisruptor: shutting down disruptor for this context.", contextName);
 
         // We must guarantee that publishing to the RingBuffer has stopped before we call disruptor.shutdown().
-        disruptor = null; // client code fails with NPE if log after stop. This is by design.
+        disruptors = null; // client code fails with NPE if log after stop. This is by design.
 
         // Calling Disruptor.shutdown() will wait until all enqueued events are fully processed,
         // but this waiting happens in a busy-spin. To avoid (postpone) wasting CPU,
@@ -144,12 +229,15 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             } catch (final InterruptedException e) { // ignored
             }
         }
-        try {
-            // busy-spins until all events currently in the disruptor have been processed, or timeout
-            temp.shutdown(timeout, timeUnit);
-        } catch (final TimeoutException e) {
-            LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout, timeUnit);
-            temp.halt(); // give up on remaining log events, if any
+        for (final Disruptor<RingBufferLogEvent> shard : temp) {
+            try {
+                // busy-spins until all events currently in the disruptor have been processed, or timeout
+                shard.shutdown(timeout, timeUnit);
+            } catch (final TimeoutException e) {
+                LOGGER.warn("[{}] AsyncLoggerDisruptor: shutdown timed out after {} {}", contextName, timeout,
+                        timeUnit);
+                shard.halt(); // give up on remaining log events, if any
+            }
         }
 
         LOGGER.trace("[{}] AsyncLoggerDisruptor: disruptor has been shut down.", contextName);
@@ -163,11 +251,16 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     }
 
     /**
-     * Returns {@code true} if the specified disruptor still has unprocessed events.
+     * Returns {@code true} if any of the specified disruptors still has unprocessed events.
      */
-    private static boolean hasBacklog(final Disruptor<?> theDisruptor) {
-        final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
-        return !ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize());
+    private static boolean hasBacklog(final Disruptor<?>[] theDisruptors) {
+        for (final Disruptor<?> theDisruptor : theDisruptors) {
+            final RingBuffer<?> ringBuffer = theDisruptor.getRingBuffer();
+            if (!ringBuffer.hasAvailableCapacity(ringBuffer.getBufferSize())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -177,8 +270,15 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
      * @return a new {@code RingBufferAdmin} that instruments the ringbuffer
      */
     public RingBufferAdmin createRingBufferAdmin(final String jmxContextName) {
-        final RingBuffer<RingBufferLogEvent> ring = disruptor == null ? null : disruptor.getRingBuffer();
-        return RingBufferAdmin.forAsyncLogger(ring, jmxContextName);
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
+        if (temp == null) {
+            return RingBufferAdmin.forAsyncLogger((RingBuffer<?>) null, jmxContextName);
+        }
+        final RingBuffer<?>[] rings = new RingBuffer<?>[temp.length];
+        for (int i = 0; i < temp.length; i++) {
+            rings[i] = temp[i].getRingBuffer();
+        }
+        return RingBufferAdmin.forAsyncLogger(rings, waitStrategies, jmxContextName);
     }
 
     EventRoute getEventRoute(final Level logLevel) {
@@ -186,20 +286,35 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
         if (remainingCapacity < 0) {
             return EventRoute.DISCARD;
         }
-        return asyncQueueFullPolicy.getRoute(backgroundThreadId, logLevel);
+        return asyncQueueFullPolicy.getRoute(getBackgroundThreadId(), logLevel);
+    }
+
+    /**
+     * Returns the ID of the current thread if it is one of the background threads, otherwise the ID of the first
+     * background thread. This lets the {@code AsyncQueueFullPolicy} recognize all consumers of a sharded ring buffer.
+     */
+    private long getBackgroundThreadId() {
+        final long[] threadIds = backgroundThreadIds;
+        final long currentThreadId = Thread.currentThread().getId();
+        for (final long threadId : threadIds) {
+            if (threadId == currentThreadId) {
+                return threadId;
+            }
+        }
+        return threadIds.length == 0 ? -1 : threadIds[0];
     }
 
     private int remainingDisruptorCapacity() {
-        final Disruptor<RingBufferLogEvent> temp = disruptor;
+        final Disruptor<RingBufferLogEvent>[] temp = disruptors;
         if (hasLog4jBeenShutDown(temp)) {
             return -1;
         }
-        return (int) temp.getRingBuffer().remainingCapacity();
+        return (int) shardOf(temp).getRingBuffer().remainingCapacity();
     }
         /**
          * Returns {@code true} if the specified disruptor is null.
          */
-    private boolean hasLog4jBeenShutDown(final Disruptor<RingBufferLogEvent> aDisruptor) {
+    private boolean hasLog4jBeenShutDown(final Disruptor<RingBufferLogEvent>[] aDisruptor) {
         if (aDisruptor == null) { // LOG4J2-639
             LOGGER.warn("Ignoring log event after log4j was shut down");
             return true;
@@ -209,12 +324,12 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
 
     boolean tryPublish(final RingBufferLogEventTranslator translator) {
         try {
-            // Note: we deliberately access the volatile disruptor field afresh here.
+            // Note: we deliberately access the volatile disruptors field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
-            return disruptor.getRingBuffer().tryPublishEvent(translator);
+            return shardOf(disruptors).getRingBuffer().tryPublishEvent(translator);
         } catch (final NullPointerException npe) {
-            // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
+            // LOG4J2-639: catch NPE if disruptors field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
             return false;
         }
@@ -222,18 +337,18 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
 
     void enqueueLogMessageWhenQueueFull(final RingBufferLogEventTranslator translator) {
         try {
-            // Note: we deliberately access the volatile disruptor field afresh here.
+            // Note: we deliberately access the volatile disruptors field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.publishEvent(translator);
+                    shardOf(disruptors).publishEvent(translator);
                 }
             } else {
-                disruptor.publishEvent(translator);
+                shardOf(disruptors).publishEvent(translator);
             }
         } catch (final NullPointerException npe) {
-            // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
+            // LOG4J2-639: catch NPE if disruptors field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(translator);
         }
     }
@@ -248,12 +363,12 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
             final Message msg,
             final Throwable thrown) {
         try {
-            // Note: we deliberately access the volatile disruptor field afresh here.
+            // Note: we deliberately access the volatile disruptors field afresh here.
             // Avoiding this and using an older reference could result in adding a log event to the disruptor after it
             // was shut down, which could cause the publishEvent method to hang and never return.
             if (synchronizeEnqueueWhenQueueFull()) {
                 synchronized (queueFullEnqueueLock) {
-                    disruptor.getRingBuffer().publishEvent(translator,
+                    shardOf(disruptors).getRingBuffer().publishEvent(translator,
                             asyncLogger, // asyncLogger: 0
                             location, // location: 1
                             fqcn, // 2
@@ -263,7 +378,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
                             thrown); // 6
                 }
             } else {
-                disruptor.getRingBuffer().publishEvent(translator,
+                shardOf(disruptors).getRingBuffer().publishEvent(translator,
                         asyncLogger, // asyncLogger: 0
                         location, // location: 1
                         fqcn, // 2
@@ -273,7 +388,7 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
                         thrown); // 6
             }
         } catch (final NullPointerException npe) {
-            // LOG4J2-639: catch NPE if disruptor field was set to null in stop()
+            // LOG4J2-639: catch NPE if disruptors field was set to null in stop()
             logWarningOnNpeFromDisruptorPublish(level, fqcn, msg, thrown);
         }
     }
@@ -281,7 +396,17 @@ class AsyncLoggerDisruptor extends AbstractLifeCycle {
     private boolean synchronizeEnqueueWhenQueueFull() {
         return DisruptorUtil.ASYNC_LOGGER_SYNCHRONIZE_ENQUEUE_WHEN_QUEUE_FULL
                 // Background thread must never block
-                && backgroundThreadId != Thread.currentThread().getId();
+                && !isBackgroundThread();
+    }
+
+    private boolean isBackgroundThread() {
+        final long currentThreadId = Thread.currentThread().getId();
+        for (final long threadId : backgroundThreadIds) {
+            if (threadId == currentThreadId) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void logWarningOnNpeFromDisruptorPublish(final RingBufferLogEventTranslator translator) {
@@ -45,6 +45,8 @@ final class DisruptorUtil {
     private static final int RINGBUFFER_MIN_SIZE = 128;
     private static final int RINGBUFFER_DEFAULT_SIZE = 256 * 1024;
     private static final int RINGBUFFER_NO_GC_DEFAULT_SIZE = 4 * 1024;
+    private static final long ADAPTIVE_SPIN_THRESHOLD_DEFAULT_NANOS = 10_000L;
+    private static final long ADAPTIVE_YIELD_THRESHOLD_DEFAULT_NANOS = 100_000L;
 
     /**
      * LOG4J2-2606: Users encountered excessive CPU utilization with Disruptor v3.4.2 when the application
@@ -87,11 +89,36 @@ final class DisruptorUtil {
             return new BusySpinWaitStrategy();
         case "TIMEOUT":
             return new TimeoutBlockingWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
+        case "ADAPTIVE":
+            return createAdaptiveWaitStrategy(propertyName, timeoutMillis);
         default:
             return new TimeoutBlockingWaitStrategy(timeoutMillis, TimeUnit.MILLISECONDS);
         }
     }
 
+    /**
+     * Creates an {@code AdaptiveWaitStrategy} whose thresholds are read from the {@code AdaptiveSpinThresholdNanos}
+     * and {@code AdaptiveYieldThresholdNanos} properties with the same prefix as the specified wait strategy property,
+     * for example {@code AsyncLogger.AdaptiveSpinThresholdNanos}. A parked consumer wakes up on its own after the
+     * specified timeout.
+     */
+    private static WaitStrategy createAdaptiveWaitStrategy(final String propertyName, final long timeoutMillis) {
+        final String prefix = propertyName.substring(0, propertyName.indexOf('.') + 1);
+        final PropertiesUtil properties = PropertiesUtil.getProperties();
+        final long spinThresholdNanos = properties.getLongProperty(prefix + "AdaptiveSpinThresholdNanos",
+                ADAPTIVE_SPIN_THRESHOLD_DEFAULT_NANOS);
+        final long yieldThresholdNanos = properties.getLongProperty(prefix + "AdaptiveYieldThresholdNanos",
+                ADAPTIVE_YIELD_THRESHOLD_DEFAULT_NANOS);
+        try {
+            return new AdaptiveWaitStrategy(spinThresholdNanos, yieldThresholdNanos,
+                    TimeUnit.MILLISECONDS.toNanos(Math.max(1L, timeoutMillis)));
+        } catch (final IllegalArgumentException ex) {
+            LOGGER.warn("Invalid {}Adaptive thresholds, using defaults: {}", prefix, ex.getMessage());
+            return new AdaptiveWaitStrategy(ADAPTIVE_SPIN_THRESHOLD_DEFAULT_NANOS,
+                    ADAPTIVE_YIELD_THRESHOLD_DEFAULT_NANOS, TimeUnit.MILLISECONDS.toNanos(Math.max(1L, timeoutMillis)));
+        }
+    }
+
     static int calculateRingBufferSize(final String propertyName) {
         int ringBufferSize = Constants.ENABLE_THREADLOCALS ? RINGBUFFER_NO_GC_DEFAULT_SIZE : RINGBUFFER_DEFAULT_SIZE;
         final String userPreferredRBSize = PropertiesUtil.getProperties().getStringProperty(propertyName,
@@ -110,6 +137,20 @@ final class DisruptorUtil {
         return Integers.ceilingNextPowerOfTwo(ringBufferSize);
     }
 
+    static int calculateRingBufferShards(final String propertyName) {
+        final String userPreferredShards = PropertiesUtil.getProperties().getStringProperty(propertyName, "1");
+        try {
+            final int shards = Integer.parseInt(userPreferredShards);
+            if (shards >= 1) {
+                return shards;
+            }
+        } catch (final NumberFormatException ex) {
+            // fall through
+        }
+        LOGGER.warn("Invalid {} {}, using a single ring buffer.", propertyName, userPreferredShards);
+        return 1;
+    }
+
     static ExceptionHandler<RingBufferLogEvent> getAsyncLoggerExceptionHandler() {
         final String cls = PropertiesUtil.getProperties().getStringProperty("AsyncLogger.ExceptionHandler");
         if (cls == null) {
@@ -163,6 +163,27 @@ public class RingBufferLogEvent implements LogEvent, ReusableMessage, CharSequen
         asyncLogger.actualAsyncLog(this);
     }
 
+    /**
+     * Event processor that reads several events from the ringbuffer can call this method to pass them on to the
+     * appenders together. All events must have been logged by the same logger.
+     *
+     * @param events the events to log, the {@code endOfBatch} flag of each event must already be set
+     * @param count the number of events to log
+     */
+    static void execute(final RingBufferLogEvent[] events, final int count) {
+        events[0].asyncLogger.actualAsyncLogBatch(events, count);
+    }
+
+    /**
+     * Returns {@code true} if this event was logged by the same logger as the specified event.
+     *
+     * @param other the event to compare with
+     * @return {@code true} if both events were logged by the same logger
+     */
+    boolean isLoggedBySameLogger(final RingBufferLogEvent other) {
+        return asyncLogger == other.asyncLogger;
+    }
+
     /**
      * Returns {@code true} if this event is the end of a batch, {@code false} otherwise.
      *
@@ -29,9 +29,15 @@ import com.lmax.disruptor.SequenceReportingEventHandler;
 public class RingBufferLogEventHandler implements
         SequenceReportingEventHandler<RingBufferLogEvent>, LifecycleAware {
 
-    private static final int NOTIFY_PROGRESS_THRESHOLD = 50;
+    /**
+     * Maximum number of events that are passed on to the appenders together. The Disruptor's own batches can be as
+     * large as the ring buffer, so they are split up to bound the time events wait before they are logged.
+     */
+    static final int MAX_BATCH_SIZE = 128;
+
+    private final RingBufferLogEvent[] batch = new RingBufferLogEvent[MAX_BATCH_SIZE];
+    private int batchSize;
     private Sequence sequenceCallback;
-    private int counter;
     private long threadId = -1;
 
     @Override
@@ -39,25 +45,39 @@ public class RingBufferLogEventHandler implements
         this.sequenceCallback = sequenceCallback;
     }
 
+    /**
+     * Collects events until the end of the Disruptor's batch, until {@link #MAX_BATCH_SIZE} events are collected or
+     * until an event of another logger arrives, and then passes the collected events on to the appenders together.
+     */
     @Override
     public void onEvent(final RingBufferLogEvent event, final long sequence,
             final boolean endOfBatch) throws Exception {
         try {
-            event.execute(endOfBatch);
+            if (batchSize > 0 && !batch[0].isLoggedBySameLogger(event)) {
+                executeBatch(sequence - 1);
+            }
+        } finally {
+            event.setEndOfBatch(endOfBatch);
+            batch[batchSize++] = event;
+            if (endOfBatch || batchSize == MAX_BATCH_SIZE) {
+                executeBatch(sequence);
+            }
         }
-        finally {
-            event.clear();
+    }
+
+    private void executeBatch(final long lastSequence) {
+        try {
+            RingBufferLogEvent.execute(batch, batchSize);
+        } finally {
+            for (int i = 0; i < batchSize; i++) {
+                batch[i].clear();
+                batch[i] = null;
+            }
+            batchSize = 0;
             // notify the BatchEventProcessor that the sequence has progressed.
             // Without this callback the sequence would not be progressed
             // until the batch has completely finished.
-            notifyCallback(sequence);
-        }
-    }
-
-    private void notifyCallback(long sequence) {
-        if (++counter > NOTIFY_PROGRESS_THRESHOLD) {
-            sequenceCallback.set(sequence);
-            counter = 0;
+            sequenceCallback.set(lastSequence);
         }
     }
 
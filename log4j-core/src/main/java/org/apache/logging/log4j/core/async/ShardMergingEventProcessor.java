@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.EventProcessor;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.Sequencer;
+import com.lmax.disruptor.TimeoutException;
+
+/**
+ * Single consumer that drains several ring buffer shards and hands their events to the appenders in timestamp order.
+ * <p>
+ * Each shard is already ordered by sequence, so this processor performs a k-way merge: on every step it looks at the
+ * next published event of every shard and processes the one with the oldest timestamp. Events that are published
+ * after the merge step has passed them are logged as soon as they are seen, so ordering is best-effort across shards.
+ * </p>
+ * <p>
+ * The processor cannot wait on the barriers of several ring buffers at once, so when all shards are empty it backs off
+ * by spinning, then yielding, then parking for the minimum time the JVM allows, like the Disruptor's
+ * {@code SleepingWaitStrategy}. The shards' barriers are only consulted once their cursor has moved past the
+ * requested sequence, so they never wait either.
+ * </p>
+ */
+class ShardMergingEventProcessor implements EventProcessor {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 100L;
+
+    private final RingBuffer<RingBufferLogEvent>[] ringBuffers;
+    private final SequenceBarrier[] barriers;
+    private final Sequence[] sequences;
+    private final long[] published;
+    private final ExceptionHandler<? super RingBufferLogEvent> exceptionHandler;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean halted;
+
+    ShardMergingEventProcessor(final RingBuffer<RingBufferLogEvent>[] ringBuffers,
+            final ExceptionHandler<? super RingBufferLogEvent> exceptionHandler) {
+        this.ringBuffers = ringBuffers;
+        this.exceptionHandler = exceptionHandler;
+        this.barriers = new SequenceBarrier[ringBuffers.length];
+        this.sequences = new Sequence[ringBuffers.length];
+        this.published = new long[ringBuffers.length];
+        for (int i = 0; i < sequences.length; i++) {
+            barriers[i] = ringBuffers[i].newBarrier();
+            sequences[i] = new Sequence(Sequencer.INITIAL_CURSOR_VALUE);
+            published[i] = Sequencer.INITIAL_CURSOR_VALUE;
+        }
+    }
+
+    /**
+     * Returns the sequence tracking the consumer's progress on the first shard. This is the sequence the Disruptor
+     * that runs this processor uses as gating sequence.
+     */
+    @Override
+    public Sequence getSequence() {
+        return sequences[0];
+    }
+
+    /**
+     * Returns the sequence tracking the consumer's progress on the specified shard. Callers must add it as gating
+     * sequence to the shard's ring buffer before events are published to it.
+     *
+     * @param shard index of the shard
+     * @return the sequence of the specified shard
+     */
+    Sequence getSequence(final int shard) {
+        return sequences[shard];
+    }
+
+    /**
+     * Requests this processor to stop. Events that are already published are processed before the thread exits.
+     */
+    @Override
+    public void halt() {
+        halted = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Thread is already running");
+        }
+        try {
+            int idleCounter = 0;
+            while (true) {
+                if (processOldest()) {
+                    idleCounter = 0;
+                } else if (halted) {
+                    break;
+                } else {
+                    idleCounter = backOff(idleCounter);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Processes the oldest event at the head of any shard.
+     *
+     * @return {@code true} if an event was processed, {@code false} if all shards were empty
+     */
+    private boolean processOldest() {
+        int oldest = -1;
+        int available = 0;
+        long oldestMillis = Long.MAX_VALUE;
+        int oldestNanos = Integer.MAX_VALUE;
+        for (int i = 0; i < ringBuffers.length; i++) {
+            final long next = sequences[i].get() + 1;
+            if (highestPublished(i, next) < next) {
+                continue;
+            }
+            available++;
+            final RingBufferLogEvent event = ringBuffers[i].get(next);
+            final long millis = event.getTimeMillis();
+            final int nanos = event.getInstant().getNanoOfMillisecond();
+            if (millis < oldestMillis || (millis == oldestMillis && nanos < oldestNanos)) {
+                oldest = i;
+                oldestMillis = millis;
+                oldestNanos = nanos;
+            }
+        }
+        if (oldest < 0) {
+            return false;
+        }
+        final RingBuffer<RingBufferLogEvent> ringBuffer = ringBuffers[oldest];
+        final long sequence = sequences[oldest].get() + 1;
+        // the last event seen before going idle must be flagged as end of batch so buffered appenders flush
+        final boolean endOfBatch = available == 1 && highestPublished(oldest, sequence + 1) <= sequence;
+        final RingBufferLogEvent event = ringBuffer.get(sequence);
+        try {
+            event.execute(endOfBatch);
+        } catch (final Throwable ex) {
+            exceptionHandler.handleEventException(ex, sequence, event);
+        } finally {
+            event.clear();
+            sequences[oldest].set(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the highest sequence of the specified shard that is published, or {@code sequence - 1} if the specified
+     * sequence is not published yet. The result is cached so the barrier is only asked again once the consumer has
+     * caught up with it.
+     *
+     * @param shard index of the shard
+     * @param sequence the lowest sequence the caller is interested in
+     * @return the highest published sequence
+     */
+    private long highestPublished(final int shard, final long sequence) {
+        if (published[shard] >= sequence) {
+            return published[shard];
+        }
+        final SequenceBarrier barrier = barriers[shard];
+        if (barrier.getCursor() < sequence) {
+            return sequence - 1;
+        }
+        try {
+            // the cursor is past the sequence, so this returns without waiting
+            published[shard] = barrier.waitFor(sequence);
+        } catch (final AlertException | InterruptedException | TimeoutException ex) {
+            return sequence - 1;
+        }
+        return published[shard];
+    }
+
+    private static int backOff(final int counter) {
+        if (counter < SPIN_TRIES) {
+            return counter + 1;
+        }
+        if (counter < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+            return counter + 1;
+        }
+        LockSupport.parkNanos(PARK_NANOS);
+        return counter;
+    }
+}
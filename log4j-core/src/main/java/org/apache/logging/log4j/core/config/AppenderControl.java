@@ -16,10 +16,12 @@
  */
 package org.apache.logging.log4j.core.config;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderLoggingException;
@@ -33,6 +35,7 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 public class AppenderControl extends AbstractFilterable {
 
     private final ThreadLocal<AppenderControl> recursive = new ThreadLocal<>();
+    private final ThreadLocal<LogEvent[]> accepted = new ThreadLocal<>();
     private final Appender appender;
     private final Level level;
     private final int intLevel;
@@ -84,6 +87,71 @@ public class AppenderControl extends AbstractFilterable {
         callAppenderPreventRecursion(event);
     }
 
+    /**
+     * Call the appender with a batch of events. Filters and the level are applied to each event, the recursion and
+     * started checks are done once for the whole batch. {@link BatchAppender}s receive all accepted events in one
+     * call, other appenders receive them one at a time.
+     *
+     * @param events The events to process; only the first {@code count} elements are used.
+     * @param count The number of events to process.
+     */
+    public void callAppender(final LogEvent[] events, final int count) {
+        if (count == 0 || isRecursiveCall()) {
+            return;
+        }
+        try {
+            recursive.set(this);
+            ensureAppenderStarted();
+            if (appender instanceof BatchAppender) {
+                callBatchAppender((BatchAppender) appender, events, count);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    final LogEvent event = events[i];
+                    if (!isFilteredByAppenderControl(event) && !isFilteredByLevel(event)
+                            && !isFilteredByAppender(event)) {
+                        tryCallAppender(event);
+                    }
+                }
+            }
+        } finally {
+            recursive.set(null);
+        }
+    }
+
+    @PerformanceSensitive("allocation")
+    private void callBatchAppender(final BatchAppender batchAppender, final LogEvent[] events, final int count) {
+        LogEvent[] batch = events;
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final LogEvent event = events[i];
+            if (isFilteredByAppenderControl(event) || isFilteredByLevel(event) || isFilteredByAppender(event)) {
+                if (batch == events) {
+                    // first rejected event: continue with a copy of the events accepted so far
+                    batch = acceptedEvents(count);
+                    System.arraycopy(events, 0, batch, 0, size);
+                }
+            } else {
+                batch[size++] = event;
+            }
+        }
+        try {
+            tryCallAppender(batchAppender, batch, size);
+        } finally {
+            if (batch != events) {
+                Arrays.fill(batch, 0, size, null);
+            }
+        }
+    }
+
+    private LogEvent[] acceptedEvents(final int count) {
+        LogEvent[] result = accepted.get();
+        if (result == null || result.length < count) {
+            result = new LogEvent[count];
+            accepted.set(result);
+        }
+        return result;
+    }
+
     private boolean shouldSkip(final LogEvent event) {
         return isFilteredByAppenderControl(event) || isFilteredByLevel(event) || isRecursiveCall();
     }
@@ -161,6 +229,19 @@ public class AppenderControl extends AbstractFilterable {
         }
     }
 
+    private void tryCallAppender(final BatchAppender batchAppender, final LogEvent[] events, final int count) {
+        if (count == 0) {
+            return;
+        }
+        try {
+            batchAppender.appendBatch(events, count);
+        } catch (final RuntimeException ex) {
+            handleAppenderError(events[0], ex);
+        } catch (final Exception ex) {
+            handleAppenderError(events[0], new AppenderLoggingException(ex));
+        }
+    }
+
     private void handleAppenderError(final LogEvent event, final RuntimeException ex) {
         appender.getHandler().error(createErrorMsg("An exception occurred processing Appender "), event, ex);
         if (!appender.ignoreExceptions()) {
@@ -101,6 +101,22 @@ public class AwaitCompletionReliabilityStrategy implements ReliabilityStrategy {
         }
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.apache.logging.log4j.core.config.ReliabilityStrategy#logBatch(org.apache.logging.log4j.util.Supplier,
+     * org.apache.logging.log4j.core.LogEvent[], int)
+     */
+    @Override
+    public void logBatch(final Supplier<LoggerConfig> reconfigured, final LogEvent[] events, final int count) {
+        final LoggerConfig config = getActiveLoggerConfig(reconfigured);
+        try {
+            config.logBatch(events, count);
+        } finally {
+            config.getReliabilityStrategy().afterLogEvent();
+        }
+    }
+
     /*
      * (non-Javadoc)
      *
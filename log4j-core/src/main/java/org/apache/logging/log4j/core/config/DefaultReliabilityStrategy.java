@@ -74,6 +74,17 @@ public class DefaultReliabilityStrategy implements ReliabilityStrategy {
         loggerConfig.log(event);
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.apache.logging.log4j.core.config.ReliabilityStrategy#logBatch(org.apache.logging.log4j.util.Supplier,
+     * org.apache.logging.log4j.core.LogEvent[], int)
+     */
+    @Override
+    public void logBatch(final Supplier<LoggerConfig> reconfigured, final LogEvent[] events, final int count) {
+        loggerConfig.logBatch(events, count);
+    }
+
     /*
      * (non-Javadoc)
      * 
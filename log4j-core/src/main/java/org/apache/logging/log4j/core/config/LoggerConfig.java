@@ -452,6 +452,46 @@ public class LoggerConfig extends AbstractFilterable {
         }
     }
 
+    /**
+     * Logs a batch of events. The events are handed to the appenders of this LoggerConfig and its parents together, so
+     * that {@link org.apache.logging.log4j.core.BatchAppender}s can process them in one call.
+     *
+     * @param events The log events; only the first {@code count} elements are used.
+     * @param count The number of events to log.
+     * @since 3.0
+     */
+    public void logBatch(final LogEvent[] events, final int count) {
+        logBatch(events, count, LoggerConfigPredicate.ALL);
+    }
+
+    /**
+     * Logs a batch of events.
+     *
+     * @param events The log events; only the first {@code count} elements are used.
+     * @param count The number of events to log.
+     * @param predicate predicate for which LoggerConfig instances to append to.
+     * @since 3.0
+     */
+    protected void logBatch(final LogEvent[] events, final int count, final LoggerConfigPredicate predicate) {
+        if (hasFilter()) {
+            // the filter decides per event, which also decides whether the parent sees the event
+            for (int i = 0; i < count; i++) {
+                log(events[i], predicate);
+            }
+            return;
+        }
+        final boolean includeLocation = isIncludeLocation();
+        for (int i = 0; i < count; i++) {
+            events[i].setIncludeLocation(includeLocation);
+        }
+        if (predicate.allow(this)) {
+            callAppenders(events, count);
+        }
+        if (additive && parent != null) {
+            parent.logBatch(events, count, predicate);
+        }
+    }
+
     /**
      * Returns the object responsible for ensuring log events are delivered to a working appender, even during or after
      * a reconfiguration.
@@ -509,6 +549,15 @@ public class LoggerConfig extends AbstractFilterable {
         }
     }
 
+    @PerformanceSensitive("allocation")
+    protected void callAppenders(final LogEvent[] events, final int count) {
+        final AppenderControl[] controls = appenders.get();
+        //noinspection ForLoopReplaceableByForEach
+        for (int i = 0; i < controls.length; i++) {
+            controls[i].callAppender(events, count);
+        }
+    }
+
     @Override
     public String toString() {
         return Strings.isEmpty(name) ? ROOT : name;
@@ -67,6 +67,20 @@ public interface ReliabilityStrategy {
      */
     void log(Supplier<LoggerConfig> reconfigured, LogEvent event);
 
+    /**
+     * Logs a batch of events.
+     *
+     * @param reconfigured supplies the next LoggerConfig if the strategy's LoggerConfig is no longer active
+     * @param events The log events; only the first {@code count} elements are used.
+     * @param count The number of events to log.
+     * @since 3.0
+     */
+    default void logBatch(Supplier<LoggerConfig> reconfigured, LogEvent[] events, int count) {
+        for (int i = 0; i < count; i++) {
+            log(reconfigured, events[i]);
+        }
+    }
+
     /**
      * For internal use by the ReliabilityStrategy; returns the LoggerConfig to use.
      * 
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * A deterministic Aho-Corasick automaton that finds which of a set of texts occur in a character sequence with a
+ * single scan.
+ * <p>
+ * Characters are mapped to the classes of the characters that occur in the texts, all other characters share class
+ * zero, and every state has a precomputed transition for every class so the scan never follows failure links.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class AhoCorasickAutomaton {
+
+    /**
+     * The value of {@link #find(CharSequence, int)} when no text occurs.
+     */
+    static final int NONE = Integer.MAX_VALUE;
+
+    private final byte[] asciiClasses = new byte[128];
+    private final char[] otherChars;
+    private final int classes;
+    private final int[] transitions;
+    private final int[] outputs;
+
+    /**
+     * Builds an automaton.
+     *
+     * @param texts the texts, indexed by their ids; null entries are ignored
+     */
+    AhoCorasickAutomaton(final String[] texts) {
+        final TreeSet<Character> alphabet = new TreeSet<>();
+        for (final String text : texts) {
+            if (text != null) {
+                for (int i = 0; i < text.length(); i++) {
+                    alphabet.add(text.charAt(i));
+                }
+            }
+        }
+        final List<Character> others = new ArrayList<>();
+        int next = 1;
+        for (final char c : alphabet) {
+            if (c < asciiClasses.length) {
+                asciiClasses[c] = (byte) next++;
+            } else {
+                others.add(c);
+            }
+        }
+        otherChars = new char[others.size()];
+        for (int i = 0; i < otherChars.length; i++) {
+            otherChars[i] = others.get(i);
+        }
+        final int firstOther = next;
+        classes = firstOther + otherChars.length;
+
+        // the trie
+        final List<Map<Integer, Integer>> children = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        children.add(new HashMap<>());
+        ids.add(NONE);
+        for (int id = 0; id < texts.length; id++) {
+            final String text = texts[id];
+            if (text == null) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                final int c = classOf(text.charAt(i), firstOther);
+                Integer child = children.get(state).get(c);
+                if (child == null) {
+                    child = children.size();
+                    children.add(new HashMap<>());
+                    ids.add(NONE);
+                    children.get(state).put(c, child);
+                }
+                state = child;
+            }
+            ids.set(state, Math.min(ids.get(state), id));
+        }
+
+        // breadth first, so the failure state of each state is complete before the state itself
+        final int states = children.size();
+        transitions = new int[states * classes];
+        outputs = new int[states];
+        final int[] failures = new int[states];
+        final int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        outputs[0] = ids.get(0);
+        while (head < tail) {
+            final int state = queue[head++];
+            final int failure = failures[state];
+            for (int c = 0; c < classes; c++) {
+                final Integer child = children.get(state).get(c);
+                if (child != null) {
+                    failures[child] = state == 0 ? 0 : transitions[failure * classes + c];
+                    outputs[child] = Math.min(ids.get(child), outputs[failures[child]]);
+                    transitions[state * classes + c] = child;
+                    queue[tail++] = child;
+                } else {
+                    transitions[state * classes + c] = state == 0 ? 0 : transitions[failure * classes + c];
+                }
+            }
+        }
+    }
+
+    private int classOf(final char c, final int firstOther) {
+        if (c < asciiClasses.length) {
+            return asciiClasses[c];
+        }
+        final int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? 0 : firstOther + index;
+    }
+
+    /**
+     * Returns the lowest id of the texts that occur in a character sequence.
+     *
+     * @param text the character sequence to scan
+     * @param limit stop scanning once a text with an id below this limit is found
+     * @return the lowest id found, or {@link #NONE}
+     */
+    int find(final CharSequence text, final int limit) {
+        final int firstOther = classes - otherChars.length;
+        int best = outputs[0];
+        int state = 0;
+        for (int i = 0; i < text.length() && best >= limit; i++) {
+            final char c = text.charAt(i);
+            final int cls = c < asciiClasses.length ? asciiClasses[c] : classOf(c, firstOther);
+            state = transitions[state * classes + cls];
+            if (outputs[state] < best) {
+                best = outputs[state];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of states.
+     *
+     * @return the number of states
+     */
+    int size() {
+        return outputs.length;
+    }
+}
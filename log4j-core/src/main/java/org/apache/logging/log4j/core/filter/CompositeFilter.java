@@ -48,12 +48,19 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     private static final Filter[] EMPTY_FILTERS = new Filter[0];
     private final Filter[] filters;
 
+    /**
+     * The results of the filters when they only depend on the level and marker, or null.
+     */
+    private final LevelMarkerIndex index;
+
     private CompositeFilter() {
         this.filters = EMPTY_FILTERS;
+        this.index = null;
     }
 
     private CompositeFilter(final Filter[] filters) {
         this.filters = filters == null ? EMPTY_FILTERS : filters;
+        this.index = LevelMarkerIndex.create(this.filters);
     }
 
     public CompositeFilter addFilter(final Filter filter) {
@@ -173,6 +180,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object... params) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, params);
@@ -200,6 +210,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0);
@@ -228,6 +241,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1);
@@ -257,6 +273,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2);
@@ -287,6 +306,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3);
@@ -319,6 +341,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4);
@@ -352,6 +377,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5);
@@ -386,6 +414,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6);
@@ -422,6 +453,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7);
@@ -459,6 +493,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8);
@@ -497,6 +534,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
             final Object p0, final Object p1, final Object p2, final Object p3,
             final Object p4, final Object p5, final Object p6,
             final Object p7, final Object p8, final Object p9) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, p0, p1, p2, p3, p4, p5, p6, p7, p8, p9);
@@ -525,6 +565,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
             final Throwable t) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, t);
@@ -553,6 +596,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
     @Override
     public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
             final Throwable t) {
+        if (index != null) {
+            return index.filter(level, marker);
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(logger, level, marker, msg, t);
@@ -572,6 +618,9 @@ public final class CompositeFilter extends AbstractLifeCycle implements Iterable
      */
     @Override
     public Result filter(final LogEvent event) {
+        if (index != null) {
+            return index.filter(event.getLevel(), event.getMarker());
+        }
         Result result = Result.NEUTRAL;
         for (int i = 0; i < filters.length; i++) {
             result = filters[i].filter(event);
@@ -0,0 +1,490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Suppresses repeated events: of the events with the same message template, logger name and throwable type it lets
+ * the first <code>allowFirst</code> through and then one in <code>thenEvery</code>, until the window of
+ * <code>windowSeconds</code> seconds is over. Messages without a template, such as map messages and object messages,
+ * are told apart by their formatted message instead.
+ * <p>
+ * The counts are kept in a table of <code>maxFingerprints</code> slots that is searched and updated without locks and
+ * without creating objects, so suppressing an event costs less than writing it. Events that find no free slot are let
+ * through. When a window is over, the table is cleared and, for every fingerprint with suppressed events, a summary
+ * event is logged to the logger <code>summaryLogger</code> at <code>summaryLevel</code>. As an appender calls its own
+ * filter while it appends, summaries of a filter on an appender cannot be written to that same appender; configure the
+ * filter on a logger or an appender reference instead.
+ * </p>
+ * <p>
+ * The counts are exact for a single thread. Events logged by other threads while the window closes may be counted in
+ * the next window or let through uncounted, but never counted for another fingerprint.
+ * </p>
+ *
+ * @since 3.0
+ */
+@Plugin(name = "DeduplicationFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE,
+        printObject = true)
+@PerformanceSensitive("allocation")
+public final class DeduplicationFilter extends AbstractFilter {
+
+    private static final int DEFAULT_ALLOW_FIRST = 10;
+
+    private static final int DEFAULT_THEN_EVERY = 1000;
+
+    private static final int DEFAULT_WINDOW_SECONDS = 60;
+
+    private static final int DEFAULT_MAX_FINGERPRINTS = 1024;
+
+    /**
+     * The number of slots searched for a fingerprint before the event is let through.
+     */
+    private static final int MAX_PROBES = 8;
+
+    /**
+     * The number of low bits of a slot's count word that hold the count. The high bits hold the generation of the
+     * slot, which is odd while a fingerprint owns the slot and even while the slot is being claimed or freed.
+     */
+    private static final int COUNT_BITS = 40;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private static final long OWNED = 1L << COUNT_BITS;
+
+    private final int allowFirst;
+    private final int thenEvery;
+    private final long windowNanos;
+    private final String summaryLoggerName;
+    private final Level summaryLevel;
+
+    private final int mask;
+    /**
+     * The fingerprints of the slots, 0 for a free slot.
+     */
+    private final AtomicLongArray fingerprints;
+    /**
+     * The generations and counts of the slots, see {@link #COUNT_BITS}.
+     */
+    private final AtomicLongArray counts;
+    private final String[] templates;
+    private final String[] loggerNames;
+    private final Class<?>[] thrownTypes;
+    private final AtomicLong windowEnd;
+
+    private DeduplicationFilter(final int allowFirst, final int thenEvery, final int windowSeconds,
+            final int maxFingerprints, final String summaryLoggerName, final Level summaryLevel,
+            final Result onMatch, final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.allowFirst = allowFirst;
+        this.thenEvery = thenEvery;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.summaryLoggerName = summaryLoggerName;
+        this.summaryLevel = summaryLevel;
+        int size = 1;
+        while (size < maxFingerprints) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.fingerprints = new AtomicLongArray(size);
+        this.counts = new AtomicLongArray(size);
+        this.templates = new String[size];
+        this.loggerNames = new String[size];
+        this.thrownTypes = new Class<?>[size];
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        final Object last = params == null || params.length == 0 ? null : params[params.length - 1];
+        return filter(msg, logger, last);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        if (msg instanceof Message) {
+            return filter(logger, level, marker, (Message) msg, t);
+        }
+        return filter(msg == null ? null : msg.toString(), logger, t);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        if (msg == null) {
+            return filter(null, logger, t);
+        }
+        return filter(templateOf(msg), logger, t == null ? msg.getThrowable() : t);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        final Message msg = event.getMessage();
+        return filter(msg == null ? null : templateOf(msg), event.getLoggerName(), event.getThrown(),
+                System.nanoTime());
+    }
+
+    /**
+     * Returns the text events with a message are told apart by: the template of the message or, for messages that
+     * have none or an empty one like map messages, the formatted message.
+     */
+    private static String templateOf(final Message msg) {
+        final String format = msg.getFormat();
+        return format == null || format.isEmpty() ? msg.getFormattedMessage() : format;
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(msg, logger, p0);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(msg, logger, p1);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(msg, logger, p2);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(msg, logger, p3);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(msg, logger, p4);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(msg, logger, p5);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(msg, logger, p6);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(msg, logger, p7);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(msg, logger, p8);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(msg, logger, p9);
+    }
+
+    private Result filter(final String template, final Logger logger, final Object lastParameter) {
+        // like the message, take a trailing Throwable parameter as the throwable of the event
+        final Throwable thrown = lastParameter instanceof Throwable ? (Throwable) lastParameter : null;
+        return filter(template, logger == null ? null : logger.getName(), thrown, System.nanoTime());
+    }
+
+    /**
+     * Counts an event and decides whether it is let through. Package visibility for testing.
+     *
+     * @param template the message template, may be null
+     * @param loggerName the name of the logger, may be null
+     * @param thrown the throwable of the event, may be null
+     * @param nanoTime the current value of {@link System#nanoTime()}
+     * @return The onMatch value if the event is let through, onMismatch otherwise.
+     */
+    Result filter(final String template, final String loggerName, final Throwable thrown, final long nanoTime) {
+        final long end = windowEnd.get();
+        if (nanoTime - end >= 0 && windowEnd.compareAndSet(end, nanoTime + windowNanos)) {
+            closeWindow();
+        }
+        final Class<?> thrownType = thrown == null ? null : thrown.getClass();
+        final long fingerprint = fingerprint(template, loggerName, thrownType);
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            final long current = fingerprints.get(slot);
+            if (current == 0 && fingerprints.compareAndSet(slot, 0, fingerprint)) {
+                templates[slot] = template;
+                loggerNames[slot] = loggerName;
+                thrownTypes[slot] = thrownType;
+                // only the claiming thread writes the count word of a slot that is not owned
+                counts.set(slot, nextGeneration(counts.get(slot)) | 1);
+                return isAllowed(1) ? onMatch : onMismatch;
+            }
+            if (current == fingerprint || fingerprints.get(slot) == fingerprint) {
+                final long count = increment(slot, fingerprint);
+                // 0 if the slot is being claimed or freed, let the event through rather than losing it
+                return count == 0 || isAllowed(count) ? onMatch : onMismatch;
+            }
+        }
+        // too many fingerprints in this window, let the event through rather than losing it
+        return onMatch;
+    }
+
+    /**
+     * Counts an event in a slot if the slot is owned by the fingerprint of the event.
+     *
+     * @return the new count, or 0 if the slot is not owned by the fingerprint
+     */
+    private long increment(final int slot, final long fingerprint) {
+        while (true) {
+            final long value = counts.get(slot);
+            // the generation changes whenever the slot changes hands, so the increment fails if it did since the
+            // fingerprint was read
+            if ((value & OWNED) == 0 || fingerprints.get(slot) != fingerprint) {
+                return 0;
+            }
+            if (counts.compareAndSet(slot, value, value + 1)) {
+                return (value + 1) & COUNT_MASK;
+            }
+        }
+    }
+
+    private static long nextGeneration(final long value) {
+        return ((value >>> COUNT_BITS) + 1) << COUNT_BITS;
+    }
+
+    private static long fingerprint(final String template, final String loggerName, final Class<?> thrownType) {
+        long hash = template == null ? 0 : template.hashCode();
+        hash = hash * 0x9E3779B97F4A7C15L + (loggerName == null ? 0 : loggerName.hashCode());
+        hash = hash * 0x9E3779B97F4A7C15L + (thrownType == null ? 0 : System.identityHashCode(thrownType));
+        hash ^= hash >>> 29;
+        // 0 marks a free slot
+        return hash == 0 ? 1 : hash;
+    }
+
+    private boolean isAllowed(final long count) {
+        return count <= allowFirst || thenEvery > 0 && (count - allowFirst) % thenEvery == 0;
+    }
+
+    /**
+     * Returns the number of events with a count that were not let through.
+     *
+     * @param count the number of events
+     * @return the number of suppressed events
+     */
+    long suppressed(final long count) {
+        if (count <= allowFirst) {
+            return 0;
+        }
+        final long sampled = thenEvery > 0 ? (count - allowFirst) / thenEvery : 0;
+        return count - allowFirst - sampled;
+    }
+
+    private void closeWindow() {
+        org.apache.logging.log4j.Logger summaryLogger = null;
+        for (int slot = 0; slot <= mask; slot++) {
+            final long fingerprint = fingerprints.get(slot);
+            if (fingerprint == 0) {
+                continue;
+            }
+            // the thread that claims a slot sets its fields before it makes the slot owned, so reading an owned
+            // generation makes the fields visible
+            final long count = release(slot);
+            if (count < 0) {
+                // the slot is being claimed, count it in the next window
+                continue;
+            }
+            final String template = templates[slot];
+            final String loggerName = loggerNames[slot];
+            final Class<?> thrownType = thrownTypes[slot];
+            templates[slot] = null;
+            loggerNames[slot] = null;
+            thrownTypes[slot] = null;
+            // free the slot last, so it is only claimed again once its fields are cleared
+            fingerprints.compareAndSet(slot, fingerprint, 0);
+            final long suppressed = suppressed(count);
+            if (suppressed > 0) {
+                if (summaryLogger == null) {
+                    summaryLogger = LogManager.getLogger(summaryLoggerName);
+                }
+                summaryLogger.log(summaryLevel, "Suppressed {} duplicates of \"{}\" logged by {}{}", suppressed,
+                        template, loggerName, thrownType == null ? "" : " with " + thrownType.getName());
+            }
+        }
+    }
+
+    /**
+     * Ends the ownership of a slot, so events that already found the slot's fingerprint can no longer count in it.
+     *
+     * @return the count of the slot, or -1 if the slot is not owned
+     */
+    private long release(final int slot) {
+        while (true) {
+            final long value = counts.get(slot);
+            if ((value & OWNED) == 0) {
+                return -1;
+            }
+            if (counts.compareAndSet(slot, value, nextGeneration(value))) {
+                return value & COUNT_MASK;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "allowFirst=" + allowFirst + ", thenEvery=" + thenEvery + ", window="
+                + TimeUnit.NANOSECONDS.toSeconds(windowNanos) + "s, maxFingerprints=" + (mask + 1);
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder> implements org.apache.logging.log4j.plugins.util.Builder<DeduplicationFilter> {
+
+        @PluginBuilderAttribute
+        private int allowFirst = DEFAULT_ALLOW_FIRST;
+
+        @PluginBuilderAttribute
+        private int thenEvery = DEFAULT_THEN_EVERY;
+
+        @PluginBuilderAttribute
+        private int windowSeconds = DEFAULT_WINDOW_SECONDS;
+
+        @PluginBuilderAttribute
+        private int maxFingerprints = DEFAULT_MAX_FINGERPRINTS;
+
+        @PluginBuilderAttribute
+        private String summaryLogger = DeduplicationFilter.class.getName();
+
+        @PluginBuilderAttribute
+        private Level summaryLevel = Level.WARN;
+
+        /**
+         * Sets the number of events with the same fingerprint let through in each window.
+         * @param allowFirst the number of events let through before sampling starts.
+         * @return this
+         */
+        public Builder setAllowFirst(final int allowFirst) {
+            this.allowFirst = allowFirst;
+            return this;
+        }
+
+        /**
+         * Sets how many of the further events with the same fingerprint make one that is let through.
+         * @param thenEvery one in this many events is let through; 0 lets none through.
+         * @return this
+         */
+        public Builder setThenEvery(final int thenEvery) {
+            this.thenEvery = thenEvery;
+            return this;
+        }
+
+        /**
+         * Sets the length of the window after which the counts start over.
+         * @param windowSeconds the length of the window in seconds.
+         * @return this
+         */
+        public Builder setWindowSeconds(final int windowSeconds) {
+            this.windowSeconds = windowSeconds;
+            return this;
+        }
+
+        /**
+         * Sets the number of fingerprints counted in a window.
+         * @param maxFingerprints the size of the table, rounded up to a power of two.
+         * @return this
+         */
+        public Builder setMaxFingerprints(final int maxFingerprints) {
+            this.maxFingerprints = maxFingerprints;
+            return this;
+        }
+
+        /**
+         * Sets the name of the logger the summaries are logged to.
+         * @param summaryLogger the logger name.
+         * @return this
+         */
+        public Builder setSummaryLogger(final String summaryLogger) {
+            this.summaryLogger = summaryLogger;
+            return this;
+        }
+
+        /**
+         * Sets the level the summaries are logged at.
+         * @param summaryLevel the level of the summaries.
+         * @return this
+         */
+        public Builder setSummaryLevel(final Level summaryLevel) {
+            this.summaryLevel = summaryLevel;
+            return this;
+        }
+
+        @Override
+        public DeduplicationFilter build() {
+            if (this.allowFirst < 0) {
+                this.allowFirst = DEFAULT_ALLOW_FIRST;
+            }
+            if (this.thenEvery < 0) {
+                this.thenEvery = DEFAULT_THEN_EVERY;
+            }
+            if (this.windowSeconds <= 0) {
+                this.windowSeconds = DEFAULT_WINDOW_SECONDS;
+            }
+            if (this.maxFingerprints <= 0) {
+                this.maxFingerprints = DEFAULT_MAX_FINGERPRINTS;
+            }
+            return new DeduplicationFilter(this.allowFirst, this.thenEvery, this.windowSeconds, this.maxFingerprints,
+                    this.summaryLogger == null ? DeduplicationFilter.class.getName() : this.summaryLogger,
+                    this.summaryLevel == null ? Level.WARN : this.summaryLevel, this.getOnMatch(),
+                    this.getOnMismatch());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The results of a {@link CompositeFilter} whose filters only look at the level and marker of an event, computed
+ * once when the filter is configured.
+ * <p>
+ * The levels of the {@link ThresholdFilter}s and {@link LevelRangeFilter}s divide the possible levels into ranges
+ * that every filter treats alike, and the names of the {@link MarkerFilter}s divide the markers into classes: no
+ * marker, and for a marker the set of names it is an instance of. A table holds the result of the whole chain for each
+ * range and class, so filtering an event costs a scan over a few integers and one {@link Marker#isInstanceOf(String)}
+ * call per marker name instead of a call to each filter.
+ * </p>
+ */
+@PerformanceSensitive("allocation")
+final class LevelMarkerIndex {
+
+    /**
+     * The largest number of marker names to index; the table doubles in size with each name.
+     */
+    static final int MAX_MARKER_NAMES = 6;
+
+    /**
+     * The upper bounds of the level ranges, in ascending order of {@link Level#intLevel()}. The last range has no
+     * upper bound.
+     */
+    private final int[] bounds;
+    private final String[] markerNames;
+    private final int markerClasses;
+    private final Result[] results;
+
+    private LevelMarkerIndex(final Filter[] filters, final int[] bounds, final String[] markerNames) {
+        this.bounds = bounds;
+        this.markerNames = markerNames;
+        this.markerClasses = (1 << markerNames.length) + 1;
+        this.results = new Result[(bounds.length + 1) * markerClasses];
+        for (int range = 0; range <= bounds.length; range++) {
+            // any level of the range will do, the filters do not tell them apart
+            final long intLevel = range < bounds.length ? bounds[range] : range > 0 ? bounds[range - 1] + 1L : 0;
+            for (int markerClass = 0; markerClass < markerClasses; markerClass++) {
+                results[range * markerClasses + markerClass] = evaluate(filters, intLevel, markerClass);
+            }
+        }
+    }
+
+    /**
+     * Creates the index of the filters of a composite filter.
+     *
+     * @param filters the filters in the order they are evaluated
+     * @return the index, or null if some filter looks at more than the level and marker
+     */
+    static LevelMarkerIndex create(final Filter[] filters) {
+        if (filters.length < 2) {
+            // a single filter decides as fast as a lookup in the table would
+            return null;
+        }
+        final List<Integer> bounds = new ArrayList<>();
+        final List<String> markerNames = new ArrayList<>();
+        for (final Filter element : filters) {
+            if (element instanceof ThresholdFilter) {
+                bounds.add(((ThresholdFilter) element).getLevel().intLevel());
+            } else if (element instanceof LevelRangeFilter) {
+                final LevelRangeFilter range = (LevelRangeFilter) element;
+                bounds.add(range.getMinLevel().intLevel() - 1);
+                bounds.add(range.getMaxLevel().intLevel());
+            } else if (element instanceof MarkerFilter) {
+                final String name = ((MarkerFilter) element).getMarkerName();
+                if (!markerNames.contains(name)) {
+                    markerNames.add(name);
+                }
+            } else if (!(element instanceof NoMarkerFilter)) {
+                return null;
+            }
+        }
+        if (markerNames.size() > MAX_MARKER_NAMES) {
+            return null;
+        }
+        final int[] sortedBounds = bounds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        return new LevelMarkerIndex(filters, sortedBounds, markerNames.toArray(new String[markerNames.size()]));
+    }
+
+    private Result evaluate(final Filter[] filters, final long intLevel, final int markerClass) {
+        Result result = Result.NEUTRAL;
+        for (final Filter filter : filters) {
+            final boolean match;
+            if (filter instanceof ThresholdFilter) {
+                match = intLevel <= ((ThresholdFilter) filter).getLevel().intLevel();
+            } else if (filter instanceof LevelRangeFilter) {
+                final LevelRangeFilter range = (LevelRangeFilter) filter;
+                match = intLevel >= range.getMinLevel().intLevel() && intLevel <= range.getMaxLevel().intLevel();
+            } else if (filter instanceof MarkerFilter) {
+                final int name = Arrays.asList(markerNames).indexOf(((MarkerFilter) filter).getMarkerName());
+                match = markerClass != 0 && ((markerClass - 1) & (1 << name)) != 0;
+            } else {
+                match = markerClass == 0;
+            }
+            // the same short cut as CompositeFilter
+            result = match ? filter.getOnMatch() : filter.getOnMismatch();
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the result the filter has for an event.
+     *
+     * @param level the level of the event
+     * @param marker the marker of the event, may be null
+     * @return the result of the filter
+     */
+    Result filter(final Level level, final Marker marker) {
+        final int intLevel = level.intLevel();
+        int range = 0;
+        while (range < bounds.length && intLevel > bounds[range]) {
+            range++;
+        }
+        int markerClass = 0;
+        if (marker != null) {
+            for (int i = 0; i < markerNames.length; i++) {
+                if (marker.isInstanceOf(markerNames[i])) {
+                    markerClass |= 1 << i;
+                }
+            }
+            markerClass++;
+        }
+        return results[range * markerClasses + markerClass];
+    }
+}
@@ -176,6 +176,10 @@ public final class LevelRangeFilter extends AbstractFilter {
         return filter(level);
     }
 
+    public Level getMaxLevel() {
+        return maxLevel;
+    }
+
     public Level getMinLevel() {
         return minLevel;
     }
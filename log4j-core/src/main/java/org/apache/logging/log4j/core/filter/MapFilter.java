@@ -21,6 +21,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
@@ -44,13 +47,52 @@ import org.apache.logging.log4j.util.SortedArrayStringMap;
 
 /**
  * A Filter that operates on a Map.
+ * <p>
+ * The allowed values of each key are kept in a hash set, so checking an event does not depend on the number of
+ * values. Keys that are missing from the data never match, and null values in the lists are ignored.
+ * </p>
+ * <p>
+ * Keys are evaluated until one decides the result. When several keys are configured, the filter evaluates all keys
+ * for a random sample of the events, counts how often each key matches and evaluates first the keys most likely to
+ * decide the result: those that rarely match with the "and" operator and those that often match with "or". Only
+ * sampled events update the shared counts, so logging threads rarely write to the same memory.
+ * </p>
  */
 @Plugin(name = "MapFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
 @PerformanceSensitive("allocation")
 public class MapFilter extends AbstractFilter {
 
+    /**
+     * Looks up the value of a key in the data of an event.
+     *
+     * @param <T> the type of the data
+     */
+    interface ValueLookup<T> {
+        CharSequence getValue(T data, String key);
+    }
+
+    /**
+     * One in this many events is sampled to estimate how often each key matches.
+     */
+    static final int SAMPLE_RATE = 64;
+
+    /**
+     * The number of sampled events after which the order of the keys is revised.
+     */
+    static final int SAMPLES_PER_REORDER = 1024;
+
+    static final ValueLookup<MapMessage<?, ?>> MAP_MESSAGE_LOOKUP = MapMessage::get;
+    private static final ValueLookup<Map<String, String>> MAP_LOOKUP = Map::get;
+    private static final ValueLookup<ReadOnlyStringMap> STRING_MAP_LOOKUP = ReadOnlyStringMap::getValue;
+
     private final IndexedStringMap map;
     private final boolean isAnd;
+    private final String[] keys;
+    private final ValueSet[] values;
+
+    private final AtomicLongArray matches;
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile int[] order;
 
     protected MapFilter(final Map<String, List<String>> map, final boolean oper, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
@@ -61,6 +103,97 @@ public class MapFilter extends AbstractFilter {
         for (final Map.Entry<String, List<String>> entry : map.entrySet()) {
             this.map.putValue(entry.getKey(), entry.getValue());
         }
+        final int size = this.map.size();
+        this.keys = new String[size];
+        this.values = new ValueSet[size];
+        this.matches = new AtomicLongArray(size);
+        this.order = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = this.map.getKeyAt(i);
+            values[i] = new ValueSet(this.map.<List<String>>getValueAt(i));
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Evaluates the keys against the data of an event, combining them with the operator of this filter.
+     *
+     * @param data the data of the event
+     * @param lookup looks up the values of keys in the data
+     * @param <T> the type of the data
+     * @return true if the data matches
+     */
+    <T> boolean matches(final T data, final ValueLookup<T> lookup) {
+        if (keys.length > 1 && ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
+            return sample(data, lookup);
+        }
+        final int[] currentOrder = order;
+        boolean match = false;
+        for (int i = 0; i < currentOrder.length; i++) {
+            final int key = currentOrder[i];
+            match = values[key].contains(lookup.getValue(data, keys[key]));
+            if ((!isAnd && match) || (isAnd && !match)) {
+                break;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Evaluates all keys against the data of an event and counts the keys that match. Package visibility for testing.
+     *
+     * @param data the data of the event
+     * @param lookup looks up the values of keys in the data
+     * @param <T> the type of the data
+     * @return true if the data matches
+     */
+    <T> boolean sample(final T data, final ValueLookup<T> lookup) {
+        boolean all = true;
+        boolean any = false;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i].contains(lookup.getValue(data, keys[i]))) {
+                matches.incrementAndGet(i);
+                any = true;
+            } else {
+                all = false;
+            }
+        }
+        if (samples.incrementAndGet() % SAMPLES_PER_REORDER == 0) {
+            reorder();
+        }
+        return isAnd ? all : any;
+    }
+
+    private void reorder() {
+        final int[] newOrder = order.clone();
+        for (int j = 1; j < newOrder.length; j++) {
+            final int key = newOrder[j];
+            int k = j;
+            for (; k > 0 && precedes(key, newOrder[k - 1]); k--) {
+                newOrder[k] = newOrder[k - 1];
+            }
+            newOrder[k] = key;
+        }
+        order = newOrder;
+        // let older samples count less so the order follows changes in the events
+        for (int i = 0; i < keys.length; i++) {
+            matches.set(i, matches.get(i) >>> 1);
+        }
+    }
+
+    private boolean precedes(final int key, final int other) {
+        // every sample evaluates all keys, so the numbers of matches compare the match rates
+        return isAnd ? matches.get(key) < matches.get(other) : matches.get(key) > matches.get(other);
+    }
+
+    /**
+     * Returns the indexes of the keys, in the order of {@link #getStringMap()}, in the order they are evaluated.
+     * Package visibility for testing.
+     *
+     * @return the evaluation order
+     */
+    int[] getEvaluationOrder() {
+        return order.clone();
     }
 
     @Override
@@ -82,42 +215,15 @@ public class MapFilter extends AbstractFilter {
     }
 
     protected boolean filter(final MapMessage<?, ?> mapMessage) {
-        boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = mapMessage.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
-
-            if ((!isAnd && match) || (isAnd && !match)) {
-                break;
-            }
-        }
-        return match;
+        return matches(mapMessage, MAP_MESSAGE_LOOKUP);
     }
 
     protected boolean filter(final Map<String, String> data) {
-        boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.get(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
-
-            if ((!isAnd && match) || (isAnd && !match)) {
-                break;
-            }
-        }
-        return match;
+        return matches(data, MAP_LOOKUP);
     }
 
     protected boolean filter(final ReadOnlyStringMap data) {
-        boolean match = false;
-        for (int i = 0; i < map.size(); i++) {
-            final String toMatch = data.getValue(map.getKeyAt(i));
-            match = toMatch != null && ((List<String>) map.getValueAt(i)).contains(toMatch);
-
-            if ((!isAnd && match) || (isAnd && !match)) {
-                break;
-            }
-        }
-        return match;
+        return matches(data, STRING_MAP_LOOKUP);
     }
 
     @Override
@@ -139,6 +139,15 @@ public final class MarkerFilter extends AbstractFilter {
         return filter(marker);
     }
 
+    /**
+     * Returns the name of the marker this filter matches.
+     *
+     * @return the marker name
+     */
+    String getMarkerName() {
+        return name;
+    }
+
     @Override
     public String toString() {
         return name;
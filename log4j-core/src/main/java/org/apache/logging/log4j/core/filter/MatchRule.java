@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * A rule of a {@link MultiMatchFilter}: a text the message must contain or a regular expression that must be found in
+ * the message, and the result when the rule fires.
+ *
+ * @since 3.0
+ */
+@Plugin(name = "MatchRule", category = Node.CATEGORY, printObject = true)
+public final class MatchRule {
+
+    private final String name;
+    private final String text;
+    private final Pattern regex;
+    private final Result onMatch;
+    private final LongAdder matches = new LongAdder();
+
+    private MatchRule(final String name, final String text, final Pattern regex, final Result onMatch) {
+        this.name = name;
+        this.text = text;
+        this.regex = regex;
+        this.onMatch = onMatch;
+    }
+
+    /**
+     * Returns the name of the rule, by default its text or regular expression.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the text the message must contain.
+     *
+     * @return the text, or null if this rule has a regular expression
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the regular expression that must be found in the message.
+     *
+     * @return the regular expression, or null if this rule has a text
+     */
+    public Pattern getRegex() {
+        return regex;
+    }
+
+    /**
+     * Returns the result when the rule fires.
+     *
+     * @return the result, or null for the result of the filter
+     */
+    public Result getOnMatch() {
+        return onMatch;
+    }
+
+    /**
+     * Returns how often the rule fired.
+     *
+     * @return the number of messages the rule decided
+     */
+    public long getMatchCount() {
+        return matches.sum();
+    }
+
+    void fired() {
+        matches.increment();
+    }
+
+    @Override
+    public String toString() {
+        return name + (onMatch == null ? "" : "->" + onMatch);
+    }
+
+    /**
+     * Creates a rule.
+     *
+     * @param name the name of the rule, defaults to its text or regular expression
+     * @param text the text the message must contain
+     * @param regex the regular expression that must be found in the message
+     * @param onMatch the result when the rule fires, defaults to the onMatch result of the filter
+     * @return the rule, or null if not exactly one of text and regex is given
+     */
+    @PluginFactory
+    public static MatchRule createRule(
+            // @formatter:off
+            @PluginAttribute final String name,
+            @PluginAttribute final String text,
+            @PluginAttribute final String regex,
+            @PluginAttribute final Result onMatch) {
+            // @formatter:on
+        if ((text == null) == (regex == null)) {
+            StatusLogger.getLogger().error("A MatchRule needs either a text or a regex");
+            return null;
+        }
+        final String ruleName = name != null ? name : text != null ? text : regex;
+        return new MatchRule(ruleName, text, regex != null ? Pattern.compile(regex) : null, onMatch);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Matches the formatted message against a list of {@link MatchRule}s with a single scan and returns the result of the
+ * first rule, in the order they are listed, that fires; onMismatch if none does.
+ * <p>
+ * This behaves like a {@link CompositeFilter} of {@link StringMatchFilter}s and filters that find regular expressions,
+ * each with a NEUTRAL onMismatch result, but does not scan the message once per filter. The texts of all rules are
+ * compiled into one Aho-Corasick automaton that finds all of them in one pass, and the regular expressions are only
+ * searched, in order, until one of them or an earlier text rule fires. Rules with a NEUTRAL result never fire.
+ * </p>
+ *
+ * @since 3.0
+ */
+@Plugin(name = "MultiMatchFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class MultiMatchFilter extends AbstractFilter {
+
+    private final MatchRule[] rules;
+    private final Result[] results;
+    private final boolean useRawMessage;
+    private final AhoCorasickAutomaton automaton;
+    private final int firstText;
+
+    /**
+     * The regular expressions of the rules that have one, in rule order.
+     */
+    private final Pattern[] regexes;
+    /**
+     * The ids of the rules of the regular expressions.
+     */
+    private final int[] regexRules;
+    private final ThreadLocal<Matcher[]> regexMatchers;
+
+    private MultiMatchFilter(final MatchRule[] rules, final boolean useRawMessage, final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.rules = rules;
+        this.useRawMessage = useRawMessage;
+        this.results = new Result[rules.length];
+        final String[] texts = new String[rules.length];
+        final List<Pattern> patterns = new ArrayList<>();
+        final List<Integer> regexIds = new ArrayList<>();
+        int first = AhoCorasickAutomaton.NONE;
+        for (int i = 0; i < rules.length; i++) {
+            final MatchRule rule = rules[i];
+            results[i] = rule.getOnMatch() != null ? rule.getOnMatch() : onMatch;
+            if (results[i] == Result.NEUTRAL) {
+                continue;
+            }
+            if (rule.getText() != null) {
+                texts[i] = rule.getText();
+                first = Math.min(first, i);
+            } else {
+                patterns.add(rule.getRegex());
+                regexIds.add(i);
+            }
+        }
+        this.firstText = first;
+        this.automaton = first == AhoCorasickAutomaton.NONE ? null : new AhoCorasickAutomaton(texts);
+        this.regexRules = toArray(regexIds);
+        this.regexes = patterns.toArray(new Pattern[0]);
+        this.regexMatchers = Constants.ENABLE_THREADLOCALS && regexes.length > 0
+                ? ThreadLocal.withInitial(this::newMatchers) : null;
+    }
+
+    private Matcher[] newMatchers() {
+        final Matcher[] matchers = new Matcher[regexes.length];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = regexes[i].matcher("");
+        }
+        return matchers;
+    }
+
+    private static int[] toArray(final List<Integer> list) {
+        final int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rule that fires for a text.
+     *
+     * @param text the text to match
+     * @return the first rule that fires, or null if none does
+     */
+    public MatchRule match(final CharSequence text) {
+        final int rule = findRule(text);
+        return rule == AhoCorasickAutomaton.NONE ? null : rules[rule];
+    }
+
+    private int findRule(final CharSequence text) {
+        final int best = automaton == null ? AhoCorasickAutomaton.NONE : automaton.find(text, firstText + 1);
+        if (regexes.length == 0 || regexRules[0] > best) {
+            return best;
+        }
+        final Matcher[] matchers = regexMatchers == null ? null : regexMatchers.get();
+        for (int i = 0; i < regexes.length && regexRules[i] < best; i++) {
+            if (find(matchers == null ? regexes[i].matcher(text) : matchers[i], text, matchers != null)) {
+                return regexRules[i];
+            }
+        }
+        return best;
+    }
+
+    private static boolean find(final Matcher matcher, final CharSequence text, final boolean reused) {
+        if (!reused) {
+            return matcher.find();
+        }
+        try {
+            return matcher.reset(text).find();
+        } finally {
+            matcher.reset(""); // do not hold on to the text
+        }
+    }
+
+    private Result filter(final CharSequence text) {
+        if (text == null) {
+            return onMismatch;
+        }
+        final int rule = findRule(text);
+        if (rule == AhoCorasickAutomaton.NONE) {
+            return onMismatch;
+        }
+        rules[rule].fired();
+        return results[rule];
+    }
+
+    private Result filter(final Message msg) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        if (useRawMessage) {
+            return filter(msg.getFormat());
+        }
+        if (msg instanceof ReusableMessage && Constants.ENABLE_THREADLOCALS) {
+            final StringBuilder text = ThreadLocalStringBuilder.get();
+            ((ReusableMessage) msg).formatTo(text);
+            return filter(text);
+        }
+        return filter(msg.getFormattedMessage());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object... params) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return useRawMessage || params == null || params.length == 0 ? filter(msg)
+                : filter(logger.getMessageFactory().newMessage(msg, params));
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+            final Throwable t) {
+        if (msg == null) {
+            return onMismatch;
+        }
+        return filter(msg.toString());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+            final Throwable t) {
+        return filter(msg);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        return filter(event.getMessage());
+    }
+
+    /**
+     * Returns the rules in the order they are applied.
+     *
+     * @return the rules
+     */
+    public List<MatchRule> getRules() {
+        return Collections.unmodifiableList(Arrays.asList(rules));
+    }
+
+    @Override
+    public String toString() {
+        return "useRaw=" + useRawMessage + ", rules=" + Arrays.toString(rules);
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder>
+            implements org.apache.logging.log4j.plugins.util.Builder<MultiMatchFilter> {
+
+        @PluginElement("Rules")
+        private MatchRule[] rules;
+
+        @PluginBuilderAttribute
+        private boolean useRawMsg;
+
+        /**
+         * Sets the rules in the order they are applied.
+         *
+         * @param rules the rules
+         * @return this
+         */
+        public Builder setRules(final MatchRule... rules) {
+            this.rules = rules;
+            return this;
+        }
+
+        /**
+         * Sets whether rules are matched against the unformatted message.
+         *
+         * @param useRawMsg whether to use the unformatted message
+         * @return this
+         */
+        public Builder setUseRawMsg(final boolean useRawMsg) {
+            this.useRawMsg = useRawMsg;
+            return this;
+        }
+
+        @Override
+        public MultiMatchFilter build() {
+            if (rules == null || rules.length == 0) {
+                LOGGER.error("MultiMatchFilter needs at least one MatchRule");
+                return null;
+            }
+            return new MultiMatchFilter(rules.clone(), useRawMsg, getOnMatch(), getOnMismatch());
+        }
+    }
+}
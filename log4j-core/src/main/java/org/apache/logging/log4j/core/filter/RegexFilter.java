@@ -19,7 +19,6 @@ package org.apache.logging.log4j.core.filter;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.Level;
@@ -27,12 +26,17 @@ import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.TextMatcher;
 import org.apache.logging.log4j.plugins.Node;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.util.EnglishEnums;
+import org.apache.logging.log4j.util.PerformanceSensitive;
 
 /**
  * This filter returns the onMatch result if the message matches the regular expression.
@@ -40,17 +44,22 @@ import org.apache.logging.log4j.message.Message;
  * The "useRawMsg" attribute can be used to indicate whether the regular expression should be applied to the result of
  * calling Message.getMessageFormat (true) or Message.getFormattedMessage() (false). The default is false.
  *
+ * The "matchType" attribute selects how the "regex" attribute is interpreted: as a regular expression (REGEX, the
+ * default), as a literal text (LITERAL) or as a glob where '*' matches any text and '?' any character (GLOB).
+ * Reusable messages are formatted into a thread-local StringBuilder that is matched directly.
  */
 @Plugin(name = "RegexFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
 public final class RegexFilter extends AbstractFilter {
 
     private static final int DEFAULT_PATTERN_FLAGS = 0;
-    private final Pattern pattern;
+
+    private final TextMatcher matcher;
     private final boolean useRawMessage;
 
-    private RegexFilter(final boolean raw, final Pattern pattern, final Result onMatch, final Result onMismatch) {
+    private RegexFilter(final boolean raw, final TextMatcher matcher, final Result onMatch, final Result onMismatch) {
         super(onMatch, onMismatch);
-        this.pattern = pattern;
+        this.matcher = matcher;
         this.useRawMessage = raw;
     }
 
@@ -75,29 +84,38 @@ public final class RegexFilter extends AbstractFilter {
         if (msg == null) {
             return onMismatch;
         }
-        final String text = useRawMessage ? msg.getFormat() : msg.getFormattedMessage();
-        return filter(text);
+        return filter(msg);
     }
 
     @Override
     public Result filter(final LogEvent event) {
-        final String text = useRawMessage ? event.getMessage().getFormat() : event.getMessage().getFormattedMessage();
-        return filter(text);
+        return filter(event.getMessage());
+    }
+
+    private Result filter(final Message msg) {
+        if (useRawMessage) {
+            return filter(msg.getFormat());
+        }
+        if (msg instanceof ReusableMessage && Constants.ENABLE_THREADLOCALS) {
+            final StringBuilder text = ThreadLocalStringBuilder.get();
+            ((ReusableMessage) msg).formatTo(text);
+            return filter(text);
+        }
+        return filter(msg.getFormattedMessage());
     }
 
-    private Result filter(final String msg) {
+    private Result filter(final CharSequence msg) {
         if (msg == null) {
             return onMismatch;
         }
-        final Matcher m = pattern.matcher(msg);
-        return m.matches() ? onMatch : onMismatch;
+        return matcher.matches(msg) ? onMatch : onMismatch;
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
         sb.append("useRaw=").append(useRawMessage);
-        sb.append(", pattern=").append(pattern.toString());
+        sb.append(", pattern=").append(matcher.toString());
         return sb.toString();
     }
 
@@ -118,6 +136,31 @@ public final class RegexFilter extends AbstractFilter {
      * @throws IllegalAccessException
      * @throws IllegalArgumentException
      */
+    public static RegexFilter createFilter(final String regex, final String[] patternFlags, final Boolean useRawMsg,
+            final Result onMatch, final Result onMismatch) throws IllegalArgumentException, IllegalAccessException {
+        return createFilter(regex, patternFlags, useRawMsg, null, onMatch, onMismatch);
+    }
+
+    /**
+     * Creates a Filter that matches a regular expression, a literal text or a glob.
+     *
+     * @param regex
+     *        The expression to match.
+     * @param patternFlags
+     *        An array of Strings where each String is a {@link Pattern#compile(String, int)} compilation flag.
+     * @param useRawMsg
+     *        If true, the raw message will be used, otherwise the formatted message will be used.
+     * @param matchType
+     *        How the expression is interpreted: REGEX (the default), LITERAL or GLOB.
+     * @param onMatch
+     *        The action to perform when a match occurs.
+     * @param onMismatch
+     *        The action to perform when a mismatch occurs.
+     * @return The RegexFilter.
+     * @throws IllegalAccessException
+     * @throws IllegalArgumentException
+     * @since 3.0
+     */
     // TODO Consider refactoring to use AbstractFilter.AbstractFilterBuilder
     @PluginFactory
     public static RegexFilter createFilter(
@@ -125,6 +168,7 @@ public final class RegexFilter extends AbstractFilter {
             @PluginAttribute final String regex,
             @PluginElement final String[] patternFlags,
             @PluginAttribute final Boolean useRawMsg,
+            @PluginAttribute final String matchType,
             @PluginAttribute final Result onMatch,
             @PluginAttribute final Result onMismatch)
             //@formatter:on
@@ -133,7 +177,10 @@ public final class RegexFilter extends AbstractFilter {
             LOGGER.error("A regular expression must be provided for RegexFilter");
             return null;
         }
-        return new RegexFilter(useRawMsg, Pattern.compile(regex, toPatternFlags(patternFlags)), onMatch, onMismatch);
+        final TextMatcher.Type type = matchType == null ? TextMatcher.Type.REGEX
+                : EnglishEnums.valueOf(TextMatcher.Type.class, matchType);
+        return new RegexFilter(useRawMsg, TextMatcher.create(type, regex, toPatternFlags(patternFlags)), onMatch,
+                onMismatch);
     }
 
     private static int toPatternFlags(final String[] patternFlags) throws IllegalArgumentException,
@@ -34,9 +34,7 @@ import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.StructuredDataMessage;
-import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
 import org.apache.logging.log4j.util.PerformanceSensitive;
-import org.apache.logging.log4j.util.StringBuilders;
 
 /**
  * Filter based on data in a StructuredDataMessage.
@@ -45,9 +43,6 @@ import org.apache.logging.log4j.util.StringBuilders;
 @PerformanceSensitive("allocation")
 public final class StructuredDataFilter extends MapFilter {
 
-    private static final int MAX_BUFFER_SIZE = 2048;
-    private static ThreadLocal<StringBuilder> threadLocalStringBuilder = new ThreadLocal<>();
-
     private StructuredDataFilter(final Map<String, List<String>> map, final boolean oper, final Result onMatch,
                                  final Result onMismatch) {
         super(map, oper, onMatch, onMismatch);
@@ -72,24 +67,11 @@ public final class StructuredDataFilter extends MapFilter {
     }
 
     protected Result filter(final StructuredDataMessage message) {
-        boolean match = false;
-        final IndexedReadOnlyStringMap map = getStringMap();
-        for (int i = 0; i < map.size(); i++) {
-            final StringBuilder toMatch = getValue(message, map.getKeyAt(i));
-            if (toMatch != null) {
-                match = listContainsValue((List<String>) map.getValueAt(i), toMatch);
-            } else {
-                match = false;
-            }
-            if ((!isAnd() && match) || (isAnd() && !match)) {
-                break;
-            }
-        }
-        return match ? onMatch : onMismatch;
+        return matches(message, StructuredDataFilter::getValue) ? onMatch : onMismatch;
     }
 
-    private StringBuilder getValue(final StructuredDataMessage data, final String key) {
-        final StringBuilder sb = getStringBuilder();
+    private static StringBuilder getValue(final StructuredDataMessage data, final String key) {
+        final StringBuilder sb = ThreadLocalStringBuilder.get();
         if (key.equalsIgnoreCase("id")) {
             data.getId().formatTo(sb);
             return sb;
@@ -105,18 +87,7 @@ public final class StructuredDataFilter extends MapFilter {
         }
     }
 
-    private StringBuilder getStringBuilder() {
-        StringBuilder result = threadLocalStringBuilder.get();
-        if (result == null) {
-            result = new StringBuilder();
-            threadLocalStringBuilder.set(result);
-        }
-        StringBuilders.trimToMaxSize(result, MAX_BUFFER_SIZE);
-        result.setLength(0);
-        return result;
-    }
-
-    private StringBuilder appendOrNull(final String value, final StringBuilder sb) {
+    private static StringBuilder appendOrNull(final String value, final StringBuilder sb) {
         if (value == null) {
             return null;
         }
@@ -124,28 +95,6 @@ public final class StructuredDataFilter extends MapFilter {
         return sb;
     }
 
-    private boolean listContainsValue(final List<String> candidates, final StringBuilder toMatch) {
-        if (toMatch == null) {
-            for (int i = 0; i < candidates.size(); i++) {
-                final String candidate = candidates.get(i);
-                if (candidate == null) {
-                    return true;
-                }
-            }
-        } else {
-            for (int i = 0; i < candidates.size(); i++) {
-                final String candidate = candidates.get(i);
-                if (candidate == null) {
-                    return false;
-                }
-                if (StringBuilders.equals(candidate, 0, candidate.length(), toMatch, 0, toMatch.length())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Creates the StructuredDataFilter.
      * @param pairs Key and value pairs.
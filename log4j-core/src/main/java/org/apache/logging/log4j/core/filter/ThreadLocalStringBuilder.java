@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.util.StringBuilders;
+
+/**
+ * Hands out a per-thread StringBuilder that filters format messages or values into, so they can be matched without
+ * creating a String. Builders that grew larger than {@value #MAX_BUFFER_SIZE} characters are trimmed before they are
+ * reused.
+ */
+final class ThreadLocalStringBuilder {
+
+    static final int MAX_BUFFER_SIZE = 2048;
+
+    private static final ThreadLocal<StringBuilder> threadLocalStringBuilder = new ThreadLocal<>();
+
+    private ThreadLocalStringBuilder() {
+    }
+
+    /**
+     * Returns the calling thread's StringBuilder, emptied.
+     *
+     * @return an empty StringBuilder owned by the current thread
+     */
+    static StringBuilder get() {
+        StringBuilder result = threadLocalStringBuilder.get();
+        if (result == null) {
+            result = new StringBuilder();
+            threadLocalStringBuilder.set(result);
+        }
+        StringBuilders.trimToMaxSize(result, MAX_BUFFER_SIZE);
+        result.setLength(0);
+        return result;
+    }
+}
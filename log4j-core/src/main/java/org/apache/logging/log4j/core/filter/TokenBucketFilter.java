@@ -0,0 +1,439 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Regulates logging traffic like the {@link BurstFilter}, with a token bucket that takes no lock and allocates nothing
+ * per event.
+ * <p>
+ * The bucket holds up to <code>maxBurst</code> tokens and is refilled with <code>rate</code> tokens per second. Each
+ * event at or below <code>level</code> takes a token and is denied if none is left. The state of a bucket is a single
+ * number, the time at which it will be full again, updated with a compare-and-set.
+ * </p>
+ * <p>
+ * With <code>keyType</code> the events are given a bucket each per logger name, marker name or value of the
+ * ThreadContext key <code>contextKey</code>, so one noisy source does not use up the tokens of the others. At most
+ * <code>maxKeys</code> buckets are created; events with further keys, and events without a key, share one bucket.
+ * </p>
+ * <code>
+ * &lt;Console name="console"&gt;<br>
+ * &nbsp;&lt;PatternLayout pattern="%-5p %d{dd-MMM-yyyy HH:mm:ss} %x %t %m%n"/&gt;<br>
+ * &nbsp;&lt;filters&gt;<br>
+ * &nbsp;&nbsp;&lt;TokenBucketFilter level="INFO" rate="16" maxBurst="100" keyType="LOGGER"/&gt;<br>
+ * &nbsp;&lt;/filters&gt;<br>
+ * &lt;/Console&gt;<br>
+ * </code><br>
+ *
+ * @since 3.0
+ */
+@Plugin(name = "TokenBucketFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class TokenBucketFilter extends AbstractFilter {
+
+    /**
+     * What the events are given separate buckets by.
+     */
+    public enum KeyType {
+        /** All events share one bucket. */
+        NONE,
+        /** A bucket per logger name. */
+        LOGGER,
+        /** A bucket per marker name. */
+        MARKER,
+        /** A bucket per value of a ThreadContext key. */
+        CONTEXT
+    }
+
+    private static final long NANOS_IN_SECONDS = 1000000000;
+
+    private static final int DEFAULT_RATE = 10;
+
+    private static final int DEFAULT_RATE_MULTIPLE = 100;
+
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    /**
+     * The longest time, about 73 years, a bucket may be full again in, so that times can be compared by difference.
+     */
+    private static final long MAX_BURST_TOLERANCE = Long.MAX_VALUE / 4;
+
+    private final Level level;
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final KeyType keyType;
+    private final String contextKey;
+    private final int maxKeys;
+
+    /**
+     * The bucket of events without a key of their own.
+     */
+    private final AtomicLong sharedBucket;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private TokenBucketFilter(final Level level, final long emissionInterval, final long maxBurst,
+            final KeyType keyType, final String contextKey, final int maxKeys, final Result onMatch,
+            final Result onMismatch) {
+        super(onMatch, onMismatch);
+        this.level = level;
+        this.emissionInterval = emissionInterval;
+        // a bucket has a token left while it will be full again within maxBurst - 1 intervals
+        this.burstTolerance = emissionInterval * (maxBurst - 1);
+        this.keyType = keyType;
+        this.contextKey = contextKey;
+        this.maxKeys = maxKeys;
+        this.sharedBucket = newBucket(System.nanoTime());
+    }
+
+    private static long emissionInterval(final float rate) {
+        return Math.max(1, (long) (NANOS_IN_SECONDS / rate));
+    }
+
+    private static AtomicLong newBucket(final long nanoTime) {
+        // a bucket is full from the time it is created
+        return new AtomicLong(nanoTime);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+                         final Object... params) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Object msg,
+                         final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final Message msg,
+                         final Throwable t) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final LogEvent event) {
+        if (!this.level.isMoreSpecificThan(event.getLevel())) {
+            return onMatch;
+        }
+        final String key;
+        switch (keyType) {
+        case LOGGER:
+            key = event.getLoggerName();
+            break;
+        case MARKER:
+            key = event.getMarker() == null ? null : event.getMarker().getName();
+            break;
+        case CONTEXT:
+            key = event.getContextData().getValue(contextKey);
+            break;
+        default:
+            key = null;
+        }
+        return filter(key, System.nanoTime());
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8) {
+        return filter(logger, level, marker);
+    }
+
+    @Override
+    public Result filter(final Logger logger, final Level level, final Marker marker, final String msg,
+            final Object p0, final Object p1, final Object p2, final Object p3,
+            final Object p4, final Object p5, final Object p6,
+            final Object p7, final Object p8, final Object p9) {
+        return filter(logger, level, marker);
+    }
+
+    private Result filter(final Logger logger, final Level level, final Marker marker) {
+        if (!this.level.isMoreSpecificThan(level)) {
+            return onMatch;
+        }
+        final String key;
+        switch (keyType) {
+        case LOGGER:
+            key = logger == null ? null : logger.getName();
+            break;
+        case MARKER:
+            key = marker == null ? null : marker.getName();
+            break;
+        case CONTEXT:
+            key = ThreadContext.get(contextKey);
+            break;
+        default:
+            key = null;
+        }
+        return filter(key, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of a key. Package visibility for testing.
+     *
+     * @param key the key of the event, or null for the shared bucket
+     * @param nanoTime the current value of {@link System#nanoTime()}
+     * @return The onMatch value if a token was left, onMismatch otherwise.
+     */
+    Result filter(final String key, final long nanoTime) {
+        final AtomicLong bucket = bucket(key, nanoTime);
+        long full;
+        long next;
+        do {
+            full = bucket.get();
+            // a bucket that has been full for a while does not hold more than maxBurst tokens
+            final long start = full - nanoTime < 0 ? nanoTime : full;
+            if (start - nanoTime > burstTolerance) {
+                return onMismatch;
+            }
+            next = start + emissionInterval;
+        } while (!bucket.compareAndSet(full, next));
+        return onMatch;
+    }
+
+    private AtomicLong bucket(final String key, final long nanoTime) {
+        if (key == null) {
+            return sharedBucket;
+        }
+        final AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            return sharedBucket;
+        }
+        final AtomicLong created = newBucket(nanoTime);
+        final AtomicLong existing = buckets.putIfAbsent(key, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * Returns the number of tokens left in the bucket of a key. Package visibility for testing.
+     *
+     * @param key the key, or null for the shared bucket
+     * @return The number of tokens left.
+     */
+    long getAvailable(final String key) {
+        final AtomicLong bucket = key == null ? sharedBucket : buckets.get(key);
+        if (bucket == null) {
+            return burstTolerance / emissionInterval + 1;
+        }
+        final long ahead = Math.max(0, bucket.get() - System.nanoTime());
+        return Math.max(0, Math.floorDiv(burstTolerance - ahead, emissionInterval) + 1);
+    }
+
+    /**
+     * Fills all buckets. Used for unit testing.
+     */
+    public void clear() {
+        final long now = System.nanoTime();
+        sharedBucket.set(now);
+        buckets.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "level=" + level.toString() + ", interval=" + emissionInterval + ", max="
+                + (burstTolerance / emissionInterval + 1) + ", keyType=" + keyType
+                + (keyType == KeyType.CONTEXT ? ", contextKey=" + contextKey : "");
+    }
+
+    @PluginFactory
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractFilterBuilder<Builder> implements org.apache.logging.log4j.plugins.util.Builder<TokenBucketFilter> {
+
+        @PluginBuilderAttribute
+        private Level level = Level.WARN;
+
+        @PluginBuilderAttribute
+        private float rate = DEFAULT_RATE;
+
+        @PluginBuilderAttribute
+        private long maxBurst;
+
+        @PluginBuilderAttribute
+        private KeyType keyType = KeyType.NONE;
+
+        @PluginBuilderAttribute
+        private String contextKey;
+
+        @PluginBuilderAttribute
+        private int maxKeys = DEFAULT_MAX_KEYS;
+
+        /**
+         * Sets the logging level to use.
+         * @param level the logging level to use.
+         * @return this
+         */
+        public Builder setLevel(final Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the average number of events per second to allow.
+         * @param rate the average number of events per second to allow. This must be a positive number.
+         * @return this
+         */
+        public Builder setRate(final float rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events that can occur before events are filtered for exceeding the average rate.
+         * @param maxBurst the size of the bucket. The default is 100 times the rate.
+         * @return this
+         */
+        public Builder setMaxBurst(final long maxBurst) {
+            this.maxBurst = maxBurst;
+            return this;
+        }
+
+        /**
+         * Sets what the events are given separate buckets by.
+         * @param keyType what the events are given separate buckets by. The default is NONE, one bucket for all.
+         * @return this
+         */
+        public Builder setKeyType(final KeyType keyType) {
+            this.keyType = keyType;
+            return this;
+        }
+
+        /**
+         * Sets the ThreadContext key whose values the events are given separate buckets by.
+         * @param contextKey the ThreadContext key, used with the CONTEXT key type.
+         * @return this
+         */
+        public Builder setContextKey(final String contextKey) {
+            this.contextKey = contextKey;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of buckets to create for keys.
+         * @param maxKeys the maximum number of buckets. The default is 1000.
+         * @return this
+         */
+        public Builder setMaxKeys(final int maxKeys) {
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        @Override
+        public TokenBucketFilter build() {
+            if (!(this.rate > 0)) {
+                this.rate = DEFAULT_RATE;
+            }
+            if (this.maxBurst <= 0) {
+                // at least one token for rates below one event per DEFAULT_RATE_MULTIPLE seconds
+                this.maxBurst = Math.max(1, (long) (this.rate * DEFAULT_RATE_MULTIPLE));
+            }
+            final long emissionInterval = emissionInterval(this.rate);
+            final long limit = MAX_BURST_TOLERANCE / emissionInterval + 1;
+            if (this.maxBurst > limit) {
+                LOGGER.warn("TokenBucketFilter maxBurst {} is too large for rate {}, using {}", this.maxBurst,
+                        this.rate, limit);
+                this.maxBurst = limit;
+            }
+            if (this.keyType == null) {
+                this.keyType = KeyType.NONE;
+            }
+            if (this.keyType == KeyType.CONTEXT && this.contextKey == null) {
+                LOGGER.error("A contextKey must be provided for TokenBucketFilter with keyType CONTEXT");
+                return null;
+            }
+            return new TokenBucketFilter(this.level, emissionInterval, this.maxBurst, this.keyType, this.contextKey,
+                    Math.max(0, this.maxKeys), this.getOnMatch(), this.getOnMismatch());
+        }
+    }
+}
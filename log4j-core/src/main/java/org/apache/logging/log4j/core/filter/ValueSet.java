@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of strings, built once when a filter is configured, that is searched with any character sequence.
+ * <p>
+ * The strings are kept in an open addressing table with their hash codes. Character sequences are hashed like
+ * {@link String#hashCode()}, so a reused {@link StringBuilder} can be looked up without creating a String.
+ * </p>
+ */
+final class ValueSet {
+
+    private final String[] values;
+    private final int[] hashes;
+    private final int mask;
+    private final int shift;
+    private final int size;
+
+    ValueSet(final Collection<String> strings) {
+        int bits = 1;
+        while (1 << bits < strings.size() * 2) {
+            bits++;
+        }
+        values = new String[1 << bits];
+        hashes = new int[1 << bits];
+        mask = (1 << bits) - 1;
+        shift = Integer.SIZE - bits;
+        int count = 0;
+        for (final String value : strings) {
+            if (value != null && !contains(value)) {
+                final int hash = value.hashCode();
+                int index = indexOf(hash);
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                values[index] = value;
+                hashes[index] = hash;
+                count++;
+            }
+        }
+        size = count;
+    }
+
+    private int indexOf(final int hash) {
+        // Fibonacci hashing scatters similar strings, whose hash codes tend to be close, over the table
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private static int hash(final CharSequence value) {
+        if (value instanceof String) {
+            return value.hashCode();
+        }
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns whether the set contains a string with the characters of a sequence.
+     *
+     * @param value the characters to look for, may be null
+     * @return true if the set contains them
+     */
+    boolean contains(final CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        final int hash = hash(value);
+        for (int index = indexOf(hash); values[index] != null; index = (index + 1) & mask) {
+            if (hashes[index] == hash && values[index].contentEquals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of strings in the set.
+     *
+     * @return the number of strings
+     */
+    int size() {
+        return size;
+    }
+}
@@ -338,6 +338,10 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
         this.instant.initFromEpochMilli(timeMillis, 0);
     }
 
+    public void setInstant(final Instant instant) {
+        this.instant.initFrom(instant);
+    }
+
     @Override
     public Instant getInstant() {
         return instant;
@@ -355,6 +359,10 @@ public class MutableLogEvent implements LogEvent, ReusableMessage, ParameterVisi
         return thrownProxy;
     }
 
+    public void setThrownProxy(final ThrowableProxy thrownProxy) {
+        this.thrownProxy = thrownProxy;
+    }
+
     public void setSource(StackTraceElement source) {
         this.source = source;
     }
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
+
+/**
+ * Instruments the {@link CompressionPool}.
+ *
+ * @since 3.0
+ */
+public class CompressionPoolAdmin implements CompressionPoolAdminMBean {
+
+    private final CompressionPool pool;
+    private final ObjectName objectName;
+
+    /**
+     * Constructs a new {@code CompressionPoolAdmin}.
+     *
+     * @param contextName name of the LoggerContext that registers this MBean
+     * @param pool the instrumented pool
+     */
+    public CompressionPoolAdmin(final String contextName, final CompressionPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+        try {
+            final String mbeanName = String.format(PATTERN, Server.escape(contextName));
+            objectName = new ObjectName(mbeanName);
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int getThreads() {
+        return pool.getThreads();
+    }
+
+    @Override
+    public int getActiveThreads() {
+        return pool.getActiveThreads();
+    }
+
+    @Override
+    public int getBlockSize() {
+        return pool.getBlockSize();
+    }
+
+    @Override
+    public int getPendingFiles() {
+        return pool.getPendingFiles();
+    }
+
+    @Override
+    public int getQueuedBlocks() {
+        return pool.getQueuedBlocks();
+    }
+
+    @Override
+    public long getCompressedFiles() {
+        return pool.getCompressedFiles();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return pool.getBytesRead();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return pool.getBytesWritten();
+    }
+
+    @Override
+    public double getCompressionRatio() {
+        final long read = pool.getBytesRead();
+        return read == 0 ? 0 : (double) pool.getBytesWritten() / read;
+    }
+
+    @Override
+    public long getThroughput() {
+        final long nanos = pool.getCompressionNanos();
+        return nanos == 0 ? 0 : pool.getBytesRead() * TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this mbean.
+     *
+     * @return the {@code ObjectName}
+     * @see CompressionPoolAdminMBean#PATTERN
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
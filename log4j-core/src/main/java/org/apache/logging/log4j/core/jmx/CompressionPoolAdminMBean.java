@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The MBean interface for monitoring the pool of threads that compress rolled over files in parallel.
+ *
+ * @since 3.0
+ */
+public interface CompressionPoolAdminMBean {
+    /**
+     * ObjectName pattern ({@value}) for the CompressionPoolAdmin MBean.
+     * This pattern contains one variable: the name of the context.
+     * <p>
+     * The compression pool is shared by all contexts, so every context registers an MBean that reports the same
+     * numbers.
+     * </p>
+     */
+    String PATTERN = Server.DOMAIN + ":type=%s,component=CompressionPool";
+
+    /**
+     * Returns the maximum number of threads compressing at the same time.
+     *
+     * @return the number of threads
+     */
+    int getThreads();
+
+    /**
+     * Returns the number of threads currently compressing a block.
+     *
+     * @return the number of active threads
+     */
+    int getActiveThreads();
+
+    /**
+     * Returns the size of the blocks files are split into.
+     *
+     * @return the block size in bytes
+     */
+    int getBlockSize();
+
+    /**
+     * Returns the number of files being compressed.
+     *
+     * @return the number of files being compressed
+     */
+    int getPendingFiles();
+
+    /**
+     * Returns the number of blocks waiting for a compression thread.
+     *
+     * @return the number of queued blocks
+     */
+    int getQueuedBlocks();
+
+    /**
+     * Returns the number of files compressed since the pool was created.
+     *
+     * @return the number of compressed files
+     */
+    long getCompressedFiles();
+
+    /**
+     * Returns the number of uncompressed bytes of the compressed files.
+     *
+     * @return the number of bytes read
+     */
+    long getBytesRead();
+
+    /**
+     * Returns the number of compressed bytes written.
+     *
+     * @return the number of bytes written
+     */
+    long getBytesWritten();
+
+    /**
+     * Returns the ratio of compressed to uncompressed bytes.
+     *
+     * @return the compression ratio, or zero if nothing was compressed yet
+     */
+    double getCompressionRatio();
+
+    /**
+     * Returns the number of uncompressed bytes a single thread compresses per second on average.
+     *
+     * @return the throughput in bytes per second, or zero if nothing was compressed yet
+     */
+    long getThroughput();
+}
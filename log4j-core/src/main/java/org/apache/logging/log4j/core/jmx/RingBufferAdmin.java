@@ -19,13 +19,16 @@ package org.apache.logging.log4j.core.jmx;
 import javax.management.ObjectName;
 
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.WaitStrategy;
+import org.apache.logging.log4j.core.async.AdaptiveWaitStrategy;
 
 /**
  * Instruments an LMAX Disruptor ring buffer.
  */
 public class RingBufferAdmin implements RingBufferAdminMBean {
 
-    private final RingBuffer<?> ringBuffer;
+    private final RingBuffer<?>[] ringBuffers;
+    private final WaitStrategy[] waitStrategies;
     private final ObjectName objectName;
 
     public static RingBufferAdmin forAsyncLogger(final RingBuffer<?> ringBuffer, final String contextName) {
@@ -34,6 +37,22 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         return new RingBufferAdmin(ringBuffer, name);
     }
 
+    /**
+     * Creates a {@code RingBufferAdmin} for Async Loggers that spread their events over several ring buffer shards.
+     * The reported buffer size and remaining capacity are the sums over all shards.
+     *
+     * @param ringBuffers the ring buffer shards
+     * @param waitStrategies the wait strategies of the shards, in the same order
+     * @param contextName name of the {@code AsyncLoggerContext}
+     * @return a new {@code RingBufferAdmin} that instruments the ring buffer shards
+     */
+    public static RingBufferAdmin forAsyncLogger(final RingBuffer<?>[] ringBuffers,
+            final WaitStrategy[] waitStrategies, final String contextName) {
+        final String ctxName = Server.escape(contextName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER, ctxName);
+        return new RingBufferAdmin(ringBuffers, waitStrategies, name);
+    }
+
     public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer, 
             final String contextName, final String configName) {
         final String ctxName = Server.escape(contextName);
@@ -41,9 +60,23 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
         final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
         return new RingBufferAdmin(ringBuffer, name);
     }
+
+    public static RingBufferAdmin forAsyncLoggerConfig(final RingBuffer<?> ringBuffer,
+            final WaitStrategy waitStrategy, final String contextName, final String configName) {
+        final String ctxName = Server.escape(contextName);
+        final String cfgName = Server.escape(configName);
+        final String name = String.format(PATTERN_ASYNC_LOGGER_CONFIG, ctxName, cfgName);
+        return new RingBufferAdmin(new RingBuffer<?>[] {ringBuffer}, new WaitStrategy[] {waitStrategy}, name);
+    }
     
     protected RingBufferAdmin(final RingBuffer<?> ringBuffer, final String mbeanName) {
-        this.ringBuffer = ringBuffer;        
+        this(ringBuffer == null ? new RingBuffer<?>[0] : new RingBuffer<?>[] {ringBuffer}, null, mbeanName);
+    }
+
+    protected RingBufferAdmin(final RingBuffer<?>[] ringBuffers, final WaitStrategy[] waitStrategies,
+            final String mbeanName) {
+        this.ringBuffers = ringBuffers == null ? new RingBuffer<?>[0] : ringBuffers;
+        this.waitStrategies = waitStrategies == null ? new WaitStrategy[0] : waitStrategies;
         try {
             objectName = new ObjectName(mbeanName);
         } catch (final Exception e) {
@@ -53,12 +86,46 @@ public class RingBufferAdmin implements RingBufferAdminMBean {
     
     @Override
     public long getBufferSize() {
-        return ringBuffer == null ? 0 : ringBuffer.getBufferSize();
+        long result = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            result += ringBuffer.getBufferSize();
+        }
+        return result;
     }
     
     @Override
     public long getRemainingCapacity() {
-        return ringBuffer == null ? 0 : ringBuffer.remainingCapacity();
+        long result = 0;
+        for (final RingBuffer<?> ringBuffer : ringBuffers) {
+            result += ringBuffer.remainingCapacity();
+        }
+        return result;
+    }
+
+    @Override
+    public String getWaitStrategy() {
+        final StringBuilder sb = new StringBuilder();
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(waitStrategy == null ? "" : waitStrategy.getClass().getSimpleName());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String getWaitStrategyPhase() {
+        final StringBuilder sb = new StringBuilder();
+        for (final WaitStrategy waitStrategy : waitStrategies) {
+            if (waitStrategy instanceof AdaptiveWaitStrategy) {
+                if (sb.length() > 0) {
+                    sb.append(',');
+                }
+                sb.append(((AdaptiveWaitStrategy) waitStrategy).getPhase());
+            }
+        }
+        return sb.length() == 0 ? null : sb.toString();
     }
 
     /**
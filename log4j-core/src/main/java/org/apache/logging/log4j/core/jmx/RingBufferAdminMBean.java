@@ -68,4 +68,22 @@ public interface RingBufferAdminMBean {
      * @return the number of available slots in the ring buffer
      */
     long getRemainingCapacity();
+
+    /**
+     * Returns the simple class name of the wait strategy the consumer of the ring buffer uses. If the events are
+     * spread over several ring buffers, the names of their wait strategies are separated by commas.
+     *
+     * @return the simple class name of the wait strategy, or an empty string if unknown
+     */
+    String getWaitStrategy();
+
+    /**
+     * Returns what the consumer thread of an {@code AdaptiveWaitStrategy} is currently doing: {@code PROCESSING},
+     * {@code SPINNING}, {@code YIELDING} or {@code PARKED}. If the events are spread over several ring buffers,
+     * the phases of their consumers are separated by commas.
+     *
+     * @return the phase of the consumer thread, or {@code null} if the ring buffer does not use an
+     *          {@code AdaptiveWaitStrategy}
+     */
+    String getWaitStrategyPhase();
 }
@@ -35,6 +35,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.AsyncAppender;
+import org.apache.logging.log4j.core.appender.rolling.action.CompressionPool;
 import org.apache.logging.log4j.core.async.AsyncLoggerConfig;
 import org.apache.logging.log4j.core.async.AsyncLoggerContext;
 import org.apache.logging.log4j.core.config.LoggerConfig;
@@ -181,6 +182,7 @@ public final class Server {
                 // contexts.
                 registerStatusLogger(ctx.getName(), mbs, executor);
                 registerContextSelector(ctx.getName(), selector, mbs, executor);
+                registerCompressionPool(ctx.getName(), mbs);
 
                 registerLoggerConfigs(ctx, mbs, executor);
                 registerAppenders(ctx, mbs, executor);
@@ -210,6 +212,7 @@ public final class Server {
 		if (mbs != null) {
 			unregisterStatusLogger(CONTEXT_NAME_ALL, mbs);
 			unregisterContextSelector(CONTEXT_NAME_ALL, mbs);
+			unregisterCompressionPool(CONTEXT_NAME_ALL, mbs);
 			unregisterContexts(mbs);
 			unregisterLoggerConfigs(CONTEXT_NAME_ALL, mbs);
 			unregisterAsyncLoggerRingBufferAdmins(CONTEXT_NAME_ALL, mbs);
@@ -262,6 +265,7 @@ public final class Server {
         // now unregister all MBeans associated with this logger context
         unregisterStatusLogger(contextName, mbs);
         unregisterContextSelector(contextName, mbs);
+        unregisterCompressionPool(contextName, mbs);
         unregisterLoggerConfigs(contextName, mbs);
         unregisterAppenders(contextName, mbs);
         unregisterAsyncAppenders(contextName, mbs);
@@ -284,6 +288,54 @@ public final class Server {
         register(mbs, mbean, mbean.getObjectName());
     }
 
+    /**
+     * Registers the shared {@link CompressionPool} for every logger context once the pool has been created.
+     */
+    public static void registerCompressionPool() {
+        if (isJmxDisabled()) {
+            LOGGER.debug("JMX disabled for Log4j2. Not registering MBeans.");
+            return;
+        }
+        final ContextSelector selector = getContextSelector();
+        if (selector == null) {
+            LOGGER.debug("Could not register MBeans: no ContextSelector found.");
+            return;
+        }
+        final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (final LoggerContext ctx : selector.getLoggerContexts()) {
+                registerCompressionPool(ctx.getName(), mbs);
+            }
+        } catch (final Exception ex) {
+            LOGGER.error("Could not register mbeans", ex);
+        }
+    }
+
+    /**
+     * Unregisters the shared {@link CompressionPool} for every logger context once the pool has been shut down.
+     */
+    public static void unregisterCompressionPool() {
+        if (isJmxDisabled()) {
+            LOGGER.debug("JMX disabled for Log4j2. Not unregistering MBeans.");
+            return;
+        }
+        unregisterCompressionPool(CONTEXT_NAME_ALL, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    private static void registerCompressionPool(final String contextName, final MBeanServer mbs)
+            throws InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException {
+
+        final CompressionPool pool = CompressionPool.getInstance();
+        if (pool == null) {
+            // created by the first appender that compresses a file
+            return;
+        }
+        final CompressionPoolAdmin mbean = new CompressionPoolAdmin(contextName, pool);
+        if (!mbs.isRegistered(mbean.getObjectName())) {
+            register(mbs, mbean, mbean.getObjectName());
+        }
+    }
+
     private static void unregisterStatusLogger(final String contextName, final MBeanServer mbs) {
         final String search = String.format(StatusLoggerAdminMBean.PATTERN, escape(contextName));
         unregisterAllMatching(search, mbs);
@@ -294,6 +346,11 @@ public final class Server {
         unregisterAllMatching(search, mbs);
     }
 
+    private static void unregisterCompressionPool(final String contextName, final MBeanServer mbs) {
+        final String search = String.format(CompressionPoolAdminMBean.PATTERN, escape(contextName));
+        unregisterAllMatching(search, mbs);
+    }
+
     private static void unregisterLoggerConfigs(final String contextName, final MBeanServer mbs) {
         final String pattern = LoggerConfigAdminMBean.PATTERN;
         final String search = String.format(pattern, escape(contextName), "*");
@@ -186,7 +186,7 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
         this.charsetName = this.charset.name();
         useCustomEncoding = isPreJava8()
                 && (StandardCharsets.ISO_8859_1.equals(aCharset) || StandardCharsets.US_ASCII.equals(aCharset));
-        textEncoder = Constants.ENABLE_DIRECT_ENCODERS ? new StringBuilderEncoder(charset) : null;
+        textEncoder = Constants.ENABLE_DIRECT_ENCODERS ? newStringBuilderEncoder(charset) : null;
     }
 
     /**
@@ -206,7 +206,7 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
         this.charsetName = this.charset.name();
         useCustomEncoding = isPreJava8()
                 && (StandardCharsets.ISO_8859_1.equals(aCharset) || StandardCharsets.US_ASCII.equals(aCharset));
-        textEncoder = Constants.ENABLE_DIRECT_ENCODERS ? new StringBuilderEncoder(charset) : null;
+        textEncoder = Constants.ENABLE_DIRECT_ENCODERS ? newStringBuilderEncoder(charset) : null;
     }
 
     protected byte[] getBytes(final String s) {
@@ -272,11 +272,17 @@ public abstract class AbstractStringLayout extends AbstractLayout<String> implem
      */
     protected Encoder<StringBuilder> getStringBuilderEncoder() {
         if (textEncoder == null) {
-            textEncoder = new StringBuilderEncoder(getCharset());
+            textEncoder = newStringBuilderEncoder(getCharset());
         }
         return textEncoder;
     }
 
+    private static Encoder<StringBuilder> newStringBuilderEncoder(final Charset charset) {
+        // UTF-8 and ISO-8859-1 are encoded straight into the destination without a CharBuffer
+        return DirectStringBuilderEncoder.isSupported(charset) ? new DirectStringBuilderEncoder(charset)
+                : new StringBuilderEncoder(charset);
+    }
+
     protected byte[] serializeToBytes(final Serializer serializer, final byte[] defaultValue) {
         final String serializable = serializeToString(serializer);
         if (serializer == null) {
@@ -0,0 +1,592 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.time.Instant;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.core.util.Patterns;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.StringBuilders;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Lays out events in a compact binary format, read back by
+ * {@link org.apache.logging.log4j.core.parser.BinaryLogEventParser}.
+ * <p>
+ * A stream starts with a header: a zero byte, the {@value #MAGIC} magic, the {@value #VERSION} version and the schema,
+ * the number of fields followed by the tag of each {@link Field} in record order. Each record is its length, a flags
+ * byte and the fields of the schema. Numbers are written as varints and strings as their UTF-8 length plus one
+ * (zero is null) followed by the bytes. Level, logger, thread and marker names and context keys are written once and
+ * referenced by their index in a dictionary afterwards, and timestamps are written as the difference to the timestamp
+ * of the previous record. Throwables are written as the serialized {@link ThrowableProxy}.
+ * </p>
+ * <p>
+ * The dictionary and the timestamp base start over with each header, that is with each file or connection, and with
+ * the first record of a layout, which is flagged with {@link #FLAG_RESET} so readers start over too. A socket manager
+ * writes the header again after reconnecting; the records it sends again afterwards were encoded with the previous
+ * dictionary and precede the first flagged record, so readers skip them. Records are written in the order their
+ * dictionary entries are created, so {@link #encode(LogEvent, ByteBufferDestination)} holds the lock of the
+ * destination. {@link #toByteArray(LogEvent)} returns a header and a self-contained record, for appenders sending
+ * each event as a separate message.
+ * </p>
+ * <p>
+ * Datagrams may be lost or reordered and a {@link DatagramSocketManager} prepends the same header to each of them, so
+ * records encoded for UDP do not use the dictionary of the stream: each is flagged with {@link #FLAG_RESET} and
+ * written with a dictionary of its own, so every datagram can be read on its own.
+ * </p>
+ * <p>
+ * Events are encoded into a reused buffer: apart from new dictionary entries and throwables, encoding does not create
+ * objects.
+ * </p>
+ *
+ * @since 3.0
+ */
+@Plugin(name = "BinaryLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class BinaryLayout extends AbstractLayout<byte[]> {
+
+    /**
+     * The magic bytes following the zero byte that starts a header.
+     */
+    public static final String MAGIC = "L4JB";
+
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Flags a record that starts over with an empty dictionary and a zero timestamp base.
+     */
+    public static final int FLAG_RESET = 1;
+
+    /**
+     * The fields written when no schema is configured.
+     */
+    public static final String DEFAULT_FIELDS = "timestamp,level,logger,thread,marker,message,context,thrown";
+
+    /**
+     * The default maximum number of dictionary entries per stream.
+     */
+    public static final int DEFAULT_DICTIONARY_SIZE = 4096;
+
+    /**
+     * The fields of a record.
+     */
+    public enum Field {
+        /** The epoch millisecond, as the difference to the previous record, and the nanosecond of the millisecond. */
+        TIMESTAMP(1, "timestamp"),
+        /** The level name and its int level. */
+        LEVEL(2, "level"),
+        /** The logger name. */
+        LOGGER(3, "logger"),
+        /** The fully qualified class name of the logger. */
+        LOGGER_FQCN(4, "loggerFqcn"),
+        /** The thread name, id and priority. */
+        THREAD(5, "thread"),
+        /** The marker name. */
+        MARKER(6, "marker"),
+        /** The formatted message. */
+        MESSAGE(7, "message"),
+        /** The number of context entries followed by the key and the value of each. */
+        CONTEXT(8, "context"),
+        /** The serialized throwable proxy. */
+        THROWN(9, "thrown");
+
+        private final int tag;
+        private final String key;
+
+        Field(final int tag, final String key) {
+            this.tag = tag;
+            this.key = key;
+        }
+
+        public int getTag() {
+            return tag;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the field with a tag.
+         *
+         * @param tag the tag
+         * @return the field, or {@code null} if no field has the tag
+         */
+        public static Field forTag(final int tag) {
+            for (final Field field : values()) {
+                if (field.tag == tag) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Room for the varint length of a record, written once the record is complete.
+     */
+    private static final int MAX_LENGTH_SIZE = 5;
+
+    private static final TriConsumer<String, Object, RecordWriter> CONTEXT_WRITER = (key, value, writer) -> {
+        writer.writeName(key);
+        writer.writeValue(value);
+    };
+
+    private final Field[] fields;
+    private final byte[] schema;
+    private final int dictionarySize;
+    private final RecordWriter streamWriter;
+    private final RecordWriter datagramWriter;
+
+    public static class Builder<B extends Builder<B>> extends AbstractLayout.Builder<B>
+        implements org.apache.logging.log4j.plugins.util.Builder<BinaryLayout> {
+
+        @PluginBuilderAttribute
+        private String fields = DEFAULT_FIELDS;
+
+        @PluginBuilderAttribute
+        private int dictionarySize = DEFAULT_DICTIONARY_SIZE;
+
+        @Override
+        public BinaryLayout build() {
+            return new BinaryLayout(getConfiguration(), fields == null ? DEFAULT_FIELDS : fields, dictionarySize);
+        }
+
+        public String getFields() {
+            return fields;
+        }
+
+        public int getDictionarySize() {
+            return dictionarySize;
+        }
+
+        /**
+         * The comma separated fields of each record (optional, defaults to {@value BinaryLayout#DEFAULT_FIELDS}).
+         *
+         * @return this builder
+         */
+        public B setFields(final String fields) {
+            this.fields = fields;
+            return asBuilder();
+        }
+
+        /**
+         * The maximum number of dictionary entries per stream, names beyond are written in full with each record
+         * (optional, defaults to {@value BinaryLayout#DEFAULT_DICTIONARY_SIZE}).
+         *
+         * @return this builder
+         */
+        public B setDictionarySize(final int dictionarySize) {
+            this.dictionarySize = dictionarySize;
+            return asBuilder();
+        }
+    }
+
+    private BinaryLayout(final Configuration config, final String fields, final int dictionarySize) {
+        super(config, null, null);
+        this.fields = parseFields(fields);
+        this.schema = createSchema(this.fields);
+        this.dictionarySize = Math.max(dictionarySize, 0);
+        this.streamWriter = new RecordWriter(this.dictionarySize);
+        this.datagramWriter = new RecordWriter(this.dictionarySize);
+    }
+
+    private static Field[] parseFields(final String fields) {
+        final List<Field> result = new ArrayList<>();
+        for (final String key : fields.trim().split(Patterns.COMMA_SEPARATOR)) {
+            result.add(parseField(key));
+        }
+        return result.toArray(new Field[0]);
+    }
+
+    private static Field parseField(final String key) {
+        for (final Field field : Field.values()) {
+            if (field.key.equalsIgnoreCase(key)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + key + "' in BinaryLayout fields");
+    }
+
+    private static byte[] createSchema(final Field[] fields) {
+        final RecordWriter writer = new RecordWriter(0);
+        writer.writeByte(0);
+        for (final byte b : MAGIC.getBytes(StandardCharsets.US_ASCII)) {
+            writer.writeByte(b);
+        }
+        writer.writeByte(VERSION);
+        writer.writeVarint(fields.length);
+        for (final Field field : fields) {
+            writer.writeByte(field.tag);
+        }
+        return Arrays.copyOf(writer.bytes, writer.position);
+    }
+
+    public Field[] getFields() {
+        return fields.clone();
+    }
+
+    /**
+     * Returns the header with the schema, and starts a new dictionary for the stream it is written to.
+     *
+     * @return the header
+     */
+    @Override
+    public byte[] getHeader() {
+        synchronized (streamWriter) {
+            streamWriter.reset();
+        }
+        return schema.clone();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public byte[] toSerializable(final LogEvent event) {
+        return toByteArray(event);
+    }
+
+    @Override
+    public byte[] toByteArray(final LogEvent event) {
+        final RecordWriter writer = new RecordWriter(dictionarySize);
+        writer.begin();
+        writeRecord(event, writer);
+        final int start = writer.end();
+        final byte[] result = Arrays.copyOf(schema, schema.length + writer.position - start);
+        System.arraycopy(writer.bytes, start, result, schema.length, writer.position - start);
+        return result;
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final boolean selfContained = destination instanceof DatagramSocketManager;
+        final RecordWriter writer = selfContained ? datagramWriter : streamWriter;
+        // destinations take their own lock to write the header, so lock the destination first
+        synchronized (destination) {
+            synchronized (writer) {
+                if (selfContained) {
+                    writer.reset();
+                }
+                writer.begin();
+                writeRecord(event, writer);
+                final int start = writer.end();
+                destination.writeBytes(writer.bytes, start, writer.position - start);
+                writer.trim();
+            }
+        }
+    }
+
+    private void writeRecord(final LogEvent event, final RecordWriter writer) {
+        writer.writeByte(writer.reset ? FLAG_RESET : 0);
+        writer.reset = false;
+        for (final Field field : fields) {
+            switch (field) {
+            case TIMESTAMP: {
+                final Instant instant = event.getInstant();
+                final long millis = instant.getEpochMillisecond();
+                writer.writeSignedVarint(millis - writer.lastMillis);
+                writer.writeVarint(instant.getNanoOfMillisecond());
+                writer.lastMillis = millis;
+                break;
+            }
+            case LEVEL: {
+                final Level level = event.getLevel();
+                writer.writeName(level == null ? null : level.name());
+                writer.writeVarint(level == null ? 0 : level.intLevel());
+                break;
+            }
+            case LOGGER:
+                writer.writeName(event.getLoggerName());
+                break;
+            case LOGGER_FQCN:
+                writer.writeName(event.getLoggerFqcn());
+                break;
+            case THREAD:
+                writer.writeName(event.getThreadName());
+                writer.writeVarint(event.getThreadId());
+                writer.writeVarint(event.getThreadPriority());
+                break;
+            case MARKER: {
+                final Marker marker = event.getMarker();
+                writer.writeName(marker == null ? null : marker.getName());
+                break;
+            }
+            case MESSAGE:
+                writer.writeMessage(event.getMessage());
+                break;
+            case CONTEXT:
+                writer.writeContext(event.getContextData());
+                break;
+            case THROWN:
+                writer.writeThrown(event.getThrownProxy());
+                break;
+            default:
+                throw new IllegalStateException("Unknown field " + field);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BinaryLayout{fields=" + Arrays.toString(fields) + ", dictionarySize=" + dictionarySize + "}";
+    }
+
+    @PluginFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    /**
+     * The buffer a record is written into, with the dictionary and the timestamp base of a stream.
+     */
+    private static final class RecordWriter {
+        private final Map<String, Integer> names = new HashMap<>();
+        private final int dictionarySize;
+        private final StringBuilder text = new StringBuilder();
+        private byte[] bytes = new byte[INITIAL_CAPACITY];
+        private int position;
+        private long lastMillis;
+        private boolean reset = true;
+
+        RecordWriter(final int dictionarySize) {
+            this.dictionarySize = dictionarySize;
+        }
+
+        void reset() {
+            names.clear();
+            lastMillis = 0;
+            reset = true;
+        }
+
+        void begin() {
+            position = MAX_LENGTH_SIZE;
+        }
+
+        /**
+         * Writes the length of the record in front of it.
+         *
+         * @return the index of the first byte
+         */
+        int end() {
+            final int length = position - MAX_LENGTH_SIZE;
+            int size = 1;
+            for (int rest = length >>> 7; rest != 0; rest >>>= 7) {
+                size++;
+            }
+            final int start = MAX_LENGTH_SIZE - size;
+            int index = start;
+            int value = length;
+            while ((value & ~0x7F) != 0) {
+                bytes[index++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[index] = (byte) value;
+            return start;
+        }
+
+        void trim() {
+            if (bytes.length > Constants.ENCODER_BYTE_BUFFER_SIZE) {
+                bytes = new byte[INITIAL_CAPACITY];
+            }
+            StringBuilders.trimToMaxSize(text, Constants.MAX_REUSABLE_MESSAGE_SIZE);
+        }
+
+        private void ensureCapacity(final int length) {
+            if (position + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+            }
+        }
+
+        void writeByte(final int b) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) b;
+        }
+
+        void writeVarint(final long value) {
+            ensureCapacity(10);
+            long rest = value;
+            while ((rest & ~0x7FL) != 0) {
+                bytes[position++] = (byte) (rest & 0x7F | 0x80);
+                rest >>>= 7;
+            }
+            bytes[position++] = (byte) rest;
+        }
+
+        void writeSignedVarint(final long value) {
+            writeVarint(value << 1 ^ value >> 63);
+        }
+
+        void writeBytes(final byte[] data, final int length) {
+            writeVarint(length + 1L);
+            ensureCapacity(length);
+            System.arraycopy(data, 0, bytes, position, length);
+            position += length;
+        }
+
+        void writeString(final CharSequence text) {
+            if (text == null) {
+                writeVarint(0);
+                return;
+            }
+            final int length = text.length();
+            int utf8Length = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = text.charAt(i);
+                if (c < 0x80) {
+                    utf8Length++;
+                } else if (c < 0x800) {
+                    utf8Length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    utf8Length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    utf8Length++;
+                } else {
+                    utf8Length += 3;
+                }
+            }
+            writeVarint(utf8Length + 1L);
+            ensureCapacity(utf8Length);
+            for (int i = 0; i < length; i++) {
+                final char c = text.charAt(i);
+                if (c < 0x80) {
+                    bytes[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[position++] = (byte) (0xC0 | c >> 6);
+                    bytes[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // unpaired surrogate, replaced as the JDK encoder does
+                    bytes[position++] = '?';
+                } else {
+                    bytes[position++] = (byte) (0xE0 | c >> 12);
+                    bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        /**
+         * Writes zero for null, the index plus two for a known name, the index plus two and the name for a new
+         * dictionary entry, or one and the name when the dictionary is full.
+         */
+        void writeName(final String name) {
+            if (name == null) {
+                writeVarint(0);
+                return;
+            }
+            final Integer index = names.get(name);
+            if (index != null) {
+                writeVarint(index + 2L);
+                return;
+            }
+            if (names.size() < dictionarySize) {
+                final int newIndex = names.size();
+                names.put(name, newIndex);
+                writeVarint(newIndex + 2L);
+            } else {
+                writeVarint(1);
+            }
+            writeString(name);
+        }
+
+        void writeMessage(final Message message) {
+            if (message instanceof StringBuilderFormattable) {
+                text.setLength(0);
+                ((StringBuilderFormattable) message).formatTo(text);
+                writeString(text);
+            } else {
+                writeString(message == null ? null : message.getFormattedMessage());
+            }
+        }
+
+        void writeValue(final Object value) {
+            if (value instanceof CharSequence) {
+                writeString((CharSequence) value);
+            } else if (value instanceof StringBuilderFormattable) {
+                text.setLength(0);
+                ((StringBuilderFormattable) value).formatTo(text);
+                writeString(text);
+            } else {
+                writeString(value == null ? null : value.toString());
+            }
+        }
+
+        void writeContext(final ReadOnlyStringMap contextData) {
+            final int size = contextData == null ? 0 : contextData.size();
+            writeVarint(size);
+            if (size > 0) {
+                contextData.forEach(CONTEXT_WRITER, this);
+            }
+        }
+
+        void writeThrown(final ThrowableProxy thrownProxy) {
+            if (thrownProxy == null) {
+                writeVarint(0);
+                return;
+            }
+            final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (final ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+                out.writeObject(thrownProxy);
+            } catch (final IOException e) {
+                LOGGER.error("Unable to serialize throwable {}", thrownProxy.getName(), e);
+                writeVarint(0);
+                return;
+            }
+            writeBytes(serialized.toByteArray(), serialized.size());
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.util.JsonUtils;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.core.util.Patterns;
+import org.apache.logging.log4j.core.util.StringBuilderWriter;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.plugins.Node;
+import org.apache.logging.log4j.plugins.Plugin;
+import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
+import org.apache.logging.log4j.plugins.PluginElement;
+import org.apache.logging.log4j.plugins.PluginFactory;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.apache.logging.log4j.util.TriConsumer;
+
+/**
+ * Lays out events as one JSON object per line, without Jackson.
+ * <p>
+ * The fields of the object are listed in the {@code fields} template, a comma separated list of
+ * <code>[name=]field</code> entries, where the field is one of {@code timeMillis}, {@code level}, {@code loggerName},
+ * {@code loggerFqcn}, {@code threadName}, {@code threadId}, {@code marker}, {@code message}, {@code thrown},
+ * {@code contextMap}, {@code contextStack}, {@code endOfBatch} or <code>ctx:<i>key</i></code> for a single context
+ * value, and the name defaults to the field. Fields without a value in an event are left out. Additional fields with
+ * constant values or lookups are added after the template fields.
+ * </p>
+ * <p>
+ * The JSON is written into a reused StringBuilder and encoded from there: the names of the fields are quoted once,
+ * levels, logger and thread names are kept as quoted {@link FragmentCache fragments}, {@link StringBuilderFormattable}
+ * messages are formatted straight into the builder and escaped in place, and context data is written with
+ * {@link ReadOnlyStringMap#forEach(TriConsumer, Object)}, so events without a throwable are laid out without creating
+ * objects.
+ * </p>
+ *
+ * @since 3.0
+ */
+@Plugin(name = "CompactJsonLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
+@PerformanceSensitive("allocation")
+public final class CompactJsonLayout extends AbstractStringLayout {
+
+    /**
+     * The fields written when no template is configured.
+     */
+    public static final String DEFAULT_FIELDS =
+            "timeMillis,level,loggerName,threadName,marker,message,thrown,contextMap";
+
+    /**
+     * Writes a field of an event, including its name and a trailing comma, or nothing if the event has no value.
+     */
+    private interface FieldWriter {
+        void write(LogEvent event, StringBuilder builder);
+    }
+
+    private static final TriConsumer<String, Object, StringBuilder> CONTEXT_WRITER = (key, value, builder) -> {
+        builder.append('"');
+        JsonUtils.quoteAsString(key, builder);
+        builder.append("\":");
+        appendValue(value, builder);
+        builder.append(',');
+    };
+
+    private final String fields;
+    private final FieldWriter[] writers;
+    private final KeyValuePair[] additionalFields;
+    private final boolean eventEol;
+
+    public static class Builder<B extends Builder<B>> extends AbstractStringLayout.Builder<B>
+        implements org.apache.logging.log4j.plugins.util.Builder<CompactJsonLayout> {
+
+        @PluginBuilderAttribute
+        private String fields = DEFAULT_FIELDS;
+
+        @PluginElement("AdditionalField")
+        private KeyValuePair[] additionalFields;
+
+        @PluginBuilderAttribute
+        private boolean eventEol = true;
+
+        public Builder() {
+            super();
+            setCharset(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public CompactJsonLayout build() {
+            return new CompactJsonLayout(getConfiguration(), getCharset(), fields == null ? DEFAULT_FIELDS : fields,
+                    additionalFields, eventEol);
+        }
+
+        public String getFields() {
+            return fields;
+        }
+
+        public KeyValuePair[] getAdditionalFields() {
+            return additionalFields;
+        }
+
+        public boolean isEventEol() {
+            return eventEol;
+        }
+
+        /**
+         * The template of the fields to write (optional, defaults to {@value CompactJsonLayout#DEFAULT_FIELDS}).
+         *
+         * @return this builder
+         */
+        public B setFields(final String fields) {
+            this.fields = fields;
+            return asBuilder();
+        }
+
+        /**
+         * Additional fields to set on each log event.
+         *
+         * @return this builder
+         */
+        public B setAdditionalFields(final KeyValuePair[] additionalFields) {
+            this.additionalFields = additionalFields;
+            return asBuilder();
+        }
+
+        /**
+         * Whether to end each event with a line separator (optional, defaults to true).
+         *
+         * @return this builder
+         */
+        public B setEventEol(final boolean eventEol) {
+            this.eventEol = eventEol;
+            return asBuilder();
+        }
+    }
+
+    private CompactJsonLayout(final Configuration config, final Charset charset, final String fields,
+            final KeyValuePair[] additionalFields, final boolean eventEol) {
+        super(config, charset, null, null);
+        this.fields = fields;
+        this.writers = parseFields(fields);
+        this.additionalFields = additionalFields != null ? additionalFields : new KeyValuePair[0];
+        if (config == null) {
+            for (final KeyValuePair additionalField : this.additionalFields) {
+                if (valueNeedsLookup(additionalField.getValue())) {
+                    throw new IllegalArgumentException(
+                            "configuration needs to be set when there are additional fields with variables");
+                }
+            }
+        }
+        this.eventEol = eventEol;
+    }
+
+    private static FieldWriter[] parseFields(final String fields) {
+        final List<FieldWriter> writers = new ArrayList<>();
+        for (final String entry : fields.split(Patterns.COMMA_SEPARATOR)) {
+            final String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            final int equals = trimmed.indexOf('=');
+            final String field = equals < 0 ? trimmed : trimmed.substring(equals + 1).trim();
+            final String name = equals < 0 ? field : trimmed.substring(0, equals).trim();
+            writers.add(createWriter(name, field));
+        }
+        return writers.toArray(new FieldWriter[writers.size()]);
+    }
+
+    private static FieldWriter createWriter(final String name, final String field) {
+        final StringBuilder prefixBuilder = new StringBuilder("\"");
+        JsonUtils.quoteAsString(name, prefixBuilder);
+        final String prefix = prefixBuilder.append("\":").toString();
+        if (field.startsWith("ctx:")) {
+            final String key = field.substring("ctx:".length());
+            return (event, builder) -> {
+                final Object value = event.getContextData().getValue(key);
+                if (value != null) {
+                    builder.append(prefix);
+                    appendValue(value, builder);
+                    builder.append(',');
+                }
+            };
+        }
+        switch (field) {
+        case "timeMillis":
+            return (event, builder) -> builder.append(prefix).append(event.getTimeMillis()).append(',');
+        case "level": {
+            final FragmentCache<Level> fragments = new FragmentCache<>(
+                    (level, builder) -> appendString(prefix, level.name(), builder));
+            return (event, builder) -> fragments.append(event.getLevel(), builder);
+        }
+        case "loggerName": {
+            final FragmentCache<String> fragments = new FragmentCache<>(
+                    (loggerName, builder) -> appendString(prefix, loggerName, builder));
+            return (event, builder) -> {
+                if (event.getLoggerName() != null) {
+                    fragments.append(event.getLoggerName(), builder);
+                }
+            };
+        }
+        case "loggerFqcn":
+            return (event, builder) -> {
+                if (event.getLoggerFqcn() != null) {
+                    appendString(prefix, event.getLoggerFqcn(), builder);
+                }
+            };
+        case "threadName": {
+            final FragmentCache<String> fragments = new FragmentCache<>(
+                    (threadName, builder) -> appendString(prefix, threadName, builder));
+            return (event, builder) -> {
+                if (event.getThreadName() != null) {
+                    fragments.append(event.getThreadName(), builder);
+                }
+            };
+        }
+        case "threadId":
+            return (event, builder) -> builder.append(prefix).append(event.getThreadId()).append(',');
+        case "marker":
+            return (event, builder) -> {
+                final Marker marker = event.getMarker();
+                if (marker != null) {
+                    appendString(prefix, marker.getName(), builder);
+                }
+            };
+        case "message":
+            return (event, builder) -> {
+                builder.append(prefix).append('"');
+                appendMessage(event.getMessage(), builder);
+                builder.append("\",");
+            };
+        case "thrown":
+            return (event, builder) -> {
+                final Throwable thrown = event.getThrown();
+                if (thrown != null) {
+                    builder.append(prefix).append('"');
+                    final int start = builder.length();
+                    thrown.printStackTrace(new PrintWriter(new StringBuilderWriter(builder)));
+                    JsonUtils.quoteInPlace(builder, start);
+                    builder.append("\",");
+                }
+            };
+        case "contextMap":
+            return (event, builder) -> {
+                final ReadOnlyStringMap contextData = event.getContextData();
+                if (contextData != null && !contextData.isEmpty()) {
+                    builder.append(prefix).append('{');
+                    contextData.forEach(CONTEXT_WRITER, builder);
+                    builder.setCharAt(builder.length() - 1, '}');
+                    builder.append(',');
+                }
+            };
+        case "contextStack":
+            return (event, builder) -> {
+                final ThreadContext.ContextStack contextStack = event.getContextStack();
+                if (contextStack != null && contextStack.getDepth() > 0) {
+                    builder.append(prefix).append('[');
+                    final List<String> values = contextStack.asList();
+                    for (int i = 0; i < values.size(); i++) {
+                        builder.append('"');
+                        JsonUtils.quoteAsString(String.valueOf(values.get(i)), builder);
+                        builder.append("\",");
+                    }
+                    builder.setCharAt(builder.length() - 1, ']');
+                    builder.append(',');
+                }
+            };
+        case "endOfBatch":
+            return (event, builder) -> builder.append(prefix).append(event.isEndOfBatch()).append(',');
+        default:
+            throw new IllegalArgumentException("Unknown field '" + field + "' in CompactJsonLayout fields");
+        }
+    }
+
+    private static void appendString(final String prefix, final CharSequence value, final StringBuilder builder) {
+        builder.append(prefix).append('"');
+        JsonUtils.quoteAsString(value, builder);
+        builder.append("\",");
+    }
+
+    private static void appendMessage(final Message message, final StringBuilder builder) {
+        if (message == null) {
+            return;
+        }
+        final int start = builder.length();
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(builder);
+        } else {
+            builder.append(message.getFormattedMessage());
+        }
+        JsonUtils.quoteInPlace(builder, start);
+    }
+
+    private static void appendValue(final Object value, final StringBuilder builder) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        final int start = builder.length();
+        if (value instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) value).formatTo(builder);
+        } else if (value instanceof CharSequence) {
+            builder.append((CharSequence) value);
+        } else {
+            builder.append(value);
+        }
+        JsonUtils.quoteInPlace(builder, start);
+        builder.append('"');
+    }
+
+    private static boolean valueNeedsLookup(final String value) {
+        return value != null && value.contains("${");
+    }
+
+    @Override
+    public String toString() {
+        return "fields=" + fields + ", additionalFields=" + additionalFields.length + ", eventEol=" + eventEol;
+    }
+
+    @PluginFactory
+    public static <B extends Builder<B>> B newBuilder() {
+        return new Builder<B>().asBuilder();
+    }
+
+    @Override
+    public Map<String, String> getContentFormat() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json; charset=" + this.getCharset();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = toText(event, getStringBuilder());
+        final Encoder<StringBuilder> helper = getStringBuilderEncoder();
+        helper.encode(text, destination);
+    }
+
+    @Override
+    public String toSerializable(final LogEvent event) {
+        return toText(event, getStringBuilder()).toString();
+    }
+
+    private StringBuilder toText(final LogEvent event, final StringBuilder builder) {
+        builder.append('{');
+        for (final FieldWriter writer : writers) {
+            writer.write(event, builder);
+        }
+        if (additionalFields.length > 0) {
+            final StrSubstitutor strSubstitutor = getConfiguration().getStrSubstitutor();
+            for (final KeyValuePair additionalField : additionalFields) {
+                final String value = valueNeedsLookup(additionalField.getValue())
+                        ? strSubstitutor.replace(event, additionalField.getValue())
+                        : additionalField.getValue();
+                builder.append('"');
+                JsonUtils.quoteAsString(additionalField.getKey(), builder);
+                builder.append("\":");
+                appendValue(value, builder);
+                builder.append(',');
+            }
+        }
+        // every field ends with a comma, the last one is replaced by the closing brace
+        if (builder.charAt(builder.length() - 1) == ',') {
+            builder.setCharAt(builder.length() - 1, '}');
+        } else {
+            builder.append('}');
+        }
+        if (eventEol) {
+            builder.append(System.lineSeparator());
+        }
+        return builder;
+    }
+}
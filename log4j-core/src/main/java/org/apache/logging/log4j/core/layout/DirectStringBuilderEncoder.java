@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Encoder for StringBuilders that writes UTF-8 or ISO-8859-1 bytes straight into the buffer of the destination.
+ * <p>
+ * Unlike {@link StringBuilderEncoder} the text is not passed through a {@link java.nio.charset.CharsetEncoder} and
+ * an intermediate ByteBuffer. Chunks of the text are copied to a thread-local char array, runs of ASCII characters
+ * are copied one byte each in a tight loop and other characters are encoded by hand, producing the same bytes as the
+ * JDK encoders with their default replacement.
+ * </p>
+ *
+ * @since 3.0
+ */
+@PerformanceSensitive("allocation")
+public class DirectStringBuilderEncoder implements Encoder<StringBuilder> {
+
+    private static final byte REPLACEMENT = '?';
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[CHUNK_SIZE]);
+
+    private final boolean utf8;
+
+    /**
+     * Creates an encoder for the given charset.
+     *
+     * @param charset UTF-8 or ISO-8859-1
+     * @throws IllegalArgumentException if the charset is not supported
+     */
+    public DirectStringBuilderEncoder(final Charset charset) {
+        if (!isSupported(charset)) {
+            throw new IllegalArgumentException("Unsupported charset " + charset);
+        }
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+    }
+
+    /**
+     * Returns whether this encoder can encode text in the given charset.
+     *
+     * @param charset the charset
+     * @return whether the charset is UTF-8 or ISO-8859-1
+     */
+    public static boolean isSupported(final Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    @Override
+    public void encode(final StringBuilder source, final ByteBufferDestination destination) {
+        final char[] chars = CHARS.get();
+        synchronized (destination) {
+            ByteBuffer buffer = destination.getByteBuffer();
+            final int length = source.length();
+            int start = 0;
+            while (start < length) {
+                final int count = Math.min(length - start, chars.length);
+                source.getChars(start, start + count, chars, 0);
+                int i = 0;
+                while (i < count) {
+                    i = buffer.hasArray() ? copyAscii(chars, i, count, buffer) : putAscii(chars, i, count, buffer);
+                    if (i == count) {
+                        break;
+                    }
+                    if (!buffer.hasRemaining()) {
+                        buffer = destination.drain(buffer);
+                        continue;
+                    }
+                    final char c = chars[i++];
+                    if (c < 0x800 && utf8) {
+                        buffer.put((byte) (0xc0 | (c >> 6)));
+                        buffer = put((byte) (0x80 | (c & 0x3f)), buffer, destination);
+                    } else if (c < 0x100) {
+                        buffer.put((byte) c);
+                    } else if (!Character.isSurrogate(c)) {
+                        if (utf8) {
+                            buffer.put((byte) (0xe0 | (c >> 12)));
+                            buffer = put((byte) (0x80 | ((c >> 6) & 0x3f)), buffer, destination);
+                            buffer = put((byte) (0x80 | (c & 0x3f)), buffer, destination);
+                        } else {
+                            buffer.put(REPLACEMENT);
+                        }
+                    } else {
+                        // the low surrogate may be the first char of the next chunk
+                        final char low = start + i < length ? source.charAt(start + i) : 0;
+                        if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+                            i++;
+                            if (utf8) {
+                                final int codePoint = Character.toCodePoint(c, low);
+                                buffer.put((byte) (0xf0 | (codePoint >> 18)));
+                                buffer = put((byte) (0x80 | ((codePoint >> 12) & 0x3f)), buffer, destination);
+                                buffer = put((byte) (0x80 | ((codePoint >> 6) & 0x3f)), buffer, destination);
+                                buffer = put((byte) (0x80 | (codePoint & 0x3f)), buffer, destination);
+                            } else {
+                                buffer.put(REPLACEMENT); // one replacement for the whole code point
+                            }
+                        } else {
+                            buffer.put(REPLACEMENT); // malformed surrogate
+                        }
+                    }
+                }
+                start += i;
+            }
+        }
+    }
+
+    private static ByteBuffer put(final byte b, final ByteBuffer buffer, final ByteBufferDestination destination) {
+        final ByteBuffer result = buffer.hasRemaining() ? buffer : destination.drain(buffer);
+        result.put(b);
+        return result;
+    }
+
+    private static int copyAscii(final char[] chars, final int start, final int count, final ByteBuffer buffer) {
+        final byte[] array = buffer.array();
+        final int offset = buffer.arrayOffset() + buffer.position() - start;
+        final int end = Math.min(count, start + buffer.remaining());
+        int i = start;
+        for (; i < end; i++) {
+            final char c = chars[i];
+            if (c >= 0x80) {
+                break;
+            }
+            array[offset + i] = (byte) c;
+        }
+        ((Buffer) buffer).position(buffer.position() + i - start);
+        return i;
+    }
+
+    private static int putAscii(final char[] chars, final int start, final int count, final ByteBuffer buffer) {
+        final int end = Math.min(count, start + buffer.remaining());
+        int i = start;
+        for (; i < end; i++) {
+            final char c = chars[i];
+            if (c >= 0x80) {
+                break;
+            }
+            buffer.put((byte) c);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import org.apache.logging.log4j.core.util.BoundedCache;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Keeps the text layouts render for values that repeat from event to event, such as logger names, thread names and
+ * levels, in a {@link BoundedCache}.
+ * <p>
+ * The first time a value is appended its fragment is rendered, for example quoted and escaped as a JSON field, and
+ * kept; later events append the kept fragment. The maximum number of fragments defaults to
+ * {@value #DEFAULT_MAX_SIZE} and can be set with the system property {@value #MAX_SIZE_PROPERTY}.
+ * </p>
+ *
+ * @param <K> the type of the rendered values
+ * @since 3.0
+ */
+@PerformanceSensitive("allocation")
+public final class FragmentCache<K> {
+
+    /**
+     * Name of the system property that sets the maximum number of fragments in each cache.
+     */
+    public static final String MAX_SIZE_PROPERTY = "log4j2.layout.fragmentCacheSize";
+
+    /**
+     * The default maximum number of fragments in each cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final BiConsumer<K, StringBuilder> renderer;
+    private final BoundedCache<K, String> fragments;
+
+    /**
+     * Creates a cache with the maximum size set by the {@value #MAX_SIZE_PROPERTY} system property.
+     *
+     * @param renderer appends the fragment of a value to a StringBuilder
+     */
+    public FragmentCache(final BiConsumer<K, StringBuilder> renderer) {
+        this(renderer, PropertiesUtil.getProperties().getIntegerProperty(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param renderer appends the fragment of a value to a StringBuilder
+     * @param maxSize the maximum number of fragments
+     */
+    public FragmentCache(final BiConsumer<K, StringBuilder> renderer, final int maxSize) {
+        this.renderer = Objects.requireNonNull(renderer, "renderer");
+        this.fragments = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Appends the fragment of a value.
+     *
+     * @param value the value, may not be null
+     * @param destination the StringBuilder to write to
+     */
+    public void append(final K value, final StringBuilder destination) {
+        final String fragment = fragments.get(value);
+        if (fragment != null) {
+            destination.append(fragment);
+            return;
+        }
+        final int start = destination.length();
+        renderer.accept(value, destination);
+        if (!fragments.isFull()) {
+            fragments.putIfAbsent(value, destination.substring(start));
+        }
+    }
+
+    /**
+     * Returns the maximum number of fragments.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return fragments.getMaxSize();
+    }
+
+    /**
+     * Returns the number of fragments.
+     *
+     * @return the size
+     */
+    public int size() {
+        return fragments.size();
+    }
+
+    @Override
+    public String toString() {
+        return "FragmentCache[size=" + fragments.size() + ", maxSize=" + fragments.getMaxSize() + ']';
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.logging.log4j.core.layout.internal.ExcludeChecker;
 import org.apache.logging.log4j.core.layout.internal.IncludeChecker;
 import org.apache.logging.log4j.core.layout.internal.ListChecker;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.core.net.GelfDatagramOutputStream;
 import org.apache.logging.log4j.core.net.Severity;
 import org.apache.logging.log4j.core.util.JsonUtils;
 import org.apache.logging.log4j.core.util.KeyValuePair;
@@ -35,21 +36,26 @@ import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginElement;
 import org.apache.logging.log4j.plugins.PluginFactory;
-import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.Strings;
 import org.apache.logging.log4j.util.TriConsumer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -58,7 +64,11 @@ import java.util.zip.GZIPOutputStream;
  * <p>
  * This layout compresses JSON to GZIP or ZLIB (the {@code compressionType}) if
  * log event data is larger than 1024 bytes (the {@code compressionThreshold}).
- * This layout does not implement chunking.
+ * Compression reuses a small pool of {@link Deflater}s instead of allocating native zlib state for each event.
+ * </p>
+ * <p>
+ * The layout does not chunk messages itself: the UDP socket appender splits messages larger than the
+ * {@code chunkSize} into GELF chunks, see {@link GelfDatagramOutputStream}.
  * </p>
  *
  * @see <a href="http://docs.graylog.org/en/latest/pages/gelf.html#gelf">GELF specification</a>
@@ -92,6 +102,7 @@ public final class GelfLayout extends AbstractStringLayout {
 
     private static final char C = ',';
     private static final int COMPRESSION_THRESHOLD = 1024;
+    private static final int COMPRESSOR_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
     private static final char Q = '\"';
     private static final String QC = "\",";
     private static final String QU = "\"_";
@@ -99,12 +110,21 @@ public final class GelfLayout extends AbstractStringLayout {
     private final KeyValuePair[] additionalFields;
     private final int compressionThreshold;
     private final CompressionType compressionType;
+    private final BlockingQueue<Compressor> compressors = new ArrayBlockingQueue<>(COMPRESSOR_POOL_SIZE);
+    private final int chunkSize;
     private final String host;
     private final boolean includeStacktrace;
     private final boolean includeThreadContext;
     private final boolean includeNullDelimiter;
     private final PatternLayout layout;
     private final FieldWriter fieldWriter;
+    private final String header;
+    private final FragmentCache<Level> levelFragments = new FragmentCache<>(
+            (level, builder) -> builder.append("\"level\":").append(formatLevel(level)).append(C));
+    private final FragmentCache<String> threadFragments = new FragmentCache<>(
+            (threadName, builder) -> appendField("\"_thread\":\"", threadName, builder));
+    private final FragmentCache<String> loggerFragments = new FragmentCache<>(
+            (loggerName, builder) -> appendField("\"_logger\":\"", loggerName, builder));
 
     public static class Builder<B extends Builder<B>> extends AbstractStringLayout.Builder<B>
         implements org.apache.logging.log4j.plugins.util.Builder<GelfLayout> {
@@ -121,6 +141,9 @@ public final class GelfLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private int compressionThreshold = COMPRESSION_THRESHOLD;
 
+        @PluginBuilderAttribute
+        private int chunkSize = GelfDatagramOutputStream.DEFAULT_CHUNK_SIZE;
+
         @PluginBuilderAttribute
         private boolean includeStacktrace = true;
 
@@ -178,7 +201,7 @@ public final class GelfLayout extends AbstractStringLayout {
                         .build();
             }
             return new GelfLayout(getConfiguration(), host, additionalFields, compressionType, compressionThreshold,
-                includeStacktrace, includeThreadContext, includeNullDelimiter, checker, patternLayout);
+                chunkSize, includeStacktrace, includeThreadContext, includeNullDelimiter, checker, patternLayout);
         }
 
         public String getHost() {
@@ -193,6 +216,10 @@ public final class GelfLayout extends AbstractStringLayout {
             return compressionThreshold;
         }
 
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
         public boolean isIncludeStacktrace() {
             return includeStacktrace;
         }
@@ -237,6 +264,17 @@ public final class GelfLayout extends AbstractStringLayout {
             return asBuilder();
         }
 
+        /**
+         * Split UDP messages larger than this number of bytes into GELF chunks of at most this size (optional,
+         * defaults to 8192, 0 disables chunking). Ignored by other transports.
+         *
+         * @return this builder
+         */
+        public B setChunkSize(final int chunkSize) {
+            this.chunkSize = chunkSize;
+            return asBuilder();
+        }
+
         /**
          * Whether to include full stacktrace of logged Throwables (optional, default to true).
          * If set to false, only the class name and message of the Throwable will be included.
@@ -311,8 +349,8 @@ public final class GelfLayout extends AbstractStringLayout {
     }
 
     private GelfLayout(final Configuration config, final String host, final KeyValuePair[] additionalFields,
-            final CompressionType compressionType, final int compressionThreshold, final boolean includeStacktrace,
-            final boolean includeThreadContext, final boolean includeNullDelimiter, final ListChecker listChecker,
+            final CompressionType compressionType, final int compressionThreshold, final int chunkSize,
+            final boolean includeStacktrace, final boolean includeThreadContext, final boolean includeNullDelimiter, final ListChecker listChecker,
             final PatternLayout patternLayout) {
         super(config, StandardCharsets.UTF_8, null, null);
         this.host = host != null ? host : NetUtils.getLocalHostname();
@@ -332,8 +370,22 @@ public final class GelfLayout extends AbstractStringLayout {
         if (includeNullDelimiter && compressionType != CompressionType.OFF) {
             throw new IllegalArgumentException("null delimiter cannot be used with compression");
         }
+        if (chunkSize != 0 && chunkSize <= GelfDatagramOutputStream.CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be 0 or larger than "
+                    + GelfDatagramOutputStream.CHUNK_HEADER_SIZE);
+        }
+        this.chunkSize = chunkSize;
         this.fieldWriter = new FieldWriter(listChecker);
         this.layout = patternLayout;
+        final StringBuilder headerBuilder = new StringBuilder("{\"version\":\"1.1\",");
+        appendField("\"host\":\"", toNullSafeString(this.host), headerBuilder);
+        this.header = headerBuilder.toString();
+    }
+
+    private static void appendField(final String prefix, final CharSequence value, final StringBuilder builder) {
+        builder.append(prefix);
+        JsonUtils.quoteAsString(value, builder);
+        builder.append(QC);
     }
 
     @Override
@@ -342,6 +394,7 @@ public final class GelfLayout extends AbstractStringLayout {
         sb.append("host=").append(host);
         sb.append(", compressionType=").append(compressionType.toString());
         sb.append(", compressionThreshold=").append(compressionThreshold);
+        sb.append(", chunkSize=").append(chunkSize);
         sb.append(", includeStackTrace=").append(includeStacktrace);
         sb.append(", includeThreadContext=").append(includeThreadContext);
         sb.append(", includeNullDelimiter=").append(includeNullDelimiter);
@@ -370,38 +423,56 @@ public final class GelfLayout extends AbstractStringLayout {
         return "application/json; charset=" + this.getCharset();
     }
 
+    /**
+     * Returns the maximum size of a UDP datagram, larger messages are sent in GELF chunks.
+     *
+     * @return the chunk size, or 0 if messages are not chunked
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
     @Override
     public byte[] toByteArray(final LogEvent event) {
         final StringBuilder text = toText(event, getStringBuilder(), false);
-        final byte[] bytes = getBytes(text.toString());
-        return compressionType != CompressionType.OFF && bytes.length > compressionThreshold ? compress(bytes) : bytes;
+        if (compressionType != CompressionType.OFF) {
+            final Compressor compressor = acquireCompressor();
+            try {
+                compressor.setInput(text, getStringBuilderEncoder());
+                return compressor.toByteArray(compressionThreshold);
+            } finally {
+                releaseCompressor(compressor);
+            }
+        }
+        return getBytes(text.toString());
     }
 
     @Override
     public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = toText(event, getStringBuilder(), true);
         if (compressionType != CompressionType.OFF) {
-            super.encode(event, destination);
+            final Compressor compressor = acquireCompressor();
+            try {
+                compressor.setInput(text, getStringBuilderEncoder());
+                compressor.writeTo(destination, compressionThreshold);
+            } finally {
+                releaseCompressor(compressor);
+            }
             return;
         }
-        final StringBuilder text = toText(event, getStringBuilder(), true);
         final Encoder<StringBuilder> helper = getStringBuilderEncoder();
         helper.encode(text, destination);
     }
 
-    private byte[] compress(final byte[] bytes) {
-        try {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream(compressionThreshold / 8);
-            try (final DeflaterOutputStream stream = compressionType.createDeflaterOutputStream(baos)) {
-                if (stream == null) {
-                    return bytes;
-                }
-                stream.write(bytes);
-                stream.finish();
-            }
-            return baos.toByteArray();
-        } catch (final IOException e) {
-            StatusLogger.getLogger().error(e);
-            return bytes;
+    private Compressor acquireCompressor() {
+        final Compressor compressor = compressors.poll();
+        return compressor != null ? compressor : new Compressor(compressionType == CompressionType.GZIP);
+    }
+
+    private void releaseCompressor(final Compressor compressor) {
+        compressor.trim();
+        if (!compressors.offer(compressor)) {
+            compressor.end();
         }
     }
 
@@ -412,22 +483,15 @@ public final class GelfLayout extends AbstractStringLayout {
     }
 
     private StringBuilder toText(final LogEvent event, final StringBuilder builder, final boolean gcFree) {
-        builder.append('{');
-        builder.append("\"version\":\"1.1\",");
-        builder.append("\"host\":\"");
-        JsonUtils.quoteAsString(toNullSafeString(host), builder);
-        builder.append(QC);
+        // the version, host, level, thread and logger fields are rendered once and copied after that
+        builder.append(header);
         builder.append("\"timestamp\":").append(formatTimestamp(event.getTimeMillis())).append(C);
-        builder.append("\"level\":").append(formatLevel(event.getLevel())).append(C);
+        levelFragments.append(event.getLevel(), builder);
         if (event.getThreadName() != null) {
-            builder.append("\"_thread\":\"");
-            JsonUtils.quoteAsString(event.getThreadName(), builder);
-            builder.append(QC);
+            threadFragments.append(event.getThreadName(), builder);
         }
         if (event.getLoggerName() != null) {
-            builder.append("\"_logger\":\"");
-            JsonUtils.quoteAsString(event.getLoggerName(), builder);
-            builder.append(QC);
+            loggerFragments.append(event.getLoggerName(), builder);
         }
         if (additionalFields.length > 0) {
             final StrSubstitutor strSubstitutor = getConfiguration().getStrSubstitutor();
@@ -489,6 +553,128 @@ public final class GelfLayout extends AbstractStringLayout {
         return value != null && value.contains("${");
     }
 
+    /**
+     * Collects the encoded JSON of an event and compresses it with a reused {@link Deflater} into a reused buffer.
+     */
+    private static final class Compressor implements ByteBufferDestination {
+        private static final int INITIAL_CAPACITY = 4096;
+        // buffers grown beyond the largest UDP datagram are not kept
+        private static final int MAX_CAPACITY = 64 * 1024;
+        // the header written by GZIPOutputStream: magic, deflate method, no flags, no time, no extra flags, OS 0
+        private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+        private static final int GZIP_TRAILER_SIZE = 8;
+
+        private final boolean gzip;
+        private final Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer input = ByteBuffer.allocate(INITIAL_CAPACITY);
+        private byte[] output = new byte[INITIAL_CAPACITY];
+
+        Compressor(final boolean gzip) {
+            this.gzip = gzip;
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+        }
+
+        void setInput(final StringBuilder text, final Encoder<StringBuilder> encoder) {
+            ((Buffer) input).clear();
+            encoder.encode(text, this);
+        }
+
+        void writeTo(final ByteBufferDestination destination, final int threshold) {
+            if (input.position() > threshold) {
+                destination.writeBytes(output, 0, compress());
+            } else {
+                destination.writeBytes(input.array(), 0, input.position());
+            }
+        }
+
+        byte[] toByteArray(final int threshold) {
+            return input.position() > threshold
+                    ? Arrays.copyOf(output, compress())
+                    : Arrays.copyOf(input.array(), input.position());
+        }
+
+        /**
+         * Compresses the input into the output buffer, as GZIPOutputStream or DeflaterOutputStream would.
+         *
+         * @return the length of the compressed data
+         */
+        private int compress() {
+            final byte[] data = input.array();
+            final int length = input.position();
+            int position = 0;
+            if (gzip) {
+                System.arraycopy(GZIP_HEADER, 0, output, 0, GZIP_HEADER.length);
+                position = GZIP_HEADER.length;
+                crc.reset();
+                crc.update(data, 0, length);
+            }
+            deflater.reset();
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (position == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                position += deflater.deflate(output, position, output.length - position);
+            }
+            if (gzip) {
+                if (position + GZIP_TRAILER_SIZE > output.length) {
+                    output = Arrays.copyOf(output, position + GZIP_TRAILER_SIZE);
+                }
+                position = writeIntLE((int) crc.getValue(), position);
+                position = writeIntLE(length, position);
+            }
+            return position;
+        }
+
+        private int writeIntLE(final int value, final int position) {
+            output[position] = (byte) value;
+            output[position + 1] = (byte) (value >>> 8);
+            output[position + 2] = (byte) (value >>> 16);
+            output[position + 3] = (byte) (value >>> 24);
+            return position + 4;
+        }
+
+        void trim() {
+            if (input.capacity() > MAX_CAPACITY) {
+                input = ByteBuffer.allocate(INITIAL_CAPACITY);
+            }
+            if (output.length > MAX_CAPACITY) {
+                output = new byte[INITIAL_CAPACITY];
+            }
+        }
+
+        void end() {
+            deflater.end();
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return input;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            // grows instead of draining: the whole event is compressed at once
+            final ByteBuffer larger = ByteBuffer.allocate(buf.capacity() * 2);
+            ((Buffer) buf).flip();
+            larger.put(buf);
+            input = larger;
+            return larger;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+    }
+
     private static class FieldWriter implements TriConsumer<String, Object, StringBuilder> {
         private final ListChecker checker;
 
@@ -21,6 +21,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.pattern.CompiledPattern;
 import org.apache.logging.log4j.core.pattern.LogEventPatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
@@ -98,11 +99,12 @@ public final class PatternLayout extends AbstractStringLayout {
      *            If {@code "true"} (default) and {@link System#console()} is null, do not output ANSI escape codes
      * @param headerPattern header conversion pattern.
      * @param footerPattern footer conversion pattern.
+     * @param compile whether the event pattern is compiled to a {@link CompiledPattern}.
      */
     private PatternLayout(final Configuration config, final RegexReplacement replace, final String eventPattern,
             final PatternSelector patternSelector, final Charset charset, final boolean alwaysWriteExceptions,
             final boolean disableAnsi, final boolean noConsoleNoAnsi, final String headerPattern,
-            final String footerPattern) {
+            final String footerPattern, final boolean compile) {
         super(config, charset,
                 newSerializerBuilder()
                         .setConfiguration(config)
@@ -133,6 +135,7 @@ public final class PatternLayout extends AbstractStringLayout {
                 .setNoConsoleNoAnsi(noConsoleNoAnsi)
                 .setPattern(eventPattern)
                 .setDefaultPattern(DEFAULT_CONVERSION_PATTERN)
+                .setCompile(compile)
                 .build();
     }
 
@@ -294,6 +297,49 @@ public final class PatternLayout extends AbstractStringLayout {
         }
     }
 
+    private static class CompiledPatternSerializer implements Serializer, Serializer2 {
+
+        private final CompiledPattern pattern;
+        private final RegexReplacement replace;
+
+        private CompiledPatternSerializer(final CompiledPattern pattern, final RegexReplacement replace) {
+            this.pattern = pattern;
+            this.replace = replace;
+        }
+
+        @Override
+        public String toSerializable(final LogEvent event) {
+            final StringBuilder sb = getStringBuilder();
+            try {
+                return toSerializable(event, sb).toString();
+            } finally {
+                trimToMaxSize(sb);
+            }
+        }
+
+        @Override
+        public StringBuilder toSerializable(final LogEvent event, final StringBuilder buffer) {
+            pattern.format(event, buffer);
+            if (replace != null) { // creates temporary objects
+                String str = buffer.toString();
+                str = replace.format(str);
+                buffer.setLength(0);
+                buffer.append(str);
+            }
+            return buffer;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + "[pattern=" + pattern + ", replace=" + replace + "]";
+        }
+
+        @Override
+        public boolean requiresLocation() {
+            return pattern.requiresLocation();
+        }
+    }
+
     public static class SerializerBuilder implements org.apache.logging.log4j.plugins.util.Builder<Serializer> {
 
         private Configuration configuration;
@@ -304,6 +350,7 @@ public final class PatternLayout extends AbstractStringLayout {
         private boolean alwaysWriteExceptions;
         private boolean disableAnsi;
         private boolean noConsoleNoAnsi;
+        private boolean compile;
 
         @Override
         public Serializer build() {
@@ -315,6 +362,9 @@ public final class PatternLayout extends AbstractStringLayout {
                     final PatternParser parser = createPatternParser(configuration);
                     final List<PatternFormatter> list = parser.parse(pattern == null ? defaultPattern : pattern,
                             alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi);
+                    if (compile) {
+                        return new CompiledPatternSerializer(CompiledPattern.compile(list), replace);
+                    }
                     final PatternFormatter[] formatters = list.toArray(new PatternFormatter[0]);
                     return new PatternSerializer(formatters, replace);
                 } catch (final RuntimeException ex) {
@@ -364,6 +414,18 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * Compiles the pattern to a {@link CompiledPattern} unless a pattern selector is used.
+         *
+         * @param compile whether to compile the pattern
+         * @return this builder
+         * @since 3.0
+         */
+        public SerializerBuilder setCompile(final boolean compile) {
+            this.compile = compile;
+            return this;
+        }
+
     }
 
     private static class PatternSelectorSerializer implements Serializer, Serializer2 {
@@ -491,6 +553,9 @@ public final class PatternLayout extends AbstractStringLayout {
         @PluginBuilderAttribute
         private String footer;
 
+        @PluginBuilderAttribute
+        private boolean compile;
+
         private Builder() {
         }
 
@@ -595,6 +660,17 @@ public final class PatternLayout extends AbstractStringLayout {
             return this;
         }
 
+        /**
+         * @param compile
+         *        If {@code "true"} (default is false), the pattern is compiled: adjacent literals are fused and common
+         *        converters are called without going through their formatters. Ignored with a pattern selector.
+         * @since 3.0
+         */
+        public Builder setCompile(final boolean compile) {
+            this.compile = compile;
+            return this;
+        }
+
         @Override
         public PatternLayout build() {
             // fall back to DefaultConfiguration
@@ -602,7 +678,7 @@ public final class PatternLayout extends AbstractStringLayout {
                 configuration = new DefaultConfiguration();
             }
             return new PatternLayout(configuration, regexReplacement, pattern, patternSelector, charset,
-                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer);
+                alwaysWriteExceptions, disableAnsi, noConsoleNoAnsi, header, footer, compile);
         }
     }
 
@@ -19,9 +19,8 @@ package org.apache.logging.log4j.core.layout;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -51,19 +50,33 @@ import org.apache.logging.log4j.core.pattern.PatternConverter;
 import org.apache.logging.log4j.core.pattern.PatternFormatter;
 import org.apache.logging.log4j.core.pattern.PatternParser;
 import org.apache.logging.log4j.core.pattern.ThrowablePatternConverter;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat.FixedFormat;
 import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.core.util.Patterns;
+import org.apache.logging.log4j.core.util.Transform;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageCollectionMessage;
 import org.apache.logging.log4j.message.StructuredDataCollectionMessage;
 import org.apache.logging.log4j.message.StructuredDataId;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.core.util.ProcessIdUtil;
+import org.apache.logging.log4j.util.IndexedReadOnlyStringMap;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.apache.logging.log4j.util.StringBuilders;
 import org.apache.logging.log4j.util.Strings;
 
 /**
  * Formats a log event in accordance with RFC 5424.
+ * <p>
+ * The record is written into a reused StringBuilder and, by {@link #encode(LogEvent, ByteBufferDestination)}, encoded
+ * straight into the destination. The priority, host name, app name and process id are cached, and the structured
+ * data of a {@link StructuredDataMessage} and the context data are written from their sorted maps. Logger fields,
+ * message collections, context data that is not an {@link IndexedReadOnlyStringMap} and a message element with the
+ * id of the context data element are merged in maps first, which creates temporary objects. Structured data elements
+ * of the message precede the other elements.
+ * </p>
  *
  * @see <a href="https://tools.ietf.org/html/rfc5424">RFC 5424</a>
  */
@@ -94,10 +107,10 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private static final String LF = "\n";
     private static final int TWO_DIGITS = 10;
-    private static final int THREE_DIGITS = 100;
     private static final int MILLIS_PER_MINUTE = 60000;
     private static final int MINUTES_PER_HOUR = 60;
     private static final String COMPONENT_KEY = "RFC5424-Converter";
+    private static final ThreadLocal<char[]> timestampBuffer = new ThreadLocal<>();
 
     private final Facility facility;
     private final String defaultId;
@@ -105,6 +118,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final boolean includeMdc;
     private final String mdcId;
     private final StructuredDataId mdcSdId;
+    private final String mdcSdIdString;
     private final String localHostName;
     private final String appName;
     private final String messageId;
@@ -119,12 +133,16 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     private final String escapeNewLine;
     private final boolean useTlsMessageFormat;
 
-    private long lastTimestamp = -1;
-    private String timestamppStr;
+    /**
+     * Formats the timestamp without the offset, which is written with Z for UTC.
+     */
+    private final FixedDateFormat timestampFormat = FixedDateFormat.create(FixedFormat.ISO8601_PERIOD);
 
     private final List<PatternFormatter> exceptionFormatters;
     private final Map<String, FieldFormatter> fieldFormatters;
     private final String procId;
+    private final String header;
+    private final FragmentCache<Level> priorityFragments = new FragmentCache<>(this::appendPriority);
 
     private Rfc5424Layout(final Configuration config, final Facility facility, final String id, final int ein,
             final boolean includeMDC, final boolean includeNL, final String escapeNL, final String mdcId,
@@ -139,9 +157,10 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         this.enterpriseNumber = ein;
         this.includeMdc = includeMDC;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
         this.mdcId = mdcId != null ? mdcId : id == null ? DEFAULT_MDCID : id;
         this.mdcSdId = new StructuredDataId(this.mdcId, enterpriseNumber, null, null);
+        this.mdcSdIdString = mdcSdId.toString();
         this.mdcPrefix = mdcPrefix;
         this.eventPrefix = eventPrefix;
         this.appName = appName;
@@ -196,6 +215,15 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         configName = Strings.isNotEmpty(name) ? name : null;
         this.fieldFormatters = createFieldFormatters(loggerFields, config);
         this.procId = ProcessIdUtil.getProcessId();
+        final StringBuilder headerBuilder = new StringBuilder();
+        appendSpace(headerBuilder);
+        appendHostName(headerBuilder);
+        appendSpace(headerBuilder);
+        appendAppName(headerBuilder);
+        appendSpace(headerBuilder);
+        appendProcessId(headerBuilder);
+        appendSpace(headerBuilder);
+        this.header = headerBuilder.toString();
     }
 
     private Map<String, FieldFormatter> createFieldFormatters(final LoggerFields[] loggerFields,
@@ -268,34 +296,72 @@ public final class Rfc5424Layout extends AbstractStringLayout {
      */
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buf = getStringBuilder();
-        appendPriority(buf, event.getLevel());
+        final StringBuilder buf = toText(event, getStringBuilder());
+        if (useTlsMessageFormat) {
+            return new TlsSyslogFrame(buf.toString()).toString();
+        }
+        return buf.toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        if (useTlsMessageFormat) {
+            // the RFC 5425 frame starts with the length of the record in bytes
+            super.encode(event, destination);
+            return;
+        }
+        final StringBuilder text = toText(event, getStringBuilder());
+        final Encoder<StringBuilder> encoder = getStringBuilderEncoder();
+        encoder.encode(text, destination);
+        trimToMaxSize(text);
+    }
+
+    private StringBuilder toText(final LogEvent event, final StringBuilder buf) {
+        priorityFragments.append(event.getLevel(), buf);
         appendTimestamp(buf, event.getTimeMillis());
-        appendSpace(buf);
-        appendHostName(buf);
-        appendSpace(buf);
-        appendAppName(buf);
-        appendSpace(buf);
-        appendProcessId(buf);
-        appendSpace(buf);
+        // the host name, app name and process id do not change
+        buf.append(header);
         appendMessageId(buf, event.getMessage());
         appendSpace(buf);
         appendStructuredElements(buf, event);
         appendMessage(buf, event);
-        if (useTlsMessageFormat) {
-            return new TlsSyslogFrame(buf.toString()).toString();
-        }
-        return buf.toString();
+        return buf;
     }
 
-    private void appendPriority(final StringBuilder buffer, final Level logLevel) {
+    private void appendPriority(final Level logLevel, final StringBuilder buffer) {
         buffer.append('<');
         buffer.append(Priority.getPriority(facility, logLevel));
         buffer.append(">1 ");
     }
 
     private void appendTimestamp(final StringBuilder buffer, final long milliseconds) {
-        buffer.append(computeTimeStampString(milliseconds));
+        final char[] chars = getTimestampBuffer();
+        buffer.append(chars, 0, timestampFormat.format(milliseconds, chars, 0));
+        int tzmin = timestampFormat.getTimeZone().getOffset(milliseconds) / MILLIS_PER_MINUTE;
+        if (tzmin == 0) {
+            buffer.append('Z');
+        } else {
+            if (tzmin < 0) {
+                tzmin = -tzmin;
+                buffer.append('-');
+            } else {
+                buffer.append('+');
+            }
+            final int tzhour = tzmin / MINUTES_PER_HOUR;
+            tzmin -= tzhour * MINUTES_PER_HOUR;
+            pad(tzhour, TWO_DIGITS, buffer);
+            buffer.append(':');
+            pad(tzmin, TWO_DIGITS, buffer);
+        }
+    }
+
+    private static char[] getTimestampBuffer() {
+        char[] result = timestampBuffer.get();
+        if (result == null) {
+            result = new char[FixedFormat.ISO8601_PERIOD.getLength() << 1];
+            timestampBuffer.set(result);
+        }
+        return result;
     }
 
     private void appendSpace(final StringBuilder buffer) {
@@ -334,20 +400,38 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private void appendMessage(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
+        final int start = buffer.length();
+        buffer.append(' ');
+        final int textStart = buffer.length();
         // This layout formats StructuredDataMessages instead of delegating to the Message itself.
-        final String text = (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage)
-                ? message.getFormat() : message.getFormattedMessage();
-
-        if (text != null && text.length() > 0) {
-            buffer.append(' ').append(escapeNewlines(text, escapeNewLine));
+        if (message instanceof StructuredDataMessage || message instanceof MessageCollectionMessage) {
+            final String format = message.getFormat();
+            if (format != null) {
+                buffer.append(format);
+            }
+        } else if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(buffer);
+        } else {
+            final String text = message.getFormattedMessage();
+            if (text != null) {
+                buffer.append(text);
+            }
+        }
+        if (buffer.length() == textStart) {
+            buffer.setLength(start);
+        } else if (escapeNewLine != null) {
+            Transform.replaceNewLines(buffer, textStart, escapeNewLine);
         }
 
         if (exceptionFormatters != null && event.getThrown() != null) {
-            final StringBuilder exception = new StringBuilder(LF);
+            final int exceptionStart = buffer.length();
+            buffer.append(LF);
             for (final PatternFormatter formatter : exceptionFormatters) {
-                formatter.format(event, exception);
+                formatter.format(event, buffer);
+            }
+            if (escapeNewLine != null) {
+                Transform.replaceNewLines(buffer, exceptionStart, escapeNewLine);
             }
-            buffer.append(escapeNewlines(exception.toString(), escapeNewLine));
         }
         if (includeNewLine) {
             buffer.append(LF);
@@ -355,6 +439,91 @@ public final class Rfc5424Layout extends AbstractStringLayout {
     }
 
     private void appendStructuredElements(final StringBuilder buffer, final LogEvent event) {
+        final Message message = event.getMessage();
+        final ReadOnlyStringMap contextData = event.getContextData();
+        if (mdcRequired != null) {
+            checkRequired(contextData);
+        }
+        if (isDirect(message, contextData)) {
+            appendStructuredElementsDirectly(buffer, message, contextData);
+        } else {
+            appendMergedStructuredElements(buffer, event);
+        }
+    }
+
+    /**
+     * Checks if the structured data can be written without merging elements in maps.
+     */
+    private boolean isDirect(final Message message, final ReadOnlyStringMap contextData) {
+        if (fieldFormatters != null || message instanceof MessageCollectionMessage) {
+            return false;
+        }
+        if (!includeMdc || contextData.isEmpty()) {
+            return true;
+        }
+        if (!(contextData instanceof IndexedReadOnlyStringMap)) {
+            return false;
+        }
+        // a message element with the name of the context data element may have to be merged with it
+        return !(message instanceof StructuredDataMessage)
+                || !mdcId.equals(getIdName(((StructuredDataMessage) message).getId()));
+    }
+
+    private void appendStructuredElementsDirectly(final StringBuilder buffer, final Message message,
+            final ReadOnlyStringMap contextData) {
+        final int start = buffer.length();
+        if (message instanceof StructuredDataMessage) {
+            final StructuredDataMessage data = (StructuredDataMessage) message;
+            buffer.append('[');
+            appendId(data.getId(), buffer);
+            appendParams(eventPrefix, data.getIndexedReadOnlyStringMap(), ListChecker.NOOP_CHECKER, buffer);
+            buffer.append(']');
+        }
+        if (includeMdc && !contextData.isEmpty()) {
+            buffer.append('[');
+            buffer.append(mdcSdIdString);
+            appendParams(mdcPrefix, (IndexedReadOnlyStringMap) contextData, listChecker, buffer);
+            buffer.append(']');
+        }
+        if (buffer.length() == start) {
+            buffer.append('-');
+        }
+    }
+
+    private void appendParams(final String prefix, final IndexedReadOnlyStringMap map, final ListChecker checker,
+            final StringBuilder sb) {
+        // the keys of the map are sorted
+        for (int i = 0; i < map.size(); i++) {
+            final String key = map.getKeyAt(i);
+            final Object value = map.getValueAt(i);
+            if (checker.check(key) && value != null) {
+                sb.append(' ');
+                if (prefix != null) {
+                    sb.append(prefix);
+                }
+                appendEscaped(key, sb);
+                sb.append("=\"");
+                appendEscaped(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value), sb);
+                sb.append('"');
+            }
+        }
+    }
+
+    private void appendEscaped(final CharSequence text, final StringBuilder sb) {
+        final int start = sb.length();
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '"' || c == ']' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        if (escapeNewLine != null) {
+            Transform.replaceNewLines(sb, start, escapeNewLine);
+        }
+    }
+
+    private void appendMergedStructuredElements(final StringBuilder buffer, final LogEvent event) {
         final Message message = event.getMessage();
         final boolean isStructured = message instanceof StructuredDataMessage ||
                 message instanceof StructuredDataCollectionMessage;
@@ -364,13 +533,9 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             return;
         }
 
-        final Map<String, StructuredDataElement> sdElements = new HashMap<>();
+        final Map<String, StructuredDataElement> sdElements = new LinkedHashMap<>();
         final Map<String, String> contextMap = event.getContextData().toMap();
 
-        if (mdcRequired != null) {
-            checkRequired(contextMap);
-        }
-
         if (fieldFormatters != null) {
             for (final Map.Entry<String, FieldFormatter> sdElement : fieldFormatters.entrySet()) {
                 final String sdId = sdElement.getKey();
@@ -380,14 +545,13 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         }
 
         if (includeMdc && contextMap.size() > 0) {
-            final String mdcSdIdStr = mdcSdId.toString();
-            final StructuredDataElement union = sdElements.get(mdcSdIdStr);
+            final StructuredDataElement union = sdElements.get(mdcSdIdString);
             if (union != null) {
                 union.union(contextMap);
-                sdElements.put(mdcSdIdStr, union);
+                sdElements.put(mdcSdIdString, union);
             } else {
                 final StructuredDataElement formattedContextMap = new StructuredDataElement(contextMap, mdcPrefix, false);
-                sdElements.put(mdcSdIdStr, formattedContextMap);
+                sdElements.put(mdcSdIdString, formattedContextMap);
             }
         }
 
@@ -406,8 +570,16 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             return;
         }
 
+        // the structured data of the message comes first
         for (final Map.Entry<String, StructuredDataElement> entry : sdElements.entrySet()) {
-            formatStructuredElement(entry.getKey(), entry.getValue(), buffer, listChecker);
+            if (entry.getValue().isMessageData()) {
+                formatStructuredElement(entry.getKey(), entry.getValue(), buffer, listChecker);
+            }
+        }
+        for (final Map.Entry<String, StructuredDataElement> entry : sdElements.entrySet()) {
+            if (!entry.getValue().isMessageData()) {
+                formatStructuredElement(entry.getKey(), entry.getValue(), buffer, listChecker);
+            }
         }
     }
 
@@ -417,11 +589,12 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         final String sdId = getId(id);
 
         if (sdElements.containsKey(sdId)) {
-            final StructuredDataElement union = sdElements.get(id.toString());
+            final StructuredDataElement union = sdElements.get(sdId);
             union.union(map);
-            sdElements.put(sdId, union);
+            union.setMessageData();
         } else {
             final StructuredDataElement formattedData = new StructuredDataElement(map, eventPrefix, false);
+            formattedData.setMessageData();
             sdElements.put(sdId, formattedData);
         }
     }
@@ -430,7 +603,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         if (null == replacement) {
             return text;
         }
-        return NEWLINE_PATTERN.matcher(text).replaceAll(replacement);
+        return NEWLINE_PATTERN.matcher(text).replaceAll(Matcher.quoteReplacement(replacement));
     }
 
     protected String getProcId() {
@@ -445,57 +618,6 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         return mdcIncludes;
     }
 
-    private String computeTimeStampString(final long now) {
-        long last;
-        synchronized (this) {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestamppStr;
-            }
-        }
-
-        final StringBuilder buffer = new StringBuilder();
-        final Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
-        buffer.append(Integer.toString(cal.get(Calendar.YEAR)));
-        buffer.append('-');
-        pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buffer);
-        buffer.append('-');
-        pad(cal.get(Calendar.DAY_OF_MONTH), TWO_DIGITS, buffer);
-        buffer.append('T');
-        pad(cal.get(Calendar.HOUR_OF_DAY), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buffer);
-        buffer.append(':');
-        pad(cal.get(Calendar.SECOND), TWO_DIGITS, buffer);
-        buffer.append('.');
-        pad(cal.get(Calendar.MILLISECOND), THREE_DIGITS, buffer);
-
-        int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
-        if (tzmin == 0) {
-            buffer.append('Z');
-        } else {
-            if (tzmin < 0) {
-                tzmin = -tzmin;
-                buffer.append('-');
-            } else {
-                buffer.append('+');
-            }
-            final int tzhour = tzmin / MINUTES_PER_HOUR;
-            tzmin -= tzhour * MINUTES_PER_HOUR;
-            pad(tzhour, TWO_DIGITS, buffer);
-            buffer.append(':');
-            pad(tzmin, TWO_DIGITS, buffer);
-        }
-        synchronized (this) {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestamppStr = buffer.toString();
-            }
-        }
-        return buffer.toString();
-    }
-
     private void pad(final int val, int max, final StringBuilder buf) {
         while (max > 1) {
             if (val < max) {
@@ -503,7 +625,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
             }
             max = max / TWO_DIGITS;
         }
-        buf.append(Integer.toString(val));
+        buf.append(val);
     }
 
     private void formatStructuredElement(final String id, final StructuredDataElement data,
@@ -514,7 +636,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
         sb.append('[');
         sb.append(id);
-        if (!mdcSdId.toString().equals(id)) {
+        if (!mdcSdIdString.equals(id)) {
             appendMap(data.getPrefix(), data.getFields(), sb, ListChecker.NOOP_CHECKER);
         } else {
             appendMap(data.getPrefix(), data.getFields(), sb, checker);
@@ -524,11 +646,16 @@ public final class Rfc5424Layout extends AbstractStringLayout {
 
     private String getId(final StructuredDataId id) {
         final StringBuilder sb = new StringBuilder();
-        if (id == null || id.getName() == null) {
-            sb.append(defaultId);
-        } else {
-            sb.append(id.getName());
-        }
+        appendId(id, sb);
+        return sb.toString();
+    }
+
+    private String getIdName(final StructuredDataId id) {
+        return id == null || id.getName() == null ? defaultId : id.getName();
+    }
+
+    private void appendId(final StructuredDataId id, final StringBuilder sb) {
+        sb.append(getIdName(id));
         int ein = id != null ? id.getEnterpriseNumber() : enterpriseNumber;
         if (ein < 0) {
             ein = enterpriseNumber;
@@ -536,13 +663,12 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         if (ein >= 0) {
             sb.append('@').append(ein);
         }
-        return sb.toString();
     }
 
-    private void checkRequired(final Map<String, String> map) {
-        for (final String key : mdcRequired) {
-            final String value = map.get(key);
-            if (value == null) {
+    private void checkRequired(final ReadOnlyStringMap contextData) {
+        for (int i = 0; i < mdcRequired.size(); i++) {
+            final String key = mdcRequired.get(i);
+            if (contextData.getValue(key) == null) {
                 throw new LoggingException("Required key " + key + " is missing from the " + mdcId);
             }
         }
@@ -667,6 +793,7 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         private final Map<String, String> fields;
         private final boolean discardIfEmpty;
         private final String prefix;
+        private boolean messageData;
 
         public StructuredDataElement(final Map<String, String> fields, final String prefix,
                                      final boolean discardIfEmpty) {
@@ -700,6 +827,14 @@ public final class Rfc5424Layout extends AbstractStringLayout {
         String getPrefix() {
             return prefix;
         }
+
+        boolean isMessageData() {
+            return messageData;
+        }
+
+        void setMessageData() {
+            this.messageData = true;
+        }
     }
 
     public Facility getFacility() {
@@ -20,25 +20,33 @@ import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.net.Priority;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat;
+import org.apache.logging.log4j.core.time.internal.format.FixedDateFormat.FixedFormat;
 import org.apache.logging.log4j.core.util.NetUtils;
+import org.apache.logging.log4j.core.util.Transform;
+import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.plugins.Node;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.plugins.PluginBuilderAttribute;
 import org.apache.logging.log4j.plugins.PluginFactory;
 import org.apache.logging.log4j.util.Chars;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.text.DateFormatSymbols;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Formats a log event as a BSD Log record.
+ * <p>
+ * The record is written into a reused StringBuilder and, by {@link #encode(LogEvent, ByteBufferDestination)}, encoded
+ * straight into the destination: apart from messages that are not {@link StringBuilderFormattable}, formatting does
+ * not create objects.
+ * </p>
  */
 @Plugin(name = "SyslogLayout", category = Node.CATEGORY, elementType = Layout.ELEMENT_TYPE, printObject = true)
 public final class SyslogLayout extends AbstractStringLayout {
@@ -115,15 +123,19 @@ public final class SyslogLayout extends AbstractStringLayout {
      */
     public static final Pattern NEWLINE_PATTERN = Pattern.compile("\\r?\\n");
 
+    private static final String DATE_PATTERN = "MMM dd HH:mm:ss";
+    private static final String[] MONTHS = DateFormatSymbols.getInstance(Locale.ENGLISH).getShortMonths();
+    private static final ThreadLocal<char[]> dateBuffer = new ThreadLocal<>();
+
     private final Facility facility;
     private final boolean includeNewLine;
     private final String escapeNewLine;
 
     /**
-     * Date format used if header = true.
+     * Formats the date and time of day, from which the date in the {@value #DATE_PATTERN} format is assembled.
      */
-    private final SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd HH:mm:ss", Locale.ENGLISH);
-    
+    private final FixedDateFormat dateFormat = FixedDateFormat.create(FixedFormat.DEFAULT);
+
     /**
      * Host name used to identify messages from this appender.
      */
@@ -133,7 +145,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         super(charset);
         this.facility = facility;
         this.includeNewLine = includeNL;
-        this.escapeNewLine = escapeNL == null ? null : Matcher.quoteReplacement(escapeNL);
+        this.escapeNewLine = escapeNL;
     }
 
     /**
@@ -144,8 +156,18 @@ public final class SyslogLayout extends AbstractStringLayout {
      */
     @Override
     public String toSerializable(final LogEvent event) {
-        final StringBuilder buf = getStringBuilder();
+        return toText(event, getStringBuilder()).toString();
+    }
+
+    @Override
+    public void encode(final LogEvent event, final ByteBufferDestination destination) {
+        final StringBuilder text = toText(event, getStringBuilder());
+        final Encoder<StringBuilder> encoder = getStringBuilderEncoder();
+        encoder.encode(text, destination);
+        trimToMaxSize(text);
+    }
 
+    private StringBuilder toText(final LogEvent event, final StringBuilder buf) {
         buf.append('<');
         buf.append(Priority.getPriority(facility, event.getLevel()));
         buf.append('>');
@@ -154,25 +176,43 @@ public final class SyslogLayout extends AbstractStringLayout {
         buf.append(localHostname);
         buf.append(Chars.SPACE);
 
-        String message = event.getMessage().getFormattedMessage();
+        final int start = buf.length();
+        final Message message = event.getMessage();
+        if (message instanceof StringBuilderFormattable) {
+            ((StringBuilderFormattable) message).formatTo(buf);
+        } else {
+            buf.append(message.getFormattedMessage());
+        }
         if (null != escapeNewLine) {
-            message = NEWLINE_PATTERN.matcher(message).replaceAll(escapeNewLine);
+            Transform.replaceNewLines(buf, start, escapeNewLine);
         }
-        buf.append(message);
 
         if (includeNewLine) {
             buf.append('\n');
         }
-        return buf.toString();
+        return buf;
     }
 
-    private synchronized void addDate(final long timestamp, final StringBuilder buf) {
-        final int index = buf.length() + 4;
-        buf.append(dateFormat.format(new Date(timestamp)));
+    private void addDate(final long timestamp, final StringBuilder buf) {
+        // yyyy-MM-dd HH:mm:ss,SSS
+        final char[] chars = getDateBuffer();
+        dateFormat.format(timestamp, chars, 0);
+        buf.append(MONTHS[(chars[5] - '0') * 10 + chars[6] - '0' - 1]);
+        buf.append(Chars.SPACE);
         //  RFC 3164 says leading space, not leading zero on days 1-9
-        if (buf.charAt(index) == '0') {
-            buf.setCharAt(index, Chars.SPACE);
+        buf.append(chars[8] == '0' ? Chars.SPACE : chars[8]);
+        buf.append(chars[9]);
+        buf.append(Chars.SPACE);
+        buf.append(chars, 11, 8);
+    }
+
+    private char[] getDateBuffer() {
+        char[] result = dateBuffer.get();
+        if (result == null) {
+            result = new char[FixedFormat.DEFAULT.getLength() << 1];
+            dateBuffer.set(result);
         }
+        return result;
     }
 
     /**
@@ -192,7 +232,7 @@ public final class SyslogLayout extends AbstractStringLayout {
         final Map<String, String> result = new HashMap<>();
         result.put("structured", "false");
         result.put("formatType", "logfilepatternreceiver");
-        result.put("dateFormat", dateFormat.toPattern());
+        result.put("dateFormat", DATE_PATTERN);
         result.put("format", "<LEVEL>TIMESTAMP PROP(HOSTNAME) MESSAGE");
         return result;
     }
@@ -99,8 +99,7 @@ public class DatagramOutputStream extends OutputStream {
                 if (footer != null) {
                     copy(footer, 0, footer.length);
                 }
-                final DatagramPacket packet = new DatagramPacket(data, data.length, inetAddress, port);
-                datagramSocket.send(packet);
+                send(data, data.length);
             }
         } finally {
             data = null;
@@ -110,6 +109,18 @@ public class DatagramOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Sends a datagram, called by {@link #flush()} with the data written since the last flush.
+     *
+     * @param bytes The data to send.
+     * @param length The number of bytes to send.
+     * @throws IOException if the datagram cannot be sent.
+     */
+    protected void send(final byte[] bytes, final int length) throws IOException {
+        final DatagramPacket packet = new DatagramPacket(bytes, length, inetAddress, port);
+        datagramSocket.send(packet);
+    }
+
     @Override
     public synchronized void close() throws IOException {
         if (datagramSocket != null) {
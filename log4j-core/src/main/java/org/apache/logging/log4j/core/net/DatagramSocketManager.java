@@ -25,10 +25,12 @@ import java.util.Map;
 
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
+import org.apache.logging.log4j.core.layout.GelfLayout;
 import org.apache.logging.log4j.util.Strings;
 
 /**
- * Socket Manager for UDP connections.
+ * Socket Manager for UDP connections. Messages of a {@link GelfLayout} larger than its chunk size are sent as GELF
+ * chunks.
  */
 public class DatagramSocketManager extends AbstractSocketManager {
 
@@ -117,8 +119,15 @@ public class DatagramSocketManager extends AbstractSocketManager {
                 LOGGER.error("Could not find address of " + data.host, ex);
                 return null;
             }
-            final OutputStream os = new DatagramOutputStream(data.host, data.port, data.layout.getHeader(),
-                    data.layout.getFooter());
+            final OutputStream os;
+            if (data.layout instanceof GelfLayout && ((GelfLayout) data.layout).getChunkSize() > 0) {
+                // large GELF messages are split into chunks rather than truncated by the network
+                os = new GelfDatagramOutputStream(data.host, data.port, data.layout.getHeader(),
+                        data.layout.getFooter(), ((GelfLayout) data.layout).getChunkSize());
+            } else {
+                os = new DatagramOutputStream(data.host, data.port, data.layout.getHeader(),
+                        data.layout.getFooter());
+            }
             return new DatagramSocketManager(name, os, inetAddress, data.host, data.port, data.layout, data.bufferSize);
         }
     }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OutputStream for UDP connections that splits messages larger than the chunk size into GELF chunks.
+ * <p>
+ * Each chunk starts with the magic bytes {@code 0x1e 0x0f}, an 8 byte message id shared by all chunks of a message,
+ * the sequence number and the sequence count. A message that needs more than {@value #MAX_CHUNKS} chunks is dropped,
+ * as GELF servers discard it anyway.
+ * </p>
+ *
+ * @see <a href="http://docs.graylog.org/en/latest/pages/gelf.html#chunking">GELF chunking</a>
+ */
+public class GelfDatagramOutputStream extends DatagramOutputStream {
+
+    /**
+     * The default maximum size of a datagram.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /**
+     * The size of the header of each chunk.
+     */
+    public static final int CHUNK_HEADER_SIZE = 12;
+
+    /**
+     * The maximum number of chunks of a message.
+     */
+    public static final int MAX_CHUNKS = 128;
+
+    private static final byte MAGIC_1 = 0x1e;
+    private static final byte MAGIC_2 = 0x0f;
+
+    private final int chunkSize;
+    private final byte[] chunk;
+    private long messageId = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * The Constructor.
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param header The header of each datagram.
+     * @param footer The footer of each datagram.
+     * @param chunkSize The maximum size of a datagram.
+     */
+    public GelfDatagramOutputStream(final String host, final int port, final byte[] header, final byte[] footer,
+            final int chunkSize) {
+        super(host, port, header, footer);
+        if (chunkSize <= CHUNK_HEADER_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be larger than " + CHUNK_HEADER_SIZE);
+        }
+        this.chunkSize = chunkSize;
+        this.chunk = new byte[chunkSize];
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    protected void send(final byte[] bytes, final int length) throws IOException {
+        if (length <= chunkSize) {
+            super.send(bytes, length);
+            return;
+        }
+        final int payloadSize = chunkSize - CHUNK_HEADER_SIZE;
+        final int count = (length + payloadSize - 1) / payloadSize;
+        if (count > MAX_CHUNKS) {
+            LOGGER.error("Dropping GELF message of {} bytes, it needs more than {} chunks of {} bytes", length,
+                    MAX_CHUNKS, chunkSize);
+            return;
+        }
+        final long id = messageId++;
+        chunk[0] = MAGIC_1;
+        chunk[1] = MAGIC_2;
+        for (int i = 0; i < 8; i++) {
+            chunk[2 + i] = (byte) (id >>> (56 - 8 * i));
+        }
+        chunk[11] = (byte) count;
+        for (int sequence = 0; sequence < count; sequence++) {
+            final int offset = sequence * payloadSize;
+            final int size = Math.min(payloadSize, length - offset);
+            chunk[10] = (byte) sequence;
+            System.arraycopy(bytes, offset, chunk, CHUNK_HEADER_SIZE, size);
+            super.send(chunk, CHUNK_HEADER_SIZE + size);
+        }
+    }
+}
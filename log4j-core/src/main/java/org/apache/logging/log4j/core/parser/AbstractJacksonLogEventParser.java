@@ -16,20 +16,49 @@
  */
 package org.apache.logging.log4j.core.parser;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
-public class AbstractJacksonLogEventParser implements TextLogEventParser {
+public class AbstractJacksonLogEventParser implements TextLogEventParser, StreamLogEventParser {
     private final ObjectReader objectReader;
+    private final ObjectReader streamReader;
+    private final byte[] lineRecordStart;
 
     protected AbstractJacksonLogEventParser(final ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    /**
+     * Constructs a parser for the given mapper.
+     *
+     * @param objectMapper  the mapper
+     * @param recordStart  the text each event starts with at the beginning of a line, used to split files into chunks,
+     *                     or {@code null} if files cannot be split
+     */
+    protected AbstractJacksonLogEventParser(final ObjectMapper objectMapper, final String recordStart) {
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         this.objectReader = objectMapper.readerFor(Log4jLogEvent.class);
+        this.streamReader = objectReader.without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        this.lineRecordStart = recordStart == null ? null : ('\n' + recordStart).getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
@@ -58,4 +87,168 @@ public class AbstractJacksonLogEventParser implements TextLogEventParser {
             throw new ParseException(e);
         }
     }
+
+    @Override
+    public long parseAll(final InputStream input, final Consumer<? super LogEvent> consumer) throws ParseException {
+        final MutableLogEvent reusable = new MutableLogEvent();
+        final long[] count = new long[1];
+        try {
+            readValues(input, event -> {
+                reusable.initFrom(event);
+                // parsed events do not include location, but may have a source
+                reusable.setSource(event.getSource());
+                count[0]++;
+                try {
+                    consumer.accept(reusable);
+                } finally {
+                    reusable.clear();
+                }
+            });
+        } catch (final IOException e) {
+            throw new ParseException(e);
+        }
+        return count[0];
+    }
+
+    @Override
+    public long parseAll(final FileChannel channel, final ExecutorService executor, final int chunks,
+            final Consumer<? super LogEvent> consumer) throws ParseException {
+        final long size;
+        final long[] starts = new long[Math.max(chunks, 1) + 1];
+        int count = 1;
+        try {
+            size = channel.size();
+            if (lineRecordStart != null && chunks > 1 && startsWithRecord(channel, size)) {
+                for (int i = 1; i < chunks; i++) {
+                    final long target = Math.max(starts[count - 1] + 1, size * i / chunks);
+                    // look for a line break right before the target too, the target may be a record start
+                    final long start = target < size ? nextRecordStart(channel, target - 1, size) : size;
+                    if (start >= size) {
+                        break;
+                    }
+                    starts[count++] = start;
+                }
+            }
+        } catch (final IOException e) {
+            throw new ParseException(e);
+        }
+        starts[count] = size;
+        if (count == 1) {
+            return parseAll(new ChannelInputStream(channel, 0, size), consumer);
+        }
+        final List<Future<Long>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final InputStream chunk = new ChannelInputStream(channel, starts[i], starts[i + 1]);
+            futures.add(executor.submit(() -> parseAll(chunk, consumer)));
+        }
+        long events = 0;
+        try {
+            for (final Future<Long> future : futures) {
+                events += future.get();
+            }
+        } catch (final InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new ParseException(e);
+        } catch (final ExecutionException e) {
+            cancel(futures);
+            throw e.getCause() instanceof ParseException ? (ParseException) e.getCause()
+                    : new ParseException(e.getCause());
+        }
+        return events;
+    }
+
+    /**
+     * Reads all events of a stream, without closing it. Subclasses override this if the format needs more than the
+     * mapper's {@link ObjectReader#readValues(InputStream)}.
+     *
+     * @param input  the stream
+     * @param consumer  the consumer of the events
+     * @throws IOException if the stream cannot be read or parsed
+     */
+    protected void readValues(final InputStream input, final Consumer<LogEvent> consumer) throws IOException {
+        try (final MappingIterator<LogEvent> iterator = streamReader.readValues(input)) {
+            while (iterator.hasNextValue()) {
+                consumer.accept(iterator.nextValue());
+            }
+        }
+    }
+
+    /**
+     * Returns whether a file starts with a record. Complete documents, such as a JSON array or an XML document with
+     * its declaration and root element, do not and are parsed as one chunk, because a chunk of their records is not a
+     * valid document.
+     */
+    private boolean startsWithRecord(final FileChannel channel, final long size) throws IOException {
+        final InputStream input = new BufferedInputStream(new ChannelInputStream(channel, 0, size));
+        int b;
+        do {
+            b = input.read();
+        } while (Character.isWhitespace(b) || b == 0xEF || b == 0xBB || b == 0xBF);
+        // skips the line break lineRecordStart starts with
+        for (int i = 1; i < lineRecordStart.length; i++) {
+            if (b != (lineRecordStart[i] & 0xFF)) {
+                return false;
+            }
+            b = input.read();
+        }
+        return true;
+    }
+
+    private long nextRecordStart(final FileChannel channel, final long from, final long size) throws IOException {
+        final InputStream input = new BufferedInputStream(new ChannelInputStream(channel, from, size));
+        long position = from;
+        int matched = 0;
+        int b;
+        while ((b = input.read()) >= 0) {
+            position++;
+            if (b == lineRecordStart[matched]) {
+                if (++matched == lineRecordStart.length) {
+                    return position - matched + 1;
+                }
+            } else {
+                matched = b == '\n' ? 1 : 0;
+            }
+        }
+        return size;
+    }
+
+    private static void cancel(final List<Future<Long>> futures) {
+        for (final Future<Long> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Reads a range of a file with positional reads, so several threads can read the same channel.
+     */
+    private static final class ChannelInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        ChannelInputStream(final FileChannel channel, final long start, final long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            final int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
 }
@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.parser;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.time.MutableInstant;
+import org.apache.logging.log4j.message.ReusableSimpleMessage;
+import org.apache.logging.log4j.util.FilteredObjectInputStream;
+import org.apache.logging.log4j.util.StringMap;
+
+/**
+ * Parses the output from {@link BinaryLayout} into instances of {@link LogEvent}.
+ * <p>
+ * Streams hold one or more headers, each followed by records written with the dictionary of that header. A single
+ * event, as returned by {@link BinaryLayout#toByteArray(LogEvent)}, is a header followed by one record. Records
+ * refer to the dictionary entries of the records before them, so files are parsed in a single chunk. Records between
+ * a header and the first record that starts a new dictionary were written with the dictionary of a previous stream,
+ * like the events a socket appender sends again after reconnecting, and are skipped.
+ * </p>
+ */
+public class BinaryLogEventParser implements StreamLogEventParser {
+
+    @Override
+    public LogEvent parseFrom(final byte[] input) throws ParseException {
+        return parseFrom(input, 0, input.length);
+    }
+
+    @Override
+    public LogEvent parseFrom(final byte[] input, final int offset, final int length) throws ParseException {
+        final RecordReader reader = new RecordReader(new ByteArrayInputStream(input, offset, length));
+        final MutableLogEvent event = new MutableLogEvent();
+        if (!reader.next()) {
+            throw new ParseException("No log event found");
+        }
+        reader.readRecord(event);
+        if (reader.next()) {
+            throw new ParseException("Expected exactly one log event");
+        }
+        return new Log4jLogEvent.Builder(event).build();
+    }
+
+    @Override
+    public long parseAll(final InputStream input, final Consumer<? super LogEvent> consumer) throws ParseException {
+        final RecordReader reader = new RecordReader(new BufferedInputStream(input));
+        final MutableLogEvent event = new MutableLogEvent();
+        long count = 0;
+        while (reader.next()) {
+            reader.readRecord(event);
+            count++;
+            try {
+                consumer.accept(event);
+            } finally {
+                event.clear();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long parseAll(final FileChannel channel, final ExecutorService executor, final int chunks,
+            final Consumer<? super LogEvent> consumer) throws ParseException {
+        return parseAll(Channels.newInputStream(channel), consumer);
+    }
+
+    /**
+     * Reads the records of a stream, keeping the schema, the dictionary and the timestamp base of the current header.
+     */
+    private static final class RecordReader {
+        private final InputStream input;
+        private final List<String> names = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private final ReusableSimpleMessage message = new ReusableSimpleMessage();
+        private final MutableInstant instant = new MutableInstant();
+        private final StringMap contextData = ContextDataFactory.createContextData();
+        private BinaryLayout.Field[] fields;
+        // spare bytes after the record let malformed UTF-8 be detected after decoding
+        private byte[] bytes = new byte[1024 + 4];
+        private int position;
+        private int limit;
+        private long lastMillis;
+        private boolean awaitingReset;
+
+        RecordReader(final InputStream input) {
+            this.input = input;
+        }
+
+        /**
+         * Reads the next record into the buffer, reading the headers before it.
+         *
+         * @return whether there is a record
+         */
+        boolean next() throws ParseException {
+            try {
+                int b;
+                while ((b = input.read()) >= 0) {
+                    final long length = readVarint(b);
+                    if (length == 0) {
+                        readHeader();
+                    } else if (fields == null) {
+                        throw new ParseException("Missing BinaryLayout header");
+                    } else if (length > Integer.MAX_VALUE - 4) {
+                        throw new ParseException("Invalid record length " + length);
+                    } else {
+                        readFully((int) length);
+                        if (awaitingReset && (bytes[0] & BinaryLayout.FLAG_RESET) == 0) {
+                            // written with the dictionary of the previous stream
+                            continue;
+                        }
+                        awaitingReset = false;
+                        return true;
+                    }
+                }
+                return false;
+            } catch (final IOException e) {
+                throw new ParseException(e);
+            }
+        }
+
+        private long readVarint(final int first) throws IOException, ParseException {
+            long value = 0;
+            int b = first;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (b < 0) {
+                    throw new ParseException("Truncated stream");
+                }
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                b = input.read();
+            }
+            throw new ParseException("Malformed varint");
+        }
+
+        private void readHeader() throws IOException, ParseException {
+            final byte[] magic = new byte[BinaryLayout.MAGIC.length()];
+            readFully(input, magic, magic.length);
+            if (!BinaryLayout.MAGIC.equals(new String(magic, StandardCharsets.US_ASCII))) {
+                throw new ParseException("Not a BinaryLayout header");
+            }
+            final int version = input.read();
+            if (version != BinaryLayout.VERSION) {
+                throw new ParseException("Unsupported BinaryLayout version " + version);
+            }
+            final long count = readVarint(input.read());
+            if (count < 0 || count > BinaryLayout.Field.values().length * 2L) {
+                throw new ParseException("Invalid number of fields " + count);
+            }
+            fields = new BinaryLayout.Field[(int) count];
+            for (int i = 0; i < fields.length; i++) {
+                final int tag = input.read();
+                fields[i] = BinaryLayout.Field.forTag(tag);
+                if (fields[i] == null) {
+                    throw new ParseException("Unknown field tag " + tag);
+                }
+            }
+            reset();
+            awaitingReset = true;
+        }
+
+        private void readFully(final int length) throws IOException, ParseException {
+            if (bytes.length < length + 4) {
+                bytes = new byte[length + 4];
+            }
+            readFully(input, bytes, length);
+            position = 0;
+            limit = length;
+        }
+
+        private static void readFully(final InputStream input, final byte[] buffer, final int length)
+                throws IOException, ParseException {
+            int read = 0;
+            while (read < length) {
+                final int n = input.read(buffer, read, length - read);
+                if (n < 0) {
+                    throw new ParseException("Truncated stream");
+                }
+                read += n;
+            }
+        }
+
+        private void reset() {
+            names.clear();
+            lastMillis = 0;
+        }
+
+        void readRecord(final MutableLogEvent event) throws ParseException {
+            if ((readByte() & BinaryLayout.FLAG_RESET) != 0) {
+                reset();
+            }
+            for (final BinaryLayout.Field field : fields) {
+                switch (field) {
+                case TIMESTAMP: {
+                    final long delta = readVarint();
+                    lastMillis += delta >>> 1 ^ -(delta & 1);
+                    final long nanoOfMillisecond = readVarint();
+                    if (nanoOfMillisecond >= 1_000_000) {
+                        throw new ParseException("Invalid nanoOfMillisecond " + nanoOfMillisecond);
+                    }
+                    instant.initFromEpochMilli(lastMillis, (int) nanoOfMillisecond);
+                    event.setInstant(instant);
+                    break;
+                }
+                case LEVEL: {
+                    final String name = readName();
+                    final int intLevel = (int) readVarint();
+                    event.setLevel(name == null ? null : Level.forName(name, intLevel));
+                    break;
+                }
+                case LOGGER:
+                    event.setLoggerName(readName());
+                    break;
+                case LOGGER_FQCN:
+                    event.setLoggerFqcn(readName());
+                    break;
+                case THREAD:
+                    event.setThreadName(readName());
+                    event.setThreadId(readVarint());
+                    event.setThreadPriority((int) readVarint());
+                    break;
+                case MARKER: {
+                    final String name = readName();
+                    event.setMarker(name == null ? null : MarkerManager.getMarker(name));
+                    break;
+                }
+                case MESSAGE:
+                    readText();
+                    message.set(text);
+                    event.setMessage(message);
+                    break;
+                case CONTEXT: {
+                    contextData.clear();
+                    final long size = readVarint();
+                    for (long i = 0; i < size; i++) {
+                        final String key = readName();
+                        contextData.putValue(key, readString());
+                    }
+                    event.setContextData(contextData);
+                    break;
+                }
+                case THROWN:
+                    event.setThrownProxy(readThrown());
+                    break;
+                default:
+                    throw new ParseException("Unknown field " + field);
+                }
+            }
+            if (position != limit) {
+                throw new ParseException("Record length does not match its fields");
+            }
+        }
+
+        private int readByte() throws ParseException {
+            if (position >= limit) {
+                throw new ParseException("Truncated record");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private long readVarint() throws ParseException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new ParseException("Malformed varint");
+        }
+
+        /**
+         * Reads the length of a string or a byte array.
+         *
+         * @return the length, or -1 for null
+         */
+        private int readLength() throws ParseException {
+            final long length = readVarint() - 1;
+            if (length < -1 || length > limit - position) {
+                throw new ParseException("Truncated record");
+            }
+            return (int) length;
+        }
+
+        private String readString() throws ParseException {
+            final int length = readLength();
+            if (length < 0) {
+                return null;
+            }
+            final String result = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return result;
+        }
+
+        /**
+         * Decodes a string into the reused text, without creating a String.
+         */
+        private void readText() throws ParseException {
+            text.setLength(0);
+            final int length = readLength();
+            if (length <= 0) {
+                return;
+            }
+            final int end = position + length;
+            while (position < end) {
+                final int b = bytes[position++] & 0xFF;
+                if (b < 0x80) {
+                    text.append((char) b);
+                } else if (b < 0xE0) {
+                    text.append((char) ((b & 0x1F) << 6 | bytes[position++] & 0x3F));
+                } else if (b < 0xF0) {
+                    text.append((char) ((b & 0x0F) << 12 | (bytes[position++] & 0x3F) << 6
+                            | bytes[position++] & 0x3F));
+                } else {
+                    final int codePoint = (b & 0x07) << 18 | (bytes[position++] & 0x3F) << 12
+                            | (bytes[position++] & 0x3F) << 6 | bytes[position++] & 0x3F;
+                    if (!Character.isValidCodePoint(codePoint)) {
+                        throw new ParseException("Malformed UTF-8");
+                    }
+                    text.appendCodePoint(codePoint);
+                }
+            }
+            if (position != end) {
+                throw new ParseException("Malformed UTF-8");
+            }
+        }
+
+        private String readName() throws ParseException {
+            final long reference = readVarint();
+            if (reference == 0) {
+                return null;
+            }
+            if (reference == 1) {
+                return readString();
+            }
+            final long index = reference - 2;
+            if (index < names.size()) {
+                return names.get((int) index);
+            }
+            if (index == names.size()) {
+                final String name = readString();
+                names.add(name);
+                return name;
+            }
+            throw new ParseException("Unknown dictionary entry " + index);
+        }
+
+        private ThrowableProxy readThrown() throws ParseException {
+            final int length = readLength();
+            if (length < 0) {
+                return null;
+            }
+            try (final ObjectInputStream in = new FilteredObjectInputStream(
+                    new ByteArrayInputStream(bytes, position, length))) {
+                position += length;
+                final Object result = in.readObject();
+                if (!(result instanceof ThrowableProxy)) {
+                    throw new ParseException("Expected a ThrowableProxy but found " + result);
+                }
+                return (ThrowableProxy) result;
+            } catch (final IOException | ClassNotFoundException e) {
+                throw new ParseException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "RecordReader{fields=" + Arrays.toString(fields) + ", names=" + names.size() + "}";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.parser;
+
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.core.LogEvent;
+
+/**
+ * Parses streams containing any number of log events, as written by a layout to a file or socket.
+ * <p>
+ * The events are passed to a consumer as a reused {@link org.apache.logging.log4j.core.impl.MutableLogEvent}, which
+ * is only valid during the call. Consumers that keep events must copy them with
+ * {@link LogEvent#toImmutable()}.
+ * </p>
+ */
+public interface StreamLogEventParser extends LogEventParser {
+
+    /**
+     * Parses all log events of a stream. The stream is not closed.
+     *
+     * @param input  the stream
+     * @param consumer  the consumer of the events
+     *
+     * @return the number of parsed events.
+     * @throws ParseException if the input is malformed and cannot be parsed as log events
+     */
+    long parseAll(InputStream input, Consumer<? super LogEvent> consumer) throws ParseException;
+
+    /**
+     * Parses all log events of a file, splitting it into chunks that are parsed in parallel. The events of a chunk
+     * are passed to the consumer in order, but the chunks are parsed concurrently, so the consumer must be thread
+     * safe. Files that cannot be split are parsed as a single chunk.
+     *
+     * @param channel  the file
+     * @param executor  the executor parsing the chunks
+     * @param chunks  the maximum number of chunks
+     * @param consumer  the consumer of the events
+     *
+     * @return the number of parsed events.
+     * @throws ParseException if the input is malformed and cannot be parsed as log events
+     */
+    long parseAll(FileChannel channel, ExecutorService executor, int chunks, Consumer<? super LogEvent> consumer)
+            throws ParseException;
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * The formatters of a parsed pattern, compiled to a flat program.
+ * <p>
+ * Adjacent literals and line separators are fused into a single string. The most common converters (level, logger,
+ * thread name, message and date) get an instruction of their own, so they are called from monomorphic call sites,
+ * and the logger and thread names are appended directly when they are not abbreviated. Fields are only adjusted for
+ * the converters whose {@link FormattingInfo} pads or truncates. All other converters are called through their
+ * {@link PatternFormatter}.
+ * </p>
+ *
+ * @since 3.0
+ */
+@PerformanceSensitive("allocation")
+public final class CompiledPattern {
+
+    private static final byte LITERAL = 0;
+    private static final byte LEVEL = 1;
+    private static final byte LOGGER_NAME = 2;
+    private static final byte LOGGER = 3;
+    private static final byte THREAD_NAME = 4;
+    private static final byte MESSAGE = 5;
+    private static final byte DATE = 6;
+    private static final byte FORMATTER = 7;
+
+    private final PatternFormatter[] formatters;
+    private final byte[] instructions;
+    private final Object[] operands;
+    private final FormattingInfo[] fields;
+    private final boolean requiresLocation;
+
+    private CompiledPattern(final PatternFormatter[] formatters, final byte[] instructions, final Object[] operands,
+            final FormattingInfo[] fields) {
+        this.formatters = formatters;
+        this.instructions = instructions;
+        this.operands = operands;
+        this.fields = fields;
+        boolean location = false;
+        for (final PatternFormatter formatter : formatters) {
+            location |= formatter.requiresLocation();
+        }
+        this.requiresLocation = location;
+    }
+
+    /**
+     * Compiles the given formatters.
+     *
+     * @param formatters the formatters returned by the {@link PatternParser}
+     * @return the compiled pattern
+     */
+    public static CompiledPattern compile(final List<PatternFormatter> formatters) {
+        final List<Byte> instructions = new ArrayList<>(formatters.size());
+        final List<Object> operands = new ArrayList<>(formatters.size());
+        final List<FormattingInfo> fields = new ArrayList<>(formatters.size());
+        final StringBuilder literal = new StringBuilder();
+        for (final PatternFormatter formatter : formatters) {
+            final LogEventPatternConverter converter = formatter.getConverter();
+            final FormattingInfo field = formatter.getFormattingInfo();
+            final boolean plain = field == FormattingInfo.getDefault();
+            if (plain && converter instanceof LiteralPatternConverter
+                    && !((LiteralPatternConverter) converter).isSubstituted()) {
+                literal.append(((LiteralPatternConverter) converter).getLiteral());
+                continue;
+            }
+            if (plain && converter instanceof LineSeparatorPatternConverter) {
+                converter.format(null, literal);
+                continue;
+            }
+            if (literal.length() > 0) {
+                add(instructions, operands, fields, LITERAL, literal.toString(), null);
+                literal.setLength(0);
+            }
+            final FormattingInfo adjust = plain ? null : field;
+            if (converter instanceof LevelPatternConverter) {
+                add(instructions, operands, fields, LEVEL, converter, adjust);
+            } else if (converter instanceof LoggerPatternConverter) {
+                add(instructions, operands, fields,
+                        ((LoggerPatternConverter) converter).isAbbreviating() ? LOGGER : LOGGER_NAME, converter, adjust);
+            } else if (converter instanceof ThreadNamePatternConverter) {
+                add(instructions, operands, fields, THREAD_NAME, converter, adjust);
+            } else if (converter instanceof MessagePatternConverter) {
+                add(instructions, operands, fields, MESSAGE, converter, adjust);
+            } else if (converter instanceof DatePatternConverter) {
+                add(instructions, operands, fields, DATE, converter, adjust);
+            } else {
+                // the formatter adjusts the field itself
+                add(instructions, operands, fields, FORMATTER, formatter, null);
+            }
+        }
+        if (literal.length() > 0) {
+            add(instructions, operands, fields, LITERAL, literal.toString(), null);
+        }
+        final byte[] program = new byte[instructions.size()];
+        for (int i = 0; i < program.length; i++) {
+            program[i] = instructions.get(i);
+        }
+        return new CompiledPattern(formatters.toArray(new PatternFormatter[0]), program, operands.toArray(),
+                fields.toArray(new FormattingInfo[0]));
+    }
+
+    private static void add(final List<Byte> instructions, final List<Object> operands,
+            final List<FormattingInfo> fields, final byte instruction, final Object operand,
+            final FormattingInfo field) {
+        instructions.add(instruction);
+        operands.add(operand);
+        fields.add(field);
+    }
+
+    /**
+     * Formats an event.
+     *
+     * @param event the event to format
+     * @param buffer the buffer to append to
+     */
+    public void format(final LogEvent event, final StringBuilder buffer) {
+        final byte[] program = instructions;
+        for (int i = 0; i < program.length; i++) {
+            final int start = buffer.length();
+            final Object operand = operands[i];
+            switch (program[i]) {
+            case LITERAL:
+                buffer.append((String) operand);
+                break;
+            case LEVEL:
+                ((LevelPatternConverter) operand).format(event, buffer);
+                break;
+            case LOGGER_NAME:
+                buffer.append(event.getLoggerName());
+                break;
+            case LOGGER:
+                ((LoggerPatternConverter) operand).format(event, buffer);
+                break;
+            case THREAD_NAME:
+                buffer.append(event.getThreadName());
+                break;
+            case MESSAGE:
+                ((MessagePatternConverter) operand).format(event, buffer);
+                break;
+            case DATE:
+                ((DatePatternConverter) operand).format(event, buffer);
+                break;
+            default:
+                ((PatternFormatter) operand).format(event, buffer);
+                break;
+            }
+            final FormattingInfo field = fields[i];
+            if (field != null) {
+                field.format(start, buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns whether one of the converters needs the location of the logging call.
+     *
+     * @return true if location information is required
+     */
+    public boolean requiresLocation() {
+        return requiresLocation;
+    }
+
+    /**
+     * Returns the formatters this pattern was compiled from.
+     *
+     * @return the formatters
+     */
+    public PatternFormatter[] getFormatters() {
+        return formatters.clone();
+    }
+
+    /**
+     * Returns the number of instructions, which is less than the number of formatters when literals were fused.
+     *
+     * @return the number of instructions
+     */
+    public int size() {
+        return instructions.length;
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledPattern[instructions=" + Arrays.toString(instructions) + ", operands="
+                + Arrays.toString(operands) + ']';
+    }
+}
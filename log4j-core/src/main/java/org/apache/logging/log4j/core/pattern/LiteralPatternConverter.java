@@ -80,6 +80,15 @@ public final class LiteralPatternConverter extends LogEventPatternConverter impl
         return literal;
     }
 
+    /**
+     * Returns whether the literal contains variables that are substituted for each event.
+     *
+     * @return whether the literal is substituted
+     */
+    boolean isSubstituted() {
+        return substitute;
+    }
+
     @Override
     public boolean isVariable() {
         return false;
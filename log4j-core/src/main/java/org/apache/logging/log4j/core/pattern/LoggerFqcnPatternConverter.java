@@ -28,29 +28,35 @@ import org.apache.logging.log4j.util.PerformanceSensitive;
 @Plugin(name = "LoggerFqcnPatternConverter", category = PatternConverter.CATEGORY)
 @ConverterKeys({ "fqcn" })
 @PerformanceSensitive("allocation")
-public final class LoggerFqcnPatternConverter extends LogEventPatternConverter {
+public final class LoggerFqcnPatternConverter extends NamePatternConverter {
     /**
      * Singleton.
      */
     private static final LoggerFqcnPatternConverter INSTANCE =
-        new LoggerFqcnPatternConverter();
+        new LoggerFqcnPatternConverter(null);
 
     /**
      * Private constructor.
+     *
+     * @param options options, may be null.
      */
-    private LoggerFqcnPatternConverter() {
-        super("LoggerFqcn", "loggerFqcn");
+    private LoggerFqcnPatternConverter(final String[] options) {
+        super("LoggerFqcn", "loggerFqcn", options);
     }
 
     /**
      * Obtains an instance of LoggerFqcnPatternConverter.
      *
-     * @param options options, currently ignored, may be null.
+     * @param options options, may be null, first element will be interpreted as an abbreviation pattern.
      * @return instance of LoggerFqcnPatternConverter.
      */
     public static LoggerFqcnPatternConverter newInstance(
         final String[] options) {
-        return INSTANCE;
+        if (options == null || options.length == 0) {
+            return INSTANCE;
+        }
+
+        return new LoggerFqcnPatternConverter(options);
     }
 
     /**
@@ -58,6 +64,6 @@ public final class LoggerFqcnPatternConverter extends LogEventPatternConverter {
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        toAppendTo.append(event.getLoggerFqcn());
+        abbreviate(event.getLoggerFqcn(), toAppendTo);
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.core.util.BoundedCache;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * Keeps the names abbreviated by a {@link NameAbbreviator} in a {@link BoundedCache} and counts how often they are
+ * found.
+ * <p>
+ * Logger and class names repeat, so pattern converters that abbreviate them look the abbreviated names up here
+ * instead of abbreviating them again for every event. The maximum number of names defaults to
+ * {@value #DEFAULT_MAX_SIZE} and can be set with the system property {@value #MAX_SIZE_PROPERTY}.
+ * </p>
+ *
+ * @since 3.0
+ */
+@PerformanceSensitive("allocation")
+public final class NameAbbreviationCache {
+
+    /**
+     * Name of the system property that sets the maximum number of names cached by each converter.
+     */
+    public static final String MAX_SIZE_PROPERTY = "log4j2.nameAbbreviation.cacheSize";
+
+    /**
+     * The default maximum number of names cached by each converter.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final NameAbbreviator abbreviator;
+    private final BoundedCache<String, String> names;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache with the maximum size set by the {@value #MAX_SIZE_PROPERTY} system property.
+     *
+     * @param abbreviator the abbreviator of uncached names
+     */
+    public NameAbbreviationCache(final NameAbbreviator abbreviator) {
+        this(abbreviator, PropertiesUtil.getProperties().getIntegerProperty(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param abbreviator the abbreviator of uncached names
+     * @param maxSize the maximum number of cached names
+     */
+    public NameAbbreviationCache(final NameAbbreviator abbreviator, final int maxSize) {
+        this.abbreviator = abbreviator;
+        this.names = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Appends the abbreviated name to the destination.
+     *
+     * @param original the name to abbreviate, nothing is appended if null
+     * @param destination the StringBuilder to write to
+     */
+    public void abbreviate(final String original, final StringBuilder destination) {
+        if (original == null) {
+            // e.g. the FQCN of an event that was not logged through a Logger, ConcurrentHashMap rejects null keys
+            return;
+        }
+        final String abbreviated = names.get(original);
+        if (abbreviated != null) {
+            hits.increment();
+            destination.append(abbreviated);
+            return;
+        }
+        misses.increment();
+        final int start = destination.length();
+        abbreviator.abbreviate(original, destination);
+        if (!names.isFull()) {
+            names.putIfAbsent(original, destination.substring(start));
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached names.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return names.getMaxSize();
+    }
+
+    /**
+     * Returns the number of cached names.
+     *
+     * @return the size
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Returns the number of names that were found in the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of names that were abbreviated.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of names that were found in the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 if no names were abbreviated yet
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Removes all cached names and resets the statistics.
+     */
+    public void clear() {
+        names.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "NameAbbreviationCache[size=" + names.size() + ", maxSize=" + names.getMaxSize() + ", hitRate="
+                + getHitRate() + ']';
+    }
+}
@@ -29,6 +29,11 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
      */
     private final NameAbbreviator abbreviator;
 
+    /**
+     * Abbreviated names, null if names are not abbreviated.
+     */
+    private final NameAbbreviationCache cache;
+
     /**
      * Constructor.
      *
@@ -44,6 +49,7 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
         } else {
             abbreviator = NameAbbreviator.getDefaultAbbreviator();
         }
+        cache = isAbbreviating() ? new NameAbbreviationCache(abbreviator) : null;
     }
 
     /**
@@ -54,6 +60,29 @@ public abstract class NamePatternConverter extends LogEventPatternConverter {
      * @return The abbreviated name.
      */
     protected final void abbreviate(final String original, final StringBuilder destination) {
-        abbreviator.abbreviate(original, destination);
+        if (cache != null) {
+            cache.abbreviate(original, destination);
+        } else {
+            abbreviator.abbreviate(original, destination);
+        }
+    }
+
+    /**
+     * Returns the cache of abbreviated names.
+     *
+     * @return the cache, or null if names are not abbreviated
+     * @since 3.0
+     */
+    public NameAbbreviationCache getAbbreviationCache() {
+        return cache;
+    }
+
+    /**
+     * Returns whether names are abbreviated or appended as they are.
+     *
+     * @return whether names are abbreviated
+     */
+    final boolean isAbbreviating() {
+        return abbreviator != NameAbbreviator.getDefaultAbbreviator();
     }
 }
@@ -16,27 +16,65 @@
  */
 package org.apache.logging.log4j.core.pattern;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.util.Constants;
 import org.apache.logging.log4j.plugins.Plugin;
 import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.util.PerformanceSensitive;
+import org.apache.logging.log4j.util.StringBuilders;
 
 /**
  * Replacement pattern converter.
+ * <p>
+ * When thread locals are enabled the text is formatted into a thread-local StringBuilder, matched with a thread-local
+ * Matcher and the replaced text is appended to the destination directly, without intermediate Strings.
+ * </p>
  */
 @Plugin(name = "replace", category = PatternConverter.CATEGORY)
 @ConverterKeys({ "replace" })
+@PerformanceSensitive("allocation")
 public final class RegexReplacementConverter extends LogEventPatternConverter {
 
+    private static final int MAX_BUFFER_SIZE = 2048;
+
     private final Pattern pattern;
 
     private final String substitution;
 
     private final List<PatternFormatter> formatters;
 
+    /**
+     * The substitution split into literal texts and group references, null if it is not valid.
+     */
+    private final Object[] replacement;
+
+    private final ThreadLocal<State> state;
+
+    private static final class State {
+        final StringBuilder text = new StringBuilder();
+        final Matcher matcher;
+
+        State(final Pattern pattern) {
+            matcher = pattern.matcher(text);
+        }
+    }
+
+    private static final class GroupReference {
+        final int number;
+        final String name;
+
+        GroupReference(final int number, final String name) {
+            this.number = number;
+            this.name = name;
+        }
+    }
+
     /**
      * Construct the converter.
      * @param formatters The PatternFormatters to generate the text to manipulate.
@@ -49,6 +87,66 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
         this.pattern = pattern;
         this.substitution = substitution;
         this.formatters = formatters;
+        this.replacement = parseReplacement(substitution, pattern.matcher("").groupCount());
+        this.state = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(() -> new State(pattern)) : null;
+    }
+
+    /**
+     * Splits a substitution into its parts following the syntax of {@link Matcher#appendReplacement}.
+     *
+     * @return the parts, or null if the substitution is not valid
+     */
+    private static Object[] parseReplacement(final String substitution, final int groupCount) {
+        final List<Object> parts = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < substitution.length()) {
+            final char c = substitution.charAt(i++);
+            if (c == '\\') {
+                if (i == substitution.length()) {
+                    return null;
+                }
+                literal.append(substitution.charAt(i++));
+            } else if (c == '$') {
+                if (i == substitution.length()) {
+                    return null;
+                }
+                if (literal.length() > 0) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                if (substitution.charAt(i) == '{') {
+                    final int end = substitution.indexOf('}', i);
+                    if (end < 0) {
+                        return null;
+                    }
+                    parts.add(new GroupReference(-1, substitution.substring(i + 1, end)));
+                    i = end + 1;
+                } else {
+                    int number = Character.digit(substitution.charAt(i), 10);
+                    if (number < 0 || number > groupCount) {
+                        return null;
+                    }
+                    i++;
+                    // like Matcher.appendReplacement, take digits while they form a valid group number
+                    while (i < substitution.length()) {
+                        final int digit = Character.digit(substitution.charAt(i), 10);
+                        if (digit < 0 || number * 10 + digit > groupCount) {
+                            break;
+                        }
+                        number = number * 10 + digit;
+                        i++;
+                    }
+                    parts.add(new GroupReference(number, null));
+                }
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+        }
+        return parts.toArray();
     }
 
     /**
@@ -88,10 +186,43 @@ public final class RegexReplacementConverter extends LogEventPatternConverter {
      */
     @Override
     public void format(final LogEvent event, final StringBuilder toAppendTo) {
-        final StringBuilder buf = new StringBuilder();
+        if (state == null || replacement == null) {
+            final StringBuilder buf = new StringBuilder();
+            for (final PatternFormatter formatter : formatters) {
+                formatter.format(event, buf);
+            }
+            toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
+            return;
+        }
+        final State current = state.get();
+        final StringBuilder buf = current.text;
+        StringBuilders.trimToMaxSize(buf, MAX_BUFFER_SIZE);
+        buf.setLength(0);
         for (final PatternFormatter formatter : formatters) {
             formatter.format(event, buf);
         }
-        toAppendTo.append(pattern.matcher(buf.toString()).replaceAll(substitution));
+        final Matcher matcher = current.matcher.reset(buf);
+        int last = 0;
+        while (matcher.find()) {
+            toAppendTo.append(buf, last, matcher.start());
+            appendReplacement(matcher, buf, toAppendTo);
+            last = matcher.end();
+        }
+        toAppendTo.append(buf, last, buf.length());
+    }
+
+    private void appendReplacement(final Matcher matcher, final StringBuilder text, final StringBuilder toAppendTo) {
+        for (final Object part : replacement) {
+            if (part instanceof String) {
+                toAppendTo.append((String) part);
+            } else {
+                final GroupReference group = (GroupReference) part;
+                final int start = group.name == null ? matcher.start(group.number) : matcher.start(group.name);
+                if (start >= 0) {
+                    final int end = group.name == null ? matcher.end(group.number) : matcher.end(group.name);
+                    toAppendTo.append(text, start, end);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent cache that keeps at most a given number of values and never evicts them.
+ * <p>
+ * This suits values that repeat from event to event, such as rendered logger and thread names: the first values seen
+ * are kept and, once the cache is full, further values are simply not cached. A maximum size of zero disables
+ * caching.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ * @since 3.0
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final ConcurrentMap<K, V> values;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of values, negative values are treated as zero
+     */
+    public BoundedCache(final int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        this.values = new ConcurrentHashMap<>(Math.min(this.maxSize, 64));
+    }
+
+    /**
+     * Returns the value cached for a key.
+     *
+     * @param key the key, may not be null
+     * @return the cached value or null
+     */
+    public V get(final K key) {
+        return values.get(key);
+    }
+
+    /**
+     * Returns whether the cache holds the maximum number of values.
+     *
+     * @return {@code true} if values are no longer cached
+     */
+    public boolean isFull() {
+        return values.size() >= maxSize;
+    }
+
+    /**
+     * Caches a value unless the key already has one or the cache is full.
+     *
+     * @param key the key, may not be null
+     * @param value the value, may not be null
+     */
+    public void putIfAbsent(final K key, final V value) {
+        if (!isFull()) {
+            // the size check is racy, the cache may exceed its maximum size by the number of concurrent callers
+            values.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    /**
+     * Returns the maximum number of values.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return the size
+     */
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCache[size=" + values.size() + ", maxSize=" + maxSize + ']';
+    }
+}
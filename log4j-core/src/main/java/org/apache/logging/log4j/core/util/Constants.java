@@ -135,6 +135,19 @@ public final class Constants {
      */
     public static final int ENCODER_BYTE_BUFFER_SIZE = size("log4j.encoder.byteBufferSize", 8 * 1024);
 
+    /**
+     * Whether file appenders encode events into direct ByteBuffers and write them with a
+     * {@link java.nio.channels.FileChannel}, which saves the copy to native memory the JDK makes when writing a
+     * byte array.
+     * <p>
+     * {@code False} by default. Enable by setting system property "log4j2.enable.direct.file.buffers" to "true".
+     * </p>
+     *
+     * @since 3.0
+     */
+    public static final boolean ENABLE_DIRECT_FILE_BUFFERS = PropertiesUtil.getProperties().getBooleanProperty(
+            "log4j2.enable.direct.file.buffers", false);
+
 
     private static int size(final String property, final int defaultValue) {
         return PropertiesUtil.getProperties().getIntegerProperty(property, defaultValue);
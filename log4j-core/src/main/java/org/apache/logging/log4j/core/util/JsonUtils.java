@@ -102,6 +102,49 @@ public final class JsonUtils {
         }
     }
 
+    /**
+     * Quote the text appended to a {@link StringBuilder} since an index using JSON standard quoting, in place.
+     * Text without characters to escape is left untouched, so text can be formatted into the builder first and quoted
+     * without copying it.
+     *
+     * @param builder the builder
+     * @param start the index of the first character to quote
+     */
+    public static void quoteInPlace(final StringBuilder builder, final int start) {
+        final int end = builder.length();
+        int extra = 0;
+        for (int i = start; i < end; i++) {
+            final char c = builder.charAt(i);
+            if (c < ESC_CODES.length && ESC_CODES[c] != 0) {
+                extra += ESC_CODES[c] < 0 ? 5 : 1;
+            }
+        }
+        if (extra == 0) {
+            return;
+        }
+        builder.setLength(end + extra);
+        // move the characters back to front, each to its place in the quoted text, until the characters before the
+        // first one to escape, which stay where they are
+        int out = end + extra;
+        for (int i = end - 1; out > i + 1; i--) {
+            final char c = builder.charAt(i);
+            final int escCode = c < ESC_CODES.length ? ESC_CODES[c] : 0;
+            if (escCode == 0) {
+                builder.setCharAt(--out, c);
+            } else if (escCode < 0) {
+                builder.setCharAt(--out, HC[c & 0xF]);
+                builder.setCharAt(--out, HC[c >> 4]);
+                builder.setCharAt(--out, '0');
+                builder.setCharAt(--out, '0');
+                builder.setCharAt(--out, 'u');
+                builder.setCharAt(--out, '\\');
+            } else {
+                builder.setCharAt(--out, (char) escCode);
+                builder.setCharAt(--out, '\\');
+            }
+        }
+    }
+
     private static int _appendNumeric(final int value, final char[] qbuf) {
         qbuf[1] = 'u';
         // We know it's a control char, so only the last 2 chars are non-0
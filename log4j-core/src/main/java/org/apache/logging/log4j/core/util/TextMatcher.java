@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.util.PerformanceSensitive;
+
+/**
+ * Matches whole character sequences, such as formatted messages in a reusable StringBuilder, without creating
+ * temporary objects.
+ * <p>
+ * Regular expressions are matched with a {@link Matcher} that is kept per thread and {@linkplain Matcher#reset(
+ * CharSequence) reset} for every text when {@link Constants#ENABLE_THREADLOCALS thread locals are enabled}. Literals
+ * and globs are matched without {@link Pattern}s at all: a glob is split into the literal segments between its
+ * {@code *} wildcards, which are matched left to right without backtracking.
+ * </p>
+ *
+ * @since 3.0
+ */
+@PerformanceSensitive("allocation")
+public abstract class TextMatcher {
+
+    /**
+     * The kinds of expressions matchers can be created for.
+     */
+    public enum Type {
+
+        /** A regular expression. */
+        REGEX,
+
+        /** A literal text. */
+        LITERAL,
+
+        /** A glob, where {@code *} matches any number of characters and {@code ?} matches any character. */
+        GLOB
+    }
+
+    private final String expression;
+
+    TextMatcher(final String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Creates a matcher.
+     *
+     * @param type the kind of expression
+     * @param expression the expression
+     * @param patternFlags the {@link Pattern} flags of a regular expression
+     * @return the matcher
+     */
+    public static TextMatcher create(final Type type, final String expression, final int patternFlags) {
+        Objects.requireNonNull(expression, "expression");
+        switch (type) {
+        case LITERAL:
+            return new GlobMatcher(expression, false);
+        case GLOB:
+            return new GlobMatcher(expression, true);
+        default:
+            return regex(Pattern.compile(expression, patternFlags));
+        }
+    }
+
+    /**
+     * Creates a matcher for a regular expression.
+     *
+     * @param pattern the regular expression
+     * @return the matcher
+     */
+    public static TextMatcher regex(final Pattern pattern) {
+        return new RegexMatcher(pattern);
+    }
+
+    /**
+     * Returns whether the whole text matches.
+     *
+     * @param text the text to match, may not be null
+     * @return whether the text matches
+     */
+    public abstract boolean matches(CharSequence text);
+
+    /**
+     * Returns the expression.
+     *
+     * @return the expression
+     */
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static final class RegexMatcher extends TextMatcher {
+
+        private final Pattern pattern;
+        private final ThreadLocal<Matcher> matchers;
+
+        RegexMatcher(final Pattern pattern) {
+            super(pattern.pattern());
+            this.pattern = pattern;
+            this.matchers = Constants.ENABLE_THREADLOCALS ? ThreadLocal.withInitial(() -> pattern.matcher("")) : null;
+        }
+
+        @Override
+        public boolean matches(final CharSequence text) {
+            if (matchers == null) {
+                return pattern.matcher(text).matches();
+            }
+            final Matcher matcher = matchers.get();
+            try {
+                return matcher.reset(text).matches();
+            } finally {
+                matcher.reset(""); // do not hold on to the text
+            }
+        }
+    }
+
+    private static final class GlobMatcher extends TextMatcher {
+
+        private static final char ANY = '?';
+        private static final char ANY_SEQUENCE = '*';
+
+        /**
+         * The texts between the ANY_SEQUENCE wildcards.
+         */
+        private final String[] segments;
+        private final boolean wildcards;
+
+        GlobMatcher(final String expression, final boolean glob) {
+            super(expression);
+            this.wildcards = glob;
+            if (!glob) {
+                segments = new String[] {expression};
+                return;
+            }
+            final List<String> list = new ArrayList<>();
+            int start = 0;
+            int star;
+            while ((star = expression.indexOf(ANY_SEQUENCE, start)) >= 0) {
+                list.add(expression.substring(start, star));
+                start = star + 1;
+            }
+            list.add(expression.substring(start));
+            segments = list.toArray(new String[0]);
+        }
+
+        @Override
+        public boolean matches(final CharSequence text) {
+            final int length = text.length();
+            final String first = segments[0];
+            if (segments.length == 1) {
+                return first.length() == length && regionMatches(text, 0, first);
+            }
+            final String last = segments[segments.length - 1];
+            if (first.length() + last.length() > length || !regionMatches(text, 0, first)
+                    || !regionMatches(text, length - last.length(), last)) {
+                return false;
+            }
+            // the leftmost match of each middle segment leaves the most room for the segments after it
+            int position = first.length();
+            final int end = length - last.length();
+            for (int i = 1; i < segments.length - 1; i++) {
+                final String segment = segments[i];
+                final int found = indexOf(text, segment, position, end);
+                if (found < 0) {
+                    return false;
+                }
+                position = found + segment.length();
+            }
+            return true;
+        }
+
+        private int indexOf(final CharSequence text, final String segment, final int from, final int end) {
+            for (int i = from; i + segment.length() <= end; i++) {
+                if (regionMatches(text, i, segment)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private boolean regionMatches(final CharSequence text, final int offset, final String segment) {
+            for (int i = 0; i < segment.length(); i++) {
+                final char c = segment.charAt(i);
+                if (c != text.charAt(offset + i) && !(wildcards && c == ANY)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
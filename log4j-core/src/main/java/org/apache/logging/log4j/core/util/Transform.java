@@ -180,4 +180,25 @@ public final class Transform {
         }
         return buf.toString();
     }
+
+    /**
+     * Replaces each newline, {@code \n} or {@code \r\n}, in a StringBuilder from a start position on, without
+     * creating temporary objects.
+     *
+     * @param buf The StringBuilder to change.
+     * @param start The position to start at.
+     * @param replacement The text to replace each newline with.
+     */
+    public static void replaceNewLines(final StringBuilder buf, final int start, final String replacement) {
+        for (int i = start; i < buf.length(); i++) {
+            final char ch = buf.charAt(i);
+            if (ch == '\n') {
+                buf.replace(i, i + 1, replacement);
+                i += replacement.length() - 1;
+            } else if (ch == '\r' && i + 1 < buf.length() && buf.charAt(i + 1) == '\n') {
+                buf.replace(i, i + 2, replacement);
+                i += replacement.length() - 1;
+            }
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import org.apache.logging.log4j.core.util.NullOutputStream;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests file managers that encode into direct buffers and write them with a channel.
+ */
+public class DirectFileBufferTest {
+
+    private static final int BUFFER_SIZE = 64;
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFileManagerWritesDirectBuffer() throws IOException {
+        final File file = folder.newFile();
+        final FileManager manager = new FileManager(null, file.getName(), new FileOutputStream(file), false, false,
+                false, null, null, null, null, null, false, ByteBuffer.allocateDirect(BUFFER_SIZE));
+        final byte[] expected = writeTestData(manager);
+        manager.close();
+        assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testRandomAccessFileManagerGatheringWrite() throws IOException {
+        final File file = folder.newFile();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final RandomAccessFileManager manager = new RandomAccessFileManager(null, raf, file.getName(),
+                    NullOutputStream.getInstance(), BUFFER_SIZE, null, null, false);
+            final ByteBuffer[] buffers = new ByteBuffer[ConcurrentWriter.MAX_GATHER];
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.allocateDirect(i + 1);
+                while (buffers[i].hasRemaining()) {
+                    buffers[i].put((byte) i);
+                    expected.write(i);
+                }
+                buffers[i].flip();
+            }
+            manager.writeToDestination(buffers, 0, buffers.length);
+            assertArrayEquals(expected.toByteArray(), Files.readAllBytes(file.toPath()));
+        }
+    }
+
+    @Test
+    public void testGatheringWriteOfMixedBuffers() throws IOException {
+        final File file = folder.newFile();
+        final FileManager manager = new FileManager(null, file.getName(), new FileOutputStream(file), false, false,
+                false, null, null, null, null, null, false, ByteBuffer.allocateDirect(BUFFER_SIZE));
+        final ByteBuffer direct = ByteBuffer.allocateDirect(3);
+        direct.put(new byte[] {1, 2, 3}).flip();
+        final ByteBuffer heap = ByteBuffer.wrap(new byte[] {0, 4, 5, 0}, 1, 2);
+        manager.writeToDestination(new ByteBuffer[] {direct, heap}, 0, 2);
+        assertEquals(0, direct.remaining());
+        assertEquals(0, heap.remaining());
+        manager.close();
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void testStreamManagerCopiesDirectBuffer() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false,
+                ByteBuffer.allocateDirect(BUFFER_SIZE));
+        final byte[] expected = writeTestData(manager);
+        manager.flush();
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    @Test
+    public void testStreamManagerCopiesLargeDirectBufferInParts() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final OutputStreamManager manager = new OutputStreamManager(out, "test", null, false,
+                ByteBuffer.allocateDirect(BUFFER_SIZE));
+        final byte[] expected = new byte[3 * manager.getCopyBuffer().length + 5];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        final ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+        direct.put(expected).flip();
+        manager.writeToDestination(new ByteBuffer[] {direct}, 0, 1);
+        assertEquals(0, direct.remaining());
+        assertArrayEquals(expected, out.toByteArray());
+    }
+
+    private static byte[] writeTestData(final OutputStreamManager manager) {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 1; i < 4 * BUFFER_SIZE; i += 7) {
+            final byte[] data = new byte[i];
+            for (int j = 0; j < data.length; j++) {
+                data[j] = (byte) (i + j);
+            }
+            manager.write(data);
+            expected.write(data, 0, data.length);
+        }
+        return expected.toByteArray();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.junit.CleanFiles;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests File and RandomAccessFile appenders that write from a dedicated writer thread.
+ */
+public class FileAppenderWriterThreadTest {
+
+    private static final String FILE_NAME = "target/fileAppenderWriterThreadTest.log";
+    private static final Path PATH = Paths.get(FILE_NAME);
+    private static final int THREADS = 4;
+    private static final int EVENTS_PER_THREAD = 5000;
+
+    @Rule
+    public CleanFiles files = new CleanFiles(PATH);
+
+    @Test
+    public void testFileAppenderConcurrentThreads() throws Exception {
+        final FileAppender appender = FileAppender.newBuilder()
+                .setFileName(FILE_NAME)
+                .setName("test")
+                .setLayout(createPatternLayout())
+                .setWriterThread(true)
+                .build();
+        assertTrue(appender.getManager().hasWriterThread());
+        logFromThreads(appender);
+        verifyFile();
+    }
+
+    @Test
+    public void testRandomAccessFileAppenderConcurrentThreads() throws Exception {
+        final RandomAccessFileAppender appender = RandomAccessFileAppender.newBuilder()
+                .setFileName(FILE_NAME)
+                .setName("test")
+                .setLayout(createPatternLayout())
+                .setWriterThread(true)
+                .build();
+        assertTrue(appender.getManager().hasWriterThread());
+        logFromThreads(appender);
+        verifyFile();
+    }
+
+    @Test
+    public void testFooterFollowsQueuedEvents() throws Exception {
+        final PatternLayout layout = PatternLayout.newBuilder()
+                .setPattern("%m%n")
+                .setHeader("header%n")
+                .setFooter("footer%n")
+                .build();
+        final FileAppender appender = FileAppender.newBuilder()
+                .setFileName(FILE_NAME)
+                .setName("test")
+                .setLayout(layout)
+                .setWriterThread(true)
+                .build();
+        appender.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                appender.append(createEvent("Thread", "Event " + i));
+            }
+        } finally {
+            appender.stop();
+        }
+        final List<String> lines = Files.readAllLines(PATH, StandardCharsets.UTF_8);
+        assertEquals(102, lines.size());
+        assertEquals("header", lines.get(0));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Event " + i, lines.get(i + 1));
+        }
+        assertEquals("footer", lines.get(101));
+    }
+
+    @Test
+    public void testBatchFollowsQueuedEvents() throws Exception {
+        final FileAppender appender = FileAppender.newBuilder()
+                .setFileName(FILE_NAME)
+                .setName("test")
+                .setLayout(PatternLayout.newBuilder().setPattern("%m%n").build())
+                .setWriterThread(true)
+                .build();
+        appender.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                appender.append(createEvent("Thread", "Event " + i));
+            }
+            final LogEvent[] batch = new LogEvent[50];
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = createEvent("Thread", "Event " + (50 + i));
+            }
+            appender.appendBatch(batch, batch.length);
+        } finally {
+            appender.stop();
+        }
+        final List<String> lines = Files.readAllLines(PATH, StandardCharsets.UTF_8);
+        assertEquals(100, lines.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Event " + i, lines.get(i));
+        }
+    }
+
+    @Test
+    public void testReusedManagerStopsWriterThread() throws Exception {
+        final FileAppender appender = FileAppender.newBuilder()
+                .setFileName(FILE_NAME)
+                .setName("test")
+                .setLayout(PatternLayout.newBuilder().setPattern("%m%n").build())
+                .setWriterThread(true)
+                .build();
+        appender.start();
+        FileAppender reconfigured = null;
+        try {
+            for (int i = 0; i < 50; i++) {
+                appender.append(createEvent("Thread", "Event " + i));
+            }
+            // a new configuration without the writer thread reuses the manager
+            reconfigured = FileAppender.newBuilder()
+                    .setFileName(FILE_NAME)
+                    .setName("test")
+                    .setLayout(PatternLayout.newBuilder().setPattern("%m%n").build())
+                    .build();
+            assertSame(appender.getManager(), reconfigured.getManager());
+            assertFalse(reconfigured.getManager().hasWriterThread());
+            assertFalse(isWriterThreadAlive());
+            reconfigured.start();
+            for (int i = 50; i < 100; i++) {
+                reconfigured.append(createEvent("Thread", "Event " + i));
+            }
+        } finally {
+            appender.stop();
+            if (reconfigured != null) {
+                reconfigured.stop();
+            }
+        }
+        final List<String> lines = Files.readAllLines(PATH, StandardCharsets.UTF_8);
+        assertEquals(100, lines.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Event " + i, lines.get(i));
+        }
+    }
+
+    private static boolean isWriterThreadAlive() {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().contains("OutputStreamWriter-" + FILE_NAME)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PatternLayout createPatternLayout() {
+        return PatternLayout.newBuilder().setPattern("%t %m%n").build();
+    }
+
+    private static LogEvent createEvent(final String threadName, final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(FileAppenderWriterThreadTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setThreadName(threadName)
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    private static void logFromThreads(final Appender appender) throws InterruptedException {
+        appender.start();
+        try {
+            final ExecutorService threadPool = Executors.newFixedThreadPool(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                final String threadName = "Thread" + i;
+                threadPool.execute(() -> {
+                    for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                        appender.append(createEvent(threadName, "Event " + j));
+                    }
+                });
+            }
+            threadPool.shutdown();
+            assertTrue("Logging threads did not finish", threadPool.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static void verifyFile() throws Exception {
+        final List<String> lines = Files.readAllLines(PATH, StandardCharsets.UTF_8);
+        assertEquals(THREADS * EVENTS_PER_THREAD, lines.size());
+        final Set<String> distinct = new HashSet<>(lines);
+        assertEquals("Duplicate lines", lines.size(), distinct.size());
+        for (int i = 0; i < THREADS; i++) {
+            for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                assertTrue("Missing or torn line", distinct.contains("Thread" + i + " Event " + j));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Tests that a rollover strategy with an index of the archived files rolls over and deletes like one without.
+ */
+public class RollingAppenderIndexArchivesTest {
+    private static final String CONFIG = "log4j-rolling-index-archives.xml";
+    private static final String DIR = "target/rolling-index-archives/test";
+
+    private final LoggerContextRule loggerContextRule = LoggerContextRule.createShutdownTimeoutLoggerContextRule(CONFIG);
+
+    @Rule
+    public RuleChain chain = loggerContextRule.withCleanFoldersRule(DIR);
+
+    @Test
+    public void testAppender() throws Exception {
+        final RollingFileAppender appender = loggerContextRule.getRequiredAppender("RollingFile",
+                RollingFileAppender.class);
+        assertTrue(((AbstractRolloverStrategy) appender.getManager().getRolloverStrategy()).isIndexArchives());
+
+        final Logger logger = loggerContextRule.getLogger();
+        for (int i = 0; i < 10; ++i) {
+            // 30 chars per message: each message triggers a rollover
+            logger.debug("This is a test message number " + i); // 30 chars:
+        }
+        Thread.sleep(100); // Allow time for rollover to complete
+
+        assertNotNull(RolloverFileIndex.lookup(new File(DIR).toPath()));
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        assertEquals(Arrays.toString(files), 3, files.length);
+        for (final File file : files) {
+            assertTrue("unexpected file " + file, file.getName().startsWith("test-"));
+        }
+    }
+}
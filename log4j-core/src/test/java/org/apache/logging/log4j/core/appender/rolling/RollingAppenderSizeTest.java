@@ -75,6 +75,7 @@ public class RollingAppenderSizeTest {
                 // @formatter:off
                {"log4j-rolling-gz-lazy.xml", ".gz", true},
                {"log4j-rolling-gz.xml", ".gz", false},
+               {"log4j-rolling-gz-parallel.xml", ".gz", false},
                {"log4j-rolling-numbered-gz.xml", ".gz", false},
                {"log4j-rolling-zip-lazy.xml", ".zip", true},
                {"log4j-rolling-zip.xml", ".zip", false},
@@ -87,6 +88,7 @@ public class RollingAppenderSizeTest {
                {"log4j-rolling-pack200.xml", ".pack200", false},
                {"log4j-rolling-xz-lazy.xml", ".xz", true},
                {"log4j-rolling-xz.xml", ".xz", false},
+               {"log4j-rolling-lz4.xml", ".lz4", false},
                 });
                 // @formatter:on
     }
@@ -143,12 +145,14 @@ public class RollingAppenderSizeTest {
         if (!loggerContextRule.getLoggerContext().stop(30, TimeUnit.SECONDS)) {
             System.err.println("Could not stop cleanly " + loggerContextRule + " for " + this);
         }
+        final String compressorName = FileExtension.LZ4 == ext ? CompressorStreamFactory.LZ4_FRAMED
+                : ext.name().toLowerCase();
         for (final File file : files) {
             if (file.getName().endsWith(fileExtension)) {
                 CompressorInputStream in = null;
                 try (FileInputStream fis = new FileInputStream(file)) {
                     try {
-                        in = new CompressorStreamFactory().createCompressorInputStream(ext.name().toLowerCase(), fis);
+                        in = new CompressorStreamFactory().createCompressorInputStream(compressorName, fis);
                     } catch (final CompressorException ce) {
                         ce.printStackTrace();
                         fail("Error creating input stream from " + file.toString() + ": " + ce.getMessage());
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.appender.RollingRandomAccessFileAppender;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests that rolling appenders compress events as they are written and that rollovers do not compress again.
+ */
+public class RollingAppenderStreamingCompressionTest {
+
+    private static final String DIR = "target/rolling-streaming";
+    private static final String MESSAGE_SUFFIX = " with some padding to make the files roll over";
+    private static final int EVENTS = 500;
+
+    @Rule
+    public CleanFolders folders = new CleanFolders(DIR);
+
+    @Test
+    public void testRollingFileGzip() throws Exception {
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(DIR + "/test.log.gz")
+                .setFilePattern(DIR + "/test-%i.log.gz")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStrategy(DefaultRolloverStrategy.newBuilder().setMax("100")
+                        .setConfig(new DefaultConfiguration()).build())
+                .setLayout(createLayout(true))
+                .setStreamingCompression(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNotNull(appender);
+        assertTrue(appender.getManager().isStreamingCompression());
+        logEvents(appender, new File(DIR, "test.log.gz"));
+        verifyFiles("gz", true);
+    }
+
+    @Test
+    public void testRollingRandomAccessFileGzip() throws Exception {
+        final RollingRandomAccessFileAppender appender = RollingRandomAccessFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(DIR + "/test.log.gz")
+                .setFilePattern(DIR + "/test-%i.log.gz")
+                .setBufferSize(256)
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStrategy(DefaultRolloverStrategy.newBuilder().setMax("100")
+                        .setConfig(new DefaultConfiguration()).build())
+                .setLayout(createLayout(true))
+                .setStreamingCompression(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNotNull(appender);
+        logEvents(appender, new File(DIR, "test.log.gz"));
+        verifyFiles("gz", true);
+    }
+
+    @Test
+    public void testDirectWriteGzip() throws Exception {
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("test")
+                .setFilePattern(DIR + "/test-%i.log.gz")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStrategy(DirectWriteRolloverStrategy.newBuilder().setMaxFiles("100")
+                        .setConfig(new DefaultConfiguration()).build())
+                .setLayout(createLayout(false))
+                .setStreamingCompression(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNotNull(appender);
+        logEvents(appender, null);
+        verifyFiles("gz", false);
+    }
+
+    @Test
+    public void testRollingRandomAccessFileXz() throws Exception {
+        final RollingRandomAccessFileAppender appender = RollingRandomAccessFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(DIR + "/test.log.xz")
+                .setFilePattern(DIR + "/test-%i.log.xz")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStrategy(DefaultRolloverStrategy.newBuilder().setMax("100")
+                        .setConfig(new DefaultConfiguration()).build())
+                .setLayout(createLayout(true))
+                .setStreamingCompression(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNotNull(appender);
+        logEvents(appender, null);
+        verifyFiles(CompressorStreamFactory.XZ, true);
+    }
+
+    @Test
+    public void testUnsupportedExtension() {
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(DIR + "/test.log")
+                .setFilePattern(DIR + "/test-%i.log.zip")
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStreamingCompression(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNull(appender);
+    }
+
+    private static PatternLayout createLayout(final boolean headerAndFooter) {
+        return PatternLayout.newBuilder()
+                .setPattern("%m%n")
+                .setHeader(headerAndFooter ? "header%n" : null)
+                .setFooter(headerAndFooter ? "footer%n" : null)
+                .build();
+    }
+
+    /**
+     * Logs the events, checking that the active gzip file can be read up to the last flush while it is written.
+     */
+    private static void logEvents(final Appender appender, final File activeFile) throws IOException {
+        appender.start();
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                appender.append(createEvent("Event " + i + MESSAGE_SUFFIX));
+            }
+            if (activeFile != null) {
+                final String content = new String(readGzip(activeFile), StandardCharsets.UTF_8);
+                assertTrue("Active file does not end with the last event: " + content,
+                        content.endsWith("Event " + (EVENTS - 1) + MESSAGE_SUFFIX + "\n"));
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(RollingAppenderStreamingCompressionTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * Reads a gzip file up to the end of its last complete block, which is the end of the file once it is finished.
+     */
+    private static byte[] readGzip(final File file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final InputStream in = new GZIPInputStream(new FileInputStream(file))) {
+            final byte[] buf = new byte[1];
+            while (in.read(buf) > 0) {
+                out.write(buf[0]);
+            }
+        } catch (final EOFException e) {
+            // the stream is not finished yet
+        }
+        return out.toByteArray();
+    }
+
+    private static void verifyFiles(final String compressor, final boolean headerAndFooter) throws Exception {
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        assertTrue("Expected rollover, found " + Arrays.toString(files), files.length > 5);
+        final Set<String> events = new HashSet<>();
+        for (final File file : files) {
+            assertTrue("Uncompressed file " + file, file.getName().endsWith(".log." + compressor));
+            final List<String> lines;
+            try (final InputStream in = new CompressorStreamFactory(true)
+                    .createCompressorInputStream(compressor, new FileInputStream(file))) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buf = new byte[4096];
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    out.write(buf, 0, n);
+                }
+                lines = Arrays.asList(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n"));
+            }
+            int first = 0;
+            int last = lines.size();
+            if (headerAndFooter) {
+                assertEquals("header", lines.get(0));
+                assertEquals("footer", lines.get(lines.size() - 1));
+                first++;
+                last--;
+            }
+            for (final String line : lines.subList(first, last)) {
+                assertTrue("Torn line " + line, line.endsWith(MESSAGE_SUFFIX));
+                assertTrue("Duplicate line " + line, events.add(line));
+            }
+        }
+        assertEquals(EVENTS, events.size());
+    }
+}
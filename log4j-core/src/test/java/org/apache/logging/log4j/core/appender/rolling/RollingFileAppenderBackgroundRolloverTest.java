@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests that rollovers completed in the background neither lose nor duplicate events.
+ */
+public class RollingFileAppenderBackgroundRolloverTest {
+
+    private static final String DIR = "target/rolling-background";
+    private static final String SUFFIX = " with some padding so that the files roll over often";
+    private static final int EVENTS = 1000;
+
+    @Rule
+    public CleanFolders folders = new CleanFolders(DIR);
+
+    @Test
+    public void testDefaultStrategy() throws Exception {
+        final RollingFileAppender appender = createAppender(DIR + "/test.log", DIR + "/test-%i.log",
+                DefaultRolloverStrategy.newBuilder().setMax("1000").setConfig(new DefaultConfiguration()).build(),
+                true);
+        logEvents(appender);
+        verifyFiles(true);
+    }
+
+    @Test
+    public void testDefaultStrategyWithCompression() throws Exception {
+        final RollingFileAppender appender = createAppender(DIR + "/test.log", DIR + "/test-%i.log.gz",
+                DefaultRolloverStrategy.newBuilder().setMax("1000").setConfig(new DefaultConfiguration()).build(),
+                true);
+        logEvents(appender);
+        verifyFiles(true);
+    }
+
+    @Test
+    public void testDirectWriteStrategy() throws Exception {
+        final RollingFileAppender appender = createAppender(null, DIR + "/test-%i.log",
+                DirectWriteRolloverStrategy.newBuilder().setMaxFiles("1000").setConfig(new DefaultConfiguration())
+                        .build(), false);
+        logEvents(appender);
+        verifyFiles(false);
+    }
+
+    private static RollingFileAppender createAppender(final String fileName, final String filePattern,
+            final RolloverStrategy strategy, final boolean headerAndFooter) {
+        final PatternLayout layout = headerAndFooter
+                ? PatternLayout.newBuilder().setPattern("%m%n").setHeader("header%n").setFooter("footer%n").build()
+                : PatternLayout.newBuilder().setPattern("%m%n").build();
+        final RollingFileAppender appender = RollingFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(fileName)
+                .setFilePattern(filePattern)
+                .setAppend(false)
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("4KB"))
+                .setStrategy(strategy)
+                .setLayout(layout)
+                .setBackgroundRollover(true)
+                .setConfiguration(new DefaultConfiguration())
+                .build();
+        assertNotNull(appender);
+        assertTrue(appender.getManager().isBackgroundRollover());
+        return appender;
+    }
+
+    private static void logEvents(final RollingFileAppender appender) {
+        appender.start();
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                appender.append(createEvent("Event " + i + SUFFIX));
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(RollingFileAppenderBackgroundRolloverTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    private static void verifyFiles(final boolean headerAndFooter) throws Exception {
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        // triggering events are not checked while a rollover is completed, so the number of files varies
+        assertTrue("Expected rollover, found " + files.length + " files", files.length > 1);
+        final Set<String> events = new HashSet<>();
+        for (final File file : files) {
+            assertFalse("Staged file left behind: " + file, file.getName().endsWith(".next"));
+            List<String> lines = readLines(file);
+            if (headerAndFooter) {
+                assertEquals(file + " header", "header", lines.get(0));
+                assertEquals(file + " footer", "footer", lines.get(lines.size() - 1));
+                lines = lines.subList(1, lines.size() - 1);
+            }
+            for (final String line : lines) {
+                assertTrue("Torn line " + line, line.endsWith(SUFFIX));
+                assertTrue("Duplicate line " + line, events.add(line));
+            }
+        }
+        assertEquals(EVENTS, events.size());
+    }
+
+    private static List<String> readLines(final File file) throws Exception {
+        final List<String> lines = new ArrayList<>();
+        try (final InputStream in = file.getName().endsWith(".gz")
+                ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file);
+                final Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+            while (scanner.hasNextLine()) {
+                lines.add(scanner.nextLine());
+            }
+        }
+        return lines;
+    }
+}
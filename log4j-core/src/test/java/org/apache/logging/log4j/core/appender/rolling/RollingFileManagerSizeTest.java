@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests that {@link RollingFileManager} counts every written byte once, whichever way the buffers reach the file.
+ */
+public class RollingFileManagerSizeTest {
+
+    private static final String DIR = "target/rollingFileManagerSize";
+    private static final byte[] DATA = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    @Rule
+    public CleanFolders rule = new CleanFolders(DIR);
+
+    private static RollingFileManager createManager(final String fileName, final String pattern,
+            final boolean streamingCompression) {
+        final Configuration configuration = new DefaultConfiguration();
+        final RollingFileManager manager = RollingFileManager.getFileManager(fileName, pattern, false, false,
+                SizeBasedTriggeringPolicy.createPolicy("1 MB"),
+                DefaultRolloverStrategy.newBuilder().setConfig(configuration).build(), null,
+                PatternLayout.newBuilder().setPattern("%m").setConfiguration(configuration).build(), 8192, false,
+                false, null, null, null, configuration, streamingCompression);
+        assertNotNull(manager);
+        manager.initialize();
+        return manager;
+    }
+
+    /**
+     * Drains a direct buffer, which the manager writes with writeToDestination(ByteBuffer[], int, int).
+     */
+    private static void drainDirectBuffer(final RollingFileManager manager) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(DATA.length);
+        buffer.put(DATA);
+        manager.drain(buffer);
+    }
+
+    @Test
+    public void testGatheringWrite() {
+        try (final RollingFileManager manager = createManager(DIR + "/test.log", DIR + "/test-%i.log", false)) {
+            drainDirectBuffer(manager);
+            drainDirectBuffer(manager);
+            assertEquals(2 * DATA.length, manager.getFileSize());
+        }
+    }
+
+    @Test
+    public void testCompressingStream() {
+        // the buffers are copied to the compressing stream with writeToDestination(byte[], int, int)
+        try (final RollingFileManager manager = createManager(DIR + "/test.log.gz", DIR + "/test-%i.log.gz", true)) {
+            drainDirectBuffer(manager);
+            drainDirectBuffer(manager);
+            assertEquals(2 * DATA.length, manager.getFileSize());
+            manager.writeToDestination(DATA, 0, DATA.length);
+            assertEquals(3 * DATA.length, manager.getFileSize());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.RollingMemoryMappedFileAppender;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests that the RollingMemoryMappedFileAppender remaps and rolls over without losing or corrupting events.
+ */
+public class RollingMemoryMappedFileAppenderTest {
+
+    private static final String DIR = "target/rolling-mmap";
+    private static final int EVENTS = 500;
+
+    @Rule
+    public CleanFolders folders = new CleanFolders(DIR);
+
+    @Test
+    public void testRemapAndRollover() throws Exception {
+        final RollingMemoryMappedFileAppender appender = createAppender(DIR + "/test.log", DIR + "/test-%i.log",
+                DefaultRolloverStrategy.newBuilder().setMax("100").setConfig(new DefaultConfiguration()).build());
+        assertEquals(256, appender.getRegionLength());
+        assertFalse(appender.getImmediateFlush());
+        logEvents(appender);
+        verifyFiles();
+    }
+
+    @Test
+    public void testDirectWriteRollover() throws Exception {
+        final RollingMemoryMappedFileAppender appender = createAppender(null, DIR + "/test-%i.log",
+                DirectWriteRolloverStrategy.newBuilder().setMaxFiles("100").setConfig(new DefaultConfiguration())
+                        .build());
+        logEvents(appender);
+        verifyFiles();
+    }
+
+    @Test
+    public void testImmediateFlush() throws Exception {
+        final RollingMemoryMappedFileAppender appender = createAppender(DIR + "/test.log", DIR + "/test-%i.log",
+                DefaultRolloverStrategy.newBuilder().setMax("100").setConfig(new DefaultConfiguration()).build(),
+                true);
+        assertTrue(appender.getImmediateFlush());
+        assertTrue(appender.getManager().isImmediateFlush());
+        logEvents(appender);
+        verifyFiles();
+    }
+
+    private static RollingMemoryMappedFileAppender createAppender(final String fileName, final String filePattern,
+            final RolloverStrategy strategy) {
+        return createAppender(fileName, filePattern, strategy, false);
+    }
+
+    private static RollingMemoryMappedFileAppender createAppender(final String fileName, final String filePattern,
+            final RolloverStrategy strategy, final boolean immediateFlush) {
+        final PatternLayout layout = PatternLayout.newBuilder()
+                .setPattern("%m%n")
+                .setHeader("header%n")
+                .setFooter("footer%n")
+                .build();
+        final RollingMemoryMappedFileAppender appender = RollingMemoryMappedFileAppender.newBuilder()
+                .setName("test")
+                .setFileName(fileName)
+                .setFilePattern(filePattern)
+                .setAppend(false)
+                .setRegionLength(256)
+                .setPolicy(SizeBasedTriggeringPolicy.createPolicy("2KB"))
+                .setStrategy(strategy)
+                .setLayout(layout)
+                .setConfiguration(new DefaultConfiguration())
+                .setImmediateFlush(immediateFlush)
+                .build();
+        assertNotNull(appender);
+        return appender;
+    }
+
+    private static void logEvents(final RollingMemoryMappedFileAppender appender) {
+        appender.start();
+        try {
+            for (int i = 0; i < EVENTS; i++) {
+                appender.append(createEvent("Event " + i + " with some padding to cross region boundaries"));
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("TestLogger")
+                .setLoggerFqcn(RollingMemoryMappedFileAppenderTest.class.getName())
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .setTimeMillis(System.currentTimeMillis())
+                .build();
+    }
+
+    private static void verifyFiles() throws Exception {
+        final File[] files = new File(DIR).listFiles();
+        assertNotNull(files);
+        assertTrue("Expected rollover, found " + files.length + " files", files.length > 5);
+        final Set<String> events = new HashSet<>();
+        for (final File file : files) {
+            final String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertFalse("Unwritten mapped bytes left in " + file, content.indexOf('\0') >= 0);
+            final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            assertEquals("header", lines.get(0));
+            assertEquals("footer", lines.get(lines.size() - 1));
+            for (final String line : lines.subList(1, lines.size() - 1)) {
+                assertTrue("Torn line " + line, line.endsWith(" with some padding to cross region boundaries"));
+                assertTrue("Duplicate line " + line, events.add(line));
+            }
+        }
+        assertEquals(EVENTS, events.size());
+    }
+}
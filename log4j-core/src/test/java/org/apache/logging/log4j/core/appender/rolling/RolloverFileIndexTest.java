@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.appender.rolling.action.PathWithAttributes;
+import org.apache.logging.log4j.core.config.ConfigurationScheduler;
+import org.apache.logging.log4j.core.util.WatchManager;
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests the incremental updates of {@link RolloverFileIndex}.
+ */
+public class RolloverFileIndexTest {
+
+    private static final String DIR = "target/rollover-file-index";
+    private static final Pattern PATTERN = Pattern.compile("app-(\\d+).log.*");
+
+    @Rule
+    public CleanFolders folders = new CleanFolders(DIR);
+
+    private final Path dir = new File(DIR).toPath();
+
+    @Test
+    public void testScanAndUpdates() throws Exception {
+        Files.createDirectories(dir);
+        for (int i = 1; i <= 3; i++) {
+            Files.write(dir.resolve("app-" + i + ".log.gz"), new byte[i]);
+        }
+        Files.write(dir.resolve("other.txt"), new byte[1]);
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, null);
+        assertSame(index, RolloverFileIndex.lookup(dir));
+
+        SortedMap<Integer, Path> eligible = index.getEligibleFiles(PATTERN);
+        assertEquals(3, eligible.size());
+        assertEquals(4, index.getFiles().size());
+
+        Files.delete(dir.resolve("app-1.log.gz"));
+        index.fileDeleted(dir.resolve("app-1.log.gz"));
+        Files.move(dir.resolve("app-3.log.gz"), dir.resolve("app-4.log.gz"));
+        index.fileRenamed(dir.resolve("app-3.log.gz"), dir.resolve("app-4.log.gz"));
+        eligible = index.getEligibleFiles(PATTERN);
+        assertEquals(2, eligible.size());
+        assertEquals("app-2.log.gz", eligible.get(2).getFileName().toString());
+        assertEquals("app-4.log.gz", eligible.get(4).getFileName().toString());
+        assertEquals(3, getSize(index, "app-4.log.gz"));
+    }
+
+    @Test
+    public void testReconcileWithExternalChanges() throws Exception {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("app-1.log"), new byte[1]);
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, null);
+        assertEquals(1, index.getEligibleFiles(PATTERN).size());
+
+        // not watched, so the names are listed again
+        Files.write(dir.resolve("app-2.log"), new byte[2]);
+        Files.delete(dir.resolve("app-1.log"));
+        final SortedMap<Integer, Path> eligible = index.getEligibleFiles(PATTERN);
+        assertEquals(1, eligible.size());
+        assertEquals("app-2.log", eligible.get(2).getFileName().toString());
+    }
+
+    @Test
+    public void testCompressedArchiveReplacesSource() throws Exception {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("app-1.log"), new byte[10]);
+        Files.write(dir.resolve("app-1.log.gz"), new byte[1]);
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, null);
+        index.getEligibleFiles(PATTERN);
+        Files.delete(dir.resolve("app-1.log"));
+        index.fileDeleted(dir.resolve("app-1.log"));
+        final SortedMap<Integer, Path> eligible = index.getEligibleFiles(PATTERN);
+        assertEquals("app-1.log.gz", eligible.get(1).getFileName().toString());
+    }
+
+    @Test
+    public void testActiveFileAttributesAreRead() throws Exception {
+        Files.createDirectories(dir);
+        final Path active = dir.resolve("app.log");
+        Files.write(active, new byte[1]);
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, null);
+        index.fileActive(active);
+        assertEquals(1, getSize(index, "app.log"));
+        Files.write(active, new byte[5]);
+        assertEquals(5, getSize(index, "app.log"));
+    }
+
+    @Test
+    public void testWatchedIndexReconcilesAfterChange() throws Exception {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("app-1.log"), new byte[1]);
+        final ConfigurationScheduler scheduler = new ConfigurationScheduler();
+        scheduler.incrementScheduledItems();
+        final WatchManager watchManager = new WatchManager(scheduler);
+        watchManager.setIntervalSeconds(600);
+        scheduler.start();
+        watchManager.start();
+        try {
+            final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, watchManager);
+            index.markModified();
+            assertEquals(1, index.getEligibleFiles(PATTERN).size());
+            Thread.sleep(20);
+
+            // the directory is not listed until the watch manager reports a change
+            Files.write(dir.resolve("app-2.log"), new byte[1]);
+            assertEquals(1, index.getEligibleFiles(PATTERN).size());
+            watchManager.checkFiles();
+            assertEquals(2, index.getEligibleFiles(PATTERN).size());
+
+            // changes reported by rollovers are visible right away
+            Files.delete(dir.resolve("app-1.log"));
+            index.fileDeleted(dir.resolve("app-1.log"));
+            assertEquals(1, index.getEligibleFiles(PATTERN).size());
+        } finally {
+            watchManager.stop();
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    public void testReleaseStopsWatching() throws Exception {
+        final Path released = dir.resolve("released");
+        Files.createDirectories(released);
+        final WatchManager watchManager = new WatchManager(new ConfigurationScheduler());
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(released, watchManager);
+        assertSame(index, RolloverFileIndex.getIndex(released, watchManager));
+        assertEquals(1, watchManager.getWatchers().size());
+        index.release();
+        // still used by the other strategy
+        assertEquals(1, watchManager.getWatchers().size());
+        index.release();
+        assertTrue(watchManager.getWatchers().isEmpty());
+        assertSame(index, RolloverFileIndex.getIndex(released, watchManager));
+        assertEquals(1, watchManager.getWatchers().size());
+        index.release();
+    }
+
+    @Test
+    public void testLookupWithoutIndex() {
+        assertNull(RolloverFileIndex.lookup(new File("target/no-rollover-file-index").toPath()));
+    }
+
+    private static long getSize(final RolloverFileIndex index, final String name) {
+        final List<String> names = new ArrayList<>();
+        for (final PathWithAttributes file : index.getFiles()) {
+            names.add(file.getPath().getFileName().toString());
+            if (file.getPath().getFileName().toString().equals(name)) {
+                return file.getAttributes().size();
+            }
+        }
+        throw new AssertionError(name + " not in " + names);
+    }
+
+    @Test
+    public void testEligibleFilesAreCopies() throws Exception {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("app-1.log"), new byte[1]);
+        final RolloverFileIndex index = RolloverFileIndex.getIndex(dir, null);
+        index.getEligibleFiles(PATTERN).clear();
+        assertTrue(index.getEligibleFiles(PATTERN).containsKey(1));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.action;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.logging.log4j.junit.CleanFolders;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests ParallelGzCompressAction.
+ */
+public class ParallelGzCompressActionTest {
+
+    private static final String DIR = "target/parallel-gz";
+
+    @Rule
+    public CleanFolders folders = new CleanFolders(DIR);
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorDisallowsNullPool() {
+        new ParallelGzCompressAction(new File("any"), new File("any.gz"), true, Deflater.DEFAULT_COMPRESSION, null);
+    }
+
+    @Test
+    public void testExecuteReturnsFalseIfSourceDoesNotExist() throws IOException {
+        final CompressionPool pool = new CompressionPool(2, 0);
+        final ParallelGzCompressAction action = new ParallelGzCompressAction(new File(DIR, "missing"),
+                new File(DIR, "missing.gz"), true, Deflater.DEFAULT_COMPRESSION, pool);
+        assertFalse("Cannot compress non-existing file", action.execute());
+    }
+
+    @Test
+    public void testCompressesMultipleBlocks() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 1024 * 1024; i++) {
+            sb.append("Line ").append(i).append(" of a file that spans many compression blocks ")
+                    .append(Integer.toHexString(i * 31)).append('\n');
+        }
+        final byte[] content = sb.toString().getBytes(StandardCharsets.UTF_8);
+        final CompressionPool pool = new CompressionPool(3, 0);
+        assertEquals("Block size should be raised to the minimum", 64 * 1024, pool.getBlockSize());
+
+        final byte[] actual = compressAndExpand(content, pool);
+        assertArrayEquals("Content corrupt after compression", content, actual);
+        assertEquals(1, pool.getCompressedFiles());
+        assertEquals(content.length, pool.getBytesRead());
+        assertEquals(new File(DIR, "source.gz").length(), pool.getBytesWritten());
+        assertTrue("Content should have been compressed", pool.getBytesWritten() < content.length / 4);
+        assertEquals(0, pool.getPendingFiles());
+    }
+
+    @Test
+    public void testCompressesEmptyFile() throws IOException {
+        final CompressionPool pool = new CompressionPool(2, 0);
+        assertArrayEquals(new byte[0], compressAndExpand(new byte[0], pool));
+    }
+
+    @Test
+    public void testCompressesBlockSizedFile() throws IOException {
+        final byte[] content = new byte[2 * 64 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        final CompressionPool pool = new CompressionPool(2, 0);
+        assertArrayEquals(content, compressAndExpand(content, pool));
+    }
+
+    @Test
+    public void testSharedPoolLivesWhileAcquired() {
+        assertNull("Pool should not exist before it is acquired", CompressionPool.getInstance());
+        final CompressionPool first = CompressionPool.acquire();
+        final CompressionPool second = CompressionPool.acquire();
+        assertSame(first, second);
+        assertSame(first, CompressionPool.getInstance());
+
+        first.release();
+        assertSame(second, CompressionPool.getInstance());
+        assertFalse("Pool is still acquired", second.isShutdown());
+
+        second.release();
+        assertNull("Pool should be discarded by the last release", CompressionPool.getInstance());
+        assertTrue("Pool should be shut down by the last release", second.isShutdown());
+    }
+
+    @Test
+    public void testCompressesOnCallingThreadAfterShutdown() throws IOException {
+        final byte[] content = new byte[4 * 64 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        final CompressionPool pool = new CompressionPool(1, 0);
+        pool.shutdown();
+        assertArrayEquals(content, compressAndExpand(content, pool));
+        assertEquals(1, pool.getCompressedFiles());
+    }
+
+    private static byte[] compressAndExpand(final byte[] content, final CompressionPool pool) throws IOException {
+        new File(DIR).mkdirs();
+        final File source = new File(DIR, "source");
+        final File destination = new File(DIR, "source.gz");
+        Files.write(source.toPath(), content);
+
+        final ParallelGzCompressAction action = new ParallelGzCompressAction(source, destination, true,
+                Deflater.BEST_SPEED, pool);
+        assertTrue("ParallelGzCompressAction should have succeeded", action.execute());
+        assertFalse("Source should have been deleted", source.exists());
+
+        try (final InputStream in = new GZIPInputStream(new FileInputStream(destination))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
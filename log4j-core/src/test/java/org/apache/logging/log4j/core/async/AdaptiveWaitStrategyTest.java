@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SequenceBarrier;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+@Category(AsyncLoggers.class)
+public class AdaptiveWaitStrategyTest {
+
+    private static final EventFactory<Object> FACTORY = new EventFactory<Object>() {
+        @Override
+        public Object newInstance() {
+            return new Object();
+        }
+    };
+
+    private AdaptiveWaitStrategy waitStrategy;
+    private RingBuffer<Object> ringBuffer;
+    private SequenceBarrier barrier;
+
+    @Before
+    public void setUp() {
+        // parked consumers only wake up early if they are signalled
+        waitStrategy = new AdaptiveWaitStrategy(1_000L, 10_000L, TimeUnit.MINUTES.toNanos(1));
+        ringBuffer = RingBuffer.createMultiProducer(FACTORY, 8, waitStrategy);
+        barrier = ringBuffer.newBarrier();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testYieldThresholdMustNotBeSmallerThanSpinThreshold() {
+        new AdaptiveWaitStrategy(100L, 10L, 1000L);
+    }
+
+    @Test
+    public void testReturnsAvailableSequenceWithoutWaiting() throws Exception {
+        ringBuffer.publish(ringBuffer.next());
+        assertEquals(0L, barrier.waitFor(0L));
+        assertEquals(AdaptiveWaitStrategy.Phase.PROCESSING, waitStrategy.getPhase());
+    }
+
+    @Test(timeout = 10000)
+    public void testParkedConsumerIsWokenUpByPublisher() throws Exception {
+        final AtomicReference<Object> result = new AtomicReference<>();
+        final Thread consumer = startConsumer(result);
+        awaitPhase(AdaptiveWaitStrategy.Phase.PARKED);
+
+        ringBuffer.publish(ringBuffer.next());
+        consumer.join(5000);
+        assertFalse("consumer still waiting", consumer.isAlive());
+        assertEquals(0L, result.get());
+        assertEquals(AdaptiveWaitStrategy.Phase.PROCESSING, waitStrategy.getPhase());
+    }
+
+    @Test(timeout = 10000)
+    public void testParkedConsumerIsWokenUpByAlert() throws Exception {
+        final AtomicReference<Object> result = new AtomicReference<>();
+        final Thread consumer = startConsumer(result);
+        awaitPhase(AdaptiveWaitStrategy.Phase.PARKED);
+
+        barrier.alert();
+        consumer.join(5000);
+        assertFalse("consumer still waiting", consumer.isAlive());
+        assertTrue(result.get() instanceof AlertException);
+    }
+
+    private Thread startConsumer(final AtomicReference<Object> result) {
+        final Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.set(barrier.waitFor(0L));
+                } catch (final Exception ex) {
+                    result.set(ex);
+                }
+            }
+        });
+        consumer.start();
+        return consumer;
+    }
+
+    private void awaitPhase(final AdaptiveWaitStrategy.Phase phase) throws InterruptedException {
+        while (waitStrategy.getPhase() != phase) {
+            Thread.sleep(1);
+        }
+    }
+}
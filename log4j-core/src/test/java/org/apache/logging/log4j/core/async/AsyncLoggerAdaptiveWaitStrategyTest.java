@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.util.Strings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that Async Loggers can use the {@link AdaptiveWaitStrategy} and report its phase through JMX.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerAdaptiveWaitStrategyTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLogger.WaitStrategy", "Adaptive");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLogger.WaitStrategy");
+        System.setProperty(Constants.LOG4J_CONTEXT_SELECTOR, Strings.EMPTY);
+    }
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule(
+            "log4j2-queueFull.xml", AsyncLoggerContextSelector.class);
+
+    @Test(timeout = 10000)
+    public void testEventsAreDeliveredAndPhaseIsReported() throws Exception {
+        final BlockingAppender blockingAppender = context.getRequiredAppender("Blocking", BlockingAppender.class);
+        final Logger logger = context.getLogger(getClass());
+        final RingBufferAdmin admin = ((AsyncLoggerContext) context.getLoggerContext()).createRingBufferAdmin();
+        assertEquals("AdaptiveWaitStrategy", admin.getWaitStrategy());
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("message {}", i);
+        }
+        while (blockingAppender.logEvents.size() < 100) {
+            Thread.yield();
+        }
+        final String phase = admin.getWaitStrategyPhase();
+        assertNotNull(phase);
+        assertTrue(phase, Arrays.asList("PROCESSING", "SPINNING", "YIELDING", "PARKED").contains(phase));
+    }
+}
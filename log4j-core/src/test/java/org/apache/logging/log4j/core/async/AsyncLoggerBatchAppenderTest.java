@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.BatchAppender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.util.Strings;
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that Async Loggers pass the events of a Disruptor batch to a {@link BatchAppender} in one call.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerBatchAppenderTest {
+
+    @AfterClass
+    public static void afterClass() {
+        System.setProperty(Constants.LOG4J_CONTEXT_SELECTOR, Strings.EMPTY);
+    }
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule(
+            "log4j2-queueFull.xml", AsyncLoggerContextSelector.class);
+
+    @Test(timeout = 10000)
+    public void testEventsQueuedWhileConsumerIsBusyAreAppendedAsOneBatch() throws Exception {
+        final BlockingAppender blockingAppender = context.getRequiredAppender("Blocking", BlockingAppender.class);
+        final BatchRecordingAppender batchAppender = new BatchRecordingAppender();
+        batchAppender.start();
+        final Configuration config = context.getConfiguration();
+        config.addAppender(batchAppender);
+        config.getRootLogger().addAppender(batchAppender, null, null);
+
+        blockingAppender.countDownLatch = new CountDownLatch(1);
+        final Logger logger = context.getLogger(getClass());
+        logger.info("first");
+        while (blockingAppender.logEvents.isEmpty()) {
+            Thread.yield();
+        }
+        // the consumer thread is now blocked: the next events end up in a single Disruptor batch
+        for (int i = 0; i < 20; i++) {
+            logger.info("queued {}", i);
+        }
+        blockingAppender.countDownLatch.countDown();
+        while (batchAppender.events.size() < 21) {
+            Thread.yield();
+        }
+
+        assertEquals(21, blockingAppender.logEvents.size());
+        assertEquals("[1, 20]", batchAppender.batchSizes.toString());
+        assertEquals("queued 0", batchAppender.events.get(1));
+        assertEquals("queued 19", batchAppender.events.get(20));
+        assertEquals("[true, true]", batchAppender.endOfBatch.toString());
+    }
+
+    private static class BatchRecordingAppender extends AbstractAppender implements BatchAppender {
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final List<Boolean> endOfBatch = new CopyOnWriteArrayList<>();
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        BatchRecordingAppender() {
+            super("BatchRecording", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            appendBatch(new LogEvent[] {event}, 1);
+        }
+
+        @Override
+        public void appendBatch(final LogEvent[] batch, final int count) {
+            batchSizes.add(count);
+            endOfBatch.add(batch[count - 1].isEndOfBatch());
+            // record the events last: the test waits for them
+            for (int i = 0; i < count; i++) {
+                events.add(batch[i].getMessage().getFormattedMessage());
+            }
+        }
+    }
+}
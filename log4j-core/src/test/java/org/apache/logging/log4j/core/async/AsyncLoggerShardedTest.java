@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.util.Strings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that Async Loggers spreading their events over several ring buffer shards, each with its own background
+ * thread, deliver all events and keep the order of events logged by the same thread.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerShardedTest {
+
+    private static final int THREADS = 8;
+    private static final int EVENTS_PER_THREAD = 200;
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLogger.RingBufferShards", "4");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLogger.RingBufferShards");
+        System.setProperty(Constants.LOG4J_CONTEXT_SELECTOR, Strings.EMPTY);
+    }
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule(
+            "log4j2-queueFull.xml", AsyncLoggerContextSelector.class);
+
+    @Test(timeout = 10000)
+    public void testAllShardsAreDrained() throws Exception {
+        final BlockingAppender blockingAppender = context.getRequiredAppender("Blocking", BlockingAppender.class);
+        final Logger logger = context.getLogger(getClass());
+        final long shardSize = DisruptorUtil.calculateRingBufferSize("AsyncLogger.RingBufferSize");
+        final AsyncLoggerContext loggerContext = (AsyncLoggerContext) context.getLoggerContext();
+        assertEquals(4 * shardSize, loggerContext.createRingBufferAdmin().getBufferSize());
+
+        final Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < threads.length; i++) {
+            final String name = "producer-" + i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < EVENTS_PER_THREAD; j++) {
+                        logger.info("{}", j);
+                    }
+                }
+            }, name);
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        while (blockingAppender.logEvents.size() < THREADS * EVENTS_PER_THREAD) {
+            Thread.yield();
+        }
+
+        final Map<String, Integer> lastSeen = new HashMap<>();
+        for (final LogEvent event : blockingAppender.logEvents) {
+            final int value = Integer.parseInt(event.getMessage().getFormattedMessage());
+            final Integer previous = lastSeen.put(event.getThreadName(), value);
+            assertEquals("events of " + event.getThreadName(), previous == null ? 0 : previous + 1, value);
+        }
+        assertEquals(THREADS, lastSeen.size());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.async;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.categories.AsyncLoggers;
+import org.apache.logging.log4j.core.util.Constants;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.util.Strings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the timestamp-merging consumer of sharded Async Loggers logs the events that are waiting in different
+ * shards oldest first.
+ */
+@Category(AsyncLoggers.class)
+public class AsyncLoggerShardedTimestampOrderTest {
+
+    private static final int EVENTS_PER_THREAD = 50;
+
+    @BeforeClass
+    public static void beforeClass() {
+        System.setProperty("AsyncLogger.RingBufferShards", "2");
+        System.setProperty("AsyncLogger.RingBufferShardOrdering", "Timestamp");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty("AsyncLogger.RingBufferShards");
+        System.clearProperty("AsyncLogger.RingBufferShardOrdering");
+        System.setProperty(Constants.LOG4J_CONTEXT_SELECTOR, Strings.EMPTY);
+    }
+
+    @Rule
+    public LoggerContextRule context = new LoggerContextRule(
+            "log4j2-queueFull.xml", AsyncLoggerContextSelector.class);
+
+    @Test(timeout = 10000)
+    public void testWaitingEventsAreMergedInTimestampOrder() throws Exception {
+        final BlockingAppender blockingAppender = context.getRequiredAppender("Blocking", BlockingAppender.class);
+        final Logger logger = context.getLogger(getClass());
+
+        // park the background thread so the events below pile up in both shards
+        blockingAppender.countDownLatch = new CountDownLatch(1);
+        logger.info("gate");
+        while (blockingAppender.logEvents.isEmpty()) {
+            Thread.yield();
+        }
+
+        // shards are selected by thread ID, so one thread with an even and one with an odd ID hit different shards
+        final Thread odd = newProducer(logger, 1);
+        Thread even = newProducer(logger, 2);
+        while (even.getId() % 2 == odd.getId() % 2) {
+            even = newProducer(logger, 2);
+        }
+        even.start();
+        odd.start();
+        even.join();
+        odd.join();
+
+        blockingAppender.countDownLatch.countDown();
+        while (blockingAppender.logEvents.size() < 1 + 2 * EVENTS_PER_THREAD) {
+            Thread.yield();
+        }
+        for (int i = 1; i < blockingAppender.logEvents.size(); i++) {
+            assertEquals(i, blockingAppender.logEvents.get(i).getTimeMillis());
+        }
+    }
+
+    /**
+     * Creates a thread that logs events with timestamps {@code first}, {@code first + 2}, {@code first + 4}...
+     */
+    private static Thread newProducer(final Logger logger, final long first) {
+        return new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                    final long timestamp = first + 2 * i;
+                    logger.info((Message) new AsyncLoggerTimestampMessageTest.TimeMsg("t" + timestamp, timestamp));
+                }
+            }
+        });
+    }
+}
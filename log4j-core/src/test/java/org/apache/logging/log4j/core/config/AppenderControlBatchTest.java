@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.BatchAppender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link AppenderControl#callAppender(LogEvent[], int)}.
+ */
+public class AppenderControlBatchTest {
+
+    private static LogEvent event(final Level level, final String message) {
+        return Log4jLogEvent.newBuilder().setLevel(level).setMessage(new SimpleMessage(message)).build();
+    }
+
+    private static LogEvent[] events() {
+        return new LogEvent[] {
+                event(Level.INFO, "a"), event(Level.DEBUG, "b"), event(Level.ERROR, "c"), event(Level.DEBUG, "d"),
+                null // unused slot
+        };
+    }
+
+    @Test
+    public void testBatchAppenderReceivesWholeBatch() {
+        final BatchRecordingAppender appender = new BatchRecordingAppender();
+        appender.start();
+        final LogEvent[] events = events();
+        new AppenderControl(appender, null, null).callAppender(events, 4);
+
+        assertEquals(1, appender.batches.size());
+        assertEquals("[a, b, c, d]", appender.batches.get(0).toString());
+    }
+
+    @Test
+    public void testBatchAppenderReceivesOnlyAcceptedEvents() {
+        final BatchRecordingAppender appender = new BatchRecordingAppender();
+        appender.start();
+        final LogEvent[] events = events();
+        new AppenderControl(appender, Level.INFO, null).callAppender(events, 4);
+
+        assertEquals(1, appender.batches.size());
+        assertEquals("[a, c]", appender.batches.get(0).toString());
+        assertEquals("caller's array must not be modified", "b", events[1].getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testBatchAppenderIsNotCalledIfAllEventsAreRejected() {
+        final BatchRecordingAppender appender = new BatchRecordingAppender();
+        appender.start();
+        new AppenderControl(appender, Level.FATAL, null).callAppender(events(), 4);
+
+        assertTrue(appender.batches.isEmpty());
+    }
+
+    @Test
+    public void testOtherAppenderReceivesEventsOneByOne() {
+        final ListAppender appender = new ListAppender("list");
+        appender.start();
+        new AppenderControl(appender, Level.INFO, null).callAppender(events(), 4);
+
+        assertEquals(2, appender.getEvents().size());
+        assertEquals("c", appender.getEvents().get(1).getMessage().getFormattedMessage());
+    }
+
+    private static class BatchRecordingAppender extends AbstractAppender implements BatchAppender {
+        final List<List<String>> batches = new ArrayList<>();
+
+        BatchRecordingAppender() {
+            super("batch", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            fail("append(LogEvent) should not be called");
+        }
+
+        @Override
+        public void appendBatch(final LogEvent[] events, final int count) {
+            final List<String> batch = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                batch.add(events[i].getMessage().getFormattedMessage());
+            }
+            batches.add(batch);
+        }
+    }
+}
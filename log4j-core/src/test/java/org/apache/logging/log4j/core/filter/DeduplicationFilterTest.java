@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.ObjectMessage;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/**
+ * Unit test for <code>DeduplicationFilter</code>.
+ */
+public class DeduplicationFilterTest {
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule("log4j-list.xml");
+
+    private ListAppender app;
+
+    @Before
+    public void setUp() {
+        app = context.getListAppender("List").clear();
+    }
+
+    private static DeduplicationFilter.Builder builder() {
+        return DeduplicationFilter.newBuilder().setAllowFirst(3).setThenEvery(10).setWindowSeconds(60)
+                .setSummaryLogger(DeduplicationFilterTest.class.getName())
+                .setOnMatch(Result.NEUTRAL).setOnMismatch(Result.DENY);
+    }
+
+    private static int allowed(final DeduplicationFilter filter, final int events, final String template,
+            final Throwable thrown, final long nanoTime) {
+        int allowed = 0;
+        for (int i = 0; i < events; i++) {
+            if (filter.filter(template, "logger", thrown, nanoTime) == Result.NEUTRAL) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Test
+    public void testFirstThenSampled() {
+        final DeduplicationFilter filter = builder().build();
+        final long now = System.nanoTime();
+        // the first 3, then the 10th, 20th, ... of the 97 others
+        assertEquals(12, allowed(filter, 100, "Failed {}", null, now));
+        // a different throwable type or template is counted apart
+        assertEquals(3, allowed(filter, 5, "Failed {}", new IllegalStateException(), now));
+        assertEquals(3, allowed(filter, 5, "Failed again {}", null, now));
+        assertEquals(0, filter.suppressed(3));
+        assertEquals(88, filter.suppressed(100));
+    }
+
+    @Test
+    public void testNoSampling() {
+        final DeduplicationFilter filter = builder().setThenEvery(0).build();
+        assertEquals(3, allowed(filter, 1000, "Failed {}", null, System.nanoTime()));
+    }
+
+    @Test
+    public void testSummaryWhenWindowCloses() {
+        final DeduplicationFilter filter = builder().build();
+        final long now = System.nanoTime();
+        assertEquals(12, allowed(filter, 100, "Failed {}", new IllegalStateException(), now));
+        assertEquals(2, allowed(filter, 2, "Rare {}", null, now));
+        assertTrue(app.getMessages().isEmpty());
+        // the next window starts over
+        final long later = now + TimeUnit.SECONDS.toNanos(61);
+        assertSame(Result.NEUTRAL, filter.filter("Failed {}", "logger", new IllegalStateException(), later));
+        final List<String> messages = app.getMessages();
+        assertEquals(messages.toString(), 1, messages.size());
+        assertTrue(messages.get(0), messages.get(0).contains(
+                "Suppressed 88 duplicates of \"Failed {}\" logged by logger with java.lang.IllegalStateException"));
+    }
+
+    @Test
+    public void testSummariesWhileOtherThreadsLog() throws Exception {
+        final DeduplicationFilter filter = builder().setWindowSeconds(1).build();
+        final long start = System.nanoTime();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final String template = "Thread " + t + " failed {}";
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    // a window closes every 100 events of a thread
+                    filter.filter(template, "logger", null, start + i * TimeUnit.MILLISECONDS.toNanos(10));
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final List<String> messages = app.getMessages();
+        assertTrue(messages.toString(), !messages.isEmpty());
+        for (final String message : messages) {
+            assertTrue(message, message.contains(" failed {}\" logged by logger"));
+        }
+    }
+
+    @Test
+    public void testFullTableLetsEventsThrough() {
+        final DeduplicationFilter filter = builder().setMaxFingerprints(1).setThenEvery(0).build();
+        final long now = System.nanoTime();
+        allowed(filter, 5, "First", null, now);
+        for (int i = 0; i < 20; i++) {
+            assertSame(Result.NEUTRAL, filter.filter("Other " + i, "logger", null, now));
+        }
+        assertSame(Result.DENY, filter.filter("First", "logger", null, now));
+    }
+
+    @Test
+    public void testLoggerOverloads() {
+        final DeduplicationFilter filter = builder().setThenEvery(0).build();
+        final org.apache.logging.log4j.core.Logger logger = context.getLogger("DeduplicationFilterTest.overloads");
+        for (int i = 0; i < 3; i++) {
+            assertSame(Result.NEUTRAL, filter.filter(logger, Level.ERROR, null, "Failed {}", i));
+        }
+        assertSame(Result.DENY, filter.filter(logger, Level.ERROR, null, "Failed {}", 3));
+        // a trailing throwable is part of the fingerprint
+        assertSame(Result.NEUTRAL, filter.filter(logger, Level.ERROR, null, "Failed {}", 4, new Exception()));
+    }
+
+    @Test
+    public void testMessagesWithoutTemplate() {
+        final DeduplicationFilter filter = builder().setThenEvery(0).build();
+        final org.apache.logging.log4j.core.Logger logger = context.getLogger("DeduplicationFilterTest.maps");
+        for (int i = 0; i < 3; i++) {
+            assertSame(Result.NEUTRAL, filter.filter(logger, Level.ERROR, null,
+                    new StringMapMessage().with("user", "alice"), null));
+        }
+        assertSame(Result.DENY, filter.filter(logger, Level.ERROR, null,
+                new StringMapMessage().with("user", "alice"), null));
+        // map messages have an empty template, a map with other values is counted apart
+        assertSame(Result.NEUTRAL, filter.filter(logger, Level.ERROR, null,
+                new StringMapMessage().with("user", "bob"), null));
+        // as are messages logged as objects
+        assertSame(Result.DENY, filter.filter(logger, Level.ERROR, null,
+                (Object) new StringMapMessage().with("user", "alice"), null));
+        for (int i = 0; i < 4; i++) {
+            assertSame(i < 3 ? Result.NEUTRAL : Result.DENY, filter.filter(logger, Level.ERROR, null,
+                    new ObjectMessage(Thread.State.BLOCKED), null));
+        }
+        assertSame(Result.NEUTRAL, filter.filter(logger, Level.ERROR, null, (Object) Thread.State.WAITING, null));
+    }
+}
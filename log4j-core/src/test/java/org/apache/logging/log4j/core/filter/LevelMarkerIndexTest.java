@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+public class LevelMarkerIndexTest {
+
+    private static final Marker PARENT = MarkerManager.getMarker("LevelMarkerIndexTest.Parent");
+    private static final Marker CHILD = MarkerManager.getMarker("LevelMarkerIndexTest.Child").setParents(PARENT);
+    private static final Marker OTHER = MarkerManager.getMarker("LevelMarkerIndexTest.Other");
+    private static final Marker[] MARKERS = {null, PARENT, CHILD, OTHER};
+
+    /**
+     * Evaluates the filters one after another, like a composite filter without an index.
+     */
+    private static Result chain(final Filter[] filters, final Level level, final Marker marker) {
+        Result result = Result.NEUTRAL;
+        for (final Filter filter : filters) {
+            result = filter.filter(null, level, marker, (Object) null, null);
+            if (result == Result.ACCEPT || result == Result.DENY) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private static void assertSameAsChain(final Filter... filters) {
+        final LevelMarkerIndex index = LevelMarkerIndex.create(filters);
+        assertNotNull(index);
+        final CompositeFilter composite = CompositeFilter.createFilters(filters);
+        for (final Level level : Level.values()) {
+            for (final Marker marker : MARKERS) {
+                final Result expected = chain(filters, level, marker);
+                final String description = level + ", " + marker;
+                assertSame(description, expected, index.filter(level, marker));
+                assertSame(description, expected, composite.filter(null, level, marker, "Hello {}", "world"));
+                final LogEvent event = Log4jLogEvent.newBuilder().setLevel(level).setMarker(marker)
+                        .setMessage(new SimpleMessage("Hello")).build();
+                assertSame(description, expected, composite.filter(event));
+            }
+        }
+    }
+
+    @Test
+    public void testLevels() {
+        assertSameAsChain(ThresholdFilter.createFilter(Level.ERROR, Result.ACCEPT, Result.NEUTRAL),
+                LevelRangeFilter.createFilter(Level.WARN, Level.DEBUG, Result.NEUTRAL, Result.DENY),
+                ThresholdFilter.createFilter(Level.INFO, Result.NEUTRAL, Result.DENY));
+    }
+
+    @Test
+    public void testMarkers() {
+        assertSameAsChain(MarkerFilter.createFilter(CHILD.getName(), Result.DENY, Result.NEUTRAL),
+                MarkerFilter.createFilter(PARENT.getName(), Result.ACCEPT, Result.NEUTRAL),
+                NoMarkerFilter.newBuilder().setOnMatch(Result.NEUTRAL).setOnMismatch(Result.DENY).build());
+    }
+
+    @Test
+    public void testLevelsAndMarkers() {
+        assertSameAsChain(MarkerFilter.createFilter(PARENT.getName(), Result.ACCEPT, Result.NEUTRAL),
+                NoMarkerFilter.newBuilder().setOnMatch(Result.NEUTRAL).setOnMismatch(Result.DENY).build(),
+                ThresholdFilter.createFilter(Level.WARN, Result.NEUTRAL, Result.DENY),
+                LevelRangeFilter.createFilter(Level.OFF, Level.ALL, Result.NEUTRAL, Result.DENY));
+    }
+
+    @Test
+    public void testNotIndexed() {
+        final Filter threshold = ThresholdFilter.createFilter(Level.WARN, Result.ACCEPT, Result.DENY);
+        assertNull(LevelMarkerIndex.create(new Filter[] {threshold}));
+        assertNull(LevelMarkerIndex.create(new Filter[] {threshold, DenyAllFilter.newBuilder().build()}));
+        final Filter[] markers = new Filter[LevelMarkerIndex.MAX_MARKER_NAMES + 1];
+        for (int i = 0; i < markers.length; i++) {
+            markers[i] = MarkerFilter.createFilter("Marker" + i, Result.ACCEPT, Result.NEUTRAL);
+        }
+        assertNull(LevelMarkerIndex.create(markers));
+    }
+}
@@ -16,12 +16,14 @@
  */
 package org.apache.logging.log4j.core.filter;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -74,6 +76,77 @@ public class MapFilterTest {
         assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.ERROR, null, msg, null));
     }
 
+    @Test
+    public void testManyValues() {
+        final KeyValuePair[] pairs = new KeyValuePair[1000];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = new KeyValuePair("tenant", "tenant-" + i);
+        }
+        final MapFilter filter = MapFilter.createFilter(pairs, "and", Filter.Result.ACCEPT, Filter.Result.DENY);
+        final StringMapMessage msg = new StringMapMessage();
+        for (int i = 0; i < pairs.length; i++) {
+            msg.put("tenant", "tenant-" + i);
+            assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.INFO, null, msg, null));
+        }
+        msg.put("tenant", "tenant-1000");
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, msg, null));
+        msg.put("other", "tenant-1");
+        msg.remove("tenant");
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, msg, null));
+    }
+
+    @Test
+    public void testKeysOrderedBySelectivity() {
+        final KeyValuePair[] pairs = new KeyValuePair[] { new KeyValuePair("common", "yes"),
+                new KeyValuePair("rare", "yes"), new KeyValuePair("never", "yes"), new KeyValuePair("never", "no")};
+        final MapFilter and = MapFilter.createFilter(pairs, "and", Filter.Result.ACCEPT, Filter.Result.DENY);
+        final MapFilter or = MapFilter.createFilter(pairs, "or", Filter.Result.ACCEPT, Filter.Result.DENY);
+        // the keys in the order of their names
+        assertArrayEquals(new int[] {0, 1, 2}, and.getEvaluationOrder());
+        final StringMapMessage msg = new StringMapMessage();
+        for (int i = 0; i < MapFilter.SAMPLES_PER_REORDER; i++) {
+            final boolean common = i % 10 != 0;
+            final boolean rare = i % 97 == 0;
+            final boolean never = i % 1000 == 999;
+            msg.put("common", common ? "yes" : "no");
+            msg.put("rare", rare ? "yes" : "no");
+            if (never) {
+                msg.put("never", "no");
+            } else {
+                msg.remove("never");
+            }
+            assertEquals("Event " + i, common && rare && never, and.sample(msg, MapFilter.MAP_MESSAGE_LOOKUP));
+            assertEquals("Event " + i, common || rare || never, or.sample(msg, MapFilter.MAP_MESSAGE_LOOKUP));
+        }
+        // "and" evaluates the key least likely to match first, "or" the one most likely to match
+        assertArrayEquals(new int[] {1, 2, 0}, and.getEvaluationOrder());
+        assertArrayEquals(new int[] {0, 2, 1}, or.getEvaluationOrder());
+        // the order does not change the results
+        msg.put("common", "yes");
+        msg.put("rare", "yes");
+        msg.put("never", "no");
+        assertSame(Filter.Result.ACCEPT, and.filter(null, Level.INFO, null, msg, null));
+        msg.remove("never");
+        assertSame(Filter.Result.DENY, and.filter(null, Level.INFO, null, msg, null));
+        assertSame(Filter.Result.ACCEPT, or.filter(null, Level.INFO, null, msg, null));
+        msg.put("common", "no");
+        msg.put("rare", "no");
+        assertSame(Filter.Result.DENY, or.filter(null, Level.INFO, null, msg, null));
+    }
+
+    @Test
+    public void testNullValues() {
+        final Map<String, List<String>> map = new HashMap<>();
+        map.put("user", Arrays.asList(null, "alice"));
+        final MapFilter filter = new MapFilter(map, true, Filter.Result.ACCEPT, Filter.Result.DENY);
+        final StringMapMessage msg = new StringMapMessage();
+        // a missing key does not match a null value
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, msg, null));
+        // a null value does not hide the values after it
+        msg.put("user", "alice");
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.INFO, null, msg, null));
+    }
+
     @Test
     public void testConfig() {
         final Configuration config = context.getConfiguration();
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.junit.LoggerContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MultiMatchFilterTest {
+
+    @ClassRule
+    public static LoggerContextRule context = new LoggerContextRule("log4j-multimatchfilter.xml");
+
+    @Test
+    public void testFirstRuleInOrderFires() {
+        final MatchRule connection = MatchRule.createRule(null, "connection", null, Result.DENY);
+        final MatchRule error = MatchRule.createRule("error", null, "error \\d+", Result.ACCEPT);
+        final MatchRule reset = MatchRule.createRule(null, "reset", null, Result.DENY);
+        final MultiMatchFilter filter = MultiMatchFilter.newBuilder().setRules(connection, error, reset)
+                .setOnMismatch(Result.NEUTRAL).build();
+
+        assertSame(reset, filter.match("error: reset"));
+        assertSame(error, filter.match("reset after error 42"));
+        assertSame(connection, filter.match("error 42: connection reset"));
+        assertNull(filter.match("nothing to see"));
+
+        assertSame(Result.ACCEPT, filter.filter(event("reset after error 42")));
+        assertSame(Result.DENY, filter.filter(event("error: reset")));
+        assertSame(Result.NEUTRAL, filter.filter(event("nothing to see")));
+        assertEquals(1, error.getMatchCount());
+        assertEquals(1, reset.getMatchCount());
+        assertEquals(0, connection.getMatchCount());
+    }
+
+    @Test
+    public void testNeutralRulesDoNotFire() {
+        final MatchRule neutral = MatchRule.createRule(null, "a", null, Result.NEUTRAL);
+        final MatchRule deny = MatchRule.createRule(null, "a", null, null);
+        final MultiMatchFilter filter = MultiMatchFilter.newBuilder().setRules(neutral, deny)
+                .setOnMatch(Result.DENY).setOnMismatch(Result.ACCEPT).build();
+        assertSame(Result.DENY, filter.filter(event("abc")));
+        assertSame(Result.ACCEPT, filter.filter(event("xyz")));
+    }
+
+    @Test
+    public void testOverlappingRegexes() {
+        // at position 0 only the later rule matches, the earlier one matches inside it
+        final MatchRule inner = MatchRule.createRule(null, null, "bc", Result.ACCEPT);
+        final MatchRule outer = MatchRule.createRule(null, null, "abcd", Result.DENY);
+        final MultiMatchFilter filter = MultiMatchFilter.newBuilder().setRules(inner, outer).build();
+        assertSame(inner, filter.match("xabcd"));
+    }
+
+    @Test
+    public void testInvalidRules() {
+        assertNull(MatchRule.createRule(null, null, null, null));
+        assertNull(MatchRule.createRule(null, "a", "b", null));
+        assertNull(MultiMatchFilter.newBuilder().build());
+    }
+
+    @Test
+    public void testMatchesCompositeOfSingleFilters() throws Exception {
+        final Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            final MatchRule[] rules = new MatchRule[1 + random.nextInt(12)];
+            final Filter[] filters = new Filter[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                final Result onMatch = random.nextInt(5) == 0 ? Result.NEUTRAL
+                        : random.nextBoolean() ? Result.ACCEPT : Result.DENY;
+                if (random.nextBoolean()) {
+                    final String text = randomText(random, 1 + random.nextInt(3));
+                    rules[i] = MatchRule.createRule(null, text, null, onMatch);
+                    filters[i] = StringMatchFilter.newBuilder().setMatchString(text).setOnMatch(onMatch)
+                            .setOnMismatch(Result.NEUTRAL).build();
+                } else {
+                    final String regex = randomText(random, 1) + "[a-c]*" + randomText(random, 1);
+                    rules[i] = MatchRule.createRule(null, null, regex, onMatch);
+                    filters[i] = RegexFilter.createFilter(".*" + regex + ".*", null, false, onMatch,
+                            Result.NEUTRAL);
+                }
+            }
+            final MultiMatchFilter filter = MultiMatchFilter.newBuilder().setRules(rules)
+                    .setOnMismatch(Result.NEUTRAL).build();
+            final Filter composite = CompositeFilter.createFilters(filters);
+            for (int i = 0; i < 20; i++) {
+                final LogEvent event = event(randomText(random, random.nextInt(20)));
+                assertSame(event.getMessage().getFormattedMessage() + " with " + filter,
+                        composite.filter(event), filter.filter(event));
+            }
+        }
+    }
+
+    @Test
+    public void testConfiguration() {
+        final Logger logger = context.getLogger(MultiMatchFilterTest.class);
+        final ListAppender app = context.getListAppender("LIST");
+        app.clear();
+        logger.info("heartbeat from node {}", 1);
+        logger.info("ERROR 500 while sending heartbeat");
+        logger.info("Polling table X returned 0 rows");
+        logger.info("Polling table X returned 1 rows");
+        logger.info("ERROR in heartbeat");
+        final List<String> messages = app.getMessages();
+        assertEquals(2, messages.size());
+        assertEquals("ERROR 500 while sending heartbeat", messages.get(0));
+        assertEquals("Polling table X returned 1 rows", messages.get(1));
+    }
+
+    private static String randomText(final Random random, final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(4));
+        }
+        return new String(chars);
+    }
+
+    private static LogEvent event(final String message) {
+        return Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMessage(new SimpleMessage(message)).build();
+    }
+}
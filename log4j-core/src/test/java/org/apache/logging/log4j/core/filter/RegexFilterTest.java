@@ -28,6 +28,8 @@ import org.apache.logging.log4j.core.Filter.Result;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.ReusableMessageFactory;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.junit.BeforeClass;
@@ -86,4 +88,39 @@ public class RegexFilterTest {
         assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, (Message) null, (Throwable) null));
         assertSame(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, null, (Object[]) null));
     }
+
+    @Test
+    public void testReusableMessage() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("User \\w+ logged in", null, false, null, null);
+        Message message = ReusableMessageFactory.INSTANCE.newMessage("User {} logged in", "bob");
+        assertTrue(message instanceof ReusableMessage);
+        assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.INFO, null, message, (Throwable) null));
+        ReusableMessageFactory.release(message);
+        message = ReusableMessageFactory.INSTANCE.newMessage("User {} logged out", "bob");
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, message, (Throwable) null));
+        ReusableMessageFactory.release(message);
+    }
+
+    @Test
+    public void testGlob() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("User * logged in", null, false, "glob",
+                Filter.Result.ACCEPT, Filter.Result.DENY);
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.INFO, null, (Object) "User bob logged in",
+                (Throwable) null));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, (Object) "User bob logged out",
+                (Throwable) null));
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLevel(Level.INFO) //
+                .setMessage(new SimpleMessage("User alice logged in")) //
+                .build();
+        assertSame(Filter.Result.ACCEPT, filter.filter(event));
+    }
+
+    @Test
+    public void testLiteral() throws Exception {
+        final RegexFilter filter = RegexFilter.createFilter("a.b", null, false, "LITERAL", Filter.Result.ACCEPT,
+                Filter.Result.DENY);
+        assertSame(Filter.Result.ACCEPT, filter.filter(null, Level.INFO, null, (Object) "a.b", (Throwable) null));
+        assertSame(Filter.Result.DENY, filter.filter(null, Level.INFO, null, (Object) "axb", (Throwable) null));
+    }
 }
@@ -68,6 +68,24 @@ public class StructuredDataFilterTest {
         assertSame(Filter.Result.NEUTRAL, filter.filter(null, Level.ERROR, null, msg, null));
     }
 
+    @Test
+    public void testMissingValues() {
+        final KeyValuePair[] pairs = new KeyValuePair[] { new KeyValuePair("type", "Audit"),
+                new KeyValuePair("ToAccount", "123456")};
+        // no type and no ToAccount entry
+        final StructuredDataMessage msg = new StructuredDataMessage("AccountTransfer@18060", "Transfer", null);
+        msg.put("FromAccount", "211000");
+        assertSame(Filter.Result.DENY,
+                StructuredDataFilter.createFilter(pairs, "and", null, null).filter(null, Level.INFO, null, msg, null));
+        assertSame(Filter.Result.DENY,
+                StructuredDataFilter.createFilter(pairs, "or", null, null).filter(null, Level.INFO, null, msg, null));
+        msg.put("ToAccount", "123456");
+        assertSame(Filter.Result.DENY,
+                StructuredDataFilter.createFilter(pairs, "and", null, null).filter(null, Level.INFO, null, msg, null));
+        assertSame(Filter.Result.NEUTRAL,
+                StructuredDataFilter.createFilter(pairs, "or", null, null).filter(null, Level.INFO, null, msg, null));
+    }
+
     @Test
     public void testConfig() {
         final Configuration config = context.getConfiguration();
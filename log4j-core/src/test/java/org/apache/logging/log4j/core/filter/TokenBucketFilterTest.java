@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+/**
+ * Unit test for <code>TokenBucketFilter</code>.
+ */
+public class TokenBucketFilterTest {
+
+    private static TokenBucketFilter.Builder builder() {
+        return TokenBucketFilter.newBuilder().setLevel(Level.INFO).setRate(10).setMaxBurst(5)
+                .setOnMatch(Result.NEUTRAL).setOnMismatch(Result.DENY);
+    }
+
+    @Test
+    public void testBurstAndRate() {
+        final TokenBucketFilter filter = builder().build();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertSame("Event " + i, Result.NEUTRAL, filter.filter(null, start));
+        }
+        assertSame(Result.DENY, filter.filter(null, start));
+        // a token every 100 milliseconds
+        assertSame(Result.DENY, filter.filter(null, start + TimeUnit.MILLISECONDS.toNanos(99)));
+        assertSame(Result.NEUTRAL, filter.filter(null, start + TimeUnit.MILLISECONDS.toNanos(100)));
+        assertSame(Result.DENY, filter.filter(null, start + TimeUnit.MILLISECONDS.toNanos(150)));
+        // no more than maxBurst tokens after a long pause
+        final long later = start + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 5; i++) {
+            assertSame("Event " + i, Result.NEUTRAL, filter.filter(null, later));
+        }
+        assertSame(Result.DENY, filter.filter(null, later));
+    }
+
+    @Test
+    public void testLevel() {
+        final TokenBucketFilter filter = builder().build();
+        for (int i = 0; i < 10; i++) {
+            filter.filter(null, Level.INFO, null, (Object) null, null);
+        }
+        assertSame(Result.DENY, filter.filter(null, Level.DEBUG, null, (Object) null, null));
+        assertSame(Result.NEUTRAL, filter.filter(null, Level.WARN, null, (Object) null, null));
+        assertEquals(0, filter.getAvailable(null));
+        filter.clear();
+        assertEquals(5, filter.getAvailable(null));
+    }
+
+    @Test
+    public void testKeys() {
+        final TokenBucketFilter filter = builder().setKeyType(TokenBucketFilter.KeyType.LOGGER).setMaxKeys(2).build();
+        final long start = System.nanoTime();
+        for (final String key : new String[] {"a", "b"}) {
+            for (int i = 0; i < 5; i++) {
+                assertSame(key + i, Result.NEUTRAL, filter.filter(key, start));
+            }
+            assertSame(key, Result.DENY, filter.filter(key, start));
+        }
+        // past maxKeys the keys share a bucket
+        for (int i = 0; i < 5; i++) {
+            assertSame("Event " + i, Result.NEUTRAL, filter.filter("c" + i, start));
+        }
+        assertSame(Result.DENY, filter.filter(null, start));
+    }
+
+    @Test
+    public void testMarkerKey() {
+        final TokenBucketFilter filter = builder().setKeyType(TokenBucketFilter.KeyType.MARKER).build();
+        final LogEvent noisy = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMarker(MarkerManager.getMarker("TokenBucketFilterTest.Noisy"))
+                .setMessage(new SimpleMessage("Hello")).build();
+        final LogEvent quiet = Log4jLogEvent.newBuilder().setLevel(Level.INFO)
+                .setMarker(MarkerManager.getMarker("TokenBucketFilterTest.Quiet"))
+                .setMessage(new SimpleMessage("Hello")).build();
+        for (int i = 0; i < 10; i++) {
+            filter.filter(noisy);
+        }
+        assertSame(Result.DENY, filter.filter(noisy));
+        assertSame(Result.NEUTRAL, filter.filter(quiet));
+    }
+
+    @Test
+    public void testLowRate() {
+        final TokenBucketFilter filter = builder().setRate(0.001f).setMaxBurst(0).build();
+        assertEquals(1, filter.getAvailable(null));
+        final long start = System.nanoTime();
+        assertSame(Result.NEUTRAL, filter.filter(null, start));
+        assertSame(Result.DENY, filter.filter(null, start + TimeUnit.SECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void testMaxBurstTooLargeForRate() {
+        final TokenBucketFilter filter = builder().setRate(0.001f).setMaxBurst(Long.MAX_VALUE).build();
+        final long available = filter.getAvailable(null);
+        assertTrue(available > 1);
+        assertTrue(available < Long.MAX_VALUE);
+        final long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertSame("Event " + i, Result.NEUTRAL, filter.filter(null, start));
+        }
+    }
+
+    @Test
+    public void testContextKeyRequired() {
+        assertNull(builder().setKeyType(TokenBucketFilter.KeyType.CONTEXT).build());
+    }
+}
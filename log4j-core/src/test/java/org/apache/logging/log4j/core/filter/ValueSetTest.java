@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ValueSetTest {
+
+    @Test
+    public void testContains() {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            values.add("value" + i);
+        }
+        final ValueSet set = new ValueSet(values);
+        assertEquals(500, set.size());
+        for (final String value : values) {
+            assertTrue(value, set.contains(value));
+            assertTrue(value, set.contains(new StringBuilder(value)));
+        }
+        assertFalse(set.contains("value500"));
+        assertFalse(set.contains(new StringBuilder("value")));
+        assertFalse(set.contains(""));
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void testDuplicatesAndNulls() {
+        final ValueSet set = new ValueSet(Arrays.asList("a", null, "a", "b"));
+        assertEquals(2, set.size());
+        assertTrue(set.contains("a"));
+        assertTrue(set.contains("b"));
+        assertFalse(set.contains(null));
+    }
+
+    @Test
+    public void testEmpty() {
+        final ValueSet set = new ValueSet(Collections.<String>emptyList());
+        assertEquals(0, set.size());
+        assertFalse(set.contains("a"));
+        assertFalse(set.contains(""));
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        // "Aa" and "BB" have the same hash code
+        final ValueSet set = new ValueSet(Arrays.asList("Aa", "AaAa", "BBBB"));
+        assertTrue(set.contains(new StringBuilder("Aa")));
+        assertFalse(set.contains(new StringBuilder("BB")));
+        assertTrue(set.contains("BBBB"));
+        assertFalse(set.contains("AaBB"));
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.net.DatagramOutputStream;
+import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.parser.BinaryLogEventParser;
+import org.apache.logging.log4j.core.parser.ParseException;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+public class BinaryLayoutTest {
+
+    private final BinaryLogEventParser parser = new BinaryLogEventParser();
+
+    private static LogEvent createEvent(final String loggerName, final long timeMillis) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("session", "s-\u00e9\u4e2d\ud83d\ude00");
+        contextData.putValue("region", "eu-west");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName(loggerName)
+                .setLevel(Level.WARN)
+                .setMarker(MarkerManager.getMarker("BinaryLayoutTest"))
+                .setMessage(new ParameterizedMessage("Processed {} items in {} ms", 12, 57))
+                .setContextData(contextData)
+                .setThreadName("binlog-io")
+                .setThreadId(17)
+                .setThreadPriority(3)
+                .setTimeMillis(timeMillis)
+                .build();
+    }
+
+    private static void assertEvent(final LogEvent expected, final LogEvent actual) {
+        assertEquals(expected.getTimeMillis(), actual.getTimeMillis());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getLoggerName(), actual.getLoggerName());
+        assertEquals(expected.getThreadName(), actual.getThreadName());
+        assertEquals(expected.getThreadId(), actual.getThreadId());
+        assertEquals(expected.getThreadPriority(), actual.getThreadPriority());
+        assertEquals(expected.getMarker(), actual.getMarker());
+        assertEquals(expected.getMessage().getFormattedMessage(), actual.getMessage().getFormattedMessage());
+        assertEquals(expected.getContextData().toMap(), actual.getContextData().toMap());
+    }
+
+    private static byte[] encode(final BinaryLayout layout, final LogEvent... events) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] header = layout.getHeader();
+        out.write(header, 0, header.length);
+        for (final LogEvent event : events) {
+            final byte[] record = encodeRecord(layout, event);
+            out.write(record, 0, record.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeRecord(final BinaryLayout layout, final LogEvent event) {
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+        layout.encode(event, destination);
+        return Arrays.copyOf(destination.buffer.array(), destination.buffer.position());
+    }
+
+    private List<LogEvent> parseAll(final byte[] bytes) throws ParseException {
+        final List<LogEvent> events = new ArrayList<>();
+        parser.parseAll(new ByteArrayInputStream(bytes), event -> events.add(event.toImmutable()));
+        return events;
+    }
+
+    @Test
+    public void testRoundTrip() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final LogEvent first = createEvent("a.b.First", 1577836800123L);
+        final LogEvent second = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Second")
+                .setLevel(Level.ERROR)
+                .setMessage(new SimpleMessage("Failed"))
+                .setThrown(new IllegalStateException("Broken"))
+                .setThreadName("binlog-io")
+                .setTimeMillis(1577836799000L)
+                .build();
+        final LogEvent third = createEvent("a.b.First", 1577836800125L);
+
+        final List<LogEvent> events = parseAll(encode(layout, first, second, third));
+        assertEquals(3, events.size());
+        assertEvent(first, events.get(0));
+        assertEvent(second, events.get(1));
+        assertEvent(third, events.get(2));
+        assertNull(events.get(0).getThrownProxy());
+        assertEquals(IllegalStateException.class.getName(), events.get(1).getThrownProxy().getName());
+        assertEquals("Broken", events.get(1).getThrownProxy().getMessage());
+    }
+
+    @Test
+    public void testDictionaryShrinksRecords() {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final int header = layout.getHeader().length;
+        final int once = encode(layout, createEvent("a.b.Logger", 1000L)).length - header;
+        final int twice = encode(layout, createEvent("a.b.Logger", 1000L), createEvent("a.b.Logger", 1001L)).length
+                - header;
+        assertTrue(once + " " + twice, twice - once < once - "a.b.Logger".length() - "binlog-io".length());
+    }
+
+    @Test
+    public void testHeaderStartsOver() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final LogEvent event = createEvent("a.b.Logger", 1000L);
+        final byte[] first = encode(layout, event);
+        final byte[] second = encode(layout, event);
+        final byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        final List<LogEvent> events = parseAll(both);
+        assertEquals(2, events.size());
+        assertEvent(event, events.get(1));
+    }
+
+    @Test
+    public void testToByteArray() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final LogEvent event = createEvent("a.b.Logger", 1000L);
+        encode(layout, event);
+        final byte[] bytes = layout.toByteArray(event);
+        assertArrayEquals(bytes, layout.toSerializable(event));
+        assertEvent(event, parser.parseFrom(bytes));
+    }
+
+    @Test
+    public void testFields() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().setFields("level, message").build();
+        final LogEvent parsed = parser.parseFrom(layout.toByteArray(createEvent("a.b.Logger", 1000L)));
+        assertEquals(Level.WARN, parsed.getLevel());
+        assertEquals("Processed 12 items in 57 ms", parsed.getMessage().getFormattedMessage());
+        assertNull(parsed.getLoggerName());
+        assertNull(parsed.getMarker());
+        assertTrue(parsed.getContextData().isEmpty());
+    }
+
+    @Test
+    public void testFullDictionary() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().setDictionarySize(1).build();
+        final LogEvent first = createEvent("a.b.First", 1000L);
+        final LogEvent second = createEvent("a.b.Second", 2000L);
+        final List<LogEvent> events = parseAll(encode(layout, first, second, first));
+        assertEquals(3, events.size());
+        assertEvent(first, events.get(0));
+        assertEvent(second, events.get(1));
+        assertEvent(first, events.get(2));
+    }
+
+    @Test
+    public void testRecordsResentAfterReconnectAreSkipped() throws ParseException {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final LogEvent first = createEvent("a.b.Logger", 1000L);
+        final LogEvent second = createEvent("a.b.Logger", 1001L);
+        final LogEvent third = createEvent("a.b.Other", 1002L);
+        encode(layout, first);
+        // the second record refers to the names the first record added to the dictionary
+        final byte[] inFlight = encodeRecord(layout, second);
+        // the socket manager reconnects, writes the header and sends the record that failed again
+        final ByteArrayOutputStream connection = new ByteArrayOutputStream();
+        final byte[] header = layout.getHeader();
+        connection.write(header, 0, header.length);
+        connection.write(inFlight, 0, inFlight.length);
+        final byte[] next = encodeRecord(layout, third);
+        connection.write(next, 0, next.length);
+
+        final List<LogEvent> events = parseAll(connection.toByteArray());
+        assertEquals(1, events.size());
+        assertEvent(third, events.get(0));
+    }
+
+    @Test
+    public void testDatagramsAreSelfContained() throws Exception {
+        final BinaryLayout layout = BinaryLayout.newBuilder().build();
+        final List<byte[]> datagrams = new ArrayList<>();
+        final DatagramOutputStream os = new DatagramOutputStream("localhost", 514, layout.getHeader(), null) {
+            @Override
+            protected void send(final byte[] bytes, final int length) {
+                datagrams.add(Arrays.copyOf(bytes, length));
+            }
+        };
+        try {
+            final DatagramSocketManager manager = new DatagramSocketManager("BinaryLayoutTest", os,
+                    InetAddress.getLoopbackAddress(), "localhost", 514, layout, 4096) {
+            };
+            final LogEvent first = createEvent("a.b.Logger", 1000L);
+            final LogEvent second = createEvent("a.b.Logger", 1001L);
+            layout.encode(first, manager);
+            manager.flush();
+            layout.encode(second, manager);
+            manager.flush();
+            assertEquals(2, datagrams.size());
+            // the second datagram does not refer to the names of the first, which may have been lost
+            final List<LogEvent> events = parseAll(datagrams.get(1));
+            assertEquals(1, events.size());
+            assertEvent(second, events.get(0));
+        } finally {
+            os.close();
+        }
+    }
+
+    @Test
+    public void testSchemaOrder() {
+        final byte[] header = BinaryLayout.newBuilder().setFields("thrown,timestamp").build().getHeader();
+        assertEquals(0, header[0]);
+        assertEquals(2, header[header.length - 3]);
+        assertEquals(BinaryLayout.Field.THROWN.getTag(), header[header.length - 2]);
+        assertEquals(BinaryLayout.Field.TIMESTAMP.getTag(), header[header.length - 1]);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testUnknownFieldTag() throws ParseException {
+        final byte[] header = BinaryLayout.newBuilder().setFields("level").build().getHeader();
+        header[header.length - 1] = 99;
+        parseAll(header);
+    }
+}
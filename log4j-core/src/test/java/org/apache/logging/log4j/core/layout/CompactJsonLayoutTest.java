@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.spi.MutableThreadContextStack;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+public class CompactJsonLayoutTest {
+
+    private static LogEvent createEvent() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("user", "Jane \"JD\" Doe");
+        contextData.putValue("tenant", "t-1");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Logger")
+                .setLoggerFqcn("a.b.Fqcn")
+                .setLevel(Level.INFO)
+                .setMarker(MarkerManager.getMarker("CompactJsonLayoutTest"))
+                .setMessage(new ParameterizedMessage("Hello {}\n\ttab", "\"world\""))
+                .setContextData(contextData)
+                .setContextStack(new MutableThreadContextStack(Arrays.asList("one", "two")))
+                .setThreadName("main")
+                .setThreadId(7)
+                .setTimeMillis(1234567890123L)
+                .setEndOfBatch(true)
+                .build();
+    }
+
+    @Test
+    public void testDefaultFields() {
+        final CompactJsonLayout layout = CompactJsonLayout.newBuilder().setEventEol(false).build();
+        assertJsonEquals("{\"timeMillis\":1234567890123,\"level\":\"INFO\",\"loggerName\":\"a.b.Logger\","
+                + "\"threadName\":\"main\",\"marker\":\"CompactJsonLayoutTest\","
+                + "\"message\":\"Hello \\\"world\\\"\\n\\ttab\","
+                + "\"contextMap\":{\"tenant\":\"t-1\",\"user\":\"Jane \\\"JD\\\" Doe\"}}",
+                layout.toSerializable(createEvent()));
+    }
+
+    @Test
+    public void testTemplate() {
+        final CompactJsonLayout layout = CompactJsonLayout.newBuilder()
+                .setFields("@timestamp=timeMillis, severity=level, fqcn=loggerFqcn, threadId, msg=message,"
+                        + " ndc=contextStack, user=ctx:user, missing=ctx:missing, endOfBatch")
+                .setEventEol(false)
+                .build();
+        assertJsonEquals("{\"@timestamp\":1234567890123,\"severity\":\"INFO\",\"fqcn\":\"a.b.Fqcn\",\"threadId\":7,"
+                + "\"msg\":\"Hello \\\"world\\\"\\n\\ttab\",\"ndc\":[\"one\",\"two\"],"
+                + "\"user\":\"Jane \\\"JD\\\" Doe\",\"endOfBatch\":true}",
+                layout.toSerializable(createEvent()));
+    }
+
+    @Test
+    public void testAdditionalFieldsAndThrown() {
+        final CompactJsonLayout layout = CompactJsonLayout.newBuilder()
+                .setConfiguration(new DefaultConfiguration())
+                .setFields("message,thrown")
+                .setAdditionalFields(new KeyValuePair[] {new KeyValuePair("app", "demo"),
+                        new KeyValuePair("java", "${java:version}")})
+                .build();
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLevel(Level.ERROR)
+                .setMessage(new SimpleMessage("Failed"))
+                .setThrown(new IllegalStateException("Broken"))
+                .build();
+        final String json = layout.toSerializable(event);
+        assertTrue(json, json.endsWith("}" + System.lineSeparator()));
+        assertTrue(json, json.startsWith("{\"message\":\"Failed\",\"thrown\":\"java.lang.IllegalStateException: Broken"));
+        assertTrue(json, json.contains("\\n\\tat org.apache.logging.log4j.core.layout.CompactJsonLayoutTest"));
+        assertTrue(json, json.contains(",\"app\":\"demo\",\"java\":\"Java version "));
+    }
+
+    @Test
+    public void testEncodeMatchesToSerializable() {
+        final CompactJsonLayout layout = CompactJsonLayout.newBuilder().build();
+        final LogEvent event = createEvent();
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+        layout.encode(event, destination);
+        final String encoded = new String(destination.buffer.array(), 0, destination.buffer.position(),
+                StandardCharsets.UTF_8);
+        assertEquals(layout.toSerializable(event), encoded);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownField() {
+        CompactJsonLayout.newBuilder().setFields("level,nonsense").build();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@code DirectStringBuilderEncoder} class.
+ */
+public class DirectStringBuilderEncoderTest {
+
+    private static final String[] TEXTS = {
+            "",
+            "Hello, world! 0123456789",
+            "café naïve über ÿ",
+            "© Ā ߿ ࠀ",
+            "日本語のテキスト",
+            "emoji 😀 and 🎉!",
+            "lone \ud83d high, lone \ude00 low, trailing \ud83d",
+            "mixed ascii é日😀 end\n"
+    };
+
+    @Test
+    public void testSupportedCharsets() {
+        assertTrue(DirectStringBuilderEncoder.isSupported(StandardCharsets.UTF_8));
+        assertTrue(DirectStringBuilderEncoder.isSupported(StandardCharsets.ISO_8859_1));
+        assertFalse(DirectStringBuilderEncoder.isSupported(StandardCharsets.UTF_16));
+        assertFalse(DirectStringBuilderEncoder.isSupported(Charset.forName("Shift_JIS")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedCharset() {
+        new DirectStringBuilderEncoder(StandardCharsets.UTF_16);
+    }
+
+    @Test
+    public void testUtf8MatchesJdkEncoder() {
+        assertMatchesJdkEncoder(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testLatin1MatchesJdkEncoder() {
+        assertMatchesJdkEncoder(StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testSurrogatePairAcrossChunks() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1023; i++) {
+            text.append('x');
+        }
+        text.append("\ud83d\ude00 end");
+        for (final Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1}) {
+            final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+            new DirectStringBuilderEncoder(charset).encode(text, destination);
+            final byte[] actual = Arrays.copyOf(destination.buffer.array(), destination.buffer.position());
+            assertArrayEquals(charset.name(), text.toString().getBytes(charset), actual);
+        }
+    }
+
+    @Test
+    public void testAsciiFillsBufferBeforeDraining() {
+        final DirectStringBuilderEncoder encoder = new DirectStringBuilderEncoder(StandardCharsets.UTF_8);
+        final StringBuilder text = new StringBuilder("0123456789abcdefghij");
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(8, 32);
+        encoder.encode(text, destination);
+
+        assertEquals("drained", 2, destination.drainPoints.size());
+        assertEquals("drained[0].length", 8, destination.drainPoints.get(0).length());
+        assertEquals("drained[1].length", 8, destination.drainPoints.get(1).length());
+        assertEquals("destination.buf.pos", 4, destination.buffer.position());
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        final DirectStringBuilderEncoder encoder = new DirectStringBuilderEncoder(StandardCharsets.UTF_8);
+        for (final String text : TEXTS) {
+            final DirectDestination destination = new DirectDestination(5);
+            encoder.encode(new StringBuilder(text), destination);
+            assertArrayEquals(text, text.getBytes(StandardCharsets.UTF_8), destination.getBytes());
+        }
+    }
+
+    private static void assertMatchesJdkEncoder(final Charset charset) {
+        final DirectStringBuilderEncoder encoder = new DirectStringBuilderEncoder(charset);
+        for (final String text : TEXTS) {
+            // buffers smaller than a single encoded character must work too
+            for (final int bufferSize : new int[] {1, 2, 3, 5, 1024}) {
+                final SpyByteBufferDestination destination = new SpyByteBufferDestination(bufferSize, 1024);
+                encoder.encode(new StringBuilder(text), destination);
+                destination.drain(destination.buffer);
+                final byte[] actual = Arrays.copyOf(destination.drained.array(), destination.drained.position());
+                assertArrayEquals(text + " with buffer size " + bufferSize, text.getBytes(charset), actual);
+            }
+        }
+    }
+
+    private static class DirectDestination implements ByteBufferDestination {
+        private final ByteBuffer buffer;
+        private final ByteBuffer drained = ByteBuffer.allocate(1024);
+
+        DirectDestination(final int bufferSize) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        byte[] getBytes() {
+            drain(buffer);
+            return Arrays.copyOf(drained.array(), drained.position());
+        }
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return buffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            drained.put(buf);
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+    }
+}
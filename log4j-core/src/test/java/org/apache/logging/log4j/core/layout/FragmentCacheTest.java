@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FragmentCacheTest {
+
+    @Test
+    public void testRendersOnce() {
+        final AtomicInteger renders = new AtomicInteger();
+        final FragmentCache<String> cache = new FragmentCache<>((value, builder) -> {
+            renders.incrementAndGet();
+            builder.append('"').append(value).append("\",");
+        }, 10);
+        final StringBuilder builder = new StringBuilder("{");
+        cache.append("a", builder);
+        cache.append("b", builder);
+        cache.append("a", builder);
+        assertEquals("{\"a\",\"b\",\"a\",", builder.toString());
+        assertEquals(2, renders.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        final AtomicInteger renders = new AtomicInteger();
+        final FragmentCache<Integer> cache = new FragmentCache<>((value, builder) -> {
+            renders.incrementAndGet();
+            builder.append(value);
+        }, 1);
+        final StringBuilder builder = new StringBuilder();
+        cache.append(1, builder);
+        cache.append(2, builder);
+        cache.append(2, builder);
+        cache.append(1, builder);
+        assertEquals("1221", builder.toString());
+        assertEquals(3, renders.get());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMaxSize());
+    }
+}
@@ -22,11 +22,14 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.*;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.GelfLayout.CompressionType;
 import org.apache.logging.log4j.core.lookup.JavaLookup;
+import org.apache.logging.log4j.core.net.GelfDatagramOutputStream;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.core.util.NetUtils;
 import org.apache.logging.log4j.junit.ThreadContextRule;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.test.appender.EncodingListAppender;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.AfterClass;
@@ -37,11 +40,13 @@ import org.junit.Test;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
 
 import static net.javacrumbs.jsonunit.JsonAssert.assertJsonEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class GelfLayoutTest {
@@ -255,6 +260,42 @@ public class GelfLayoutTest {
         testCompressedLayout(CompressionType.OFF, false, true, HOSTNAME, true);
     }
 
+    @Test
+    public void testCompressorReuse() throws IOException {
+        for (final CompressionType compressionType : new CompressionType[] {CompressionType.GZIP, CompressionType.ZLIB}) {
+            final GelfLayout layout = GelfLayout.newBuilder()
+                .setConfiguration(ctx.getConfiguration())
+                .setHost(HOSTNAME)
+                .setCompressionType(compressionType)
+                .setCompressionThreshold(0)
+                .build();
+            for (final String message : new String[] {LINE1, LINE2, LINE3}) {
+                final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName("GelfLayoutTest")
+                    .setLevel(Level.INFO).setMessage(new SimpleMessage(message)).setTimeMillis(1000L).build();
+                final byte[] expected = layout.toSerializable(event).getBytes(layout.getCharset());
+                assertArrayEquals(expected, decompress(compressionType, layout.toByteArray(event)));
+                final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+                layout.encode(event, destination);
+                assertArrayEquals(expected, decompress(compressionType,
+                    Arrays.copyOf(destination.buffer.array(), destination.buffer.position())));
+            }
+        }
+    }
+
+    private static byte[] decompress(final CompressionType compressionType, final byte[] compressed)
+        throws IOException {
+        final InputStream bais = new ByteArrayInputStream(compressed);
+        try (final InputStream inflaterStream = compressionType == CompressionType.GZIP
+            ? new GZIPInputStream(bais) : new InflaterInputStream(bais)) {
+            return IOUtils.toByteArray(inflaterStream);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkSizeTooSmall() {
+        GelfLayout.newBuilder().setChunkSize(GelfDatagramOutputStream.CHUNK_HEADER_SIZE).build();
+    }
+
     @Test
     public void testFormatTimestamp() {
         assertEquals("0", GelfLayout.formatTimestamp(0L).toString());
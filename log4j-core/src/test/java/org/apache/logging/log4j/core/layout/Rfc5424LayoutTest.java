@@ -16,8 +16,11 @@
  */
 package org.apache.logging.log4j.core.layout;
 
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
@@ -26,17 +29,22 @@ import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.BasicConfigurationFactory;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.junit.ThreadContextRule;
 import org.apache.logging.log4j.message.StructuredDataCollectionMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.apache.logging.log4j.core.util.ProcessIdUtil;
+import org.apache.logging.log4j.util.StringMap;
 import org.apache.logging.log4j.util.Strings;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -520,4 +528,51 @@ public class Rfc5424LayoutTest {
             appender.stop();
         }
     }
+
+    @Test
+    public void testEncode() {
+        final AbstractStringLayout layout = Rfc5424Layout.createLayout(Facility.LOCAL0, "Event", 3692, true, "RequestContext",
+                null, null, true, "#012", "ATM", null, null, null, null, null, false, null, null);
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("loginId", "JohnDoe");
+        contextData.putValue("escaped", "Testing escaping \n \" ] \"");
+        final StructuredDataMessage msg = new StructuredDataMessage("Transfer@18060", "Transfer\nComplete", "Audit");
+        msg.put("ToAccount", "123456");
+        msg.put("FromAccount", "123457");
+        msg.put("Amount", "200.00");
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Logger")
+                .setLevel(Level.INFO)
+                .setMessage(msg)
+                .setContextData(contextData)
+                .setTimeMillis(1234567890123L)
+                .build();
+
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+        layout.encode(event, destination);
+        final String encoded = new String(destination.buffer.array(), 0, destination.buffer.position(),
+                StandardCharsets.UTF_8);
+        final String serialized = layout.toSerializable(event);
+        assertEquals(serialized, encoded);
+        assertTrue(serialized, serialized.endsWith(String.format("ATM %s Audit [Transfer@18060 Amount=\"200.00\" "
+                + "FromAccount=\"123457\" ToAccount=\"123456\"][RequestContext@3692 escaped=\"Testing escaping #012 "
+                + "\\\" \\] \\\"\" loginId=\"JohnDoe\"] Transfer#012Complete\n", PROCESSID)));
+    }
+
+    @Test
+    public void testTimestamp() {
+        final AbstractStringLayout layout = Rfc5424Layout.createLayout(Facility.LOCAL0, "Event", 3692, true, "RequestContext",
+                null, null, false, null, "ATM", null, null, null, null, null, false, null, null);
+        final long timeMillis = 1234567890123L;
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Logger")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("Hello"))
+                .setTimeMillis(timeMillis)
+                .build();
+        final String timestamp = layout.toSerializable(event).split(" ")[1];
+
+        // XXX writes Z for UTC
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").format(new Date(timeMillis)), timestamp);
+    }
 }
@@ -16,6 +16,9 @@
  */
 package org.apache.logging.log4j.core.layout;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Locale;
 
@@ -24,11 +27,14 @@ import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.BasicConfigurationFactory;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.net.Facility;
 import org.apache.logging.log4j.junit.ThreadContextRule;
+import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.AfterClass;
@@ -120,4 +126,30 @@ public class SyslogLayoutTest {
         assertTrue("Expected line 3 to end with: " + line3 + " Actual " + list.get(2), list.get(2).endsWith(line3));
         assertTrue("Expected line 4 to end with: " + line4 + " Actual " + list.get(3), list.get(3).endsWith(line4));
     }
+
+    @Test
+    public void testEncode() {
+        final SyslogLayout layout = SyslogLayout.newBuilder()
+                .setFacility(Facility.LOCAL0)
+                .setIncludeNewLine(true)
+                .setEscapeNL("#012")
+                .build();
+        final long timeMillis = new GregorianCalendar(2009, Calendar.FEBRUARY, 3, 4, 5, 6).getTimeInMillis();
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Logger")
+                .setLevel(Level.INFO)
+                .setMessage(new ParameterizedMessage("Hello\r\n{}\n", "World"))
+                .setTimeMillis(timeMillis)
+                .build();
+
+        final SpyByteBufferDestination destination = new SpyByteBufferDestination(4096, 4096);
+        layout.encode(event, destination);
+        final String encoded = new String(destination.buffer.array(), 0, destination.buffer.position(),
+                StandardCharsets.UTF_8);
+        final String serialized = layout.toSerializable(event);
+        assertEquals(serialized, encoded);
+        // the day of the month is padded with a space
+        assertTrue(serialized, serialized.startsWith("<134>Feb  3 04:05:06 "));
+        assertTrue(serialized, serialized.endsWith(" Hello#012World#012\n"));
+    }
 }
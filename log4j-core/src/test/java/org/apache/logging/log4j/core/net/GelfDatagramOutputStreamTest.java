@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GelfDatagramOutputStreamTest {
+
+    private DatagramSocket server;
+    private GelfDatagramOutputStream stream;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new DatagramSocket(0, InetAddress.getByName("localhost"));
+        server.setSoTimeout(5000);
+        stream = new GelfDatagramOutputStream("localhost", server.getLocalPort(), null, null, 100);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        stream.close();
+        server.close();
+    }
+
+    private byte[] receive() throws IOException {
+        final DatagramPacket packet = new DatagramPacket(new byte[1024], 1024);
+        server.receive(packet);
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+
+    private void send(final byte[] message) throws IOException {
+        stream.write(message);
+        stream.flush();
+    }
+
+    private static byte[] message(final int length) {
+        final byte[] message = new byte[length];
+        new Random(length).nextBytes(message);
+        return message;
+    }
+
+    @Test
+    public void testSmallMessageIsNotChunked() throws IOException {
+        final byte[] message = message(100);
+        send(message);
+        assertArrayEquals(message, receive());
+    }
+
+    @Test
+    public void testLargeMessageIsChunked() throws IOException {
+        final byte[] message = message(250);
+        send(message);
+        final ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+        byte[] messageId = null;
+        for (int sequence = 0; sequence < 3; sequence++) {
+            final byte[] chunk = receive();
+            assertEquals(0x1e, chunk[0]);
+            assertEquals(0x0f, chunk[1]);
+            if (messageId == null) {
+                messageId = Arrays.copyOfRange(chunk, 2, 10);
+            } else {
+                assertArrayEquals(messageId, Arrays.copyOfRange(chunk, 2, 10));
+            }
+            assertEquals(sequence, chunk[10]);
+            assertEquals(3, chunk[11]);
+            reassembled.write(chunk, GelfDatagramOutputStream.CHUNK_HEADER_SIZE,
+                    chunk.length - GelfDatagramOutputStream.CHUNK_HEADER_SIZE);
+        }
+        assertArrayEquals(message, reassembled.toByteArray());
+    }
+
+    @Test
+    public void testTooManyChunksAreDropped() throws IOException {
+        send(message(GelfDatagramOutputStream.MAX_CHUNKS * 88 + 1));
+        final byte[] next = message(10);
+        send(next);
+        assertArrayEquals(next, receive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkSizeTooSmall() {
+        new GelfDatagramOutputStream("localhost", server.getLocalPort(), null, null,
+                GelfDatagramOutputStream.CHUNK_HEADER_SIZE);
+    }
+}
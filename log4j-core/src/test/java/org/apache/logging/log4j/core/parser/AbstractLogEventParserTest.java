@@ -18,12 +18,25 @@ package org.apache.logging.log4j.core.parser;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
@@ -31,7 +44,10 @@ import static org.junit.Assert.assertThat;
  * Subclassed by JSON, XML, and YAML modules.
  */
 public abstract class AbstractLogEventParserTest {
-    
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     protected void assertLogEvent(final LogEvent logEvent) {
         assertThat(logEvent, is(notNullValue()));
         assertThat(logEvent.getInstant().getEpochMillisecond(), equalTo(1493121664118L));
@@ -56,4 +72,61 @@ public abstract class AbstractLogEventParserTest {
         assertThat((String) logEvent.getContextData().getValue("bar"), equalTo("BAR"));
         assertThat(logEvent.getSource().getClassName(), equalTo("logtest.Main"));
     }
+
+    /**
+     * Parses a stream and a file of repeated events, the file in parallel chunks.
+     *
+     * @param parser  the parser
+     * @param event  an event that {@link #assertLogEvent(LogEvent)} accepts
+     * @param separator  the text between events
+     */
+    protected void assertParseAll(final StreamLogEventParser parser, final String event, final String separator)
+            throws Exception {
+        assertParseAll(parser, "", event, separator, separator);
+    }
+
+    /**
+     * Parses a stream and a file of a document of repeated events, the file in parallel chunks if it can be split.
+     *
+     * @param parser  the parser
+     * @param prefix  the text before the first event
+     * @param event  an event that {@link #assertLogEvent(LogEvent)} accepts
+     * @param separator  the text between events
+     * @param suffix  the text after the last event
+     */
+    protected void assertParseAll(final StreamLogEventParser parser, final String prefix, final String event,
+            final String separator, final String suffix) throws Exception {
+        final int events = 100;
+        final StringBuilder builder = new StringBuilder(prefix);
+        for (int i = 0; i < events; i++) {
+            if (i > 0) {
+                builder.append(separator);
+            }
+            builder.append(event);
+        }
+        builder.append(suffix);
+        final byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        final AtomicLong count = new AtomicLong();
+        assertThat(parser.parseAll(new ByteArrayInputStream(bytes), logEvent -> {
+            assertThat(logEvent, instanceOf(MutableLogEvent.class));
+            assertLogEvent(logEvent);
+            count.incrementAndGet();
+        }), equalTo((long) events));
+        assertThat(count.get(), equalTo((long) events));
+
+        final File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        count.set(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertThat(parser.parseAll(channel, executor, 7, logEvent -> {
+                assertLogEvent(logEvent);
+                count.incrementAndGet();
+            }), equalTo((long) events));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(count.get(), equalTo((long) events));
+    }
 }
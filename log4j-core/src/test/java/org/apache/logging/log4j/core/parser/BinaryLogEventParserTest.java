@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.parser;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BinaryLogEventParserTest {
+
+    private BinaryLogEventParser parser;
+    private byte[] bytes;
+
+    @Before
+    public void setup() {
+        parser = new BinaryLogEventParser();
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("a.b.Logger")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage("Hello"))
+                .build();
+        bytes = BinaryLayout.newBuilder().build().toByteArray(event);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testEmpty() throws ParseException {
+        parser.parseFrom(new byte[0]);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testMissingHeader() throws ParseException {
+        final int header = BinaryLayout.newBuilder().build().getHeader().length;
+        parser.parseFrom(bytes, header, bytes.length - header);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testWrongMagic() throws ParseException {
+        bytes[1] = 'X';
+        parser.parseFrom(bytes);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testTruncatedRecord() throws ParseException {
+        parser.parseFrom(bytes, 0, bytes.length - 1);
+    }
+
+    @Test(expected = ParseException.class)
+    public void testTwoEvents() throws ParseException {
+        final byte[] twice = Arrays.copyOf(bytes, bytes.length * 2);
+        System.arraycopy(bytes, 0, twice, bytes.length, bytes.length);
+        parser.parseFrom(twice);
+    }
+
+    @Test
+    public void testOffsetLength() throws ParseException {
+        final byte[] shifted = new byte[bytes.length + 6];
+        System.arraycopy(bytes, 0, shifted, 3, bytes.length);
+        parser.parseFrom(shifted, 3, bytes.length);
+    }
+}
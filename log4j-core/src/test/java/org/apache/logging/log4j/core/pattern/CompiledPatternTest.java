@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link CompiledPattern} formats events like the formatters it was compiled from.
+ */
+public class CompiledPatternTest {
+
+    private static final String[] PATTERNS = {
+            "%m%n",
+            "%d %5p [%t] %c{1} %X{transactionId} - %m%n",
+            "%d{ISO8601} %-5level [%-10.10thread] %40.40c %.-5m %marker%n",
+            "[%d{yyyyMMdd HH:mm:ss,SSS}] %-5p [%-25.25c{1}:%-4L] - %m%n",
+            "%d; %-5p %5.-5c %m%n",
+            "%level{WARN=W, DEBUG=D} %logger{1.} %notEmpty{[%X{key1}]} %msg%throwable{1}%n",
+            "literal only",
+            "${sys:user.name} %m%n",
+            "%highlight{%d [%t] %-5level: %msg%n%throwable}",
+            "%c %C %M %L %m%n",
+    };
+
+    private final Configuration config = new DefaultConfiguration();
+
+    @Test
+    public void testSameOutputAsFormatters() {
+        final LogEvent event = createEvent(null);
+        final LogEvent eventWithThrowable = createEvent(new IllegalStateException("test"));
+        for (final String pattern : PATTERNS) {
+            assertSameOutput(pattern, event);
+            assertSameOutput(pattern, eventWithThrowable);
+        }
+    }
+
+    @Test
+    public void testLiteralsAreFused() {
+        final List<PatternFormatter> formatters = PatternLayout.createPatternParser(config)
+                .parse("[%t] - %m - end%n", false, true, true);
+        assertEquals(6, formatters.size());
+        // the line separator is fused with the literal before it
+        assertEquals(5, CompiledPattern.compile(formatters).size());
+        assertEquals(1, compile("literal%n").size());
+    }
+
+    @Test
+    public void testRequiresLocation() {
+        assertTrue(compile("%m %L").requiresLocation());
+        assertFalse(compile("%m %c").requiresLocation());
+    }
+
+    @Test
+    public void testCompiledLayout() {
+        final PatternLayout compiled = PatternLayout.newBuilder().setConfiguration(config)
+                .setPattern(PATTERNS[1]).setCompile(true).build();
+        final PatternLayout interpreted = PatternLayout.newBuilder().setConfiguration(config)
+                .setPattern(PATTERNS[1]).build();
+        final LogEvent event = createEvent(null);
+        assertEquals(interpreted.toSerializable(event), compiled.toSerializable(event));
+    }
+
+    private CompiledPattern compile(final String pattern) {
+        return CompiledPattern.compile(PatternLayout.createPatternParser(config).parse(pattern, false, true, true));
+    }
+
+    private void assertSameOutput(final String pattern, final LogEvent event) {
+        final List<PatternFormatter> formatters = PatternLayout.createPatternParser(config)
+                .parse(pattern, true, true, true);
+        final StringBuilder expected = new StringBuilder();
+        for (final PatternFormatter formatter : formatters) {
+            formatter.format(event, expected);
+        }
+        final StringBuilder actual = new StringBuilder();
+        CompiledPattern.compile(formatters).format(event, actual);
+        assertEquals(pattern, expected.toString(), actual.toString());
+    }
+
+    private static LogEvent createEvent(final Throwable thrown) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("key1", "value1");
+        contextData.putValue("transactionId", "tx-42");
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("org.apache.logging.log4j.core.pattern.CompiledPatternTest")
+                .setMarker(MarkerManager.getMarker("TEST"))
+                .setLoggerFqcn(CompiledPatternTest.class.getName())
+                .setLevel(Level.WARN)
+                .setMessage(new SimpleMessage("Hello, world!"))
+                .setThrown(thrown)
+                .setContextData(contextData)
+                .setThreadName("main-thread-with-a-long-name")
+                .setSource(new StackTraceElement(CompiledPatternTest.class.getName(), "createEvent",
+                        "CompiledPatternTest.java", 42))
+                .setTimeMillis(1234567890123L)
+                .build();
+    }
+}
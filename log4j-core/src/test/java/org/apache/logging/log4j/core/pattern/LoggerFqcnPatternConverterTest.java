@@ -35,4 +35,14 @@ public class LoggerFqcnPatternConverterTest {
         converter.format(event, sb);
         assertEquals(FQCN, sb.toString());
     }
+
+    @Test
+    public void testAbbreviation() {
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerFqcn(FQCN).build();
+        final StringBuilder sb = new StringBuilder();
+        final LogEventPatternConverter converter = LoggerFqcnPatternConverter.newInstance(new String[] {"1."});
+        converter.format(event, sb);
+        assertEquals("c.a.TheClass", sb.toString());
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.pattern;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NameAbbreviationCacheTest {
+
+    @Test
+    public void testCachesAbbreviatedNames() {
+        final NameAbbreviationCache cache = new NameAbbreviationCache(NameAbbreviator.getAbbreviator("1."), 10);
+        final StringBuilder sb = new StringBuilder("prefix ");
+        cache.abbreviate("org.apache.logging.Foo", sb);
+        assertEquals("prefix o.a.l.Foo", sb.toString());
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        sb.setLength(0);
+        cache.abbreviate("org.apache.logging.Foo", sb);
+        cache.abbreviate("org.apache.logging.Foo", sb);
+        cache.abbreviate("org.apache.logging.Foo", sb);
+        assertEquals("o.a.l.Fooo.a.l.Fooo.a.l.Foo", sb.toString());
+        assertEquals(3, cache.getHits());
+        assertEquals(0.75, cache.getHitRate(), 0);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitRate(), 0);
+    }
+
+    @Test
+    public void testNullName() {
+        final NameAbbreviationCache cache = new NameAbbreviationCache(NameAbbreviator.getAbbreviator("1."), 10);
+        final StringBuilder sb = new StringBuilder("prefix ");
+        cache.abbreviate(null, sb);
+        assertEquals("prefix ", sb.toString());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        final NameAbbreviationCache cache = new NameAbbreviationCache(NameAbbreviator.getAbbreviator("-1"), 2);
+        assertEquals(2, cache.getMaxSize());
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            sb.setLength(0);
+            cache.abbreviate("com.example.Logger" + i, sb);
+            assertEquals("example.Logger" + i, sb.toString());
+        }
+        assertEquals(2, cache.size());
+
+        // names beyond the maximum size are still abbreviated
+        sb.setLength(0);
+        cache.abbreviate("com.example.Logger4", sb);
+        assertEquals("example.Logger4", sb.toString());
+        assertEquals(0, cache.getHits());
+        sb.setLength(0);
+        cache.abbreviate("com.example.Logger0", sb);
+        assertEquals("example.Logger0", sb.toString());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testDisabled() {
+        final NameAbbreviationCache cache = new NameAbbreviationCache(NameAbbreviator.getAbbreviator("1"), 0);
+        final StringBuilder sb = new StringBuilder();
+        cache.abbreviate("a.b.C", sb);
+        cache.abbreviate("a.b.C", sb);
+        assertEquals("CC", sb.toString());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testConverters() {
+        final LogEvent event = Log4jLogEvent.newBuilder()
+                .setLoggerName("org.apache.logging.Foo")
+                .setLoggerFqcn("org.apache.logging.Bar")
+                .setSource(new StackTraceElement("org.apache.logging.Baz", "method", "Baz.java", 1))
+                .build();
+        final String[] options = {"1."};
+        final NamePatternConverter[] converters = {
+                LoggerPatternConverter.newInstance(options),
+                LoggerFqcnPatternConverter.newInstance(options),
+                ClassNamePatternConverter.newInstance(options)};
+        final String[] expected = {"o.a.l.Foo", "o.a.l.Bar", "o.a.l.Baz"};
+        for (int i = 0; i < converters.length; i++) {
+            final StringBuilder sb = new StringBuilder();
+            converters[i].format(event, sb);
+            converters[i].format(event, sb);
+            assertEquals(expected[i] + expected[i], sb.toString());
+            final NameAbbreviationCache cache = converters[i].getAbbreviationCache();
+            assertEquals(1, cache.size());
+            assertEquals(0.5, cache.getHitRate(), 0);
+        }
+        assertNull(LoggerPatternConverter.newInstance(null).getAbbreviationCache());
+    }
+}
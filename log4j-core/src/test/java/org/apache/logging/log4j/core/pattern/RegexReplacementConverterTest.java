@@ -51,4 +51,32 @@ public class RegexReplacementConverterTest {
         assertEquals("org/apache/logging/log4j/core/pattern/RegexReplacementConverterTest This is a test" +
             Strings.LINE_SEPARATOR, sb.toString());
     }
+
+    @Test
+    public void testReplacementMatchesReplaceAll() {
+        final LogEvent event = Log4jLogEvent.newBuilder() //
+                .setLoggerName("org.apache.logging.Foo") //
+                .setLevel(Level.DEBUG) //
+                .setMessage(new SimpleMessage("user=bob password=secret1 user=alice password=x")) //
+                .build();
+        final LoggerContext ctx = LoggerContext.getContext();
+        final String[][] cases = {
+            {"password=\\w+", "password=***"},
+            {"(\\w+)=(\\w+)", "$2:$1"},
+            {"(?<key>\\w+)=(?<value>\\w+)", "${value}<-${key}"},
+            {"(u)(s)(e)(r)(=)(b)(o)(b)( )(p)(a)", "$11$12$10"},
+            {"user", "\\$1\\\\"},
+            {"(x)?=", "[$1]"},
+            {"nomatch", "-"}
+        };
+        for (final String[] c : cases) {
+            final RegexReplacementConverter converter = RegexReplacementConverter.newInstance(ctx.getConfiguration(),
+                    new String[] {"%msg", c[0], c[1]});
+            final StringBuilder sb = new StringBuilder("> ");
+            converter.format(event, sb);
+            converter.format(event, sb);
+            final String expected = event.getMessage().getFormattedMessage().replaceAll(c[0], c[1]);
+            assertEquals(c[0] + " -> " + c[1], "> " + expected + expected, sb.toString());
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testKeepsFirstValues() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(2);
+        cache.putIfAbsent("a", "1");
+        cache.putIfAbsent("a", "2");
+        assertEquals("1", cache.get("a"));
+        assertFalse(cache.isFull());
+
+        cache.putIfAbsent("b", "3");
+        assertTrue(cache.isFull());
+        cache.putIfAbsent("c", "4");
+        assertNull(cache.get("c"));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testSize0() {
+        final BoundedCache<String, String> cache = new BoundedCache<>(-1);
+        assertEquals(0, cache.getMaxSize());
+        assertTrue(cache.isFull());
+        cache.putIfAbsent("a", "1");
+        assertNull(cache.get("a"));
+    }
+}
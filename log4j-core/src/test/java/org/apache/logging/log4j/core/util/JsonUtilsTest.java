@@ -71,4 +71,19 @@ public class JsonUtilsTest {
         assertEquals("\\u0000\\u0001\\u0002\\u0003\\u0004", output.toString());
     }
 
+    @Test
+    public void testQuoteInPlace() throws Exception
+    {
+        final String[] inputs = { "", "foobar", "\"x\"", "tab\there", "\u0000\u001f", "a\\b\nc\u0001" };
+        for (final String input : inputs) {
+            final StringBuilder expected = new StringBuilder("{\"prefix\":\"");
+            JsonUtils.quoteAsString(input, expected);
+            final StringBuilder builder = new StringBuilder("{\"prefix\":\"");
+            final int start = builder.length();
+            builder.append(input);
+            JsonUtils.quoteInPlace(builder, start);
+            assertEquals(expected.toString(), builder.toString());
+        }
+    }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.util;
+
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.core.util.TextMatcher.Type;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextMatcherTest {
+
+    @Test
+    public void testRegex() {
+        final TextMatcher matcher = TextMatcher.create(Type.REGEX, ".* test .*", 0);
+        assertTrue(matcher.matches("This is a test message"));
+        assertTrue(matcher.matches(new StringBuilder("another test !")));
+        assertFalse(matcher.matches("This is not a test"));
+        assertEquals(".* test .*", matcher.getExpression());
+    }
+
+    @Test
+    public void testRegexFlags() {
+        final TextMatcher matcher = TextMatcher.create(Type.REGEX, ".*line.*", Pattern.DOTALL);
+        assertTrue(matcher.matches("first line\nsecond"));
+    }
+
+    @Test
+    public void testLiteral() {
+        final TextMatcher matcher = TextMatcher.create(Type.LITERAL, "a*b?c", 0);
+        assertTrue(matcher.matches(new StringBuilder("a*b?c")));
+        assertFalse(matcher.matches("aXbYc"));
+        assertFalse(matcher.matches("a*b?cd"));
+        assertFalse(matcher.matches(""));
+    }
+
+    @Test
+    public void testGlob() {
+        assertGlob("*", true, "", "anything");
+        assertGlob("User * logged in", true, "User bob logged in", "User  logged in");
+        assertGlob("User * logged in", false, "User bob logged out", "User logged in");
+        assertGlob("*error*", true, "an error occurred", "error", "errors", "xerror");
+        assertGlob("*error*", false, "erro", "", "eRRor");
+        assertGlob("a?c", true, "abc", "a?c", "azc");
+        assertGlob("a?c", false, "ac", "abbc");
+        assertGlob("a*b*c", true, "abc", "aXbYc", "abbbc", "abcbc");
+        assertGlob("a*b*c", false, "acb", "ab", "bc");
+        assertGlob("*a*a", true, "aa", "banana");
+        assertGlob("*a*a", false, "a", "ab");
+        assertGlob("**", true, "", "x");
+        assertGlob("", true, "");
+        assertGlob("", false, "x");
+    }
+
+    private static void assertGlob(final String glob, final boolean expected, final String... texts) {
+        final TextMatcher matcher = TextMatcher.create(Type.GLOB, glob, 0);
+        for (final String text : texts) {
+            assertEquals(glob + " matches '" + text + "'", expected, matcher.matches(new StringBuilder(text)));
+        }
+    }
+}
@@ -800,6 +800,25 @@ public final class JdbcDatabaseManager extends AbstractDatabaseManager {
         }
     }
 
+    @Override
+    protected void writeThrough(final LogEvent[] events, final int count) {
+        this.connectAndStart();
+        try {
+            try {
+                this.writeAllInternal(events, count);
+            } finally {
+                this.commitAndClose();
+            }
+        } catch (final DbAppenderLoggingException e) {
+            reconnectOn(e);
+            try {
+                this.writeAllInternal(events, count);
+            } finally {
+                this.commitAndClose();
+            }
+        }
+    }
+
     @Override
     protected void writeThrough(final LogEvent event, final Serializable serializable) {
         this.connectAndStart();
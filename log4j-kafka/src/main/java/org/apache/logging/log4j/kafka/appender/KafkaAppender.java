@@ -19,6 +19,7 @@ package org.apache.logging.log4j.kafka.appender;
 
 import org.apache.logging.log4j.core.AbstractLifeCycle;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.BatchAppender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
@@ -39,7 +40,7 @@ import java.util.concurrent.TimeoutException;
  * Sends log events to an Apache Kafka topic.
  */
 @Plugin(name = "Kafka", category = Node.CATEGORY, elementType = Appender.ELEMENT_TYPE, printObject = true)
-public final class KafkaAppender extends AbstractAppender {
+public final class KafkaAppender extends AbstractAppender implements BatchAppender {
 
     /**
      * Builds KafkaAppender instances.
@@ -127,6 +128,29 @@ public final class KafkaAppender extends AbstractAppender {
         }
     }
 
+    /**
+     * Sends the events of a batch together, see {@link KafkaManager#send(byte[][], int)}.
+     */
+    @Override
+    public void appendBatch(final LogEvent[] events, final int count) {
+        final Layout<? extends Serializable> layout = getLayout();
+        final byte[][] data = new byte[count][];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final LogEvent event = events[i];
+            if (event.getLoggerName() != null && event.getLoggerName().startsWith("org.apache.kafka")) {
+                LOGGER.warn("Recursive logging from [{}] for appender [{}].", event.getLoggerName(), getName());
+            } else {
+                data[size++] = layout.toByteArray(event);
+            }
+        }
+        try {
+            manager.send(data, size);
+        } catch (final Exception e) {
+            error("Unable to write to Kafka in appender [" + getName() + "]", events[0], e);
+        }
+    }
+
     private void tryAppend(final LogEvent event) throws ExecutionException, InterruptedException, TimeoutException {
         final Layout<? extends Serializable> layout = getLayout();
         byte[] data;
@@ -54,6 +54,15 @@ public class KafkaManager extends AbstractManager {
 
     private static final KafkaManagerFactory factory = new KafkaManagerFactory();
 
+    private final Callback errorCallback = new Callback() {
+        @Override
+        public void onCompletion(final RecordMetadata metadata, final Exception e) {
+            if (e != null) {
+                LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
+            }
+        }
+    };
+
     /*
      * The Constructor should have been declared private as all Managers are create by the internal factory;
      */
@@ -108,31 +117,51 @@ public class KafkaManager extends AbstractManager {
 
     public void send(final byte[] msg) throws ExecutionException, InterruptedException, TimeoutException {
         if (producer != null) {
-            byte[] newKey = null;
-
-            if(key != null && key.contains("${")) {
-                newKey = getLoggerContext().getConfiguration().getStrSubstitutor().replace(key).getBytes(StandardCharsets.UTF_8);
-            } else if (key != null) {
-                newKey = key.getBytes(StandardCharsets.UTF_8);
-            }
-
-            final ProducerRecord<byte[], byte[]> newRecord = new ProducerRecord<>(topic, newKey, msg);
+            final ProducerRecord<byte[], byte[]> newRecord = new ProducerRecord<>(topic, resolveKey(), msg);
             if (syncSend) {
                 final Future<RecordMetadata> response = producer.send(newRecord);
                 response.get(timeoutMillis, TimeUnit.MILLISECONDS);
             } else {
-                producer.send(newRecord, new Callback() {
-                    @Override
-                    public void onCompletion(final RecordMetadata metadata, final Exception e) {
-                        if (e != null) {
-                            LOGGER.error("Unable to write to Kafka in appender [" + getName() + "]", e);
-                        }
-                    }
-                });
+                producer.send(newRecord, errorCallback);
             }
         }
     }
 
+    /**
+     * Sends a batch of messages. With {@code syncSend} all messages are handed to the producer before waiting for the
+     * acknowledgements, so the batch waits for the broker once instead of once per message.
+     *
+     * @param messages the messages to send; only the first {@code count} elements are used
+     * @param count the number of messages to send
+     */
+    public void send(final byte[][] messages, final int count)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        if (producer != null) {
+            if (syncSend) {
+                @SuppressWarnings("unchecked")
+                final Future<RecordMetadata>[] responses = new Future[count];
+                for (int i = 0; i < count; i++) {
+                    responses[i] = producer.send(new ProducerRecord<>(topic, resolveKey(), messages[i]));
+                }
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+                for (int i = 0; i < count; i++) {
+                    responses[i].get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    producer.send(new ProducerRecord<>(topic, resolveKey(), messages[i]), errorCallback);
+                }
+            }
+        }
+    }
+
+    private byte[] resolveKey() {
+        if (key != null && key.contains("${")) {
+            return getLoggerContext().getConfiguration().getStrSubstitutor().replace(key).getBytes(StandardCharsets.UTF_8);
+        }
+        return key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
     public void startup() {
         producer = producerFactory.newKafkaProducer(config);
     }
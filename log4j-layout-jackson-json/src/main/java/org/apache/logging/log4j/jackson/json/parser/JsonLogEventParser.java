@@ -21,12 +21,14 @@ import org.apache.logging.log4j.core.parser.AbstractJacksonLogEventParser;
 import org.apache.logging.log4j.jackson.json.Log4jJsonObjectMapper;
 
 /**
- * Parses the output from XmlLayout layout into instances of {@link LogEvent}.
+ * Parses the output from JsonLayout layout into instances of {@link LogEvent}. Files written with
+ * {@code complete="false"} and {@code compact="false"} or {@code eventEol="true"} can be parsed in parallel
+ * chunks.
  */
 public class JsonLogEventParser extends AbstractJacksonLogEventParser {
 
     public JsonLogEventParser() {
-        super(new Log4jJsonObjectMapper());
+        super(new Log4jJsonObjectMapper(), "{");
     }
 
 }
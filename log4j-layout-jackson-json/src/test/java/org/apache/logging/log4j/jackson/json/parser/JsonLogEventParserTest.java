@@ -16,6 +16,10 @@
  */
 package org.apache.logging.log4j.jackson.json.parser;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.logging.log4j.core.LogEvent;
@@ -98,6 +102,22 @@ public class JsonLogEventParserTest extends AbstractLogEventParserTest {
         parser.parseFrom("{}");
     }
 
+    @Test
+    public void testParseAll() throws Exception {
+        assertParseAll(parser, JSON, "\n");
+    }
+
+    @Test
+    public void testParseAllArray() throws ParseException {
+        final byte[] bytes = ("[" + JSON + ",\n" + JSON + "]").getBytes(StandardCharsets.UTF_8);
+        assertThat(parser.parseAll(new ByteArrayInputStream(bytes), this::assertLogEvent), equalTo(2L));
+    }
+
+    @Test
+    public void testParseAllArrayInChunks() throws Exception {
+        assertParseAll(parser, "[\n", JSON, "\n,\n", "\n]\n");
+    }
+
     @Test
     public void testString() throws ParseException {
         final LogEvent logEvent = parser.parseFrom(JSON);
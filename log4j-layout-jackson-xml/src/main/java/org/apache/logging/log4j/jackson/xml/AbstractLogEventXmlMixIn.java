@@ -22,6 +22,7 @@ import org.apache.logging.log4j.ThreadContext.ContextStack;
 import org.apache.logging.log4j.core.impl.ThrowableProxy;
 import org.apache.logging.log4j.core.time.Instant;
 import org.apache.logging.log4j.jackson.AbstractLogEventMixIn;
+import org.apache.logging.log4j.jackson.CachedStringSerializer;
 import org.apache.logging.log4j.jackson.ContextDataAsEntryListDeserializer;
 import org.apache.logging.log4j.jackson.Log4jStackTraceElementDeserializer;
 import org.apache.logging.log4j.jackson.MessageSerializer;
@@ -91,10 +92,12 @@ public abstract class AbstractLogEventXmlMixIn extends AbstractLogEventMixIn {
 
     @JacksonXmlProperty(isAttribute = true)
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerFqcn();
 
     @JacksonXmlProperty(isAttribute = true)
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerName();
 
     @JacksonXmlProperty(namespace = XmlConstants.XML_NAMESPACE, localName = XmlConstants.ELT_MARKER)
@@ -118,6 +121,7 @@ public abstract class AbstractLogEventXmlMixIn extends AbstractLogEventMixIn {
 
     @Override
     @JacksonXmlProperty(isAttribute = true, localName = ATTR_THREAD)
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getThreadName();
 
     @Override
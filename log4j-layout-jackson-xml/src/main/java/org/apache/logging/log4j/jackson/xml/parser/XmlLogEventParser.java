@@ -16,17 +16,67 @@
  */
 package org.apache.logging.log4j.jackson.xml.parser;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.parser.AbstractJacksonLogEventParser;
+import org.apache.logging.log4j.jackson.XmlConstants;
 import org.apache.logging.log4j.jackson.xml.Log4jXmlObjectMapper;
 
+import com.ctc.wstx.api.WstxInputProperties;
+import com.ctc.wstx.stax.WstxInputFactory;
+
 /**
- * Parses the output from XmlLayout layout into instances of {@link LogEvent}.
+ * Parses the output from XmlLayout layout into instances of {@link LogEvent}. Streams may hold a complete document or
+ * the root-less sequence of events written with {@code complete="false"}; files written with
+ * {@code complete="false"} and {@code compact="false"} can be parsed in parallel chunks.
  */
 public class XmlLogEventParser extends AbstractJacksonLogEventParser {
 
+    private final Log4jXmlObjectMapper objectMapper;
+    private final XMLInputFactory inputFactory;
+
     public XmlLogEventParser() {
-        super(new Log4jXmlObjectMapper());
+        this(new Log4jXmlObjectMapper());
+    }
+
+    private XmlLogEventParser(final Log4jXmlObjectMapper objectMapper) {
+        super(objectMapper, "<" + XmlConstants.ELT_EVENT + " ");
+        this.objectMapper = objectMapper;
+        // events written without the root element are several documents in a row
+        this.inputFactory = new WstxInputFactory();
+        this.inputFactory.setProperty(WstxInputProperties.P_INPUT_PARSING_MODE,
+                WstxInputProperties.PARSING_MODE_FRAGMENT);
+        this.inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        this.inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+
+    @Override
+    protected void readValues(final InputStream input, final Consumer<LogEvent> consumer) throws IOException {
+        try {
+            final XMLStreamReader reader = inputFactory.createXMLStreamReader(input);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && XmlConstants.ELT_EVENT.equals(reader.getLocalName())) {
+                        // leaves the reader on the end of the event
+                        consumer.accept(objectMapper.readValue(reader, Log4jLogEvent.class));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
     }
 
 }
@@ -16,6 +16,10 @@
  */
 package org.apache.logging.log4j.jackson.xml.parser;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.logging.log4j.core.LogEvent;
@@ -98,6 +102,25 @@ public class XmlLogEventParserTest extends AbstractLogEventParserTest {
         parser.parseFrom("<Event></Event>");
     }
 
+    @Test
+    public void testParseAll() throws Exception {
+        assertParseAll(parser, XML, "\n");
+    }
+
+    @Test
+    public void testParseAllDocument() throws ParseException {
+        final byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<Events xmlns=\"http://logging.apache.org/log4j/2.0/events\">\n" + XML + "\n" + XML + "\n</Events>\n")
+                .getBytes(StandardCharsets.UTF_8);
+        assertThat(parser.parseAll(new ByteArrayInputStream(bytes), this::assertLogEvent), equalTo(2L));
+    }
+
+    @Test
+    public void testParseAllDocumentInChunks() throws Exception {
+        assertParseAll(parser, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<Events xmlns=\"http://logging.apache.org/log4j/2.0/events\">\n", XML, "\n", "\n</Events>\n");
+    }
+
     @Test
     public void testString() throws ParseException {
         final LogEvent logEvent = parser.parseFrom(XML);
@@ -21,12 +21,13 @@ import org.apache.logging.log4j.core.parser.AbstractJacksonLogEventParser;
 import org.apache.logging.log4j.jackson.yaml.Log4jYamlObjectMapper;
 
 /**
- * Parses the output from YamlLayout layout into instances of {@link LogEvent}.
+ * Parses the output from YamlLayout layout into instances of {@link LogEvent}. Each event is a YAML document, so
+ * files written with {@code complete="false"} can be parsed in parallel chunks.
  */
 public class YamlLogEventParser extends AbstractJacksonLogEventParser {
 
     public YamlLogEventParser() {
-        super(new Log4jYamlObjectMapper());
+        super(new Log4jYamlObjectMapper(), "---");
     }
 
 }
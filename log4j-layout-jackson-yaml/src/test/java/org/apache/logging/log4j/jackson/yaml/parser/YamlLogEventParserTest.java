@@ -94,6 +94,11 @@ public class YamlLogEventParserTest extends AbstractLogEventParserTest {
         parser.parseFrom("---\n");
     }
 
+    @Test
+    public void testParseAll() throws Exception {
+        assertParseAll(parser, YAML, "\n");
+    }
+
     @Test
     public void testString() throws ParseException {
         final LogEvent logEvent = parser.parseFrom(YAML);
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.jackson;
+
+import java.io.IOException;
+
+import org.apache.logging.log4j.core.layout.FragmentCache;
+import org.apache.logging.log4j.core.util.BoundedCache;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes strings that repeat from event to event, such as logger and thread names, through a
+ * {@link BoundedCache} of {@link SerializedString}s, so generators copy their already quoted and encoded form instead
+ * of escaping and encoding them again. The cache is limited by the {@value FragmentCache#MAX_SIZE_PROPERTY} system
+ * property.
+ * <p>
+ * <em>Consider this class private.</em>
+ * </p>
+ */
+public class CachedStringSerializer extends StdSerializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BoundedCache<String, SerializedString> strings = new BoundedCache<>(
+            PropertiesUtil.getProperties().getIntegerProperty(FragmentCache.MAX_SIZE_PROPERTY,
+                    FragmentCache.DEFAULT_MAX_SIZE));
+
+    protected CachedStringSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(final String value, final JsonGenerator jgen, final SerializerProvider provider)
+            throws IOException {
+        SerializedString serialized = strings.get(value);
+        if (serialized == null) {
+            if (strings.isFull()) {
+                jgen.writeString(value);
+                return;
+            }
+            serialized = new SerializedString(value);
+            strings.putIfAbsent(value, serialized);
+        }
+        jgen.writeString(serialized);
+    }
+}
@@ -79,10 +79,12 @@ public abstract class LogEventJsonMixIn /* extends AbstractLogEventMixIn */ impl
 
     @JsonProperty()
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerFqcn();
 
     @JsonProperty()
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerName();
 
     @JsonProperty(JsonConstants.ELT_MARKER)
@@ -105,6 +107,7 @@ public abstract class LogEventJsonMixIn /* extends AbstractLogEventMixIn */ impl
 
     @Override
     @JsonProperty("thread")
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getThreadName();
 
     @Override
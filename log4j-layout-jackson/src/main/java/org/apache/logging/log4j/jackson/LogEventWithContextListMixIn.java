@@ -62,10 +62,12 @@ abstract class LogEventWithContextListMixIn implements LogEvent {
 
     @JsonProperty()
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerFqcn();
 
     @JsonProperty()
     @Override
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getLoggerName();
 
     @JsonProperty(JsonConstants.ELT_MARKER)
@@ -89,6 +91,7 @@ abstract class LogEventWithContextListMixIn implements LogEvent {
 
     @Override
     @JsonProperty("thread")
+    @JsonSerialize(using = CachedStringSerializer.class)
     public abstract String getThreadName();
 
     @Override
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency from logging an event until the Async Logger background thread hands it to the appender, for
+ * each wait strategy at several arrival rates. The reported percentiles show the wake-up cost of each strategy.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*AsyncLoggersWaitStrategyLatencyBenchmark.*"
+//
+// compare only the adaptive and the default strategy at one event every 100 microseconds:
+// java -jar log4j-perf/target/benchmarks.jar ".*AsyncLoggersWaitStrategyLatencyBenchmark.*" \
+//     -p waitStrategy=TIMEOUT,ADAPTIVE -p intervalMicros=100
+//
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class AsyncLoggersWaitStrategyLatencyBenchmark {
+
+    @Param({"TIMEOUT", "BLOCK", "SLEEP", "YIELD", "BUSYSPIN", "ADAPTIVE"})
+    private String waitStrategy;
+
+    /** Pause between two events, {@code 0} logs back-to-back. */
+    @Param({"0", "10", "100", "1000"})
+    private long intervalMicros;
+
+    private Logger logger;
+    private CountingAppender appender;
+    private long sent;
+    private long nextEventNanos;
+
+    @Setup(Level.Trial)
+    public void up() {
+        System.setProperty("log4j.configurationFile", "perf-WithoutAnyAppender.xml");
+        System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
+        System.setProperty("AsyncLogger.WaitStrategy", waitStrategy);
+
+        final LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        appender = new CountingAppender();
+        appender.start();
+        context.getConfiguration().getRootLogger().addAppender(appender, null, null);
+        context.updateLoggers();
+        logger = LogManager.getLogger(getClass());
+        sent = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void down() {
+        ((LoggerContext) LogManager.getContext(false)).stop();
+        logger = null;
+    }
+
+    @Setup(Level.Invocation)
+    public void pace() {
+        while (System.nanoTime() < nextEventNanos) {
+            // busy-wait: parking is far too coarse for intervals of a few microseconds
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void endToEndLatency() {
+        final long expected = ++sent;
+        logger.info(BenchmarkMessageParams.TEST);
+        while (appender.count < expected) {
+            // wait for the background thread
+        }
+        nextEventNanos = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(intervalMicros);
+    }
+
+    /**
+     * Counts the events it receives; only the Async Logger background thread writes the count.
+     */
+    private static final class CountingAppender extends AbstractAppender {
+        volatile long count;
+
+        CountingAppender() {
+            super("counting", null, null, true, Property.EMPTY_ARRAY);
+        }
+
+        @Override
+        public void append(final LogEvent event) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
+import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.GelfLayout;
+import org.apache.logging.log4j.core.parser.BinaryLogEventParser;
+import org.apache.logging.log4j.core.parser.ParseException;
+import org.apache.logging.log4j.jackson.json.layout.JsonLayout;
+import org.apache.logging.log4j.jackson.json.parser.JsonLogEventParser;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.perf.util.DemoAppender;
+import org.apache.logging.log4j.util.FilteredObjectInputStream;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the size, encoding and decoding time of BinaryLayout with JsonLayout, GelfLayout and Java serialization,
+ * the format of the former SerializedLayout. The encoded sizes are printed at setup.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar BinaryLayoutBenchmark -f 1 -i 5 -wi 5 -bm sample -tu ns
+// To measure allocations add: -prof gc
+@State(Scope.Thread)
+public class BinaryLayoutBenchmark {
+    private static final LogEvent EVENT = createLogEvent();
+    private static final int STREAM_EVENTS = 1000;
+
+    private static LogEvent createLogEvent() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("user", "jdoe");
+        contextData.putValue("tenant", "tenant-42");
+        contextData.putValue("requestId", "5c0b6ad6-6bd4-4f5a-9a2d-8d0e5a2c8e71");
+        return Log4jLogEvent.newBuilder() //
+                .setLoggerName("com.mycom.myproject.mypackage.MyClass") //
+                .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger") //
+                .setLevel(Level.INFO) //
+                .setMarker(MarkerManager.getMarker("AUDIT")) //
+                .setMessage(new ParameterizedMessage("Processed {} items of order {} in {} ms", 12, "A-1234", 57)) //
+                .setContextData(contextData) //
+                .setThreadName("worker-3") //
+                .setThreadId(42) //
+                .setTimeMillis(1234567890123L) //
+                .build();
+    }
+
+    private final BinaryLogEventParser binaryParser = new BinaryLogEventParser();
+    private final JsonLogEventParser jsonParser = new JsonLogEventParser();
+
+    Appender binary;
+    Appender json;
+    Appender gelf;
+    byte[] binaryEvent;
+    byte[] jsonEvent;
+    byte[] serializedEvent;
+    byte[] binaryStream;
+    byte[] jsonStream;
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+
+        final BinaryLayout binaryLayout = BinaryLayout.newBuilder().build();
+        final JsonLayout jsonLayout = JsonLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .setCompact(true)
+                .setEventEol(true)
+                .setProperties(true)
+                .build();
+        final GelfLayout gelfLayout = GelfLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .setHost("host")
+                .setCompressionType(GelfLayout.CompressionType.OFF)
+                .build();
+        binary = new DemoAppender(binaryLayout);
+        json = new DemoAppender(jsonLayout);
+        gelf = new DemoAppender(gelfLayout);
+
+        binaryEvent = binaryLayout.toByteArray(EVENT);
+        jsonEvent = jsonLayout.toByteArray(EVENT);
+        serializedEvent = serialize(EVENT);
+        binaryStream = stream(binaryLayout);
+        jsonStream = stream(jsonLayout);
+
+        System.out.printf("Bytes per event: binary %d in a stream, %d alone; JSON %d; GELF %d; serialized %d%n",
+                (binaryStream.length - binaryLayout.getHeader().length) / STREAM_EVENTS, binaryEvent.length,
+                jsonEvent.length, gelfLayout.toByteArray(EVENT).length, serializedEvent.length);
+    }
+
+    private static byte[] serialize(final LogEvent event) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] stream(final Layout<?> layout) {
+        final StreamDestination destination = new StreamDestination();
+        final byte[] header = layout.getHeader();
+        if (header != null) {
+            destination.writeBytes(header, 0, header.length);
+        }
+        for (int i = 0; i < STREAM_EVENTS; i++) {
+            layout.encode(new Log4jLogEvent.Builder(EVENT).setTimeMillis(EVENT.getTimeMillis() + i).build(),
+                    destination);
+        }
+        return destination.toByteArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j2.enable.direct.encoders");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void encodeBinary() {
+        binary.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void encodeJson() {
+        json.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void encodeGelf() {
+        gelf.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public byte[] encodeSerialized() throws IOException {
+        return serialize(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public LogEvent decodeBinary() throws ParseException {
+        return binaryParser.parseFrom(binaryEvent);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public LogEvent decodeJson() throws ParseException {
+        return jsonParser.parseFrom(jsonEvent);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public Object decodeSerialized() throws IOException, ClassNotFoundException {
+        try (final ObjectInputStream in = new FilteredObjectInputStream(new ByteArrayInputStream(serializedEvent))) {
+            return in.readObject();
+        }
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public long decodeBinaryStream(final Blackhole blackhole) throws ParseException {
+        return binaryParser.parseAll(new ByteArrayInputStream(binaryStream), blackhole::consume);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public long decodeJsonStream(final Blackhole blackhole) throws ParseException {
+        return jsonParser.parseAll(new ByteArrayInputStream(jsonStream), blackhole::consume);
+    }
+
+    /**
+     * Collects the encoded events of a stream in memory.
+     */
+    private static final class StreamDestination implements ByteBufferDestination {
+        private final ByteBuffer byteBuffer = ByteBuffer.wrap(new byte[4096]);
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public ByteBuffer getByteBuffer() {
+            return byteBuffer;
+        }
+
+        @Override
+        public ByteBuffer drain(final ByteBuffer buf) {
+            buf.flip();
+            bytes.write(buf.array(), buf.position(), buf.remaining());
+            buf.clear();
+            return buf;
+        }
+
+        @Override
+        public void writeBytes(final ByteBuffer data) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, this);
+        }
+
+        @Override
+        public void writeBytes(final byte[] data, final int offset, final int length) {
+            ByteBufferDestinationHelper.writeToUnsynchronized(data, offset, length, this);
+        }
+
+        byte[] toByteArray() {
+            drain(byteBuffer);
+            return bytes.toByteArray();
+        }
+    }
+}
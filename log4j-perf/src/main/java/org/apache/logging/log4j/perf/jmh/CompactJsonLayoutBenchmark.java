@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.CompactJsonLayout;
+import org.apache.logging.log4j.jackson.json.layout.JsonLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.perf.util.DemoAppender;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the Jackson-free CompactJsonLayout with the Jackson JsonLayout.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar CompactJsonLayoutBenchmark -f 1 -i 5 -wi 5 -bm sample -tu ns
+// To measure allocations add: -prof gc
+@State(Scope.Thread)
+public class CompactJsonLayoutBenchmark {
+    private static final LogEvent EVENT = createLogEvent();
+
+    private static LogEvent createLogEvent() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("user", "jdoe");
+        contextData.putValue("tenant", "tenant-42");
+        contextData.putValue("requestId", "5c0b6ad6-6bd4-4f5a-9a2d-8d0e5a2c8e71");
+        return Log4jLogEvent.newBuilder() //
+                .setLoggerName("com.mycom.myproject.mypackage.MyClass") //
+                .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger") //
+                .setLevel(Level.INFO) //
+                .setMessage(new ParameterizedMessage("Processed {} items of order {} in {} ms", 12, "A-1234", 57)) //
+                .setContextData(contextData) //
+                .setThreadName("worker-3") //
+                .setTimeMillis(1234567890123L) //
+                .build();
+    }
+
+    Appender compactJson;
+    Appender jacksonJson;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+
+        compactJson = new DemoAppender(CompactJsonLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .build());
+        jacksonJson = new DemoAppender(JsonLayout.newBuilder()
+                .setConfiguration(new NullConfiguration())
+                .setCompact(true)
+                .setEventEol(true)
+                .setProperties(true)
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j2.enable.direct.encoders");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void compactJsonLayout() {
+        compactJson.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void jacksonJsonLayout() {
+        jacksonJson.append(EVENT);
+    }
+}
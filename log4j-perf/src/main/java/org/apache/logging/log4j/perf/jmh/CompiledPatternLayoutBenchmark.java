@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares PatternLayout rendering through the formatters with rendering a compiled pattern.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread, with allocation rate (gc.alloc.rate.norm):
+// java -jar log4j-perf/target/benchmarks.jar ".*CompiledPatternLayoutBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompiledPatternLayoutBenchmark {
+
+    private static final LogEvent EVENT = Log4jLogEvent.newBuilder()
+            .setLoggerName("com.mycom.myproject.mypackage.MyClass")
+            .setLoggerFqcn("com.mycom.myproject.mypackage.MyClass")
+            .setLevel(Level.DEBUG)
+            .setMessage(new SimpleMessage("AB!(%087936DZYXQWEIOP$#^~-=/><nb"))
+            .setThreadName("main")
+            .setTimeMillis(12345678)
+            .build();
+
+    @Param({
+            "%d %5p [%t] %c{1} %X{transactionId} - %m%n",
+            "%d{ISO8601} %-5level [%-10.10t] %c - %m%n",
+            "%m%n"
+    })
+    public String pattern;
+
+    private PatternLayout interpreted;
+    private PatternLayout compiled;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Setup
+    public void setUp() {
+        interpreted = PatternLayout.newBuilder().setPattern(pattern).setAlwaysWriteExceptions(false)
+                .setNoConsoleNoAnsi(true).build();
+        compiled = PatternLayout.newBuilder().setPattern(pattern).setAlwaysWriteExceptions(false)
+                .setNoConsoleNoAnsi(true).setCompile(true).build();
+    }
+
+    @Benchmark
+    public StringBuilder interpreted() {
+        buffer.setLength(0);
+        interpreted.serialize(EVENT, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public StringBuilder compiled() {
+        buffer.setLength(0);
+        compiled.serialize(EVENT, buffer);
+        return buffer;
+    }
+}
@@ -23,7 +23,6 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LifeCycle;
 import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
 import org.apache.logging.log4j.core.async.EventRoute;
-import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -60,7 +59,7 @@ public class ConcurrentAsyncLoggerToFileBenchmark {
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     public void concurrentLoggingThreads(BenchmarkState state) {
-        state.logger.info(BenchmarkMessageParams.TEST);
+        state.logger.info(state.message);
     }
 
     @Benchmark
@@ -68,7 +67,7 @@ public class ConcurrentAsyncLoggerToFileBenchmark {
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     public void singleLoggingThread(BenchmarkState state) {
-        state.logger.info(BenchmarkMessageParams.TEST);
+        state.logger.info(state.message);
     }
 
     @State(Scope.Benchmark)
@@ -80,7 +79,14 @@ public class ConcurrentAsyncLoggerToFileBenchmark {
         @Param({"ASYNC_CONTEXT", "ASYNC_CONFIG"})
         private AsyncLoggerType asyncLoggerType;
 
+        @Param({"false", "true"})
+        private boolean directFileBuffers;
+
+        @Param({"23", "256", "2048"})
+        private int messageSize;
+
         private Logger logger;
+        private String message;
 
         @Setup
         public final void before() {
@@ -88,6 +94,8 @@ public class ConcurrentAsyncLoggerToFileBenchmark {
             System.setProperty("log4j2.is.webapp", "false");
             asyncLoggerType.setProperties();
             queueFullPolicy.setProperties();
+            System.setProperty("log4j2.enable.direct.file.buffers", String.valueOf(directFileBuffers));
+            message = FileAppenderBenchmark.createMessage(messageSize);
             logger = LogManager.getLogger(ConcurrentAsyncLoggerToFileBenchmark.class);
         }
 
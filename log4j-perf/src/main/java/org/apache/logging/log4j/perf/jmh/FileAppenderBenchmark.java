@@ -28,6 +28,7 @@ import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -43,11 +44,23 @@ import org.slf4j.LoggerFactory;
 //
 // RUNNING THIS TEST WITH 4 THREADS:
 // java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderBenchmark.*" -f 1 -wi 10 -i 20 -t 4
+//
+// ONLY THE ORIGINAL MESSAGE SIZE, WITHOUT DIRECT FILE BUFFERS:
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderBenchmark.*" -f 1 -wi 10 -i 20 -p messageSize=23 -p directFileBuffers=false
 @State(Scope.Thread)
 public class FileAppenderBenchmark {
     public static final String MESSAGE = "This is a debug message";
     private FileHandler julFileHandler;
 
+    /** Only affects Log4j 2. */
+    @Param({"false", "true"})
+    public boolean directFileBuffers;
+
+    @Param({"23", "256", "2048"})
+    public int messageSize;
+
+    private String message;
+
     Logger log4j2Logger;
     Logger log4j2AsyncAppender;
     Logger log4j2AsyncLogger;
@@ -64,6 +77,8 @@ public class FileAppenderBenchmark {
         System.setProperty("log4j.configurationFile", "log4j2-perf.xml");
         System.setProperty("log4j.configuration", "log4j12-perf.xml");
         System.setProperty("logback.configurationFile", "logback-perf.xml");
+        System.setProperty("log4j2.enable.direct.file.buffers", String.valueOf(directFileBuffers));
+        message = createMessage(messageSize);
 
         deleteLogFiles();
 
@@ -89,10 +104,20 @@ public class FileAppenderBenchmark {
         System.clearProperty("log4j.configurationFile");
         System.clearProperty("log4j.configuration");
         System.clearProperty("logback.configurationFile");
+        System.clearProperty("log4j2.enable.direct.file.buffers");
 
         deleteLogFiles();
     }
 
+    static String createMessage(final int size) {
+        final StringBuilder sb = new StringBuilder(size + MESSAGE.length()).append(MESSAGE);
+        while (sb.length() < size) {
+            sb.append(' ').append(MESSAGE);
+        }
+        sb.setLength(size);
+        return sb.toString();
+    }
+
     private void deleteLogFiles() {
         final File logbackFile = new File("target/testlogback.log");
         logbackFile.delete();
@@ -112,7 +137,7 @@ public class FileAppenderBenchmark {
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2RAF() {
-        log4j2RandomLogger.debug(MESSAGE);
+        log4j2RandomLogger.debug(message);
     }*/
 
     /* The MemoryMappedFileAppender gets exceptions in Java 11
@@ -120,63 +145,63 @@ public class FileAppenderBenchmark {
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2MMF() {
-        log4j2MemoryLogger.debug(MESSAGE);
+        log4j2MemoryLogger.debug(message);
     } */
 /*
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2AsyncAppender() {
-        log4j2AsyncAppender.debug(MESSAGE);
+        log4j2AsyncAppender.debug(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2AsyncDisruptor() {
-        log4j2AsyncDisruptor.debug(MESSAGE);
+        log4j2AsyncDisruptor.debug(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2AsyncLogger() {
-        log4j2AsyncLogger.debug(MESSAGE);
+        log4j2AsyncLogger.debug(message);
     }*/
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2File() {
-        log4j2Logger.debug(MESSAGE);
+        log4j2Logger.debug(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j2Builder() {
-        log4j2Logger.atDebug().withLocation().log(MESSAGE);
+        log4j2Logger.atDebug().withLocation().log(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void logbackFile() {
-        slf4jLogger.debug(MESSAGE);
+        slf4jLogger.debug(message);
     }
 /*
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void logbackAsyncFile() {
-        slf4jAsyncLogger.debug(MESSAGE);
+        slf4jAsyncLogger.debug(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
     @OutputTimeUnit(TimeUnit.SECONDS)
     @Benchmark
     public void log4j1File() {
-        log4j1Logger.debug(MESSAGE);
+        log4j1Logger.debug(message);
     }
 
     @BenchmarkMode(Mode.Throughput)
@@ -184,6 +209,6 @@ public class FileAppenderBenchmark {
     @Benchmark
     public void julFile() {
         // must specify sourceClass or JUL will look it up by walking the stack trace!
-        julLogger.logp(Level.INFO, getClass().getName(), "julFile", MESSAGE);
+        julLogger.logp(Level.INFO, getClass().getName(), "julFile", message);
     }*/
 }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares synchronous File and RandomAccessFile appenders under contention with and without a writer thread.
+ * Without a writer thread all logging threads encode and copy while holding the manager's lock; with a writer thread
+ * they encode into buffers of their own and one thread writes the encoded events.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderWriterThreadBenchmark.*"
+//
+// only the File appender with 16 threads:
+// java -jar log4j-perf/target/benchmarks.jar ".*FileAppenderWriterThreadBenchmark.file16Threads"
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+public class FileAppenderWriterThreadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean writerThread;
+
+    private Logger fileLogger;
+    private Logger randomAccessFileLogger;
+
+    @Setup
+    public void up() {
+        deleteLogFiles();
+        System.setProperty("log4j.configurationFile", "FileAppenderWriterThreadBenchmark.xml");
+        System.setProperty("FileAppenderWriterThreadBenchmark.writerThread", String.valueOf(writerThread));
+        fileLogger = LogManager.getLogger(getClass());
+        randomAccessFileLogger = LogManager.getLogger("RandomAccessFile");
+    }
+
+    @TearDown
+    public void down() {
+        ((LifeCycle) LogManager.getContext(false)).stop();
+        System.clearProperty("log4j.configurationFile");
+        System.clearProperty("FileAppenderWriterThreadBenchmark.writerThread");
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() {
+        new File("target/FileAppenderWriterThreadBenchmark.log").delete();
+        new File("target/FileAppenderWriterThreadBenchmark-raf.log").delete();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void file01Thread() {
+        fileLogger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void file04Threads() {
+        fileLogger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void file16Threads() {
+        fileLogger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void randomAccessFile01Thread() {
+        randomAccessFileLogger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void randomAccessFile04Threads() {
+        randomAccessFileLogger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void randomAccessFile16Threads() {
+        randomAccessFileLogger.info(BenchmarkMessageParams.TEST);
+    }
+}
@@ -17,7 +17,13 @@
 
 package org.apache.logging.log4j.perf.jmh;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
 
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.ThreadContext;
@@ -26,6 +32,8 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.NullConfiguration;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.GelfLayout;
+import org.apache.logging.log4j.core.net.DatagramOutputStream;
+import org.apache.logging.log4j.core.net.GelfDatagramOutputStream;
 import org.apache.logging.log4j.core.util.KeyValuePair;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -41,7 +49,8 @@ import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 
 /**
- * Benchmarks Log4j 2 GelfLayout.
+ * Benchmarks Log4j 2 GelfLayout, uncompressed, compressed with pooled Deflaters and with a new DeflaterOutputStream
+ * per event as before, and sending a large event over UDP in GELF chunks and as one datagram.
  */
 // HOW TO RUN THIS TEST
 // java -jar target/benchmarks.jar GelfLayoutBenchmark -f 1 -i 5 -wi 5 -bm sample -tu ns
@@ -49,14 +58,23 @@ import org.openjdk.jmh.annotations.TearDown;
 public class GelfLayoutBenchmark {
     private static final CharSequence MESSAGE =
             "This is rather long and chatty log message with quite some interesting information and a bit of fun in it which is suitable here";
-    private static final LogEvent EVENT = createLogEvent();
+    private static final LogEvent EVENT = createLogEvent(MESSAGE);
+    private static final LogEvent LARGE_EVENT = createLogEvent(repeat(MESSAGE, 200));
     private static final KeyValuePair[] ADDITIONAL_FIELDS = new KeyValuePair[0];
 
-    private static LogEvent createLogEvent() {
+    private static CharSequence repeat(final CharSequence text, final int count) {
+        final StringBuilder result = new StringBuilder(text.length() * count);
+        for (int i = 0; i < count; i++) {
+            result.append(text);
+        }
+        return result.toString();
+    }
+
+    private static LogEvent createLogEvent(final CharSequence text) {
         final Marker marker = null;
         final String fqcn = "com.mycom.myproject.mypackage.MyClass";
         final org.apache.logging.log4j.Level level = org.apache.logging.log4j.Level.DEBUG;
-        final Message message = new SimpleMessage(MESSAGE);
+        final Message message = new SimpleMessage(text);
         final Throwable t = null;
         final StringMap mdc = null;
         final ThreadContext.ContextStack ndc = null;
@@ -80,27 +98,51 @@ public class GelfLayoutBenchmark {
     }
 
     Appender appender;
+    Appender gzipAppender;
+    Appender zlibAppender;
+    GelfLayout gzipLayout;
+    GelfLayout largeLayout;
+    DatagramSocket server;
+    DatagramOutputStream chunkedStream;
+    DatagramOutputStream wholeStream;
     int j;
 
-    @Setup
-    public void setUp() {
-        System.setProperty("log4j2.enable.direct.encoders", "true");
-
-        appender = new DemoAppender(GelfLayout.newBuilder()
+    private static GelfLayout createLayout(final GelfLayout.CompressionType compressionType) {
+        return GelfLayout.newBuilder()
                 .setConfiguration(new NullConfiguration())
                 .setHost("host")
                 .setAdditionalFields(ADDITIONAL_FIELDS)
-                .setCompressionType(GelfLayout.CompressionType.OFF)
+                .setCompressionType(compressionType)
                 .setCompressionThreshold(0)
                 .setIncludeStacktrace(true)
                 .setIncludeThreadContext(true)
-                .build());
+                .build();
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+
+        appender = new DemoAppender(createLayout(GelfLayout.CompressionType.OFF));
+        gzipLayout = createLayout(GelfLayout.CompressionType.GZIP);
+        gzipAppender = new DemoAppender(gzipLayout);
+        zlibAppender = new DemoAppender(createLayout(GelfLayout.CompressionType.ZLIB));
+        largeLayout = createLayout(GelfLayout.CompressionType.OFF);
+
+        // the datagrams are sent to a socket that does not read them
+        server = new DatagramSocket(0, InetAddress.getByName("localhost"));
+        chunkedStream = new GelfDatagramOutputStream("localhost", server.getLocalPort(), null, null,
+                GelfDatagramOutputStream.DEFAULT_CHUNK_SIZE);
+        wholeStream = new DatagramOutputStream("localhost", server.getLocalPort(), null, null);
 
         j = 0;
     }
 
     @TearDown
-    public void tearDown() {
+    public void tearDown() throws IOException {
+        chunkedStream.close();
+        wholeStream.close();
+        server.close();
         System.clearProperty("log4j2.enable.direct.encoders");
     }
 
@@ -119,4 +161,49 @@ public class GelfLayoutBenchmark {
         appender.append(EVENT);
     }
 
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void log4j2GelfGzip() {
+        gzipAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void log4j2GelfZlib() {
+        zlibAppender.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public byte[] log4j2GelfGzipStream() throws IOException {
+        // compression as done before Deflaters were pooled: a new native Deflater per event
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (final DeflaterOutputStream stream = GelfLayout.CompressionType.GZIP.createDeflaterOutputStream(baos)) {
+            stream.write(gzipLayout.toSerializable(EVENT).getBytes(gzipLayout.getCharset()));
+        }
+        return baos.toByteArray();
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void log4j2GelfUdpChunked() throws IOException {
+        send(chunkedStream);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void log4j2GelfUdpWhole() throws IOException {
+        send(wholeStream);
+    }
+
+    private void send(final OutputStream stream) throws IOException {
+        stream.write(largeLayout.toByteArray(LARGE_EVENT));
+        stream.flush();
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MatchRule;
+import org.apache.logging.log4j.core.filter.MultiMatchFilter;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.filter.StringMatchFilter;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares a MultiMatchFilter with N rules against a CompositeFilter of N StringMatchFilters and RegexFilters.
+ * Every fourth rule is a regular expression, the others are literal texts.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread, with allocation rate (gc.alloc.rate.norm):
+// java -jar log4j-perf/target/benchmarks.jar ".*MultiMatchFilterBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MultiMatchFilterBenchmark {
+
+    /**
+     * Number of rules.
+     */
+    @Param({"4", "16", "64"})
+    public int rules;
+
+    private MultiMatchFilter multiMatchFilter;
+    private CompositeFilter compositeFilter;
+    private LogEvent mismatch;
+    private LogEvent lastRuleMatch;
+
+    @Setup
+    public void setUp() throws Exception {
+        final List<MatchRule> matchRules = new ArrayList<>();
+        final List<Filter> filters = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            final String keyword = "keyword" + i;
+            if (i % 4 == 3) {
+                matchRules.add(MatchRule.createRule(null, null, keyword + "\\d+", null));
+                filters.add(RegexFilter.createFilter(".*" + keyword + "\\d+.*", null, false, Filter.Result.DENY,
+                        Filter.Result.NEUTRAL));
+            } else {
+                matchRules.add(MatchRule.createRule(null, keyword, null, null));
+                filters.add(StringMatchFilter.newBuilder().setMatchString(keyword).setOnMatch(Filter.Result.DENY)
+                        .setOnMismatch(Filter.Result.NEUTRAL).build());
+            }
+        }
+        multiMatchFilter = MultiMatchFilter.newBuilder()
+                .setRules(matchRules.toArray(new MatchRule[0]))
+                .setOnMatch(Filter.Result.DENY)
+                .setOnMismatch(Filter.Result.NEUTRAL)
+                .build();
+        compositeFilter = CompositeFilter.createFilters(filters.toArray(new Filter[0]));
+        mismatch = createEvent("Processed request 4711 for user alice in 12 ms with status OK");
+        lastRuleMatch = createEvent("Processed request 4711 for user alice in 12 ms with keyword" + (rules - 1) + "0");
+    }
+
+    private static LogEvent createEvent(final String message) {
+        return Log4jLogEvent.newBuilder()
+                .setLoggerName("MultiMatchFilterBenchmark")
+                .setLevel(Level.INFO)
+                .setMessage(new SimpleMessage(message))
+                .build();
+    }
+
+    @Benchmark
+    public Filter.Result multiMatchFilterMismatch() {
+        return multiMatchFilter.filter(mismatch);
+    }
+
+    @Benchmark
+    public Filter.Result compositeFilterMismatch() {
+        return compositeFilter.filter(mismatch);
+    }
+
+    @Benchmark
+    public Filter.Result multiMatchFilterLastRule() {
+        return multiMatchFilter.filter(lastRuleMatch);
+    }
+
+    @Benchmark
+    public Filter.Result compositeFilterLastRule() {
+        return compositeFilter.filter(lastRuleMatch);
+    }
+}
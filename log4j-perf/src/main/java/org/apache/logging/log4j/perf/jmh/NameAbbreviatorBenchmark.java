@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.pattern.NameAbbreviationCache;
+import org.apache.logging.log4j.core.pattern.NameAbbreviator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares abbreviating logger names for every event with looking them up in a NameAbbreviationCache.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread, with allocation rate (gc.alloc.rate.norm):
+// java -jar log4j-perf/target/benchmarks.jar ".*NameAbbreviatorBenchmark.*" -f 1 -wi 5 -i 10 -prof gc
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NameAbbreviatorBenchmark {
+
+    private static final String[] PACKAGES = {
+            "org", "apache", "logging", "log4j", "core", "appender", "rolling", "action", "internal"
+    };
+    private static final int NAMES = 64;
+
+    /**
+     * Number of packages in the logger names.
+     */
+    @Param({"2", "4", "6", "9"})
+    public int depth;
+
+    @Param({"1.", "-2", "1", "1.1.~.~"})
+    public String abbreviation;
+
+    private final String[] names = new String[NAMES];
+    private final StringBuilder buffer = new StringBuilder(256);
+    private NameAbbreviator abbreviator;
+    private NameAbbreviationCache cache;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < NAMES; i++) {
+            final StringBuilder name = new StringBuilder();
+            for (int j = 0; j < depth; j++) {
+                name.append(PACKAGES[(i + j) % PACKAGES.length]).append('.');
+            }
+            names[i] = name.append("SomeLoggingClass").append(i).toString();
+        }
+        abbreviator = NameAbbreviator.getAbbreviator(abbreviation);
+        cache = new NameAbbreviationCache(abbreviator, NameAbbreviationCache.DEFAULT_MAX_SIZE);
+    }
+
+    private String nextName() {
+        return names[next++ & (NAMES - 1)];
+    }
+
+    @Benchmark
+    public StringBuilder abbreviate() {
+        buffer.setLength(0);
+        abbreviator.abbreviate(nextName(), buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public StringBuilder cached() {
+        buffer.setLength(0);
+        cache.abbreviate(nextName(), buffer);
+        return buffer;
+    }
+}
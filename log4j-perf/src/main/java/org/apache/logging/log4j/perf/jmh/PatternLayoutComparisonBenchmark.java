@@ -49,6 +49,9 @@ import ch.qos.logback.classic.spi.LoggingEvent;
 // single thread:
 // java -jar log4j-perf/target/benchmarks.jar ".*PatternLayoutComparison.*" -f 1 -wi 10 -i 10 -tu ns -bm sample
 //
+// allocation rate:
+// java -jar log4j-perf/target/benchmarks.jar ".*PatternLayoutComparison.*" -f 1 -wi 10 -i 10 -prof gc
+//
 // Usage help:
 // java -jar log4j-perf/target/benchmarks.jar -help
 //
@@ -72,6 +75,14 @@ public class PatternLayoutComparisonBenchmark {
             .setFooter(null)
             .build();
 
+    private final PatternLayout LOG4J2_COMPILED_PATTERN_LAYOUT = PatternLayout.newBuilder()
+            .setPattern(LOG4JPATTERN)
+            .setCharset(CHARSET_DEFAULT)
+            .setAlwaysWriteExceptions(false)
+            .setNoConsoleNoAnsi(true)
+            .setCompile(true)
+            .build();
+
     private static LogEvent createLog4j2Event() {
         final Marker marker = null;
         final String fqcn = "com.mycom.myproject.mypackage.MyClass";
@@ -131,4 +142,9 @@ public class PatternLayoutComparisonBenchmark {
         return LOG4J2_PATTERN_LAYOUT.toByteArray(LOG4J2EVENT);
     }
 
+    @Benchmark
+    public byte[] log4j2Compiled() {
+        return LOG4J2_COMPILED_PATTERN_LAYOUT.toByteArray(LOG4J2EVENT);
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long logging threads stall while a RollingFileAppender rolls over, with rollovers completed
+ * synchronously and in the background. The appender rolls over every megabyte and compresses and deletes archives,
+ * so the high percentiles of the sampled latencies show the time writers wait for a rollover.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*RollingFileRolloverStallBenchmark.*"
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RollingFileRolloverStallBenchmark {
+
+    private static final String DIR = "target/rolloverStall";
+
+    @Param({"false", "true"})
+    private boolean backgroundRollover;
+
+    private Logger logger;
+
+    @Setup
+    public void up() {
+        deleteLogFiles();
+        System.setProperty("log4j.configurationFile", "RollingFileRolloverStallBenchmark.xml");
+        System.setProperty("RollingFileRolloverStallBenchmark.backgroundRollover", String.valueOf(backgroundRollover));
+        logger = LogManager.getLogger(getClass());
+    }
+
+    @TearDown
+    public void down() {
+        ((LifeCycle) LogManager.getContext(false)).stop();
+        System.clearProperty("log4j.configurationFile");
+        System.clearProperty("RollingFileRolloverStallBenchmark.backgroundRollover");
+        deleteLogFiles();
+    }
+
+    private static void deleteLogFiles() {
+        final File[] files = new File(DIR).listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void rollingFile01Thread() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void rollingFile04Threads() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LifeCycle;
+import org.apache.logging.log4j.perf.util.BenchmarkMessageParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tests how Async Loggers scale with the number of producer threads when their events are spread over several ring
+ * buffer shards.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// java -jar log4j-perf/target/benchmarks.jar ".*ShardedAsyncLoggersBenchmark.*"
+//
+// only compare a single shard with 16 shards:
+// java -jar log4j-perf/target/benchmarks.jar ".*ShardedAsyncLoggersBenchmark.*" -p shards=1,16
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 5)
+public class ShardedAsyncLoggersBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int shards;
+
+    @Param({"NONE", "TIMESTAMP"})
+    private String shardOrdering;
+
+    private Logger logger;
+
+    @Setup
+    public void up() {
+        System.setProperty("log4j.configurationFile", "perf-WithoutAnyAppender.xml");
+        System.setProperty("Log4jContextSelector", "org.apache.logging.log4j.core.async.AsyncLoggerContextSelector");
+        System.setProperty("AsyncLogger.RingBufferSize", "262144");
+        System.setProperty("AsyncLogger.WaitStrategy", "Yield");
+        System.setProperty("AsyncLogger.RingBufferShards", String.valueOf(shards));
+        System.setProperty("AsyncLogger.RingBufferShardOrdering", shardOrdering);
+        logger = LogManager.getLogger(getClass());
+    }
+
+    @TearDown
+    public void down() {
+        ((LifeCycle) LogManager.getContext(false)).stop();
+        logger = null;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput01Thread() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput04Threads() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput16Threads() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput32Threads() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+
+    @Benchmark
+    @Threads(64)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput64Threads() {
+        logger.info(BenchmarkMessageParams.TEST);
+    }
+}
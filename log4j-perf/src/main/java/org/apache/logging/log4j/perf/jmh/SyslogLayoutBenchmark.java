@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.NullConfiguration;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.Rfc5424Layout;
+import org.apache.logging.log4j.core.layout.SyslogLayout;
+import org.apache.logging.log4j.core.net.Facility;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.perf.util.DemoAppender;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks Log4j 2 Rfc5424Layout and SyslogLayout encoding events with a parameterized message and with a
+ * StructuredDataMessage, both with context data.
+ */
+// HOW TO RUN THIS TEST
+// java -jar target/benchmarks.jar SyslogLayoutBenchmark -f 1 -i 5 -wi 5 -bm sample -tu ns
+// To measure allocations add: -prof gc
+@State(Scope.Thread)
+public class SyslogLayoutBenchmark {
+    private static final LogEvent EVENT =
+            createLogEvent(new ParameterizedMessage("Processed {} items of order {} in {} ms", 12, "A-1234", 57));
+    private static final LogEvent STRUCTURED_EVENT = createLogEvent(createStructuredDataMessage());
+
+    private static StructuredDataMessage createStructuredDataMessage() {
+        final StructuredDataMessage message = new StructuredDataMessage("Transfer@18060", "Transfer Complete", "Audit");
+        message.put("ToAccount", "123456");
+        message.put("FromAccount", "123457");
+        message.put("Amount", "200.00");
+        return message;
+    }
+
+    private static LogEvent createLogEvent(final Message message) {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("loginId", "JohnDoe");
+        contextData.putValue("ipAddress", "192.168.0.120");
+        return Log4jLogEvent.newBuilder() //
+                .setLoggerName("com.mycom.myproject.mypackage.MyClass") //
+                .setLoggerFqcn("org.apache.logging.log4j.spi.AbstractLogger") //
+                .setLevel(Level.INFO) //
+                .setMessage(message) //
+                .setContextData(contextData) //
+                .setThreadName("worker-3") //
+                .setTimeMillis(1234567890123L) //
+                .build();
+    }
+
+    Appender rfc5424;
+    Appender syslog;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("log4j2.enable.direct.encoders", "true");
+
+        rfc5424 = new DemoAppender(Rfc5424Layout.createLayout(Facility.LOCAL0, "Event", 3692, true, "RequestContext",
+                null, null, true, "#012", "ATM", null, null, null, null, null, false, null, new NullConfiguration()));
+        syslog = new DemoAppender(SyslogLayout.newBuilder()
+                .setFacility(Facility.LOCAL0)
+                .setIncludeNewLine(true)
+                .setEscapeNL("#012")
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("log4j2.enable.direct.encoders");
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void rfc5424() {
+        rfc5424.append(EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void rfc5424StructuredData() {
+        rfc5424.append(STRUCTURED_EVENT);
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Benchmark
+    public void syslog() {
+        syslog.append(EVENT);
+    }
+}
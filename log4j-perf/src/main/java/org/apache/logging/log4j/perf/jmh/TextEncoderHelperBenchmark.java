@@ -19,6 +19,7 @@ package org.apache.logging.log4j.perf.jmh;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.Level;
@@ -28,6 +29,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.layout.ByteBufferDestinationHelper;
+import org.apache.logging.log4j.core.layout.DirectStringBuilderEncoder;
 import org.apache.logging.log4j.core.layout.PatternLayout;
 import org.apache.logging.log4j.core.layout.StringBuilderEncoder;
 import org.apache.logging.log4j.message.Message;
@@ -58,6 +60,8 @@ public class TextEncoderHelperBenchmark {
     final static String STR = "AB!(%087936DZYXQWEIOP$#^~-=/><nb"; // length=32
     final static String STR_TEXT = "20:01:59.9876 INFO [org.apache.logging.log4j.perf.jmh.TextEncoderHelperBenchmark] AB!(%087936DZYXQWEIOP$#^~-=/><nb"; // length=32
     final static StringBuilder BUFF_TEXT = new StringBuilder(STR_TEXT);
+    final static StringBuilder BUFF_TEXT_NON_ASCII = new StringBuilder(
+            "20:01:59.9876 INFO [org.apache.logging.log4j.perf.jmh.TextEncoderHelperBenchmark] caf\u00e9 \u65e5\u672c\u8a9e");
     final static CharBuffer CHAR_BUFFER = CharBuffer.wrap(STR.toCharArray());
 
     final static LogEvent EVENT = createLogEvent();
@@ -156,6 +160,41 @@ public class TextEncoderHelperBenchmark {
         return destination.count;
     }
 
+    private final StringBuilderEncoder utf8TextEncoder = new StringBuilderEncoder(StandardCharsets.UTF_8);
+    private final DirectStringBuilderEncoder utf8DirectEncoder = new DirectStringBuilderEncoder(StandardCharsets.UTF_8);
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long textEncoderEncodeUtf8() {
+        utf8TextEncoder.encode(BUFF_TEXT, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long directEncoderEncodeUtf8() {
+        utf8DirectEncoder.encode(BUFF_TEXT, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long textEncoderEncodeUtf8NonAscii() {
+        utf8TextEncoder.encode(BUFF_TEXT_NON_ASCII, destination);
+        return destination.count;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long directEncoderEncodeUtf8NonAscii() {
+        utf8DirectEncoder.encode(BUFF_TEXT_NON_ASCII, destination);
+        return destination.count;
+    }
+
 //    @Benchmark
 //    @BenchmarkMode(Mode.SampleTime)
 //    @OutputTimeUnit(TimeUnit.NANOSECONDS)
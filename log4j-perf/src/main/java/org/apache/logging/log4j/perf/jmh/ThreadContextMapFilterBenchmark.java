@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.perf.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.util.KeyValuePair;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures how the ThreadContextMapFilter scales with the number of allowed values of a key, compared with
+ * looking the value up in a list.
+ */
+// ============================== HOW TO RUN THIS TEST: ====================================
+//
+// single thread:
+// java -jar log4j-perf/target/benchmarks.jar ".*ThreadContextMapFilterBenchmark.*" -f 1 -wi 5 -i 10
+//
+// Usage help:
+// java -jar log4j-perf/target/benchmarks.jar -help
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadContextMapFilterBenchmark {
+
+    /**
+     * Number of allowed values of the tenant key.
+     */
+    @Param({"2", "10", "100", "1000", "10000"})
+    public int values;
+
+    private final Message message = new SimpleMessage("This is a test");
+    private ThreadContextMapFilter tenantFilter;
+    private ThreadContextMapFilter tenantAndRegionFilter;
+    private List<String> tenants;
+    private String tenant;
+
+    @Setup
+    public void setUp() {
+        tenants = new ArrayList<>(values);
+        final KeyValuePair[] pairs = new KeyValuePair[values];
+        for (int i = 0; i < values; i++) {
+            tenants.add("tenant-" + i);
+            pairs[i] = new KeyValuePair("tenant", tenants.get(i));
+        }
+        tenantFilter = ThreadContextMapFilter.createFilter(pairs, "and", Filter.Result.ACCEPT, Filter.Result.DENY);
+        final KeyValuePair[] withRegion = new KeyValuePair[values + 1];
+        System.arraycopy(pairs, 0, withRegion, 0, values);
+        withRegion[values] = new KeyValuePair("region", "eu-west");
+        tenantAndRegionFilter = ThreadContextMapFilter.createFilter(withRegion, "and", Filter.Result.ACCEPT,
+                Filter.Result.DENY);
+        // the last value, the worst case for a list
+        tenant = tenants.get(values - 1);
+        ThreadContext.put("tenant", tenant);
+        ThreadContext.put("region", "us-east");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadContext.clearMap();
+    }
+
+    @Benchmark
+    public Filter.Result threadContextMapFilter() {
+        return tenantFilter.filter(null, Level.INFO, null, message, null);
+    }
+
+    @Benchmark
+    public Filter.Result threadContextMapFilterAndMismatch() {
+        return tenantAndRegionFilter.filter(null, Level.INFO, null, message, null);
+    }
+
+    @Benchmark
+    public boolean listContains() {
+        return tenants.contains(ThreadContext.get("tenant"));
+    }
+}